@@ -4,6 +4,7 @@ import game.board.HandManager;
 import game.board.WinChecker;
 import game.board.pile.DiscardPile;
 import game.board.tile.Tile;
+import game.core.BatchScorer;
 import game.core.GameInterface;
 import game.core.MahjongPoint;
 import game.core.ScoreCalculator;
@@ -11,6 +12,9 @@ import game.player.Bot;
 import game.player.Player;
 import game.player.RealPlayer;
 import game.player.data.Seat;
+import game.player.tuning.BotTuner;
+import game.server.GameServer;
+import game.server.RemoteClient;
 
 import java.util.*;
 
@@ -21,7 +25,7 @@ public class Main {
 //                Tile.TUNG_9, Tile.TUNG_9, Tile.TUNG_9,
 //                Tile.WIND_EAST, Tile.WIND_SOUTH, Tile.WIND_WEST, Tile.WIND_NORTH,
 //                Tile.WORD_ZHONG, Tile.WORD_FAT, Tile.WORD_BAT);
-//        System.out.println(ScoreCalculator.getValidHands(hand));
+//        System.out.println(ScoreCalculator.getValidPackedHands(hand));
 
 //        HandManager handManager = new HandManager();
 //
@@ -63,6 +67,23 @@ public class Main {
 //        }
 //        playerList.add(new RealPlayer("Bruh"));
 
+        if (args.length > 0 && args[0].equals("tune")) {
+            BotTuner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("serve")) {
+            GameServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("join")) {
+            RemoteClient.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("score")) {
+            BatchScorer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         GameInterface gameInterface = new GameInterface();
         gameInterface.run(true);
     }
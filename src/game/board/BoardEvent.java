@@ -0,0 +1,92 @@
+package game.board;
+
+import game.board.tile.Tile;
+import game.player.data.Seat;
+
+import java.util.List;
+
+/**
+ * A single change to the board that every player can see, recorded by the {@link BoardModel}.
+ */
+public class BoardEvent {
+    /**
+     * The kinds of change to the board.
+     */
+    public enum Type {
+        /**
+         * A player drew a tile from the unrevealed pile. The tile is hidden.
+         */
+        DRAW,
+        /**
+         * A player revealed a flower tile.
+         */
+        FLOWER,
+        /**
+         * A player discarded a tile.
+         */
+        DISCARD,
+        /**
+         * A player took the last discarded tile.
+         */
+        CLAIM,
+        /**
+         * A player revealed a group of tiles.
+         */
+        MELD,
+        /**
+         * A player formed a Dark Kong. The tiles are hidden.
+         */
+        DARK_KONG
+    }
+
+    private final long version;
+    private final Type type;
+    private final Seat seat;
+    private final List<Tile> tiles;
+    private final int remainingTiles;
+
+    /**
+     * Creates a board event.
+     * @param version the version of the board after the event.
+     * @param type the kind of change.
+     * @param seat the seat of the player making the change.
+     * @param tiles the tiles revealed by the change, empty if none are revealed.
+     * @param remainingTiles the number of tiles left in the unrevealed pile after the event.
+     */
+    public BoardEvent(long version, Type type, Seat seat, List<Tile> tiles, int remainingTiles) {
+        this.version = version;
+        this.type = type;
+        this.seat = seat;
+        this.tiles = List.copyOf(tiles);
+        this.remainingTiles = remainingTiles;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Seat getSeat() {
+        return seat;
+    }
+
+    public List<Tile> getTiles() {
+        return tiles;
+    }
+
+    public int getRemainingTiles() {
+        return remainingTiles;
+    }
+
+    public String toString() {
+        StringBuilder tileString = new StringBuilder();
+        for (Tile tile : tiles) {
+            tileString.append(tile);
+        }
+        return version + "|" + type + "|" + seat.getSeatNameEng() + "|" + tileString + "|"
+                + remainingTiles;
+    }
+}
@@ -0,0 +1,75 @@
+package game.board;
+
+import game.board.tile.Tile;
+import game.player.data.Seat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A versioned record of the changes to the board during a round.
+ * <p>
+ * Every visible change is appended as a {@link BoardEvent} and increases the version by one, so
+ * a client or log that has seen the board up to some version only needs the events after it.
+ * Recording an event and reading the events since a version never copy the discard pile, any
+ * hand or the recorded events.
+ */
+public class BoardModel {
+    private final List<BoardEvent> events = new ArrayList<>();
+    private long firstVersion = 0;
+    private long version = 0;
+
+    /**
+     * Retrieves the version of the board, which is the number of events recorded since the
+     * model was created.
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retrieves the version of the board at the start of the current round.
+     * @return the version.
+     */
+    public long getRoundStartVersion() {
+        return firstVersion;
+    }
+
+    /**
+     * Starts a new round, dropping the events of the previous round. Versions keep increasing
+     * across rounds.
+     */
+    public void startRound() {
+        events.clear();
+        firstVersion = version;
+    }
+
+    /**
+     * Records a change to the board.
+     * @param type the kind of change.
+     * @param seat the seat of the player making the change.
+     * @param tiles the tiles revealed by the change, empty if none are revealed.
+     * @param remainingTiles the number of tiles left in the unrevealed pile.
+     * @return the recorded event.
+     */
+    public BoardEvent record(BoardEvent.Type type, Seat seat, List<Tile> tiles,
+                             int remainingTiles) {
+        BoardEvent event = new BoardEvent(++version, type, seat, tiles, remainingTiles);
+        events.add(event);
+        return event;
+    }
+
+    /**
+     * Retrieves every event after a version during the current round.
+     * @param sinceVersion the last version already seen.
+     * @return a read-only view of the events, oldest first, which is only valid until the next
+     * event is recorded. If the version is from before the current round, every event of the
+     * round is returned.
+     */
+    public List<BoardEvent> getEventsSince(long sinceVersion) {
+        int start = (int) Math.max(0, Math.min(events.size(), sinceVersion - firstVersion));
+        return Collections.unmodifiableList(events.subList(start, events.size()));
+    }
+}
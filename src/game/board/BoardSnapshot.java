@@ -0,0 +1,225 @@
+package game.board;
+
+import game.board.tile.Tile;
+import game.core.Prompter;
+import game.player.Player;
+import game.player.data.Seat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable picture of the board as seen by a spectator, with every concealed tile masked.
+ * <p>
+ * Snapshots are built from the previous snapshot and share every part that did not change: the
+ * seats whose hands and scores are unchanged are reused as they are, and the discard pile is a
+ * persistent list extended or shortened by one tile at a time. Publishing a snapshot after each
+ * event therefore costs O(1) rather than O(discards), and snapshots can be handed to any number
+ * of threads.
+ */
+public final class BoardSnapshot {
+    private final long version;
+    private final BoardEvent lastEvent;
+    private final List<SeatSnapshot> seats;
+    private final Discards discards;
+    private final int remainingTiles;
+    private volatile String rendered = null;
+
+    private BoardSnapshot(long version, BoardEvent lastEvent, List<SeatSnapshot> seats,
+                          Discards discards, int remainingTiles) {
+        this.version = version;
+        this.lastEvent = lastEvent;
+        this.seats = seats;
+        this.discards = discards;
+        this.remainingTiles = remainingTiles;
+    }
+
+    /**
+     * A player's seat on the board, with the concealed tiles masked.
+     */
+    public static final class SeatSnapshot {
+        private final Seat seat;
+        private final String name;
+        private final int score;
+        private final int concealedCount;
+        private final String revealed;
+        private final int handVersion;
+        private final int revealedVersion;
+
+        private SeatSnapshot(Player player) {
+            HandManager handManager = player.getHandManager();
+            this.seat = player.getSeat();
+            this.name = player.getName();
+            this.score = player.getScore();
+            this.concealedCount = handManager.getHand().getTiles().size();
+            this.revealed = handManager.getRevealedHand().toStringOpponentView();
+            this.handVersion = handManager.getHand().getModificationCount();
+            this.revealedVersion = handManager.getRevealedHand().getModificationCount();
+        }
+
+        public Seat getSeat() {
+            return seat;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getConcealedCount() {
+            return concealedCount;
+        }
+
+        /**
+         * Retrieves the revealed tiles of the seat, as shown to an opponent.
+         * @return the string representation of the revealed tiles.
+         */
+        public String getRevealed() {
+            return revealed;
+        }
+
+        private boolean isCurrent(Player player) {
+            HandManager handManager = player.getHandManager();
+            return seat == player.getSeat() && score == player.getScore()
+                    && handVersion == handManager.getHand().getModificationCount()
+                    && revealedVersion == handManager.getRevealedHand().getModificationCount()
+                    && name.equals(player.getName());
+        }
+
+        public String toString() {
+            String concealed = "🀫".repeat(concealedCount);
+            String hand = revealed.isBlank() ? concealed : revealed + "    " + concealed;
+            return seat + " - " + name + " (" + score + "): " + hand;
+        }
+    }
+
+    /**
+     * A persistent list of discarded tiles, newest first.
+     */
+    private static final class Discards {
+        private final Tile tile;
+        private final Discards previous;
+        private final int size;
+
+        private Discards(Tile tile, Discards previous, int size) {
+            this.tile = tile;
+            this.previous = previous;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Takes the snapshot following a board event, sharing every unchanged part of the previous
+     * snapshot.
+     * @param previous the previous snapshot of the round, or null if there is none.
+     * @param event the event that was just recorded.
+     * @param players the players of the round, in seat order.
+     * @param discardedTiles the discard pile.
+     * @param remainingTiles the number of tiles left in the unrevealed pile.
+     * @return the snapshot.
+     */
+    public static BoardSnapshot of(BoardSnapshot previous, BoardEvent event,
+                                   List<Player> players, List<Tile> discardedTiles,
+                                   int remainingTiles) {
+        List<SeatSnapshot> seats = new ArrayList<>(players.size());
+        boolean reusable = previous != null && previous.seats.size() == players.size();
+        boolean seatsChanged = !reusable;
+        for (int i = 0; i < players.size(); i++) {
+            Player player = players.get(i);
+            if (reusable && previous.seats.get(i).isCurrent(player)) {
+                seats.add(previous.seats.get(i));
+            } else {
+                seats.add(new SeatSnapshot(player));
+                seatsChanged = true;
+            }
+        }
+        return new BoardSnapshot(event.getVersion(), event,
+                seatsChanged ? List.copyOf(seats) : previous.seats,
+                nextDiscards(previous == null ? null : previous.discards, discardedTiles),
+                remainingTiles);
+    }
+
+    private static Discards nextDiscards(Discards previous, List<Tile> discardedTiles) {
+        int previousSize = previous == null ? 0 : previous.size;
+        int size = discardedTiles.size();
+        if (size == previousSize + 1 && (previous == null
+                || previous.tile == discardedTiles.get(size - 2))) {
+            return new Discards(discardedTiles.getLast(), previous, size);
+        } else if (size == previousSize - 1) {
+            return previous.previous;
+        } else if (size == previousSize && (size == 0
+                || previous.tile == discardedTiles.getLast())) {
+            return previous;
+        }
+        Discards discards = null;
+        for (int i = 0; i < size; i++) {
+            discards = new Discards(discardedTiles.get(i), discards, i + 1);
+        }
+        return discards;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public BoardEvent getLastEvent() {
+        return lastEvent;
+    }
+
+    public List<SeatSnapshot> getSeats() {
+        return seats;
+    }
+
+    public int getRemainingTiles() {
+        return remainingTiles;
+    }
+
+    /**
+     * Retrieves the discard pile.
+     * @return the discarded tiles, oldest first.
+     */
+    public List<Tile> getDiscardedTiles() {
+        Tile[] tiles = new Tile[discards == null ? 0 : discards.size];
+        for (Discards node = discards; node != null; node = node.previous) {
+            tiles[node.size - 1] = node.tile;
+        }
+        return List.of(tiles);
+    }
+
+    /**
+     * Renders the snapshot as text. The text is rendered once and shared by every spectator.
+     * @return the string representation.
+     */
+    public String toString() {
+        String output = rendered;
+        if (output == null) {
+            output = render();
+            rendered = output;
+        }
+        return output;
+    }
+
+    private String render() {
+        StringBuilder output = new StringBuilder();
+        output.append("Discards:\n");
+        List<Tile> discardedTiles = getDiscardedTiles();
+        for (int i = 0; i < discardedTiles.size(); i++) {
+            output.append(discardedTiles.get(i));
+            if ((i + 1) % 30 == 0) {
+                output.append("\n");
+            }
+        }
+        if (discardedTiles.isEmpty()) {
+            output.append("Empty");
+        }
+        output.append("\n").append(Prompter.getLine()).append("\n");
+        for (SeatSnapshot seat : seats) {
+            output.append(seat).append("\n");
+        }
+        output.append("\n").append("Remaining Tiles: ").append(remainingTiles);
+        return output.toString();
+    }
+}
@@ -0,0 +1,74 @@
+package game.board;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * The board at a given version, from the perspective of one player.
+ * <p>
+ * A view is cheap to create, since the board is only rendered as text the first time
+ * {@link #toString()} is called. Players that never display the board, such as bots, never pay
+ * for rendering it.
+ */
+public class BoardView {
+    private final BoardModel model;
+    private final long version;
+    private final long roundStartVersion;
+    private final Supplier<String> renderer;
+    private String rendered = null;
+
+    /**
+     * Creates a view of the board.
+     * @param model the board model.
+     * @param renderer renders the board as text from the player's perspective.
+     */
+    public BoardView(BoardModel model, Supplier<String> renderer) {
+        this.model = model;
+        this.version = model.getVersion();
+        this.roundStartVersion = model.getRoundStartVersion();
+        this.renderer = renderer;
+    }
+
+    /**
+     * Retrieves the version of the board when the view was created.
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Retrieves the version of the board at the start of the round the view was created in.
+     * @return the version.
+     */
+    public long getRoundStartVersion() {
+        return roundStartVersion;
+    }
+
+    /**
+     * Retrieves the events of the current round that happened after a version, up to the
+     * version of this view.
+     * @param sinceVersion the last version already seen.
+     * @return a read-only view of the events, oldest first, which is only valid until the next
+     * event is recorded.
+     */
+    public List<BoardEvent> getEventsSince(long sinceVersion) {
+        List<BoardEvent> events = model.getEventsSince(sinceVersion);
+        int end = events.size();
+        while (end > 0 && events.get(end - 1).getVersion() > version) {
+            end--;
+        }
+        return events.subList(0, end);
+    }
+
+    /**
+     * Renders the board as text, as shown to a player deciding on their move.
+     * @return the string representation.
+     */
+    public String toString() {
+        if (rendered == null) {
+            rendered = renderer.get();
+        }
+        return rendered;
+    }
+}
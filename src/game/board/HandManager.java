@@ -1,10 +1,15 @@
 package game.board;
 
+import game.board.analysis.ClaimTable;
+import game.board.analysis.SuitPatternTable;
+import game.board.analysis.WaitCalculator;
 import game.board.hand.Hand;
 import game.board.hand.RevealedHand;
 import game.board.tile.Tile;
+import game.board.tile.TileSet;
 import game.board.tile.TileType;
 import game.core.InvalidKongException;
+import game.core.metrics.Metrics;
 
 import java.util.*;
 
@@ -15,6 +20,10 @@ import java.util.*;
 public class HandManager {
     private final Hand hand = new Hand();
     private final RevealedHand revealedHand = new RevealedHand();
+    private TileSet waitingTiles = null;
+    private int waitingTilesModificationCount = -1;
+    private ClaimTable claimTable = null;
+    private int claimTableModificationCount = -1;
 
     /**
      * Creates a hand manager instance.
@@ -45,6 +54,15 @@ public class HandManager {
         return revealedHand;
     }
 
+    /**
+     * Retrieves the Zobrist key of the player's hands, combining the keys of the unrevealed and
+     * the revealed hand. Players holding the same tiles and groups have the same key.
+     * @return the key of the player's hands.
+     */
+    public long getZobristKey() {
+        return hand.getZobristKey() ^ revealedHand.getZobristKey();
+    }
+
     /**
      * Adds a tile to the player's hand.
      * @param tile the tile to be added.
@@ -156,7 +174,7 @@ public class HandManager {
      * @return true iff a Bright Kong can be performed, false otherwise.
      */
     public boolean checkBrightKongFromOpponent(Tile tile) {
-        return hand.containsTile(tile, 3);
+        return (getClaimTable().getClaims(tile) & ClaimTable.BRIGHT_KONG) != 0;
     }
 
     /**
@@ -165,44 +183,31 @@ public class HandManager {
      * @return true iff a Pong can be performed, false otherwise.
      */
     public boolean checkPong(Tile tile) {
-        return hand.containsTile(tile, 2);
+        return (getClaimTable().getClaims(tile) & ClaimTable.PONG) != 0;
     }
 
     /**
      * Checks if a Sheung can be performed with a tile discarded by the immediate previous player.
      * @param tile the tile to be checked.
-     * @return true iff a Sheung can be performed, false otherwise.
+     * @return the valid Sheung combos, each sorted, in order of their lowest tile. The list is
+     * empty if no Sheung can be performed, and is unmodifiable.
      */
     public List<List<Tile>> checkSheung(Tile tile) {
-        TileType tileType = tile.getTileType();
-        if (tileType == TileType.WORD_WIND || tileType == TileType.WORD_DRAGON
-                || tileType == TileType.FLOWER_SEASON || tileType == TileType.FLOWER_PLANT) {
-            return new ArrayList<>();
-        }
-        List<Tile> sameTypeTiles = hand.getTiles()
-                .stream()
-                .filter(t -> t.getTileType().equals(tileType))
-                .toList();
-        int tileOrdinal = tile.ordinal();
-        List<List<Tile>> validSheungs = new ArrayList<>();
-
-        for (int i = 0; i < sameTypeTiles.size(); i++) {
-            for (int j = i + 1; j < sameTypeTiles.size(); j++) {
-                Tile first = sameTypeTiles.get(i);
-                Tile second = sameTypeTiles.get(j);
-
-                if ((first.ordinal() == tileOrdinal - 2 && second.ordinal() == tileOrdinal - 1) // (x-2, x-1, x)
-                        || (first.ordinal() == tileOrdinal - 1 && second.ordinal() == tileOrdinal + 1) // (x-1, x, x+1)
-                        || (first.ordinal() == tileOrdinal + 1 && second.ordinal() == tileOrdinal + 2)) { // (x, x+1, x+2)
-                    // add valid combo to list of valid Sheungs
-                    List<Tile> validCombo = Arrays.asList(first, second, tile);
-                    Collections.sort(validCombo);
-                    validSheungs.add(validCombo);
-                }
-            }
+        return getClaimTable().getSheungs(tile);
+    }
+
+    /**
+     * Retrieves the claims the player can make on each possible discard. The table is built once
+     * per change to the hand and cached until the hand changes again.
+     * @return the claim table of the hand.
+     */
+    public ClaimTable getClaimTable() {
+        if (claimTable == null || claimTableModificationCount != hand.getModificationCount()) {
+            claimTable = ClaimTable.of(WaitCalculator.countTiles(hand.getTiles()),
+                    getWaitingTiles());
+            claimTableModificationCount = hand.getModificationCount();
         }
-        Set<List<Tile>> uniqueGroups = new LinkedHashSet<>(validSheungs);
-        return new ArrayList<>(uniqueGroups);
+        return claimTable;
     }
 
     /**
@@ -210,7 +215,11 @@ public class HandManager {
      * @return true iff the win condition is satisfied, false otherwise.
      */
     public boolean checkWin() {
-        return WinChecker.checkWin(hand);
+        long start = Metrics.start();
+        boolean win = new WaitCalculator(SuitPatternTable.getInstance())
+                .isWinning(WaitCalculator.countTiles(hand.getTiles()));
+        Metrics.record(Metrics.Phase.CHECK_WIN, start);
+        return win;
     }
 
     /**
@@ -219,7 +228,25 @@ public class HandManager {
      * @return true iff the win condition is satisfied, false otherwise.
      */
     public boolean checkWin(Tile tile) {
-        return WinChecker.checkWin(hand, tile);
+        long start = Metrics.start();
+        boolean win = (getClaimTable().getClaims(tile) & ClaimTable.WIN) != 0;
+        Metrics.record(Metrics.Phase.CHECK_WIN, start);
+        return win;
+    }
+
+    /**
+     * Retrieves the tiles that would complete the hand if taken, i.e. the tiles the player is
+     * waiting on. The tiles are found once per change to the hand and cached until the hand
+     * changes again.
+     * @return the tiles completing the hand, empty if the hand is not ready to win.
+     */
+    public TileSet getWaitingTiles() {
+        if (waitingTiles == null || waitingTilesModificationCount != hand.getModificationCount()) {
+            waitingTiles = new WaitCalculator(SuitPatternTable.getInstance())
+                    .getWaitingTiles(WaitCalculator.countTiles(hand.getTiles()));
+            waitingTilesModificationCount = hand.getModificationCount();
+        }
+        return waitingTiles;
     }
 
     /**
@@ -5,6 +5,8 @@ import game.board.pile.UnrevealedPile;
 import game.board.tile.Tile;
 import game.core.EmptyPileException;
 
+import java.util.Random;
+
 /**
  * A managing class for the game's piles.
  */
@@ -19,6 +21,14 @@ public class PileManager {
         unrevealedPile = new UnrevealedPile(minTilesLeft);
     }
 
+    /**
+     * Creates a new pile manager instance, shuffling the tiles with the given source of
+     * randomness.
+     */
+    public PileManager(int minTilesLeft, Random random) {
+        unrevealedPile = new UnrevealedPile(minTilesLeft, random);
+    }
+
     /**
      * Retrieves the game's discard pile.
      * @return the discard pile.
@@ -35,6 +45,15 @@ public class PileManager {
         return unrevealedPile;
     }
 
+    /**
+     * Retrieves the Zobrist key of the game's piles, combining the keys of the unrevealed and
+     * the discard pile.
+     * @return the key of the piles.
+     */
+    public long getZobristKey() {
+        return unrevealedPile.getZobristKey() ^ discardPile.getZobristKey();
+    }
+
     /**
      * Draws a tile from the unrevealed pile.
      * @return the tile that is drawn.
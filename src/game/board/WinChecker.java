@@ -1,8 +1,10 @@
 package game.board;
 
+import game.board.analysis.SpecialHand;
+import game.board.analysis.WaitCalculator;
 import game.board.hand.Hand;
 import game.board.tile.Tile;
-import game.board.tile.TileType;
+import game.core.metrics.Metrics;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -16,10 +18,7 @@ public class WinChecker {
      */
     public static boolean checkWin(Hand hand) {
         List<Tile> tiles = new ArrayList<>(hand.getTiles());
-        Collections.sort(tiles);
-
-        return checkSixteenDisjoint(tiles) || checkThirteenOrphans(tiles)
-                || checkLikKuLikKu(tiles) != null || canFormGroups(tiles);
+        return checkWin(tiles);
     }
 
     /**
@@ -31,10 +30,20 @@ public class WinChecker {
     public static boolean checkWin(Hand hand, Tile tile) {
         List<Tile> tiles = new ArrayList<>(hand.getTiles());
         tiles.add(tile);
-        Collections.sort(tiles);
+        return checkWin(tiles);
+    }
 
-        return checkSixteenDisjoint(tiles) || checkThirteenOrphans(tiles)
-                || checkLikKuLikKu(tiles) != null || canFormGroups(tiles);
+    /**
+     * Checks if the given tiles satisfy a win condition, recording the time taken.
+     * @param tiles the tiles of the hand. They are sorted in place.
+     * @return true iff the win condition is satisfied, false otherwise.
+     */
+    private static boolean checkWin(List<Tile> tiles) {
+        long start = Metrics.start();
+        Collections.sort(tiles);
+        boolean win = classify(tiles) != null || canFormGroups(tiles);
+        Metrics.record(Metrics.Phase.CHECK_WIN, start);
+        return win;
     }
 
     /**
@@ -43,45 +52,8 @@ public class WinChecker {
      * @return true iff a win condition is found, false otherwise.
      */
     public static boolean checkSixteenDisjoint(List<Tile> tiles) {
-        int n = tiles.size();
-        if (n != 17) {
-            return false;
-        }
-
-        // this determines if a single pair of two identical tiles is found
-        boolean pairFlag = false;
-
-        // check every combination of two tiles
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                Tile tile1 = tiles.get(i);
-                Tile tile2 = tiles.get(j);
-                // check for two related tiles of same type
-                TileType tileType = tile1.getTileType();
-                if (tileType == tile2.getTileType() && tileType != TileType.WORD_WIND
-                        && tileType != TileType.WORD_DRAGON) {
-                    int ord1 = tile1.ordinal();
-                    int ord2 = tile2.ordinal();
-
-                    if ((ord2 == ord1 + 1) || (ord2 == ord1 + 2)) {
-                        return false;
-                    }
-                }
-
-                // check for two identical tiles
-                if (tile1 == tile2) {
-                    // checks if there is more than one pair
-                    if (pairFlag) {
-                        return false;
-                    }
-                    // pair is found so set flag to true
-                    pairFlag = true;
-                }
-            }
-        }
-
-        // must have exactly one pair to win (although at this point it should be satisfied anyway)
-        return pairFlag;
+        SpecialHand specialHand = classify(tiles);
+        return specialHand != null && specialHand.getKind() == SpecialHand.Kind.SIXTEEN_DISJOINT;
     }
 
     /**
@@ -90,72 +62,8 @@ public class WinChecker {
      * @return true iff a win condition is found, false otherwise.
      */
     public static boolean checkThirteenOrphans(List<Tile> tiles) {
-        List<Tile> remainingTiles = new ArrayList<>(tiles);
-
-        int n = remainingTiles.size();
-        if (n != 17) {
-            return false;
-        }
-
-        // the tiles that form a Thirteen Orphans hand
-        List<Tile> thirteenOrphans = getThirteenOrphans();
-
-        for (Tile tile : thirteenOrphans) {
-            boolean containsTile = remainingTiles.remove(tile);
-            // checks if any of the required tiles is not in hand
-            if (!containsTile) {
-                return false;
-            }
-        }
-
-        List<List<Tile>> groups = new ArrayList<>();
-
-        // check every combination of three tiles
-        for (int i = 0; i < 4; i++) {
-            for (int j = i + 1; j < 4; j++) {
-                for (int k = j + 1; k < 4; k++) {
-                    Tile tile1 = remainingTiles.get(i);
-                    Tile tile2 = remainingTiles.get(j);
-                    Tile tile3 = remainingTiles.get(k);
-
-                    // check for three identical tiles
-                    if (tile1 == tile2 && tile2 == tile3) {
-                        groups.add(new ArrayList<>(List.of(tile1, tile2, tile3)));
-                    }
-
-                    // check for three consecutive tiles of same type
-                    if (tile1.getTileType() == tile2.getTileType()
-                            && tile2.getTileType() == tile3.getTileType()) {
-                        int ord1 = tile1.ordinal();
-                        int ord2 = tile2.ordinal();
-                        int ord3 = tile3.ordinal();
-
-                        if ((ord2 == ord1 + 1 && ord3 == ord2 + 1)
-                                || (ord3 == ord1 + 1 && ord2 == ord3 + 1)
-                                || (ord1 == ord2 + 1 && ord3 == ord1 + 1)) {
-                            groups.add(new ArrayList<>(List.of(tile1, tile2, tile3)));
-                        }
-                    }
-                }
-            }
-        }
-
-        // checks if there are valid groups
-        if (groups.isEmpty()) {
-            return false;
-        }
-
-        // for every group, check if the tile not used is one of the required tiles
-        for (List<Tile> group : groups) {
-            List<Tile> leftoverTiles = new ArrayList<>(remainingTiles);
-            for (Tile tile : group) {
-                leftoverTiles.remove(tile);
-            }
-            if (thirteenOrphans.contains(leftoverTiles.getFirst())) {
-                return true;
-            }
-        }
-        return false;
+        SpecialHand specialHand = classify(tiles);
+        return specialHand != null && specialHand.getKind() == SpecialHand.Kind.THIRTEEN_ORPHANS;
     }
 
     public static List<Tile> getThirteenOrphans() {
@@ -167,25 +75,14 @@ public class WinChecker {
     /**
      * Checks for the special win condition of Lik Ku Lik Ku.
      * @param tiles the list of tiles available.
-     * @return true iff a win condition is found, false otherwise.
+     * @return the tile of which three copies are held iff a win condition is found, else null.
      */
     public static Tile checkLikKuLikKu(List<Tile> tiles) {
-        int n = tiles.size();
-        if (n != 17) {
-            return null;
-        }
-
-        Tile tile = checkPairs(tiles);
-        if (tile == null) {
+        SpecialHand specialHand = classify(tiles);
+        if (specialHand == null || specialHand.getKind() != SpecialHand.Kind.LIK_KU_LIK_KU) {
             return null;
         }
-        List<Tile> remainingTiles = new ArrayList<>(tiles);
-        remainingTiles.remove(tile);
-        remainingTiles.remove(tile);
-        if (remainingTiles.remove(tile)) {
-            return tile;
-        }
-        return null;
+        return specialHand.getGroups().getFirst().getFirst();
     }
 
     /**
@@ -194,33 +91,31 @@ public class WinChecker {
      * @return the lone tile iff all other tiles can be paired, else null.
      */
     public static Tile checkPairs(List<Tile> tiles) {
-        // base case: only one tile
-        if (tiles.size() == 1) {
-            return tiles.getFirst();
+        int[] counts = new int[Tile.values().length];
+        for (Tile tile : tiles) {
+            counts[tile.ordinal()]++;
         }
-
-        int n = tiles.size();
-
-        // check every combination of two tiles
-        for (int i = 0; i < n; i++) {
-            for (int j = i + 1; j < n; j++) {
-                Tile tile1 = tiles.get(i);
-                Tile tile2 = tiles.get(j);
-
-                // check for two identical tiles
-                if (tile1 == tile2) {
-                    List<Tile> remainingTiles = new ArrayList<>(tiles);
-                    remainingTiles.remove(tile1);
-                    remainingTiles.remove(tile2);
-
-                    // recursively check if the remaining tiles can form pairs
-                    return checkPairs(remainingTiles);
+        Tile lone = null;
+        for (Tile tile : Tile.values()) {
+            if (counts[tile.ordinal()] % 2 == 1) {
+                if (lone != null) {
+                    return null;
                 }
+                lone = tile;
             }
         }
+        return lone;
+    }
 
-        // return null if no valid pair is found
-        return null;
+    /**
+     * Classifies the given tiles as one of the special hands.
+     * @return the special hand, or null if the tiles are not one.
+     */
+    private static SpecialHand classify(List<Tile> tiles) {
+        if (tiles.size() != 17) {
+            return null;
+        }
+        return SpecialHand.classify(WaitCalculator.countTiles(tiles));
     }
 
     /**
@@ -0,0 +1,126 @@
+package game.board.analysis;
+
+import game.board.tile.Tile;
+import game.board.tile.TileSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable table of the claims a hand can make on each possible discard, so that answering
+ * a discard is a table read rather than a scan of the hand.
+ * <p>
+ * Each of the 34 non-flower tiles maps to a bitmask of claims: a win, a Bright Kong, a Pong, and
+ * each of the three Sheungs the tile can complete. The Sheung combos themselves are shared,
+ * immutable lists, so reading them allocates nothing.
+ */
+public final class ClaimTable {
+    /**
+     * The hand wins with the tile.
+     */
+    public static final int WIN = 1;
+    /**
+     * The hand holds three of the tile, for a Bright Kong.
+     */
+    public static final int BRIGHT_KONG = 1 << 1;
+    /**
+     * The hand holds two of the tile, for a Pong.
+     */
+    public static final int PONG = 1 << 2;
+    private static final int SHEUNG_SHIFT = 3;
+    /**
+     * The hand can complete any Sheung with the tile.
+     */
+    public static final int SHEUNG = 0b111 << SHEUNG_SHIFT;
+
+    private static final Tile[] TILES = Tile.values();
+    private static final int SUIT_TILES = Tile.WIND_EAST.ordinal();
+    private static final int SUIT_SIZE = 9;
+    private static final List<List<List<Tile>>> SHEUNG_COMBOS = buildSheungCombos();
+
+    private final byte[] claims;
+
+    private ClaimTable(byte[] claims) {
+        this.claims = claims;
+    }
+
+    /**
+     * Builds the claim table of a hand.
+     * @param counts the number of copies of each tile in the hand, indexed by tile ordinal.
+     * @param waitingTiles the tiles the hand wins with.
+     * @return the claim table.
+     */
+    public static ClaimTable of(int[] counts, TileSet waitingTiles) {
+        byte[] claims = new byte[HandShape.TILE_KINDS];
+        for (int tile = 0; tile < HandShape.TILE_KINDS; tile++) {
+            int claim = 0;
+            if (waitingTiles.contains(TILES[tile])) {
+                claim |= WIN;
+            }
+            if (counts[tile] >= 3) {
+                claim |= BRIGHT_KONG;
+            }
+            if (counts[tile] >= 2) {
+                claim |= PONG;
+            }
+            if (tile < SUIT_TILES) {
+                int rank = tile % SUIT_SIZE;
+                if (rank >= 2 && counts[tile - 2] > 0 && counts[tile - 1] > 0) {
+                    claim |= 1 << SHEUNG_SHIFT;
+                }
+                if (rank >= 1 && rank <= 7 && counts[tile - 1] > 0 && counts[tile + 1] > 0) {
+                    claim |= 1 << (SHEUNG_SHIFT + 1);
+                }
+                if (rank <= 6 && counts[tile + 1] > 0 && counts[tile + 2] > 0) {
+                    claim |= 1 << (SHEUNG_SHIFT + 2);
+                }
+            }
+            claims[tile] = (byte) claim;
+        }
+        return new ClaimTable(claims);
+    }
+
+    /**
+     * Retrieves the claims the hand can make on a discarded tile.
+     * @param tile the discarded tile.
+     * @return the bitmask of claims, 0 if there are none.
+     */
+    public int getClaims(Tile tile) {
+        int ordinal = tile.ordinal();
+        return ordinal < HandShape.TILE_KINDS ? claims[ordinal] : 0;
+    }
+
+    /**
+     * Retrieves the Sheung combos the hand can complete with a discarded tile.
+     * @param tile the discarded tile.
+     * @return the combos, each sorted, in order of their lowest tile. The list and the combos
+     * are unmodifiable.
+     */
+    public List<List<Tile>> getSheungs(Tile tile) {
+        int sheungs = (getClaims(tile) & SHEUNG) >>> SHEUNG_SHIFT;
+        return sheungs == 0 ? List.of() : SHEUNG_COMBOS.get(tile.ordinal() << 3 | sheungs);
+    }
+
+    /**
+     * Builds the list of Sheung combos for every suit tile and every subset of the three Sheungs
+     * it can complete.
+     */
+    private static List<List<List<Tile>>> buildSheungCombos() {
+        List<List<List<Tile>>> combos = new ArrayList<>();
+        for (int tile = 0; tile < SUIT_TILES; tile++) {
+            for (int sheungs = 0; sheungs < 8; sheungs++) {
+                List<List<Tile>> subset = new ArrayList<>();
+                int suitStart = tile - tile % SUIT_SIZE;
+                for (int position = 0; position < 3; position++) {
+                    int start = tile - 2 + position;
+                    if ((sheungs & (1 << position)) != 0 && start >= suitStart
+                            && start + 2 < suitStart + SUIT_SIZE) {
+                        subset.add(List.of(TILES[start], TILES[start + 1], TILES[start + 2]));
+                    }
+                }
+                combos.add(List.copyOf(subset));
+            }
+        }
+        return List.copyOf(combos);
+    }
+}
@@ -0,0 +1,172 @@
+package game.board.analysis;
+
+import game.board.tile.Tile;
+
+import java.util.List;
+
+/**
+ * The grouping shape of the concealed tiles of a hand, evaluated through the suit pattern table.
+ * The hand is split into blocks, i.e. each suit and each honor tile, and the best melds and
+ * partial groups of every block are combined to find how far the hand is from winning.
+ * Adding or removing a tile only re-evaluates the block holding that tile.
+ */
+public class HandShape {
+    /**
+     * The number of distinct non-flower tiles.
+     */
+    public static final int TILE_KINDS = Tile.WORD_BAT.ordinal() + 1;
+
+    private static final int SUIT_COUNT = 3;
+    private static final int HONOR_START = SUIT_COUNT * SuitPatternTable.SUIT_SIZE;
+    private static final int BLOCK_COUNT = SUIT_COUNT + TILE_KINDS - HONOR_START;
+
+    private final SuitPatternTable table;
+    private final int meldsNeeded;
+    private final int[] counts = new int[TILE_KINDS];
+    private final int[] blockMelds = new int[BLOCK_COUNT];
+    private final int[] blockPartials = new int[BLOCK_COUNT];
+    // the best grouping of each block that includes a pair, or -1 if the block holds no pair
+    private final int[] blockPairMelds = new int[BLOCK_COUNT];
+    private final int[] blockPairPartials = new int[BLOCK_COUNT];
+    private int meldSum;
+    private int partialSum;
+
+    /**
+     * Creates the shape of a hand.
+     * @param table the suit pattern table.
+     * @param tiles the concealed tiles of the hand. Flowers are ignored.
+     * @param meldsNeeded the number of melds still needed from the concealed tiles, i.e. 5
+     *                    minus the number of revealed groups.
+     */
+    public HandShape(SuitPatternTable table, List<Tile> tiles, int meldsNeeded) {
+        this.table = table;
+        this.meldsNeeded = meldsNeeded;
+        for (Tile tile : tiles) {
+            if (tile.ordinal() < TILE_KINDS) {
+                counts[tile.ordinal()]++;
+            }
+        }
+        for (int block = 0; block < BLOCK_COUNT; block++) {
+            evaluateBlock(block);
+            meldSum += blockMelds[block];
+            partialSum += blockPartials[block];
+        }
+    }
+
+    /**
+     * Retrieves the number of copies held of a tile.
+     * @param kind the ordinal of the tile.
+     * @return the number of copies.
+     */
+    public int getCount(int kind) {
+        return counts[kind];
+    }
+
+    /**
+     * Adds a copy of a tile to the hand.
+     * @param kind the ordinal of the tile.
+     * @requires fewer than 4 copies of the tile are held.
+     */
+    public void addTile(int kind) {
+        counts[kind]++;
+        updateBlock(blockOf(kind));
+    }
+
+    /**
+     * Removes a copy of a tile from the hand.
+     * @param kind the ordinal of the tile.
+     * @requires at least one copy of the tile is held.
+     */
+    public void removeTile(int kind) {
+        counts[kind]--;
+        updateBlock(blockOf(kind));
+    }
+
+    /**
+     * Computes how many tiles the hand is away from being ready to win.
+     * @return 0 if the hand is one tile from winning, -1 if it has already won, and higher
+     * values for hands further away.
+     */
+    public int getShanten() {
+        int shanten = shanten(meldSum, partialSum, 0);
+        for (int block = 0; block < BLOCK_COUNT; block++) {
+            if (blockPairMelds[block] >= 0) {
+                shanten = Math.min(shanten, shanten(
+                        meldSum - blockMelds[block] + blockPairMelds[block],
+                        partialSum - blockPartials[block] + blockPairPartials[block], 1));
+            }
+        }
+        return shanten;
+    }
+
+    /**
+     * Counts the tiles that would bring the hand closer to winning if drawn.
+     * @param drawable the number of copies of each tile that could still be drawn.
+     * @return the number of drawable copies of tiles that lower the shanten.
+     */
+    public int countAcceptance(int[] drawable) {
+        int shanten = getShanten();
+        int acceptance = 0;
+        for (int kind = 0; kind < TILE_KINDS; kind++) {
+            if (drawable[kind] > 0 && counts[kind] < 4) {
+                addTile(kind);
+                if (getShanten() < shanten) {
+                    acceptance += drawable[kind];
+                }
+                removeTile(kind);
+            }
+        }
+        return acceptance;
+    }
+
+    private int shanten(int melds, int partials, int pair) {
+        int usedMelds = Math.min(melds, meldsNeeded);
+        int usedPartials = Math.min(partials, meldsNeeded - usedMelds);
+        return 2 * (meldsNeeded - usedMelds) - usedPartials - pair;
+    }
+
+    private void updateBlock(int block) {
+        meldSum -= blockMelds[block];
+        partialSum -= blockPartials[block];
+        evaluateBlock(block);
+        meldSum += blockMelds[block];
+        partialSum += blockPartials[block];
+    }
+
+    /**
+     * Looks up the best grouping of a block, with and without a pair.
+     * @param block the block, where 0-2 are the suits and the rest are honor tiles.
+     */
+    private void evaluateBlock(int block) {
+        int offset = block < SUIT_COUNT ? block * SuitPatternTable.SUIT_SIZE
+                : HONOR_START + block - SUIT_COUNT;
+        int length = block < SUIT_COUNT ? SuitPatternTable.SUIT_SIZE : 1;
+        int index = SuitPatternTable.patternIndex(counts, offset, length);
+        int entry = table.getEntry(index);
+        blockMelds[block] = SuitPatternTable.getMelds(entry);
+        blockPartials[block] = SuitPatternTable.getPartials(entry);
+
+        int pairMelds = -1;
+        int pairPartials = -1;
+        for (int i = 0; i < length; i++) {
+            if (counts[offset + i] >= 2) {
+                int rest = table.getEntry(index - 2 * SuitPatternTable.patternStep(i));
+                int melds = SuitPatternTable.getMelds(rest);
+                int partials = SuitPatternTable.getPartials(rest);
+                if (2 * melds + partials > 2 * pairMelds + pairPartials
+                        || (2 * melds + partials == 2 * pairMelds + pairPartials
+                        && melds > pairMelds)) {
+                    pairMelds = melds;
+                    pairPartials = partials;
+                }
+            }
+        }
+        blockPairMelds[block] = pairMelds;
+        blockPairPartials[block] = pairPartials;
+    }
+
+    private static int blockOf(int kind) {
+        return kind < HONOR_START ? kind / SuitPatternTable.SUIT_SIZE
+                : SUIT_COUNT + kind - HONOR_START;
+    }
+}
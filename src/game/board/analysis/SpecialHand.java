@@ -0,0 +1,228 @@
+package game.board.analysis;
+
+import game.board.tile.Tile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A winning hand of one of the special shapes that do not split into Pongs, Sheungs and a pair:
+ * Sixteen Disjoint (十六不搭), Thirteen Orphans (十三么) and Lik Ku Lik Ku (嚦咕嚦咕).
+ * <p>
+ * A hand is classified from its tile counts in a single pass, which gathers everything the three
+ * shapes depend on: the number of tiles, pairs and odd counts, whether any two suit tiles are
+ * one or two numbers apart, and how many of the orphans are held. Only Thirteen Orphans needs
+ * more, a search for the meld among the four tiles left after one of each orphan. The shapes
+ * exclude each other, so a hand is at most one of them.
+ */
+public final class SpecialHand {
+    /**
+     * The special hand shapes.
+     */
+    public enum Kind {
+        SIXTEEN_DISJOINT,
+        THIRTEEN_ORPHANS,
+        LIK_KU_LIK_KU
+    }
+
+    private static final int HAND_SIZE = 17;
+    private static final int SUIT_TILES = Tile.WIND_EAST.ordinal();
+    private static final int SUIT_SIZE = 9;
+    private static final Tile[] TILES = Tile.values();
+    /**
+     * The orphans, in the order of {@link game.board.WinChecker#getThirteenOrphans()}.
+     */
+    private static final Tile[] ORPHANS = {
+            Tile.MAAN_1, Tile.MAAN_9, Tile.SOK_1, Tile.SOK_9, Tile.TUNG_1, Tile.TUNG_9,
+            Tile.WIND_EAST, Tile.WIND_SOUTH, Tile.WIND_WEST, Tile.WIND_NORTH,
+            Tile.WORD_ZHONG, Tile.WORD_FAT, Tile.WORD_BAT};
+    private static final long ORPHAN_MASK = orphanMask();
+
+    private final Kind kind;
+    private final int[] counts;
+    private final int meldTile;
+    private final boolean meldIsPong;
+
+    private SpecialHand(Kind kind, int[] counts, int meldTile, boolean meldIsPong) {
+        this.kind = kind;
+        this.counts = counts;
+        this.meldTile = meldTile;
+        this.meldIsPong = meldIsPong;
+    }
+
+    /**
+     * Classifies a hand as one of the special hands.
+     * @param counts the number of copies of each non-flower tile in the hand, indexed by ordinal.
+     *               The array is not modified or kept.
+     * @return the special hand, or null if the hand is not one.
+     */
+    public static SpecialHand classify(int[] counts) {
+        int total = 0;
+        int pairs = 0;
+        int oddKinds = 0;
+        int orphans = 0;
+        boolean triple = false;
+        boolean disjoint = true;
+        for (int tile = 0; tile < HandShape.TILE_KINDS; tile++) {
+            int count = counts[tile];
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            if (count % 2 == 1) {
+                oddKinds++;
+                triple = count == 3;
+            }
+            if (count == 2) {
+                pairs++;
+            } else if (count > 2) {
+                disjoint = false;
+            }
+            // no two tiles of the same suit may be one or two numbers apart
+            int rank = tile % SUIT_SIZE;
+            if (tile < SUIT_TILES && (rank >= 1 && counts[tile - 1] > 0
+                    || rank >= 2 && counts[tile - 2] > 0)) {
+                disjoint = false;
+            }
+            if ((ORPHAN_MASK & (1L << tile)) != 0) {
+                orphans++;
+            }
+        }
+        if (total != HAND_SIZE) {
+            return null;
+        }
+        if (disjoint && pairs == 1) {
+            return new SpecialHand(Kind.SIXTEEN_DISJOINT, counts.clone(), -1, false);
+        }
+        if (orphans == ORPHANS.length) {
+            return classifyThirteenOrphans(counts);
+        }
+        if (oddKinds == 1 && triple) {
+            return new SpecialHand(Kind.LIK_KU_LIK_KU, counts.clone(), -1, false);
+        }
+        return null;
+    }
+
+    /**
+     * Looks for a meld among the four tiles left after one of each orphan, such that the last
+     * tile is an orphan. Pongs are tried before Sheungs, and lower tiles before higher ones.
+     * @return the Thirteen Orphans hand, or null if there is no such meld.
+     */
+    private static SpecialHand classifyThirteenOrphans(int[] counts) {
+        int[] rest = counts.clone();
+        for (Tile orphan : ORPHANS) {
+            rest[orphan.ordinal()]--;
+        }
+        for (int tile = 0; tile < HandShape.TILE_KINDS; tile++) {
+            if (rest[tile] >= 3 && isOrphanLeftover(rest, tile, 0)) {
+                return new SpecialHand(Kind.THIRTEEN_ORPHANS, counts.clone(), tile, true);
+            }
+        }
+        // Sheungs are three consecutive tiles of the same type
+        for (int tile = 0; tile + 2 < HandShape.TILE_KINDS; tile++) {
+            if (rest[tile] > 0 && rest[tile + 1] > 0 && rest[tile + 2] > 0
+                    && TILES[tile].getTileType() == TILES[tile + 2].getTileType()
+                    && isOrphanLeftover(rest, tile, 1)) {
+                return new SpecialHand(Kind.THIRTEEN_ORPHANS, counts.clone(), tile, false);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether the tile left over after a meld is an orphan.
+     * @param rest the counts of the four tiles left after one of each orphan.
+     * @param first the ordinal of the first tile of the meld.
+     * @param step 0 for a Pong, 1 for a Sheung.
+     */
+    private static boolean isOrphanLeftover(int[] rest, int first, int step) {
+        long leftover = 0L;
+        for (int tile = 0; tile < HandShape.TILE_KINDS; tile++) {
+            int count = rest[tile];
+            for (int i = 0; i < 3; i++) {
+                if (first + i * step == tile) {
+                    count--;
+                }
+            }
+            if (count > 0) {
+                leftover |= 1L << tile;
+            }
+        }
+        return (leftover & ~ORPHAN_MASK) == 0;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Retrieves the canonical grouping of the hand:
+     * <ul>
+     *     <li>Sixteen Disjoint: the fifteen lone tiles in ascending order, then the pair.</li>
+     *     <li>Thirteen Orphans: the twelve orphans other than the paired one, in the order of
+     *     {@link game.board.WinChecker#getThirteenOrphans()}, then the meld, then the pair.</li>
+     *     <li>Lik Ku Lik Ku: the Pong, then the seven pairs in ascending order.</li>
+     * </ul>
+     * @return the groups of the hand. The lists are new and modifiable.
+     */
+    public List<List<Tile>> getGroups() {
+        List<List<Tile>> groups = new ArrayList<>();
+        switch (kind) {
+            case SIXTEEN_DISJOINT -> {
+                List<Tile> lone = new ArrayList<>();
+                Tile pair = null;
+                for (int tile = 0; tile < HandShape.TILE_KINDS; tile++) {
+                    if (counts[tile] == 1) {
+                        lone.add(TILES[tile]);
+                    } else if (counts[tile] == 2) {
+                        pair = TILES[tile];
+                    }
+                }
+                groups.add(lone);
+                groups.add(new ArrayList<>(List.of(pair, pair)));
+            }
+            case THIRTEEN_ORPHANS -> {
+                int[] rest = counts.clone();
+                List<Tile> meld = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                    int tile = meldIsPong ? meldTile : meldTile + i;
+                    meld.add(TILES[tile]);
+                    rest[tile]--;
+                }
+                Tile pair = null;
+                List<Tile> orphans = new ArrayList<>();
+                for (Tile orphan : ORPHANS) {
+                    if (rest[orphan.ordinal()] == 2) {
+                        pair = orphan;
+                    } else {
+                        orphans.add(orphan);
+                    }
+                }
+                groups.add(orphans);
+                groups.add(meld);
+                groups.add(new ArrayList<>(List.of(pair, pair)));
+            }
+            case LIK_KU_LIK_KU -> {
+                for (int tile = 0; tile < HandShape.TILE_KINDS; tile++) {
+                    Tile pairTile = TILES[tile];
+                    if (counts[tile] == 3) {
+                        groups.addFirst(new ArrayList<>(List.of(pairTile, pairTile, pairTile)));
+                        continue;
+                    }
+                    for (int i = 0; i < counts[tile] / 2; i++) {
+                        groups.add(new ArrayList<>(List.of(pairTile, pairTile)));
+                    }
+                }
+            }
+        }
+        return groups;
+    }
+
+    private static long orphanMask() {
+        long mask = 0L;
+        for (Tile orphan : ORPHANS) {
+            mask |= 1L << orphan.ordinal();
+        }
+        return mask;
+    }
+}
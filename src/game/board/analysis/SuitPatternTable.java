@@ -0,0 +1,241 @@
+package game.board.analysis;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A precomputed table describing every pattern of tile counts within a single suit. A pattern
+ * is the number of copies (0-4) held of each of the nine numbers, and is identified by its
+ * base-5 pattern index. Honor tiles can be looked up as a pattern holding only the first number.
+ * <p>
+ * Each entry packs:
+ * <ul>
+ *     <li>the number of melds (Pong or Sheung) and partial groups (pair, two consecutive tiles
+ *     or two tiles with a gap) in the best grouping of the pattern. The best grouping has the
+ *     highest shape quality, i.e. 2 per meld plus 1 per partial group, and the most melds out of
+ *     groupings of equal quality;</li>
+ *     <li>the acceptance mask, i.e. the numbers that would raise the shape quality if drawn;</li>
+ *     <li>the wait mask, i.e. the numbers that would complete the pattern if drawn;</li>
+ *     <li>whether the pattern is complete as melds only, or as melds and exactly one pair.</li>
+ * </ul>
+ * The table is generated at build time by {@link SuitPatternTableGenerator} and shipped as the
+ * read-only classpath resource {@value #RESOURCE} next to this class. It is memory-mapped when
+ * first used, or read into memory once if it is packaged in a jar, so lookups do not allocate
+ * and nothing is computed or written at runtime.
+ */
+public class SuitPatternTable {
+    /**
+     * The number of tiles in a suit.
+     */
+    public static final int SUIT_SIZE = 9;
+
+    /**
+     * The number of suit patterns, i.e. 5 to the power of the suit size.
+     */
+    public static final int PATTERN_COUNT = 1_953_125;
+
+    /**
+     * The classpath resource the table is loaded from, relative to this class.
+     */
+    public static final String RESOURCE = "suit_patterns.bin";
+
+    static final int MAGIC = 0x4D4A5350;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 3 * Integer.BYTES;
+    static final long FILE_SIZE = HEADER_SIZE + (long) PATTERN_COUNT * Integer.BYTES;
+
+    private static final int WAIT_SHIFT = 9;
+    private static final int MELDS_BIT = 1 << 18;
+    private static final int MELDS_WITH_PAIR_BIT = 1 << 19;
+    private static final int MELD_SHIFT = 20;
+    private static final int PARTIAL_SHIFT = 24;
+    private static final int MASK = (1 << SUIT_SIZE) - 1;
+
+    private static final int[] POWERS = {1, 5, 25, 125, 625, 3125, 15625, 78125, 390625};
+
+    private final IntBuffer entries;
+
+    /**
+     * Creates a suit pattern table over the contents of a table file.
+     * @param contents the table file, including its header.
+     * @throws IOException if the file is not of correct format.
+     */
+    private SuitPatternTable(ByteBuffer contents) throws IOException {
+        if (contents.capacity() != FILE_SIZE || contents.getInt(0) != MAGIC
+                || contents.getInt(Integer.BYTES) != VERSION
+                || contents.getInt(2 * Integer.BYTES) != PATTERN_COUNT) {
+            throw new IOException("Suit pattern table is not of correct format!");
+        }
+        this.entries = contents.slice(HEADER_SIZE, contents.capacity() - HEADER_SIZE)
+                .asIntBuffer();
+    }
+
+    /**
+     * Holds the shared table, which is loaded when the class is first loaded.
+     */
+    private static final class Holder {
+        private static final SuitPatternTable INSTANCE = loadResource();
+    }
+
+    /**
+     * Retrieves the shared table, loading it from the classpath on first use.
+     * @return the suit pattern table.
+     * @throws IllegalStateException if the table was not generated by the build.
+     * @throws UncheckedIOException if the table cannot be loaded.
+     */
+    public static SuitPatternTable getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Memory-maps a table written by {@link SuitPatternTableGenerator#write(Path)}.
+     * @param path the file to load from.
+     * @return the loaded table.
+     * @throws IOException if an I/O Exception occurs or the file is not of correct format.
+     */
+    public static SuitPatternTable load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() != FILE_SIZE) {
+                throw new IOException("Suit pattern table is not of correct format!");
+            }
+            return new SuitPatternTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, FILE_SIZE));
+        }
+    }
+
+    private static SuitPatternTable loadResource() {
+        URL url = SuitPatternTable.class.getResource(RESOURCE);
+        if (url == null) {
+            throw new IllegalStateException("Suit pattern table " + RESOURCE
+                    + " is missing! It is generated by SuitPatternTableGenerator at build time.");
+        }
+        try {
+            if (url.getProtocol().equals("file")) {
+                return load(Path.of(url.toURI()));
+            }
+            try (InputStream input = url.openStream()) {
+                byte[] contents = input.readAllBytes();
+                return new SuitPatternTable(ByteBuffer.allocateDirect(contents.length)
+                        .put(contents).flip());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Suit pattern table could not be loaded!", e);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Suit pattern table could not be located!", e);
+        }
+    }
+
+    /**
+     * Computes the pattern index of a run of tile counts.
+     * @param counts the tile counts.
+     * @param offset the index of the first count in the run.
+     * @param length the length of the run, at most the suit size.
+     * @return the pattern index.
+     * @requires every count in the run is between 0 and 4.
+     */
+    public static int patternIndex(int[] counts, int offset, int length) {
+        int index = 0;
+        for (int i = 0; i < length; i++) {
+            index += counts[offset + i] * POWERS[i];
+        }
+        return index;
+    }
+
+    /**
+     * Retrieves the difference in pattern index from adding a copy of a number.
+     * @param number the position of the number within the suit, from 0.
+     * @return the pattern index step.
+     */
+    public static int patternStep(int number) {
+        return POWERS[number];
+    }
+
+    /**
+     * Retrieves the packed entry of a pattern.
+     * @param patternIndex the pattern index.
+     * @return the packed entry.
+     */
+    public int getEntry(int patternIndex) {
+        return entries.get(patternIndex);
+    }
+
+    /**
+     * Retrieves the number of melds in the best grouping of an entry.
+     * @param entry the packed entry.
+     * @return the number of melds.
+     */
+    public static int getMelds(int entry) {
+        return (entry >>> MELD_SHIFT) & 0xF;
+    }
+
+    /**
+     * Retrieves the number of partial groups in the best grouping of an entry.
+     * @param entry the packed entry.
+     * @return the number of partial groups.
+     */
+    public static int getPartials(int entry) {
+        return entry >>> PARTIAL_SHIFT;
+    }
+
+    /**
+     * Retrieves the shape quality of an entry.
+     * @param entry the packed entry.
+     * @return the shape quality.
+     */
+    public static int getQuality(int entry) {
+        return 2 * getMelds(entry) + getPartials(entry);
+    }
+
+    /**
+     * Retrieves the numbers that would raise the shape quality of an entry if drawn.
+     * @param entry the packed entry.
+     * @return the acceptance mask, with bit i set for the number at position i.
+     */
+    public static int getAcceptanceMask(int entry) {
+        return entry & MASK;
+    }
+
+    /**
+     * Retrieves the numbers that would complete the pattern of an entry if drawn.
+     * @param entry the packed entry.
+     * @return the wait mask, with bit i set for the number at position i.
+     */
+    public static int getWaitMask(int entry) {
+        return (entry >>> WAIT_SHIFT) & MASK;
+    }
+
+    /**
+     * Checks whether the pattern of an entry can be split entirely into melds.
+     * @param entry the packed entry.
+     * @return true if the pattern consists of melds only.
+     */
+    public static boolean isMelds(int entry) {
+        return (entry & MELDS_BIT) != 0;
+    }
+
+    /**
+     * Checks whether the pattern of an entry can be split into melds and exactly one pair.
+     * @param entry the packed entry.
+     * @return true if the pattern consists of melds and a pair.
+     */
+    public static boolean isMeldsWithPair(int entry) {
+        return (entry & MELDS_WITH_PAIR_BIT) != 0;
+    }
+
+    /**
+     * Packs the analysis of a pattern into an entry.
+     */
+    static int packEntry(int meldCount, int partialCount, int acceptanceMask, int waitMask,
+                         boolean melds, boolean meldsWithPair) {
+        return partialCount << PARTIAL_SHIFT | meldCount << MELD_SHIFT
+                | waitMask << WAIT_SHIFT | acceptanceMask
+                | (melds ? MELDS_BIT : 0) | (meldsWithPair ? MELDS_WITH_PAIR_BIT : 0);
+    }
+}
@@ -0,0 +1,185 @@
+package game.board.analysis;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Generates the suit pattern table as a build step. Every pattern of nine tile counts (0-4
+ * copies of each number) is analysed once, and the results are written to the classpath
+ * resource that is memory-mapped by {@link SuitPatternTable}. The game never runs the
+ * generator itself.
+ */
+public class SuitPatternTableGenerator {
+    private static final int SUIT_SIZE = SuitPatternTable.SUIT_SIZE;
+    private static final int[] POWERS = new int[SUIT_SIZE];
+
+    static {
+        int power = 1;
+        for (int i = 0; i < SUIT_SIZE; i++) {
+            POWERS[i] = power;
+            power *= 5;
+        }
+    }
+
+    /**
+     * Creates a suit pattern table generator.
+     */
+    private SuitPatternTableGenerator() {}
+
+    /**
+     * Computes the table entry of every suit pattern.
+     * @return the entries, indexed by pattern index.
+     */
+    static int[] generate() {
+        int patternCount = SuitPatternTable.PATTERN_COUNT;
+        byte[] meldCounts = new byte[patternCount];
+        byte[] partialCounts = new byte[patternCount];
+        boolean[] melds = new boolean[patternCount];
+        boolean[] meldsWithPair = new boolean[patternCount];
+        int[] counts = new int[SUIT_SIZE];
+        int[] restOptions = new int[5];
+        int[] meldOptions = new int[5];
+
+        // removing tiles always lowers the pattern index, so each pattern only depends on
+        // patterns that were already analysed
+        melds[0] = true;
+        for (int index = 1; index < patternCount; index++) {
+            decode(index, counts);
+            int first = 0;
+            while (counts[first] == 0) {
+                first++;
+            }
+
+            // the lowest tile is either left alone or used in a group with higher tiles
+            int rest = index - POWERS[first];
+            int bestMelds = meldCounts[rest];
+            int bestPartials = partialCounts[rest];
+            boolean canMeld = false;
+            boolean canMeldWithPair = false;
+            int optionCount = 0;
+            if (counts[first] >= 3) {
+                rest = index - 3 * POWERS[first];
+                canMeld = melds[rest];
+                canMeldWithPair = meldsWithPair[rest];
+                restOptions[optionCount] = rest;
+                meldOptions[optionCount++] = 1;
+            }
+            if (first + 2 < SUIT_SIZE && counts[first + 1] > 0 && counts[first + 2] > 0) {
+                rest = index - POWERS[first] - POWERS[first + 1] - POWERS[first + 2];
+                canMeld |= melds[rest];
+                canMeldWithPair |= meldsWithPair[rest];
+                restOptions[optionCount] = rest;
+                meldOptions[optionCount++] = 1;
+            }
+            if (counts[first] >= 2) {
+                rest = index - 2 * POWERS[first];
+                canMeldWithPair |= melds[rest];
+                restOptions[optionCount] = rest;
+                meldOptions[optionCount++] = 0;
+            }
+            if (first + 1 < SUIT_SIZE && counts[first + 1] > 0) {
+                restOptions[optionCount] = index - POWERS[first] - POWERS[first + 1];
+                meldOptions[optionCount++] = 0;
+            }
+            if (first + 2 < SUIT_SIZE && counts[first + 2] > 0) {
+                restOptions[optionCount] = index - POWERS[first] - POWERS[first + 2];
+                meldOptions[optionCount++] = 0;
+            }
+
+            // keep the grouping with the highest quality, preferring more melds on ties
+            for (int i = 0; i < optionCount; i++) {
+                int optionMelds = meldCounts[restOptions[i]] + meldOptions[i];
+                int optionPartials = partialCounts[restOptions[i]] + 1 - meldOptions[i];
+                int quality = 2 * optionMelds + optionPartials;
+                int bestQuality = 2 * bestMelds + bestPartials;
+                if (quality > bestQuality || (quality == bestQuality && optionMelds > bestMelds)) {
+                    bestMelds = optionMelds;
+                    bestPartials = optionPartials;
+                }
+            }
+            meldCounts[index] = (byte) bestMelds;
+            partialCounts[index] = (byte) bestPartials;
+            melds[index] = canMeld;
+            meldsWithPair[index] = canMeldWithPair;
+        }
+
+        int[] entries = new int[patternCount];
+        for (int index = 0; index < patternCount; index++) {
+            decode(index, counts);
+            int acceptanceMask = 0;
+            int waitMask = 0;
+            for (int i = 0; i < SUIT_SIZE; i++) {
+                if (counts[i] < 4) {
+                    int next = index + POWERS[i];
+                    if (2 * meldCounts[next] + partialCounts[next]
+                            > 2 * meldCounts[index] + partialCounts[index]) {
+                        acceptanceMask |= 1 << i;
+                    }
+                    if (melds[next] || meldsWithPair[next]) {
+                        waitMask |= 1 << i;
+                    }
+                }
+            }
+            entries[index] = SuitPatternTable.packEntry(meldCounts[index], partialCounts[index],
+                    acceptanceMask, waitMask, melds[index], meldsWithPair[index]);
+        }
+        return entries;
+    }
+
+    /**
+     * Generates the table and writes it to a file, replacing it only once it is complete.
+     * <p>
+     * The file holds a header of three ints, i.e. a magic number, the format version and the
+     * number of patterns, followed by the entry of every pattern in order of pattern index.
+     * @param path the file to write to.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public static void write(Path path) throws IOException {
+        int[] entries = generate();
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+                output.writeInt(SuitPatternTable.MAGIC);
+                output.writeInt(SuitPatternTable.VERSION);
+                output.writeInt(entries.length);
+                for (int entry : entries) {
+                    output.writeInt(entry);
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+    }
+
+    /**
+     * Writes the table into a directory of compiled classes, next to {@link SuitPatternTable}.
+     * Run after compiling, e.g. "java -cp out game.board.analysis.SuitPatternTableGenerator out".
+     * @param args the root directory of the compiled classes.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: SuitPatternTableGenerator <classes directory>");
+            return;
+        }
+        Path path = Path.of(args[0], SuitPatternTable.class.getPackageName().split("\\."))
+                .resolve(SuitPatternTable.RESOURCE);
+        write(path);
+        System.out.println("Wrote " + path);
+    }
+
+    private static void decode(int index, int[] counts) {
+        for (int i = 0; i < SUIT_SIZE; i++) {
+            counts[i] = index % 5;
+            index /= 5;
+        }
+    }
+}
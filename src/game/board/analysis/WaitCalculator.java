@@ -0,0 +1,143 @@
+package game.board.analysis;
+
+import game.board.tile.Tile;
+import game.board.tile.TileSet;
+
+import java.util.List;
+
+/**
+ * Finds winning hands and the tiles that complete a hand from tile counts, using the suit
+ * pattern table. The result matches {@link game.board.WinChecker}: a hand wins if it can be
+ * split into Pongs, Sheungs and one pair, or if it is a Sixteen Disjoint, Thirteen Orphans or
+ * Lik Ku Lik Ku hand.
+ * <p>
+ * For normal hands, the tiles are split into blocks within which Sheungs can be formed, i.e. each
+ * suit, the winds and the dragons. A hand wins iff every block is complete as melds only, except
+ * exactly one block which is complete as melds and a pair.
+ */
+public class WaitCalculator {
+    private static final int SPECIAL_HAND_SIZE = 17;
+
+    private static final int[] BLOCK_OFFSETS = {
+            Tile.TUNG_1.ordinal(), Tile.SOK_1.ordinal(), Tile.MAAN_1.ordinal(),
+            Tile.WIND_EAST.ordinal(), Tile.WORD_ZHONG.ordinal()};
+    private static final int[] BLOCK_LENGTHS = {9, 9, 9, 4, 3};
+    private static final int BLOCK_COUNT = BLOCK_OFFSETS.length;
+
+    private final SuitPatternTable table;
+
+    /**
+     * Creates a wait calculator.
+     * @param table the suit pattern table.
+     */
+    public WaitCalculator(SuitPatternTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Counts the copies of each non-flower tile in a list of tiles.
+     * @param tiles the tiles to be counted.
+     * @return the number of copies of each tile, indexed by ordinal.
+     */
+    public static int[] countTiles(List<Tile> tiles) {
+        int[] counts = new int[HandShape.TILE_KINDS];
+        for (Tile tile : tiles) {
+            if (tile.ordinal() < HandShape.TILE_KINDS) {
+                counts[tile.ordinal()]++;
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Checks whether tile counts form a winning hand.
+     * @param counts the number of copies of each tile, indexed by ordinal.
+     * @return true iff the tiles form a winning hand, false otherwise.
+     * @requires every count is between 0 and 4.
+     */
+    public boolean isWinning(int[] counts) {
+        int pairBlocks = 0;
+        for (int block = 0; block < BLOCK_COUNT; block++) {
+            int entry = table.getEntry(blockIndex(counts, block));
+            if (SuitPatternTable.isMeldsWithPair(entry)) {
+                pairBlocks++;
+            } else if (!SuitPatternTable.isMelds(entry)) {
+                pairBlocks = -1;
+                break;
+            }
+        }
+        return pairBlocks == 1 || SpecialHand.classify(counts) != null;
+    }
+
+    /**
+     * Finds every tile that would complete a hand if it were added.
+     * @param counts the number of copies of each tile in the hand, indexed by ordinal.
+     * @return the tiles completing the hand. Tiles of which all four copies are already held
+     * are never included.
+     * @requires every count is between 0 and 4.
+     */
+    public TileSet getWaitingTiles(int[] counts) {
+        int[] entries = new int[BLOCK_COUNT];
+        int meldBlocks = 0;
+        int pairBlocks = 0;
+        for (int block = 0; block < BLOCK_COUNT; block++) {
+            entries[block] = table.getEntry(blockIndex(counts, block));
+            if (SuitPatternTable.isMelds(entries[block])) {
+                meldBlocks++;
+            } else if (SuitPatternTable.isMeldsWithPair(entries[block])) {
+                pairBlocks++;
+            }
+        }
+
+        long waits = 0L;
+        for (int block = 0; block < BLOCK_COUNT; block++) {
+            // every other block must already be complete, with at most one pair between them
+            boolean melds = SuitPatternTable.isMelds(entries[block]);
+            boolean meldsWithPair = SuitPatternTable.isMeldsWithPair(entries[block]);
+            int otherMeldBlocks = meldBlocks - (melds ? 1 : 0);
+            int otherPairBlocks = pairBlocks - (meldsWithPair ? 1 : 0);
+            if (otherMeldBlocks + otherPairBlocks != BLOCK_COUNT - 1 || otherPairBlocks > 1) {
+                continue;
+            }
+
+            int index = blockIndex(counts, block);
+            int waitMask = SuitPatternTable.getWaitMask(entries[block]);
+            for (int i = 0; i < BLOCK_LENGTHS[block]; i++) {
+                int kind = BLOCK_OFFSETS[block] + i;
+                if ((waitMask & 1 << i) == 0 || counts[kind] >= 4) {
+                    continue;
+                }
+                int next = table.getEntry(index + SuitPatternTable.patternStep(i));
+                if (otherPairBlocks == 0 ? SuitPatternTable.isMeldsWithPair(next)
+                        : SuitPatternTable.isMelds(next)) {
+                    waits |= 1L << kind;
+                }
+            }
+        }
+
+        if (sum(counts) == SPECIAL_HAND_SIZE - 1) {
+            for (int kind = 0; kind < HandShape.TILE_KINDS; kind++) {
+                if ((waits & 1L << kind) == 0 && counts[kind] < 4) {
+                    counts[kind]++;
+                    if (SpecialHand.classify(counts) != null) {
+                        waits |= 1L << kind;
+                    }
+                    counts[kind]--;
+                }
+            }
+        }
+        return TileSet.fromBits(waits);
+    }
+
+    private int blockIndex(int[] counts, int block) {
+        return SuitPatternTable.patternIndex(counts, BLOCK_OFFSETS[block], BLOCK_LENGTHS[block]);
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+}
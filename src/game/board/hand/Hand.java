@@ -1,8 +1,10 @@
 package game.board.hand;
 
 import game.board.tile.Tile;
+import game.board.tile.Zobrist;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -12,6 +14,9 @@ import java.util.List;
 public class Hand {
     private final List<Tile> hand = new ArrayList<>();
     private Tile lastDrawnTile = null;
+    private int modificationCount = 0;
+    private final int[] counts = new int[Tile.values().length];
+    private long zobristKey = 0;
 
     /**
      * Creates a hand.
@@ -31,6 +36,9 @@ public class Hand {
      */
     public void clearHand() {
         hand.clear();
+        Arrays.fill(counts, 0);
+        zobristKey = 0;
+        modificationCount++;
     }
 
     /**
@@ -69,6 +77,8 @@ public class Hand {
         hand.add(tile);
         lastDrawnTile = tile;
         Collections.sort(hand);
+        zobristKey ^= Zobrist.tile(Zobrist.Zone.HAND, tile, counts[tile.ordinal()]++);
+        modificationCount++;
     }
 
     /**
@@ -80,6 +90,26 @@ public class Hand {
         if (!success) {
             throw new RuntimeException("Cannot discard the tile: " + tile + ".");
         }
+        zobristKey ^= Zobrist.tile(Zobrist.Zone.HAND, tile, --counts[tile.ordinal()]);
+        modificationCount++;
+    }
+
+    /**
+     * Retrieves the number of times tiles have been added to or removed from the hand, so that
+     * values derived from the hand can be cached until it changes.
+     * @return the modification count.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Retrieves the Zobrist key of the hand, which is kept up to date as tiles are added and
+     * removed. Hands holding the same tiles have the same key.
+     * @return the key of the hand.
+     */
+    public long getZobristKey() {
+        return zobristKey;
     }
 
     /**
@@ -1,8 +1,9 @@
 package game.board.hand;
 
+import game.board.tile.FlowerMask;
 import game.board.tile.Tile;
 import game.board.tile.TileType;
-import game.core.ScoreCalculator;
+import game.board.tile.Zobrist;
 
 import java.util.*;
 
@@ -13,9 +14,11 @@ public class RevealedHand {
     private final List<List<Tile>> groups = new ArrayList<>();
     private final List<List<Tile>> brightKongs = new ArrayList<>();
     private final List<List<Tile>> darkKongs = new ArrayList<>();
-    private final List<Tile> flowers = new ArrayList<>();
+    private int flowerMask = 0;
     private boolean newGrassFormed = false;
     private boolean newToiFormed = false;
+    private int modificationCount = 0;
+    private long zobristKey = 0;
 
     /**
      * Creates a player's revealed hand.
@@ -48,10 +51,18 @@ public class RevealedHand {
 
     /**
      * Retrieves every flower tile in the player's revealed hand.
-     * @return a list of flower tiles.
+     * @return a new list of the flower tiles, in ascending order.
      */
     public List<Tile> getFlowers() {
-        return flowers;
+        return FlowerMask.toTiles(flowerMask);
+    }
+
+    /**
+     * Retrieves the flowers in the player's revealed hand as a mask.
+     * @return the mask of the flowers, see {@link FlowerMask}.
+     */
+    public int getFlowerMask() {
+        return flowerMask;
     }
 
     /**
@@ -61,7 +72,27 @@ public class RevealedHand {
         groups.clear();
         brightKongs.clear();
         darkKongs.clear();
-        flowers.clear();
+        flowerMask = 0;
+        zobristKey = 0;
+        modificationCount++;
+    }
+
+    /**
+     * Retrieves the number of times tiles have been added to or removed from the revealed hand,
+     * so that values derived from the revealed hand can be cached until it changes.
+     * @return the modification count.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Retrieves the Zobrist key of the revealed hand, which is kept up to date as groups and
+     * flowers are added. Revealed hands holding the same groups and flowers have the same key.
+     * @return the key of the revealed hand.
+     */
+    public long getZobristKey() {
+        return zobristKey;
     }
 
     /**
@@ -126,7 +157,11 @@ public class RevealedHand {
      */
     public void addGroup(List<Tile> group) {
         Collections.sort(group);
+        Zobrist.Group kind = group.getFirst() == group.getLast()
+                ? Zobrist.Group.PONG : Zobrist.Group.SHEUNG;
+        zobristKey ^= Zobrist.group(kind, group.getFirst(), countGroups(groups, group));
         groups.add(group);
+        modificationCount++;
     }
 
     /**
@@ -144,8 +179,11 @@ public class RevealedHand {
                         .orElse(null);
 
         groups.remove(originalGroup);
+        zobristKey ^= Zobrist.group(Zobrist.Group.PONG, tile, 0);
         originalGroup.add(tile);
+        zobristKey ^= Zobrist.group(Zobrist.Group.BRIGHT_KONG, tile, 0);
         brightKongs.add(originalGroup);
+        modificationCount++;
     }
 
     /**
@@ -157,7 +195,9 @@ public class RevealedHand {
         for (int i = 0; i < 4; i++) {
             group.add(tile);
         }
+        zobristKey ^= Zobrist.group(Zobrist.Group.BRIGHT_KONG, tile, 0);
         brightKongs.add(group);
+        modificationCount++;
     }
 
     /**
@@ -166,7 +206,9 @@ public class RevealedHand {
      * @requires the group is valid (i.e. it is a valid Kong).
      */
     public void addDarkKong(List<Tile> group) {
+        zobristKey ^= Zobrist.group(Zobrist.Group.DARK_KONG, group.getFirst(), 0);
         darkKongs.add(group);
+        modificationCount++;
     }
 
     /**
@@ -178,65 +220,30 @@ public class RevealedHand {
         if (tile.getTileType() != TileType.FLOWER_SEASON && tile.getTileType() != TileType.FLOWER_PLANT) {
             throw new IllegalArgumentException("Cannot add non-flower tile.");
         }
-        int originalGrass = countGrass();
-        int originalTois = countTois();
-        flowers.add(tile);
-        Collections.sort(flowers);
-        int newGrass = countGrass();
-        int newTois = countTois();
-        newGrassFormed = originalGrass != newGrass;
-        newToiFormed = originalTois != newTois;
-    }
-
-    private String flowersString() {
-        StringBuilder output = new StringBuilder();
-        for (Tile tile : flowers) {
-            output.append(tile);
-        }
-        return output.toString();
+        int originalMask = flowerMask;
+        zobristKey ^= Zobrist.tile(Zobrist.Zone.FLOWERS, tile, 0);
+        flowerMask |= FlowerMask.bit(tile);
+        modificationCount++;
+        newGrassFormed = FlowerMask.countGrass(originalMask) != FlowerMask.countGrass(flowerMask);
+        newToiFormed = FlowerMask.countTois(originalMask) != FlowerMask.countTois(flowerMask);
     }
 
-    private int countGrass() {
+    private static int countGroups(List<List<Tile>> groups, List<Tile> group) {
         int count = 0;
-        int numFlowers = flowers.size();
-        if (numFlowers >= 4) {
-            for (int i = 0; i < numFlowers; i++) {
-                for (int j = i + 1; j < numFlowers; j++) {
-                    for (int k = j + 1; k < numFlowers; k++) {
-                        for (int l = k + 1; l < numFlowers; l++) {
-                            Set<Integer> tileNums = new HashSet<>();
-                            Tile tile1 = flowers.get(i);
-                            tileNums.add(tile1.getTileNum() % 4);
-                            Tile tile2 = flowers.get(j);
-                            tileNums.add(tile2.getTileNum() % 4);
-                            Tile tile3 = flowers.get(k);
-                            tileNums.add(tile3.getTileNum() % 4);
-                            Tile tile4 = flowers.get(l);
-                            tileNums.add(tile4.getTileNum() % 4);
-                            if (tileNums.size() == 4
-                                    && !ScoreCalculator.checkSameType(List.of(tile1, tile2,
-                                    tile3, tile4))) {
-                                count += 1;
-                            }
-                        }
-                    }
-                }
+        for (List<Tile> other : groups) {
+            if (other.equals(group)) {
+                count++;
             }
         }
         return count;
     }
 
-    private int countTois() {
-        int count = 0;
-        if (flowers.contains(Tile.FLOWER_SPRING) && flowers.contains(Tile.FLOWER_SUMMER)
-                && flowers.contains(Tile.FLOWER_AUTUMN) && flowers.contains(Tile.FLOWER_WINTER)) {
-            count += 1;
-        }
-        if (flowers.contains(Tile.FLOWER_MUI) && flowers.contains(Tile.FLOWER_LAN)
-                && flowers.contains(Tile.FLOWER_KUK) && flowers.contains(Tile.FLOWER_CHUK)) {
-            count += 1;
+    private String flowersString() {
+        StringBuilder output = new StringBuilder();
+        for (Tile tile : getFlowers()) {
+            output.append(tile);
         }
-        return count;
+        return output.toString();
     }
 
     public boolean newGrassFormed() {
@@ -1,8 +1,10 @@
 package game.board.pile;
 
 import game.board.tile.Tile;
+import game.board.tile.Zobrist;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,6 +12,8 @@ import java.util.List;
  */
 public class DiscardPile {
     private final List<Tile> pile = new ArrayList<>();
+    private final int[] counts = new int[Tile.values().length];
+    private long zobristKey = 0;
 
     /**
      * Creates a new discard pile.
@@ -24,12 +28,22 @@ public class DiscardPile {
         return new ArrayList<>(pile);
     }
 
+    /**
+     * Retrieves a read-only view of the tiles discarded throughout the round, which changes
+     * as tiles are discarded and taken.
+     * @return the view of the discarded tiles.
+     */
+    public List<Tile> getDiscardedTilesView() {
+        return Collections.unmodifiableList(pile);
+    }
+
     /**
      * Adds a newly-discarded tile to the pile.
      * @param tile the tile to add.
      */
     public void addNewDiscard(Tile tile) {
         pile.add(tile);
+        zobristKey ^= Zobrist.tile(Zobrist.Zone.DISCARDS, tile, counts[tile.ordinal()]++);
     }
 
     /**
@@ -45,7 +59,18 @@ public class DiscardPile {
      * @return the last discarded tile.
      */
     public Tile takeLastDiscard() {
-        return pile.removeLast();
+        Tile tile = pile.removeLast();
+        zobristKey ^= Zobrist.tile(Zobrist.Zone.DISCARDS, tile, --counts[tile.ordinal()]);
+        return tile;
+    }
+
+    /**
+     * Retrieves the Zobrist key of the tiles in the pile, which is kept up to date as tiles are
+     * discarded and taken. The key does not depend on the order of the discards.
+     * @return the key of the pile.
+     */
+    public long getZobristKey() {
+        return zobristKey;
     }
 
     /**
@@ -2,12 +2,14 @@ package game.board.pile;
 
 import game.board.tile.Tile;
 import game.board.tile.TileType;
+import game.board.tile.Zobrist;
 import game.core.EmptyPileException;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 /**
  * A pile containing tiles that have yet to be drawn.
@@ -15,12 +17,23 @@ import java.util.List;
 public class UnrevealedPile {
     private final List<Tile> pile = new ArrayList<>();
     private final int minTilesLeft;
+    private final int[] counts = new int[Tile.values().length];
+    private long zobristKey;
 
     /**
      * Creates a new unrevealed pile, which includes all the starting tiles with shuffled order.
      * @param minTilesLeft the minimum number of remaining tiles that results in a draw.
      */
     public UnrevealedPile(int minTilesLeft) {
+        this(minTilesLeft, new Random());
+    }
+
+    /**
+     * Creates a new unrevealed pile, shuffled with the given source of randomness.
+     * @param minTilesLeft the minimum number of remaining tiles that results in a draw.
+     * @param random the source of randomness used to shuffle the pile.
+     */
+    public UnrevealedPile(int minTilesLeft, Random random) {
         this.minTilesLeft = minTilesLeft;
         for (Tile tile : Tile.values()) {
             if (tile.getTileType() == TileType.FLOWER_SEASON
@@ -32,7 +45,11 @@ public class UnrevealedPile {
                 }
             }
         }
-        Collections.shuffle(pile);
+        Collections.shuffle(pile, random);
+        zobristKey = Zobrist.of(Zobrist.Zone.WALL, pile);
+        for (Tile tile : pile) {
+            counts[tile.ordinal()]++;
+        }
     }
 
     /**
@@ -52,7 +69,7 @@ public class UnrevealedPile {
         if (noMoreDraws()) {
             throw new EmptyPileException();
         }
-        return pile.removeFirst();
+        return remove(pile.removeFirst());
     }
 
     /**
@@ -64,7 +81,25 @@ public class UnrevealedPile {
         if (noMoreDraws()) {
             throw new EmptyPileException();
         }
-        return pile.removeLast();
+        return remove(pile.removeLast());
+    }
+
+    /**
+     * Retrieves a read-only view of the tiles left in the pile, in the order they are drawn
+     * (bonus tiles are drawn from the end).
+     * @return the view of the remaining tiles.
+     */
+    public List<Tile> getTiles() {
+        return Collections.unmodifiableList(pile);
+    }
+
+    /**
+     * Retrieves the Zobrist key of the tiles left in the pile, which is kept up to date as tiles
+     * are drawn. The key does not depend on the order of the tiles.
+     * @return the key of the pile.
+     */
+    public long getZobristKey() {
+        return zobristKey;
     }
 
     /**
@@ -74,4 +109,9 @@ public class UnrevealedPile {
     public int getRemainingTileCount() {
         return pile.size();
     }
+
+    private Tile remove(Tile tile) {
+        zobristKey ^= Zobrist.tile(Zobrist.Zone.WALL, tile, --counts[tile.ordinal()]);
+        return tile;
+    }
 }
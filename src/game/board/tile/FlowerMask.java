@@ -0,0 +1,143 @@
+package game.board.tile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sets of flower tiles stored as 8-bit masks, with bit i set iff the set holds the flower whose
+ * ordinal is that of {@link Tile#FLOWER_SPRING} plus i. Seasons are bits 0 to 3 and plants are
+ * bits 4 to 7.
+ * <p>
+ * Everything the rules need to know about a set of flowers is precomputed for all 256 masks, so
+ * it is a table read: the number of sets of four flowers of different numbers (草) and of
+ * complete types of flowers (台), and the number of flowers matching each seat (正花).
+ */
+public final class FlowerMask {
+    /**
+     * The mask of every flower.
+     */
+    public static final int ALL = 0xFF;
+    /**
+     * The mask of the four seasons.
+     */
+    public static final int SEASONS = 0x0F;
+    /**
+     * The mask of the four plants.
+     */
+    public static final int PLANTS = 0xF0;
+
+    private static final int FIRST_FLOWER = Tile.FLOWER_SPRING.ordinal();
+    private static final int FLOWER_COUNT = 8;
+    private static final int SEATS = 4;
+    private static final Tile[] TILES = Tile.values();
+    private static final byte[] GRASS = new byte[ALL + 1];
+    private static final byte[] TOIS = new byte[ALL + 1];
+    private static final byte[][] SEAT_FLOWERS = new byte[SEATS][ALL + 1];
+
+    static {
+        for (int mask = 0; mask <= ALL; mask++) {
+            GRASS[mask] = (byte) computeGrass(mask);
+            TOIS[mask] = (byte) (((mask & SEASONS) == SEASONS ? 1 : 0)
+                    + ((mask & PLANTS) == PLANTS ? 1 : 0));
+            for (int seat = 0; seat < SEATS; seat++) {
+                int count = 0;
+                for (int i = 0; i < FLOWER_COUNT; i++) {
+                    if ((mask & 1 << i) != 0
+                            && TILES[FIRST_FLOWER + i].getTileNum() % 4 == (seat + 1) % 4) {
+                        count++;
+                    }
+                }
+                SEAT_FLOWERS[seat][mask] = (byte) count;
+            }
+        }
+    }
+
+    private FlowerMask() {}
+
+    /**
+     * Retrieves the bit of a flower.
+     * @param flower the flower tile.
+     * @return the mask holding only the flower.
+     * @throws IllegalArgumentException if the tile is not a flower.
+     */
+    public static int bit(Tile flower) {
+        if (flower.getTileType() != TileType.FLOWER_SEASON
+                && flower.getTileType() != TileType.FLOWER_PLANT) {
+            throw new IllegalArgumentException("Not a flower tile: " + flower + "!");
+        }
+        return 1 << (flower.ordinal() - FIRST_FLOWER);
+    }
+
+    /**
+     * Builds the mask of a collection of flowers.
+     * @param flowers the flower tiles.
+     * @return the mask of the flowers.
+     * @throws IllegalArgumentException if a tile is not a flower.
+     */
+    public static int of(List<Tile> flowers) {
+        int mask = 0;
+        for (Tile flower : flowers) {
+            mask |= bit(flower);
+        }
+        return mask;
+    }
+
+    /**
+     * Lists the flowers of a mask.
+     * @param mask the mask of the flowers.
+     * @return the flower tiles in ascending order. The list is modifiable.
+     */
+    public static List<Tile> toTiles(int mask) {
+        List<Tile> flowers = new ArrayList<>(Integer.bitCount(mask));
+        for (int i = 0; i < FLOWER_COUNT; i++) {
+            if ((mask & 1 << i) != 0) {
+                flowers.add(TILES[FIRST_FLOWER + i]);
+            }
+        }
+        return flowers;
+    }
+
+    /**
+     * Counts the sets of four flowers with four different numbers that are not all of the same
+     * type (草). Each set is counted, so a flower may be part of more than one set.
+     * @param mask the mask of the flowers.
+     * @return the number of sets.
+     */
+    public static int countGrass(int mask) {
+        return GRASS[mask];
+    }
+
+    /**
+     * Counts the complete types of flowers, i.e. all four seasons or all four plants (台).
+     * @param mask the mask of the flowers.
+     * @return the number of complete types, from 0 to 2.
+     */
+    public static int countTois(int mask) {
+        return TOIS[mask];
+    }
+
+    /**
+     * Counts the flowers matching a seat (正花).
+     * @param mask the mask of the flowers.
+     * @param seat the index of the seat in the game, from 0 for East to 3 for North.
+     * @return the number of matching flowers, from 0 to 2.
+     */
+    public static int countSeatFlowers(int mask, int seat) {
+        return SEAT_FLOWERS[seat][mask];
+    }
+
+    private static int computeGrass(int mask) {
+        int count = 0;
+        for (int subset = 0; subset <= ALL; subset++) {
+            if ((subset & ~mask) != 0 || Integer.bitCount(subset) != 4
+                    || subset == SEASONS || subset == PLANTS) {
+                continue;
+            }
+            // a season and a plant share their number modulo 4 iff their bits are 4 apart
+            if (((subset | subset >>> 4) & SEASONS) == SEASONS) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
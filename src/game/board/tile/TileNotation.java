@@ -0,0 +1,104 @@
+package game.board.tile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A compact text notation for tiles, for files of hands. Each run of digits is followed by the
+ * letter of the type the digits belong to:
+ * <ul>
+ *     <li>t: Tungs 1 to 9, s: Soks 1 to 9, m: Maans 1 to 9.</li>
+ *     <li>z: honors, 1 to 4 for the winds East, South, West and North, and 5 to 7 for the
+ *     dragons Zhong, Fat and Bat.</li>
+ *     <li>f: flowers, 1 to 4 for the seasons and 5 to 8 for the plants.</li>
+ * </ul>
+ * For example, "123t55z" is the Tungs 1, 2 and 3 and two Zhongs.
+ */
+public final class TileNotation {
+    private static final String TYPES = "tsmzf";
+    private static final int[] FIRST_TILES = {
+            Tile.TUNG_1.ordinal(), Tile.SOK_1.ordinal(), Tile.MAAN_1.ordinal(),
+            Tile.WIND_EAST.ordinal(), Tile.FLOWER_SPRING.ordinal()};
+    private static final int[] TYPE_SIZES = {9, 9, 9, 7, 8};
+    private static final Tile[] TILES = Tile.values();
+
+    private TileNotation() {}
+
+    /**
+     * Parses tiles written in the notation.
+     * @param notation the tiles, e.g. "123t55z". May be empty.
+     * @return a new list of the tiles, in the order written.
+     * @throws IllegalArgumentException if the notation is not valid.
+     */
+    public static List<Tile> parse(String notation) {
+        List<Tile> tiles = new ArrayList<>();
+        int runStart = 0;
+        for (int i = 0; i < notation.length(); i++) {
+            char c = notation.charAt(i);
+            if (c >= '0' && c <= '9') {
+                continue;
+            }
+            int type = TYPES.indexOf(c);
+            if (type < 0 || i == runStart) {
+                throw new IllegalArgumentException("Not valid tile notation: " + notation + "!");
+            }
+            for (int j = runStart; j < i; j++) {
+                int num = notation.charAt(j) - '0';
+                if (num < 1 || num > TYPE_SIZES[type]) {
+                    throw new IllegalArgumentException(
+                            "Not valid tile notation: " + notation + "!");
+                }
+                tiles.add(TILES[FIRST_TILES[type] + num - 1]);
+            }
+            runStart = i + 1;
+        }
+        if (runStart != notation.length()) {
+            throw new IllegalArgumentException("Not valid tile notation: " + notation + "!");
+        }
+        return tiles;
+    }
+
+    /**
+     * Parses a single tile written in the notation.
+     * @param notation the tile, e.g. "5z".
+     * @return the tile.
+     * @throws IllegalArgumentException if the notation is not of exactly one valid tile.
+     */
+    public static Tile parseTile(String notation) {
+        List<Tile> tiles = parse(notation);
+        if (tiles.size() != 1) {
+            throw new IllegalArgumentException("Not a single tile: " + notation + "!");
+        }
+        return tiles.getFirst();
+    }
+
+    /**
+     * Writes tiles in the notation, grouping consecutive tiles of the same type into runs.
+     * @param tiles the tiles.
+     * @return the notation of the tiles, in the given order.
+     */
+    public static String format(List<Tile> tiles) {
+        StringBuilder output = new StringBuilder();
+        int lastType = -1;
+        for (Tile tile : tiles) {
+            int type = typeOf(tile);
+            if (lastType >= 0 && type != lastType) {
+                output.append(TYPES.charAt(lastType));
+            }
+            output.append(tile.ordinal() - FIRST_TILES[type] + 1);
+            lastType = type;
+        }
+        if (lastType >= 0) {
+            output.append(TYPES.charAt(lastType));
+        }
+        return output.toString();
+    }
+
+    private static int typeOf(Tile tile) {
+        int type = FIRST_TILES.length - 1;
+        while (tile.ordinal() < FIRST_TILES[type]) {
+            type--;
+        }
+        return type;
+    }
+}
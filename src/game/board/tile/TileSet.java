@@ -0,0 +1,130 @@
+package game.board.tile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable set of distinct tiles, stored as a bitmask over the tile ordinals.
+ */
+public final class TileSet {
+    /**
+     * The set containing no tiles.
+     */
+    public static final TileSet EMPTY = new TileSet(0L);
+
+    private static final Tile[] TILES = Tile.values();
+
+    private final long bits;
+
+    /**
+     * Creates a tile set.
+     * @param bits the bitmask, with bit i set iff the tile of ordinal i is in the set.
+     */
+    private TileSet(long bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Creates a tile set from a bitmask over the tile ordinals.
+     * @param bits the bitmask, with bit i set iff the tile of ordinal i is in the set.
+     * @return the tile set.
+     */
+    public static TileSet fromBits(long bits) {
+        return bits == 0L ? EMPTY : new TileSet(bits & ((1L << TILES.length) - 1));
+    }
+
+    /**
+     * Creates a tile set holding the given tiles. Repeated tiles are only held once.
+     * @param tiles the tiles in the set.
+     * @return the tile set.
+     */
+    public static TileSet of(List<Tile> tiles) {
+        long bits = 0L;
+        for (Tile tile : tiles) {
+            bits |= 1L << tile.ordinal();
+        }
+        return fromBits(bits);
+    }
+
+    /**
+     * Retrieves the bitmask of the set.
+     * @return the bitmask, with bit i set iff the tile of ordinal i is in the set.
+     */
+    public long getBits() {
+        return bits;
+    }
+
+    /**
+     * Checks whether a tile is in the set.
+     * @param tile the tile to be checked.
+     * @return true iff the tile is in the set, false otherwise.
+     */
+    public boolean contains(Tile tile) {
+        return (bits & 1L << tile.ordinal()) != 0;
+    }
+
+    /**
+     * Retrieves the number of tiles in the set.
+     * @return the number of distinct tiles.
+     */
+    public int size() {
+        return Long.bitCount(bits);
+    }
+
+    public boolean isEmpty() {
+        return bits == 0L;
+    }
+
+    /**
+     * Creates a set holding the tiles of this set and a given tile.
+     * @param tile the tile to be added.
+     * @return the new tile set.
+     */
+    public TileSet with(Tile tile) {
+        return fromBits(bits | 1L << tile.ordinal());
+    }
+
+    /**
+     * Creates a set holding the tiles in either this set or another.
+     * @param other the other tile set.
+     * @return the union of the two sets.
+     */
+    public TileSet union(TileSet other) {
+        return fromBits(bits | other.bits);
+    }
+
+    /**
+     * Retrieves the tiles in the set.
+     * @return the tiles, in ordinal order.
+     */
+    public List<Tile> toList() {
+        List<Tile> tiles = new ArrayList<>(size());
+        for (long rest = bits; rest != 0; rest &= rest - 1) {
+            tiles.add(TILES[Long.numberOfTrailingZeros(rest)]);
+        }
+        return tiles;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TileSet tileSet && tileSet.bits == bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    /**
+     * Retrieves the string display of the set.
+     * @return the tiles in ordinal order.
+     */
+    @Override
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        for (Tile tile : toList()) {
+            output.append(tile);
+        }
+        return output.toString();
+    }
+}
@@ -0,0 +1,123 @@
+package game.board.tile;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys for tiles and groups of tiles, so that hands, piles and whole tables can be
+ * identified by a single 64-bit key kept up to date as tiles move.
+ * <p>
+ * A collection of tiles is keyed by XOR-ing one key per tile held, where the key depends on the
+ * zone the tile is in and on how many copies of the tile the zone already holds. Adding or
+ * removing a tile therefore updates the key of its zone with a single XOR, and two collections
+ * holding the same tiles have the same key whatever order the tiles were added in. Revealed
+ * groups are keyed the same way, by their kind, their first tile and how many identical groups
+ * are already held.
+ * <p>
+ * The keys are generated from a fixed seed, so they are the same in every run and can be used
+ * in caches that outlive the process.
+ */
+public final class Zobrist {
+    /**
+     * The zones a tile can be held in.
+     */
+    public enum Zone {
+        HAND,
+        FLOWERS,
+        DISCARDS,
+        WALL
+    }
+
+    /**
+     * The kinds of revealed groups.
+     */
+    public enum Group {
+        PONG,
+        SHEUNG,
+        BRIGHT_KONG,
+        DARK_KONG
+    }
+
+    private static final long SEED = 0x5EED_16_4A11L;
+    private static final int TILE_COUNT = Tile.values().length;
+    private static final int COPIES = 4;
+    private static final long[] TILE_KEYS = new long[Zone.values().length * TILE_COUNT * COPIES];
+    private static final long[] GROUP_KEYS = new long[Group.values().length * TILE_COUNT * COPIES];
+    private static final long[] SEAT_KEYS = new long[4];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < TILE_KEYS.length; i++) {
+            TILE_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < GROUP_KEYS.length; i++) {
+            GROUP_KEYS[i] = random.nextLong();
+        }
+        for (int i = 0; i < SEAT_KEYS.length; i++) {
+            SEAT_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {}
+
+    /**
+     * Retrieves the key of one copy of a tile in a zone.
+     * @param zone the zone holding the tile.
+     * @param tile the tile.
+     * @param copy the number of other copies of the tile already in the zone, from 0 to 3.
+     * @return the key.
+     */
+    public static long tile(Zone zone, Tile tile, int copy) {
+        return TILE_KEYS[(zone.ordinal() * TILE_COUNT + tile.ordinal()) * COPIES + copy];
+    }
+
+    /**
+     * Retrieves the key of a revealed group.
+     * @param group the kind of group.
+     * @param firstTile the lowest tile of the group.
+     * @param copy the number of identical groups already revealed, from 0 to 3.
+     * @return the key.
+     */
+    public static long group(Group group, Tile firstTile, int copy) {
+        return GROUP_KEYS[(group.ordinal() * TILE_COUNT + firstTile.ordinal()) * COPIES + copy];
+    }
+
+    /**
+     * Computes the key of a collection of tiles in a zone from scratch.
+     * @param zone the zone holding the tiles.
+     * @param tiles the tiles, in any order.
+     * @return the key, 0 if there are no tiles.
+     */
+    public static long of(Zone zone, List<Tile> tiles) {
+        int[] counts = new int[TILE_COUNT];
+        long key = 0;
+        for (Tile tile : tiles) {
+            key ^= tile(zone, tile, counts[tile.ordinal()]++);
+        }
+        return key;
+    }
+
+    /**
+     * Binds a key to a seat, so that the keys of the players' hands can be combined into the key
+     * of a table without identical hands at different seats cancelling out.
+     * @param key the key of something belonging to the seat.
+     * @param seat the index of the seat.
+     * @return the key bound to the seat.
+     */
+    public static long forSeat(long key, int seat) {
+        return mix(key + SEAT_KEYS[seat]);
+    }
+
+    /**
+     * Scrambles a key, so that sums of scrambled keys do not cancel the way XORs of identical
+     * keys do. Uses the finalizer of SplitMix64.
+     * @param key the key.
+     * @return the scrambled key.
+     */
+    public static long mix(long key) {
+        long z = key;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,320 @@
+package game.core;
+
+import game.board.HandManager;
+import game.board.hand.RevealedHand;
+import game.board.tile.Tile;
+import game.board.tile.TileNotation;
+import game.player.data.Seat;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Scores files of winning hands offline, outside of a game, streaming them through the
+ * {@link ScoreCalculator} on every core.
+ * <p>
+ * Each line of the input is one hand, with "|"-separated fields:
+ * <pre>
+ * concealed|revealed|darkKongs|flowers|seats|winningTile|tilesLeft|discards|lumZhong|multipleWinners|lastEvent
+ * </pre>
+ * <ul>
+ *     <li>concealed: the concealed tiles including the winning tile, in {@link TileNotation}.</li>
+ *     <li>revealed: the revealed Pongs, Sheungs and Bright Kongs, separated by ",".</li>
+ *     <li>darkKongs: the Dark Kongs, separated by ",".</li>
+ *     <li>flowers: the revealed flowers.</li>
+ *     <li>seats: four of the letters E, S, W and N, for the seat of the game, the seat of the
+ *     Zhong player, the seat of the winner, and the seat of the player who discarded the winning
+ *     tile, which is the winner's seat on a self-draw.</li>
+ *     <li>winningTile: the tile the hand was won with.</li>
+ *     <li>tilesLeft, discards, lumZhong: the number of tiles left to draw, the number of tiles
+ *     discarded during the round and the number of consecutive rounds won by the Zhong
+ *     player.</li>
+ *     <li>multipleWinners: true iff more than one player won off the same tile.</li>
+ *     <li>lastEvent: the event before the win, e.g. "flower", "kong", or empty.</li>
+ * </ul>
+ * For example, "123t456t789s55m|777m|3333s|15f|EESN|5m|40|12|0|false|". Blank lines and
+ * lines starting with "#" are skipped.
+ * <p>
+ * Each hand is written as "line|score|groups|points", with the groups and the points separated
+ * by ",", or as "line|error|message" if the hand cannot be scored. The groups are the full
+ * highest scoring grouping: the groups of the concealed tiles, followed by the revealed groups
+ * and the Dark Kongs as given. Scoring shares no state between hands, so hands are scored fully
+ * in parallel. They are written in input order, and only a fixed number of hands per thread are
+ * held at once, so memory stays bounded whatever the size of the input.
+ */
+public class BatchScorer {
+    private static final int FIELDS = 11;
+    private static final int HANDS_PER_THREAD = 64;
+    private static final int HAND_SIZE = 17;
+    private static final String SEATS = "ESWN";
+
+    private final ExecutorService executor;
+    private final int maxPending;
+    private long handCount = 0;
+    private long errorCount = 0;
+
+    /**
+     * Creates a batch scorer.
+     * @param executor the executor that hands are scored on.
+     * @param threads the number of threads of the executor.
+     */
+    public BatchScorer(ExecutorService executor, int threads) {
+        this.executor = executor;
+        this.maxPending = threads * HANDS_PER_THREAD;
+    }
+
+    /**
+     * Scores every hand of the input, writing each result as soon as it and every result before
+     * it are ready.
+     * @param input the hands, one per line.
+     * @param output where the results are written, one per line.
+     * @throws IOException if an I/O Exception occurs.
+     * @throws InterruptedException if interrupted while waiting for a hand to be scored.
+     */
+    public void run(BufferedReader input, Writer output)
+            throws IOException, InterruptedException {
+        Deque<Future<String>> pending = new ArrayDeque<>();
+        long lineNumber = 0;
+        String line;
+        while ((line = input.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            long number = lineNumber;
+            String hand = line;
+            pending.addLast(executor.submit(() -> scoreLine(number, hand)));
+            if (pending.size() >= maxPending) {
+                write(pending.removeFirst(), output);
+            }
+        }
+        while (!pending.isEmpty()) {
+            write(pending.removeFirst(), output);
+        }
+        output.flush();
+    }
+
+    public long getHandCount() {
+        return handCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    private void write(Future<String> result, Writer output)
+            throws IOException, InterruptedException {
+        String line;
+        try {
+            line = result.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Scoring task failed!", e.getCause());
+        }
+        handCount++;
+        if (line.contains("|error|")) {
+            errorCount++;
+        }
+        output.write(line);
+        output.write('\n');
+    }
+
+    private static String scoreLine(long lineNumber, String line) {
+        try {
+            return lineNumber + "|" + score(line);
+        } catch (RuntimeException e) {
+            return lineNumber + "|error|" + e.getMessage();
+        }
+    }
+
+    /**
+     * Scores one hand, finding its highest scoring grouping.
+     * @param line the hand, in the format described above.
+     * @return the result, as "score|groups|points".
+     * @throws IllegalArgumentException if the hand is not of correct format, holds more than four
+     * of a tile or is not a winning hand.
+     */
+    public static String score(String line) {
+        String[] fields = line.split("\\|", -1);
+        if (fields.length != FIELDS) {
+            throw new IllegalArgumentException("Hand is not of correct format!");
+        }
+        List<Tile> concealed = TileNotation.parse(fields[0]);
+        List<List<Tile>> revealedGroups = parseGroups(fields[1]);
+        List<List<Tile>> darkKongs = parseGroups(fields[2]);
+        int[] tileCounts = new int[Tile.values().length];
+        countTiles(List.of(concealed), tileCounts);
+        countTiles(revealedGroups, tileCounts);
+        countTiles(darkKongs, tileCounts);
+        HandManager handManager = new HandManager();
+        RevealedHand revealed = handManager.getRevealedHand();
+        int melds = 0;
+        for (List<Tile> group : revealedGroups) {
+            int kind = GroupCode.getKind(GroupCode.of(group, true));
+            if (kind == GroupCode.KONG) {
+                revealed.addBrightKongFromOpponent(group.getFirst());
+            } else if (kind == GroupCode.PONG || kind == GroupCode.SHEUNG) {
+                revealed.addGroup(group);
+            } else {
+                throw new IllegalArgumentException("Not a revealed group: " + group + "!");
+            }
+            melds++;
+        }
+        for (List<Tile> group : darkKongs) {
+            if (GroupCode.getKind(GroupCode.of(group, true)) != GroupCode.KONG) {
+                throw new IllegalArgumentException("Not a Kong: " + group + "!");
+            }
+            revealed.addDarkKong(group);
+            melds++;
+        }
+        List<Tile> flowers = TileNotation.parse(fields[3]);
+        for (int i = 0; i < flowers.size(); i++) {
+            if (flowers.indexOf(flowers.get(i)) != i) {
+                throw new IllegalArgumentException("Duplicate flower: "
+                        + TileNotation.format(List.of(flowers.get(i))) + "!");
+            }
+            revealed.addFlower(flowers.get(i));
+        }
+        if (concealed.size() + 3 * melds != HAND_SIZE) {
+            throw new IllegalArgumentException("Hand does not have " + HAND_SIZE + " tiles!");
+        }
+
+        String seats = fields[4];
+        if (seats.length() != 4) {
+            throw new IllegalArgumentException("Seats are not of correct format!");
+        }
+        Tile winningTile = TileNotation.parseTile(fields[5]);
+        if (!concealed.contains(winningTile)) {
+            throw new IllegalArgumentException("Winning tile is not in the concealed tiles!");
+        }
+        if (!fields[9].equals("true") && !fields[9].equals("false")) {
+            throw new IllegalArgumentException("Multiple winners is not true or false!");
+        }
+        ScoreContext context = new ScoreContext(parseSeat(seats.charAt(0)),
+                parseSeat(seats.charAt(1)), parseSeat(seats.charAt(2)),
+                parseSeat(seats.charAt(3)), winningTile, handManager,
+                Integer.parseInt(fields[6]), List.of(), Boolean.parseBoolean(fields[9]),
+                Integer.parseInt(fields[8]), fields[10], Integer.parseInt(fields[7]));
+
+        List<PackedHand> hands = ScoreCalculator.getValidPackedHands(concealed);
+        if (hands.isEmpty()) {
+            throw new IllegalArgumentException("Not a winning hand!");
+        }
+        int[] scores = ScoreCalculator.getHighestScores(context, hands);
+        int best = 0;
+        for (int i = 1; i < scores.length; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+
+        PackedHand hand = hands.get(best);
+        PointSet points = ScoreCalculator.getPoints(context, hand);
+        List<String> groupNotations = new ArrayList<>();
+        for (List<Tile> group : hand.toLists()) {
+            groupNotations.add(TileNotation.format(group));
+        }
+        for (List<Tile> group : revealedGroups) {
+            groupNotations.add(TileNotation.format(group));
+        }
+        for (List<Tile> group : darkKongs) {
+            groupNotations.add(TileNotation.format(group));
+        }
+        List<String> pointNames = new ArrayList<>();
+        for (MahjongPoint point : points.toList()) {
+            pointNames.add(point.name());
+        }
+        return scores[best] + "|" + String.join(",", groupNotations) + "|"
+                + String.join(",", pointNames);
+    }
+
+    private static List<List<Tile>> parseGroups(String field) {
+        List<List<Tile>> groups = new ArrayList<>();
+        if (field.isEmpty()) {
+            return groups;
+        }
+        for (String group : field.split(",", -1)) {
+            if (group.isEmpty()) {
+                throw new IllegalArgumentException("Groups are not of correct format!");
+            }
+            groups.add(TileNotation.parse(group));
+        }
+        return groups;
+    }
+
+    /**
+     * Adds the tiles of the groups to the counts of each tile, checking that no tile is held more
+     * than four times.
+     */
+    private static void countTiles(List<List<Tile>> groups, int[] tileCounts) {
+        for (List<Tile> group : groups) {
+            for (Tile tile : group) {
+                if (++tileCounts[tile.ordinal()] > 4) {
+                    throw new IllegalArgumentException("More than four of "
+                            + TileNotation.format(List.of(tile)) + "!");
+                }
+            }
+        }
+    }
+
+    private static Seat parseSeat(char seat) {
+        int index = SEATS.indexOf(seat);
+        if (index < 0) {
+            throw new IllegalArgumentException("Not a seat: " + seat + "!");
+        }
+        return Seat.values()[index];
+    }
+
+    /**
+     * Runs the batch scorer from the command line, reporting the throughput at the end.
+     * @param args the input file, or "-" for standard input; the output file, standard output
+     *             if omitted; and the number of threads, every core if omitted.
+     * @throws Exception if the batch scorer fails.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: score <input|-> [output] [threads]");
+            return;
+        }
+        int threads = args.length > 2 ? Integer.parseInt(args[2])
+                : Runtime.getRuntime().availableProcessors();
+        BufferedReader input = args[0].equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(args[0]), StandardCharsets.UTF_8);
+        Writer output = args.length > 1
+                ? Files.newBufferedWriter(Path.of(args[1]), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        BatchScorer scorer = new BatchScorer(executor, threads);
+        long start = System.nanoTime();
+        try (input) {
+            scorer.run(input, output);
+        } finally {
+            executor.shutdownNow();
+            if (args.length > 1) {
+                output.close();
+            } else {
+                output.flush();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Scored %d hands (%d errors) in %.2f s on %d threads, %.0f hands/s%n",
+                scorer.getHandCount(), scorer.getErrorCount(), seconds, threads,
+                scorer.getHandCount() / seconds);
+    }
+}
@@ -0,0 +1,247 @@
+package game.core;
+
+import game.board.BoardView;
+import game.board.tile.Tile;
+import game.core.metrics.Metrics;
+import game.core.state.Move;
+import game.core.state.MoveList;
+import game.player.Player;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * The window after a discard in which the other players may claim the discarded tile.
+ * <p>
+ * The claims each player is eligible for are the claims among the legal moves of the round, so
+ * only the next player may claim a Sheung.
+ * <p>
+ * Every player with an eligible claim is asked at once, each on their own virtual thread, so the
+ * pause after a discard lasts as long as the slowest player rather than as long as every player
+ * together. A player is asked about their eligible claims in order of priority, stopping at the
+ * first claim they accept. Players that cannot decide concurrently, such as players sharing the
+ * console, are asked one at a time on the calling thread while the others are being asked.
+ * <p>
+ * Once every player has answered, or the shared timeout runs out, the claims are resolved by
+ * priority (win, then Bright Kong, then Pong, then Sheung) and then by seat order from the
+ * discarding player. Every player accepting a win wins. A player that does not answer in time is
+ * treated as declining, and their pending decision is interrupted. A player whose answer may
+ * still arrive after the interruption, such as a remote player, must discard it rather than take
+ * it as the answer to their next decision.
+ */
+public class ClaimWindow {
+    /**
+     * The claims on a discarded tile, in order of priority.
+     */
+    public enum Claim {
+        WIN("win"),
+        BRIGHT_KONG("bright kong"),
+        PONG("pong"),
+        SHEUNG("sheung");
+
+        private final String decision;
+
+        Claim(String decision) {
+            this.decision = decision;
+        }
+    }
+
+    private final Tile discardedTile;
+    private final List<Player> otherPlayers;
+    private final Duration timeout;
+    private final Map<Player, List<Claim>> eligibleClaims = new LinkedHashMap<>();
+    private final Map<Player, Claim> acceptedClaims = new LinkedHashMap<>();
+    private final List<List<Tile>> validSheungs = new ArrayList<>();
+
+    /**
+     * Opens a claim window on a discarded tile, finding the claims each player is eligible for.
+     * @param discardedTile the discarded tile.
+     * @param otherPlayers the players other than the discarding player, in seat order from the
+     *                     discarding player.
+     * @param legalMoves the legal moves of the round after the discard.
+     * @param timeout how long to wait for the players to decide, or null to wait indefinitely.
+     */
+    public ClaimWindow(Tile discardedTile, List<Player> otherPlayers, MoveList legalMoves,
+                       Duration timeout) {
+        this.discardedTile = discardedTile;
+        this.otherPlayers = otherPlayers;
+        this.timeout = timeout;
+        Tile[] tiles = Tile.values();
+        int tile = discardedTile.ordinal();
+        for (Player player : otherPlayers) {
+            int seat = player.getSeat().ordinal();
+            List<Claim> claims = new ArrayList<>();
+            if (legalMoves.contains(Move.WIN, seat, tile)) {
+                claims.add(Claim.WIN);
+            }
+            if (legalMoves.contains(Move.CLAIM_KONG, seat, tile)) {
+                claims.add(Claim.BRIGHT_KONG);
+            }
+            if (legalMoves.contains(Move.PONG, seat, tile)) {
+                claims.add(Claim.PONG);
+            }
+            for (int i = 0; i < legalMoves.size(); i++) {
+                int move = legalMoves.get(i);
+                if (Move.getType(move) == Move.SHEUNG && Move.getSeat(move) == seat) {
+                    int start = Move.getExtraTile(move);
+                    validSheungs.add(List.of(tiles[start], tiles[start + 1], tiles[start + 2]));
+                    if (!claims.contains(Claim.SHEUNG)) {
+                        claims.add(Claim.SHEUNG);
+                    }
+                }
+            }
+            if (!claims.isEmpty()) {
+                eligibleClaims.put(player, claims);
+            }
+        }
+    }
+
+    /**
+     * Asks every eligible player about their claims and waits for their decisions.
+     * @param boardStates gives the board state from the perspective of a player.
+     * @throws RuntimeException if a player fails while deciding.
+     */
+    public void collect(Function<Player, BoardView> boardStates) {
+        if (eligibleClaims.isEmpty()) {
+            return;
+        }
+        if (eligibleClaims.size() == 1 && timeout == null) {
+            Player player = eligibleClaims.keySet().iterator().next();
+            accept(player, ask(player, boardStates.apply(player)));
+            return;
+        }
+
+        Map<Player, FutureTask<Claim>> pending = new LinkedHashMap<>();
+        List<Player> sequentialPlayers = new ArrayList<>();
+        for (Player player : eligibleClaims.keySet()) {
+            if (player.canDecideConcurrently()) {
+                BoardView boardState = boardStates.apply(player);
+                FutureTask<Claim> task = new FutureTask<>(() -> ask(player, boardState));
+                Thread.ofVirtual().name("claim-" + player.getName()).start(task);
+                pending.put(player, task);
+            } else {
+                sequentialPlayers.add(player);
+            }
+        }
+        for (Player player : sequentialPlayers) {
+            accept(player, ask(player, boardStates.apply(player)));
+        }
+
+        long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        boolean interrupted = false;
+        for (Map.Entry<Player, FutureTask<Claim>> entry : pending.entrySet()) {
+            FutureTask<Claim> task = entry.getValue();
+            try {
+                if (interrupted) {
+                    task.cancel(true);
+                } else if (timeout == null) {
+                    accept(entry.getKey(), task.get());
+                } else {
+                    long remaining = Math.max(0, deadline - System.nanoTime());
+                    accept(entry.getKey(), task.get(remaining, TimeUnit.NANOSECONDS));
+                }
+            } catch (TimeoutException e) {
+                task.cancel(true);
+            } catch (InterruptedException e) {
+                task.cancel(true);
+                interrupted = true;
+            } catch (ExecutionException e) {
+                for (FutureTask<Claim> other : pending.values()) {
+                    other.cancel(true);
+                }
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retrieves the players that claimed the discarded tile to win, in seat order.
+     * @return the winners, or an empty list if nobody claimed a win.
+     */
+    public List<Player> getWinners() {
+        List<Player> winners = new ArrayList<>();
+        for (Player player : otherPlayers) {
+            if (acceptedClaims.get(player) == Claim.WIN) {
+                winners.add(player);
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Retrieves the claim that takes the discarded tile, other than a win.
+     * @return the highest priority claim, or null if nobody claimed the tile.
+     */
+    public Claim getClaim() {
+        Player claimant = getClaimant();
+        return claimant == null ? null : acceptedClaims.get(claimant);
+    }
+
+    /**
+     * Retrieves the player whose claim takes the discarded tile, other than a win.
+     * @return the player with the highest priority claim, the earliest in seat order on a tie, or
+     * null if nobody claimed the tile.
+     */
+    public Player getClaimant() {
+        Player claimant = null;
+        for (Player player : otherPlayers) {
+            Claim claim = acceptedClaims.get(player);
+            if (claim != null && claim != Claim.WIN
+                    && (claimant == null || claim.compareTo(acceptedClaims.get(claimant)) < 0)) {
+                claimant = player;
+            }
+        }
+        return claimant;
+    }
+
+    /**
+     * Retrieves the Sheung combos the next player can form with the discarded tile.
+     * @return the valid Sheung combos, each sorted, in order of their lowest tile.
+     */
+    public List<List<Tile>> getValidSheungs() {
+        return Collections.unmodifiableList(validSheungs);
+    }
+
+    /**
+     * Asks a player about each of their eligible claims in order of priority.
+     * @return the first claim accepted, or null if every claim is declined.
+     */
+    private Claim ask(Player player, BoardView boardState) {
+        for (Claim claim : eligibleClaims.get(player)) {
+            boolean accepted = Metrics.decide(player, claim.decision, () -> switch (claim) {
+                case WIN -> player.decideWin(discardedTile, boardState);
+                case BRIGHT_KONG -> player.decideBrightKongNoDraw(discardedTile, boardState);
+                case PONG -> player.decidePong(discardedTile, boardState);
+                case SHEUNG -> player.decideSheung(discardedTile, boardState);
+            });
+            if (accepted) {
+                return claim;
+            }
+        }
+        return null;
+    }
+
+    private void accept(Player player, Claim claim) {
+        if (claim != null) {
+            acceptedClaims.put(player, claim);
+        }
+    }
+}
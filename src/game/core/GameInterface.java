@@ -6,16 +6,33 @@ import game.core.turn.data.TurnEnder;
 import game.player.Bot;
 import game.player.Player;
 import game.player.RealPlayer;
+import game.player.data.PlayerLedger;
+import game.player.data.PlayerStore;
 import game.player.data.Seat;
+import game.player.data.Settlement;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 /**
  * The main command interface for the game application.
  */
 public class GameInterface {
+    /**
+     * The file players were saved to before the player store, imported on first run.
+     */
+    private static final String LEGACY_PLAYERS_PATH = "players.txt";
+
+    /**
+     * The number of players shown on the leaderboard.
+     */
+    private static final int LEADERBOARD_SIZE = 20;
+
     private final List<Player> playerList;
+    private PlayerStore playerStore;
+    private PlayerLedger ledger;
 
     /**
      * Creates a game interface instance.
@@ -25,7 +42,8 @@ public class GameInterface {
     }
 
     /**
-     * Creates a game interface instance with a list of players.
+     * Creates a game interface instance with a list of players, which replace the saved players
+     * if the saved players are not loaded.
      */
     public GameInterface(List<Player> playerList) {
         this.playerList = playerList;
@@ -35,8 +53,17 @@ public class GameInterface {
      * Runs the interface for home menu.
      */
     public void run(boolean loadPlayers) throws IOException {
+        boolean newStore = !Files.exists(Path.of(PlayerStore.STORE_PATH));
+        playerStore = PlayerStore.open(Path.of(PlayerStore.STORE_PATH));
+        ledger = new PlayerLedger(Path.of(PlayerLedger.LEDGER_PATH),
+                playerStore.getLastRoundId(), 1);
         if (loadPlayers) {
-            loadPlayers();
+            loadPlayers(newStore);
+        } else {
+            playerStore.clear();
+            for (Player player : playerList) {
+                playerStore.addPlayer(player);
+            }
         }
         boolean activeFlag = true;
         Prompter.printLine("\n\n\n🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙 港式十六張麻雀 🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙🀙");
@@ -61,12 +88,14 @@ public class GameInterface {
             }
         }
         savePlayers();
+        ledger.close();
+        playerStore.close();
     }
 
     /**
      * Runs the interface for player management.
      */
-    public void runPlayers() {
+    public void runPlayers() throws IOException {
         boolean activeFlag = true;
         String helpMessage = Prompter.getLine() + """
                     \n== PLAYER MANAGEMENT ==
@@ -92,14 +121,15 @@ public class GameInterface {
     }
 
     /**
-     * Prints the list of players.
+     * Prints the leaderboard of the players with the highest scores.
      */
     public void runPlayerView() {
         Prompter.printLine();
-        if (playerList.isEmpty()) {
+        if (playerStore.isEmpty()) {
             Prompter.printLine("No players found!");
         } else {
-            int maxNameLength = playerList.stream()
+            List<Player> topPlayers = playerStore.getTopPlayers(LEADERBOARD_SIZE);
+            int maxNameLength = topPlayers.stream()
                     .mapToInt(player -> player.getName().length())
                     .max()
                     .orElse(4);
@@ -109,13 +139,13 @@ public class GameInterface {
             Prompter.printLine(" " + "-".repeat(maxNameLength + 1) + "+-------");
 
             String rowFormat = " %-" + (maxNameLength + 1) + "s| %d%n";
-
-            List<Player> sortedPlayers = playerList.stream()
-                    .sorted(Comparator.comparingInt(Player::getScore).reversed())
-                    .toList();
-            for (Player player : sortedPlayers) {
+            for (Player player : topPlayers) {
                 System.out.printf(rowFormat, player.getName(), player.getScore());
             }
+            if (playerStore.size() > topPlayers.size()) {
+                Prompter.printLine(" Showing the top " + topPlayers.size() + " of "
+                        + playerStore.size() + " players.");
+            }
         }
         Prompter.printLine();
     }
@@ -123,7 +153,7 @@ public class GameInterface {
     /**
      * Runs the interface for player create.
      */
-    public void runPlayerCreate() {
+    public void runPlayerCreate() throws IOException {
         String helpMessageName = Prompter.getLine() + """
                     \n== PLAYER CREATOR ==
                     Options:
@@ -152,11 +182,9 @@ public class GameInterface {
                 Prompter.printLine();
                 return;
             }
-            for (Player player : playerList) {
-                if (player.getName().equals(name)) {
-                    Prompter.printLine("A player with this name already exists!");
-                    nameFlag = true;
-                }
+            if (playerStore.contains(name)) {
+                Prompter.printLine("A player with this name already exists!");
+                nameFlag = true;
             }
         }
 
@@ -177,7 +205,7 @@ public class GameInterface {
             case "n", "no" -> newPlayer = new RealPlayer(name, startingScore);
         }
         if (newPlayer != null) {
-            playerList.add(newPlayer);
+            playerStore.addPlayer(newPlayer);
         }
         Prompter.printLine();
     }
@@ -185,7 +213,7 @@ public class GameInterface {
     /**
      * Runs the interface for player edit.
      */
-    public void runPlayerEdit() {
+    public void runPlayerEdit() throws IOException {
         Player activePlayer = null;
         String helpMessage = Prompter.getLine() + """
                     \n== PLAYER EDIT ==
@@ -211,11 +239,7 @@ public class GameInterface {
                 Prompter.printLine();
                 return;
             }
-            for (Player player : playerList) {
-                if (name.equals(player.getName())) {
-                    activePlayer = player;
-                }
-            }
+            activePlayer = playerStore.getPlayer(name);
         }
 
         // CHANGE NAME
@@ -225,6 +249,12 @@ public class GameInterface {
             Prompter.printLine();
             return;
         }
+        if (!newName.equals(activePlayer.getName()) && playerStore.contains(newName)) {
+            Prompter.printLine("A player with this name already exists!");
+            Prompter.printLine();
+            return;
+        }
+        playerStore.renamePlayer(activePlayer.getName(), newName);
         activePlayer.setName(newName);
 
         // SET SCORE
@@ -236,7 +266,7 @@ public class GameInterface {
             return;
         }
         int startingScore = Integer.parseInt(scoreResponse);
-        activePlayer.setScore(startingScore);
+        playerStore.setScore(activePlayer.getName(), startingScore);
         Prompter.printLine();
     }
 
@@ -262,19 +292,16 @@ public class GameInterface {
                 Prompter.printLine();
                 return;
             }
-            boolean existsPlayer = false;
-            for (Player player : playerList) {
-                if (name.equals(player.getName())) {
-                    existsPlayer = true;
-                    String confirm = Prompter.prompterCommand(
-                            "Are you sure you want to delete " + player.getName()
-                                    + "? (Y/N)", Set.of("y", "yes", "n", "no"),
-                            false, helpMessageConfirm);
-                    if (confirm.equals("y") || confirm.equals("yes")) {
-                        playerList.remove(player);
-                        Prompter.printLine();
-                        return;
-                    }
+            boolean existsPlayer = playerStore.contains(name);
+            if (existsPlayer) {
+                String confirm = Prompter.prompterCommand(
+                        "Are you sure you want to delete " + name
+                                + "? (Y/N)", Set.of("y", "yes", "n", "no"),
+                        false, helpMessageConfirm);
+                if (confirm.equals("y") || confirm.equals("yes")) {
+                    playerStore.removePlayer(name);
+                    Prompter.printLine();
+                    return;
                 }
             }
             if (existsPlayer) {
@@ -288,8 +315,8 @@ public class GameInterface {
     /**
      * Starts a new game.
      */
-    public void startGame() {
-        if (playerList.size() < 4) {
+    public void startGame() throws IOException {
+        if (playerStore.size() < 4) {
             Prompter.printLine("Not enough players to start a game!");
             return;
         }
@@ -317,30 +344,29 @@ public class GameInterface {
                 if (name.equals("exit")) {
                     return;
                 }
-                boolean existsPlayer = false;
-                for (Player player : playerList) {
-                    if (name.equals(player.getName()) && !activePlayers.contains(player)) {
-                        Seat seat = player.getSeat();
-                        if (seat == null || !availableSeats.contains(seat)) {
-                            seat = Prompter.promptSeat(availableSeats);
-                        } else {
-                            switch (Prompter.prompterCommand("Current seat: " + seat
-                                            + ". Do you want to switch seats? (Y/N)",
-                                    Set.of("exit", "y", "yes", "n", "no"), false,
-                                    helpMessageSwitchSeat)) {
-                                case "exit" -> {
-                                    return;
-                                }
-                                case "y", "yes" -> seat = Prompter.promptSeat(availableSeats);
+                Player player = playerStore.getPlayer(name);
+                boolean existsPlayer = player != null;
+                if (existsPlayer && !activePlayers.contains(player)) {
+                    Seat seat = player.getSeat();
+                    if (seat == null || !availableSeats.contains(seat)) {
+                        seat = Prompter.promptSeat(availableSeats);
+                    } else {
+                        switch (Prompter.prompterCommand("Current seat: " + seat
+                                        + ". Do you want to switch seats? (Y/N)",
+                                Set.of("exit", "y", "yes", "n", "no"), false,
+                                helpMessageSwitchSeat)) {
+                            case "exit" -> {
+                                return;
                             }
+                            case "y", "yes" -> seat = Prompter.promptSeat(availableSeats);
                         }
-                        player.setSeat(seat);
-                        availableSeats.remove(seat);
-                        activePlayers.add(player);
-                        activeFlag = false;
-                    } else if (name.equals(player.getName())) {
-                        existsPlayer = true;
                     }
+                    player.setSeat(seat);
+                    playerStore.setSeat(name, seat);
+                    availableSeats.remove(seat);
+                    player.setLeaderboard(playerStore.getLeaderboard());
+                    activePlayers.add(player);
+                    activeFlag = false;
                 }
                 if (activeFlag) {
                     if (existsPlayer) {
@@ -355,10 +381,7 @@ public class GameInterface {
         // START GAME
         try {
             // record starting scores
-            Map<Player, Integer> originalScores = new HashMap<>();
-            for (Player player : activePlayers) {
-                originalScores.put(player, player.getScore());
-            }
+            Map<Player, Integer> originalScores = Settlement.getScores(activePlayers);
 
             // initialize game
             TurnManager turnManager = new TurnManager(activePlayers);
@@ -366,10 +389,6 @@ public class GameInterface {
             Seat gameSeat = seats.getFirst();
             Seat roundSeat = seats.getFirst();
             int lumZhongNum = 0;
-            Map<Player, Map<Player, Integer>> pullZhong = new HashMap<>();
-            for (Player winner : activePlayers) {
-                pullZhong.put(winner, new HashMap<>());
-            }
 
             // continuously run rounds until terminated
             boolean gameFlag = true;
@@ -387,8 +406,6 @@ public class GameInterface {
 
                 // handle wins
                 List<Player> winners = new ArrayList<>();
-                String lastEvent = turnManager.getLastEvent();
-                int discardCount = turnManager.getDiscardCount();
                 if (turnEnder == TurnEnder.END_GAME_WIN) {
                     Player loser = turnManager.getCurrentPlayer();
                     winners.addAll(turnManager.getWinners());
@@ -396,11 +413,10 @@ public class GameInterface {
                         // CALCULATE BEST HAND AND SCORE
                         HandManager winnerHandManager = winner.getHandManager();
                         List<List<Tile>> highestHand = new ArrayList<>();
-                        List<MahjongPoint> highestPoints = new ArrayList<>();
-                        int highestScore = calculateScore(highestHand, highestPoints, gameSeat,
-                                roundSeat, turnManager, winnerHandManager, winner.getSeat(),
-                                loser.getSeat(), winners.size() > 1, lumZhongNum,
-                                lastEvent, discardCount);
+                        PointSet highestPoints = new PointSet();
+                        int highestScore = turnManager.scoreWin(winner, loser, gameSeat,
+                                roundSeat, winners.size() > 1, lumZhongNum, highestHand,
+                                highestPoints);
 
                         // DISPLAY RESULTS
                         Prompter.printLine(winner.toStringWithSeat() + " won off " + loser.toStringWithSeat() + "!");
@@ -408,39 +424,10 @@ public class GameInterface {
                         Prompter.printLine(Prompter.pointsToDisplay(highestPoints));
                         Prompter.printLine("Score: " + highestScore);
                         Prompter.printLine();
-                        revertPointScores();
 
                         // HANDLE PULLS
-                        for (Map.Entry<Player, Map<Player, Integer>> entry : pullZhong.entrySet()) {
-                            Player leader = entry.getKey();
-                            Map<Player, Integer> leaderPulls = entry.getValue();
-                            if (leader == winner) {
-                                try {
-                                    int trailingScore = leaderPulls.get(loser);
-                                    if (trailingScore == 0) {
-                                        throw new NullPointerException();
-                                    }
-                                    leaderPulls.put(loser, highestScore + (trailingScore * 2));
-                                    highestScore += trailingScore;
-                                } catch (NullPointerException e) {
-                                    leaderPulls.put(loser, highestScore);
-                                }
-                            } else {
-                                for (Map.Entry<Player, Integer> losing : leaderPulls.entrySet()) {
-                                    Player trailer = losing.getKey();
-                                    int trailingScore = losing.getValue();
-                                    if (winner == trailer && loser == leader) {
-                                        trailingScore = trailingScore / 2;
-                                    }
-                                    trailer.deductScore(trailingScore);
-                                    leader.addScore(trailingScore);
-                                    displayMoneyCollect(leader, trailer, trailingScore);
-                                    Prompter.printLine();
-                                }
-                                leaderPulls.clear();
-                            }
-                        }
-                        displayPullZhong(pullZhong);
+                        displayMoneyCollected(turnManager.pullWin(winner, loser, highestScore));
+                        displayPullZhong(turnManager.getPulls());
                     }
                 } else if (turnEnder == TurnEnder.END_GAME_WIN_SELFDRAW) {
                     Player winner = turnManager.getCurrentPlayer();
@@ -449,11 +436,9 @@ public class GameInterface {
                     // CALCULATE BEST HAND AND SCORE
                     HandManager winnerHandManager = winner.getHandManager();
                     List<List<Tile>> highestHand = new ArrayList<>();
-                    List<MahjongPoint> highestPoints = new ArrayList<>();
-                    int highestScore = calculateScore(highestHand, highestPoints, gameSeat,
-                            roundSeat, turnManager, winnerHandManager, winner.getSeat(),
-                            winner.getSeat(), false, lumZhongNum,
-                            lastEvent, discardCount);
+                    PointSet highestPoints = new PointSet();
+                    int highestScore = turnManager.scoreWin(winner, winner, gameSeat,
+                            roundSeat, false, lumZhongNum, highestHand, highestPoints);
 
                     // DISPLAY RESULTS
                     Prompter.printLine(winner.toStringWithSeat() + " won off a self-draw!");
@@ -461,71 +446,30 @@ public class GameInterface {
                     Prompter.printLine(Prompter.pointsToDisplay(highestPoints));
                     Prompter.printLine("Score: " + highestScore);
                     Prompter.printLine();
-                    revertPointScores();
 
                     // ADJUST SCORES BASED ON SEAT
-                    int zhongScore = highestScore + 2 * (2 * lumZhongNum + 1);
-                    Map<Player, Integer> lostScores = new HashMap<>();
+                    Map<Player, Integer> lostScores = new LinkedHashMap<>();
                     for (Player loser : turnManager.getOtherPlayers()) {
-                        if (roundSeat == loser.getSeat()) {
-                            lostScores.put(loser, zhongScore);
-                        } else {
-                            lostScores.put(loser, highestScore);
-                        }
+                        lostScores.put(loser, TurnManager.getSelfDrawPayment(highestScore,
+                                loser, roundSeat, lumZhongNum));
                     }
 
                     // HANDLE PULLS
-                    for (Map.Entry<Player, Map<Player, Integer>> entry : pullZhong.entrySet()) {
-                        Player leader = entry.getKey();
-                        Map<Player, Integer> leaderPulls = entry.getValue();
-                        if (leader == winner) {
-                            for (Player loser : turnManager.getOtherPlayers()) {
-                                int lostScore = lostScores.get(loser);
-                                if (leaderPulls.containsKey(loser)) {
-                                    int trailingScore = leaderPulls.get(loser);
-                                    leaderPulls.put(loser, lostScore + (trailingScore * 2));
-                                } else {
-                                    leaderPulls.put(loser, lostScore);
-                                }
-                            }
-                        } else {
-                            for (Map.Entry<Player, Integer> losing : leaderPulls.entrySet()) {
-                                Player trailer = losing.getKey();
-                                int trailingScore = losing.getValue();
-                                if (winner == trailer) {
-                                    trailingScore = trailingScore / 2;
-                                }
-                                trailer.deductScore(trailingScore);
-                                leader.addScore(trailingScore);
-                                displayMoneyCollect(leader, trailer, trailingScore);
-                                Prompter.printLine();
-                            }
-                            leaderPulls.clear();
-                        }
-                    }
-                    displayPullZhong(pullZhong);
+                    displayMoneyCollected(turnManager.pullSelfDraw(winner, lostScores));
+                    displayPullZhong(turnManager.getPulls());
                 } else {
                     Prompter.printLine("Game ended in a tie!");
                     Prompter.printLine();
                 }
-                for (Player player : playerList) {
+                for (Player player : activePlayers) {
                     player.clearHand();
                 }
+                recordRound(turnManager.getSettlement());
 
                 String response = Prompter.prompter("Start new round? (Y/N)").toLowerCase();
                 if (response.equals("y") || response.equals("yes")) {
                     // CHANGES THE ROUND SEAT
-                    boolean lumZhongFlag = false;
-                    if (turnEnder == TurnEnder.END_GAME_DRAW) {
-                        lumZhongFlag = true;
-                    } else {
-                        for (Player winner : winners) {
-                            if (roundSeat == winner.getSeat()) {
-                                lumZhongFlag = true;
-                                break;
-                            }
-                        }
-                    }
+                    boolean lumZhongFlag = turnManager.keepsZhong(turnEnder, roundSeat);
                     if (!lumZhongFlag) {
                         int currentIndex = seats.indexOf(roundSeat);
                         int nextIndex = (currentIndex + 1) % seats.size();
@@ -545,14 +489,7 @@ public class GameInterface {
                     gameFlag = false;
                 }
             }
-            for (Map.Entry<Player, Map<Player, Integer>> entry : pullZhong.entrySet()) {
-                Player leader = entry.getKey();
-                for (Map.Entry<Player, Integer> losing : entry.getValue().entrySet()) {
-                    int trailingScore = losing.getValue();
-                    losing.getKey().deductScore(trailingScore);
-                    leader.addScore(trailingScore);
-                }
-            }
+            recordRound(turnManager.settlePulls());
 
             // display gains and losses
             Prompter.printLine();
@@ -568,53 +505,35 @@ public class GameInterface {
             Prompter.printLine("Game crashed! Error: " + e);
         } catch (EmptyPileException e) {
             Prompter.printLine("Game crashed! Pile was empty during initial draw!");
-        }
-    }
-
-    private int calculateScore(List<List<Tile>> highestHand, List<MahjongPoint> highestPoints,
-                               Seat gameSeat, Seat roundSeat, TurnManager turnManager,
-                               HandManager winnerHandManager, Seat winnerSeat, Seat loserSeat,
-                               boolean multipleWinners, int lumZhongNum,
-                               String lastEvent, int discardCount) {
-        Tile wonOffTile = winnerHandManager.getHand().getLastDrawnTile();
-
-        int highestScore = 0;
-        for (List<List<Tile>> hand : ScoreCalculator.getValidHands(winnerHandManager.getHand().getTiles())) {
-            List<MahjongPoint> points = ScoreCalculator.getPoints(gameSeat, roundSeat,
-                    winnerSeat, loserSeat,
-                    new ArrayList<>(hand), wonOffTile, winnerHandManager,
-                    turnManager.getPileManager().getUnrevealedPile().getRemainingTileCount(),
-                    turnManager.getPileManager().getDiscardPile().getDiscardedTiles(),
-                    multipleWinners, lumZhongNum, lastEvent, discardCount);
-            int score = ScoreCalculator.getScore(points);
-            if (score > highestScore) {
-                highestScore = score;
-                highestHand.clear();
-                highestHand.addAll(hand);
-                highestPoints.clear();
-                highestPoints.addAll(points);
+        } finally {
+            for (Player player : activePlayers) {
+                player.setLeaderboard(null);
             }
         }
-        Collections.sort(highestPoints);
-        return highestScore;
     }
 
     /**
-     * After calculating scores for a game, reverts enums to their base scores.
+     * Appends the score changes committed by a settlement to the player ledger, and applies
+     * them to the player store.
+     * @param settlement the settlement of the round.
+     * @throws IOException if an I/O Exception occurs.
      */
-    private void revertPointScores() {
-        List<MahjongPoint> existingWindPoints = List.of(MahjongPoint.EAST, MahjongPoint.SOUTH,
-                MahjongPoint.WEST, MahjongPoint.NORTH);
-        for (MahjongPoint point : existingWindPoints) {
-            point.setPointScore(1);
-        }
-        MahjongPoint.ZHONG.setPointScore(1);
+    private void recordRound(Settlement settlement) throws IOException {
+        ledger.recordRound(playerStore, settlement.getCommittedDeltas());
     }
 
-    private void displayMoneyCollect(Player leader, Player trailer, int trailingScore) {
-        Prompter.printLine("收錢! Money collected!");
-        Prompter.printLine("    " + leader.toStringWithSeat() + ": +" + trailingScore);
-        Prompter.printLine("    " + trailer.toStringWithSeat() + ": -" + trailingScore);
+    private void displayMoneyCollected(Map<Player, Map<Player, Integer>> collected) {
+        for (Map.Entry<Player, Map<Player, Integer>> pull : collected.entrySet()) {
+            Player leader = pull.getKey();
+            for (Map.Entry<Player, Integer> entry : pull.getValue().entrySet()) {
+                int trailingScore = entry.getValue();
+                Prompter.printLine("收錢! Money collected!");
+                Prompter.printLine("    " + leader.toStringWithSeat() + ": +" + trailingScore);
+                Prompter.printLine("    " + entry.getKey().toStringWithSeat() + ": -"
+                        + trailingScore);
+                Prompter.printLine();
+            }
+        }
     }
 
     private void displayPullZhong(Map<Player, Map<Player, Integer>> pullZhong) {
@@ -632,22 +551,6 @@ public class GameInterface {
         }
     }
 
-    /**
-     * Creates a string representation of the player list for saving to file.
-     * @param playerList the list of players.
-     * @return the string representation.
-     */
-    private String playerListToStringSave(List<Player> playerList) {
-        StringBuilder output = new StringBuilder();
-        output.append(playerList.size());
-        output.append("\n");
-        for (Player player : playerList) {
-            output.append(player.toStringSave());
-            output.append("\n");
-        }
-        return output.substring(0, output.length() - 1);
-    }
-
     /**
      * Runs the program to save players to file.
      * @throws IOException if an I/O Exception occurs.
@@ -658,53 +561,25 @@ public class GameInterface {
     }
 
     /**
-     * Saves players to the file "players.txt".
+     * Saves players to the player store, emptying the player ledger.
      * @throws IOException if an I/O Exception occurs.
      */
     private void savePlayers() throws IOException {
-        BufferedWriter writer = new BufferedWriter(new FileWriter("players.txt"));
-        writer.write(playerListToStringSave(playerList));
-        writer.close();
+        ledger.compact(playerStore);
     }
 
     /**
-     * Loads the list of players from the file "players.txt".
+     * Loads the saved players, applying every round recorded in the player ledger since the
+     * player store was last saved. When the player store is first created, the players in
+     * "players.txt" are imported, i.e. the sample players shipped with the game or the players
+     * saved there by earlier versions.
+     * @param newStore whether the player store was just created.
      * @throws IOException if an I/O Exception occurs.
      */
-    private void loadPlayers() throws IOException {
-        playerList.clear();
-        BufferedReader reader = new BufferedReader(new FileReader("players.txt"));
-        String playerCount = reader.readLine();
-        try {
-            int numPlayers = Integer.parseInt(playerCount);
-            for (int i = 0; i < numPlayers; i++) {
-                String playerLine = reader.readLine();
-                String[] lineParts = playerLine.split("\\|");
-                if (lineParts.length != 4) {
-                    throw new IOException("Player is not of correct format!");
-                }
-                String botStatus = lineParts[0];
-                String name = lineParts[1];
-                String seat = lineParts[2];
-                String scoreString = lineParts[3];
-                int score = Integer.parseInt(scoreString);
-                Player newPlayer;
-                if (botStatus.equalsIgnoreCase("bot")) {
-                    newPlayer = new Bot(name, score);
-                } else {
-                    newPlayer = new RealPlayer(name, score);
-                }
-                for (Seat existingSeat : Seat.values()) {
-                    if (existingSeat.getSeatNameEng().equals(seat)) {
-                        newPlayer.setSeat(existingSeat);
-                        break;
-                    }
-                }
-                playerList.add(newPlayer);
-            }
-        } catch (NumberFormatException e) {
-            throw new IOException("File is not of correct format!");
+    private void loadPlayers(boolean newStore) throws IOException {
+        if (newStore && Files.exists(Path.of(LEGACY_PLAYERS_PATH))) {
+            playerStore.importSnapshot(Path.of(LEGACY_PLAYERS_PATH));
         }
+        ledger.replay(playerStore);
     }
 }
-
@@ -0,0 +1,231 @@
+package game.core;
+
+import game.board.WinChecker;
+import game.board.tile.Tile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Groups of tiles encoded as small ints, so that groups can be sorted, compared and stored as
+ * primitives.
+ * <p>
+ * A code holds the kind of the group, the ordinal of its first tile, the number of its tiles and
+ * whether it is revealed. The fields are laid out so that codes sort in the same order as
+ * {@link HandSorter#sortLists(List)} sorts groups: larger groups first, then by first tile, then
+ * Pongs before Sheungs. The tiles of the special groups of Thirteen Orphans and Sixteen Disjoint
+ * do not fit in a code, so their codes only hold the kind and size of the group, and the tiles
+ * are kept as a mask alongside, see {@link PackedHand}. The tiles of every other group can be
+ * read from a code without decoding it, see {@link #getTiles(int)}.
+ */
+public final class GroupCode {
+    /**
+     * Three identical tiles.
+     */
+    public static final int PONG = 0;
+    /**
+     * Three consecutive tiles of the same type.
+     */
+    public static final int SHEUNG = 1;
+    /**
+     * Four identical tiles.
+     */
+    public static final int KONG = 2;
+    /**
+     * Two identical tiles.
+     */
+    public static final int PAIR = 3;
+    /**
+     * The distinct orphans of a Thirteen Orphans hand.
+     */
+    public static final int ORPHANS = 4;
+    /**
+     * The distinct tiles of a Sixteen Disjoint hand.
+     */
+    public static final int DISJOINT = 5;
+
+    private static final Tile[] TILES = Tile.values();
+    private static final int REVEALED_BIT = 1;
+    private static final int KIND_SHIFT = 1;
+    private static final int KIND_MASK = 0x7;
+    private static final int TILE_SHIFT = 4;
+    private static final int TILE_MASK = 0x3F;
+    private static final int SIZE_SHIFT = 10;
+    private static final int SIZE_MASK = 0x1F;
+    private static final int MAX_SIZE = SIZE_MASK;
+    private static final long ORPHAN_MASK = maskOf(WinChecker.getThirteenOrphans());
+    private static final int CODE_COUNT = 1 << 15;
+    // the tiles of every group that is not special, indexed by code
+    private static final List<List<Tile>> GROUP_TILES = buildGroupTiles();
+
+    private GroupCode() {}
+
+    /**
+     * Encodes a group.
+     * @param kind the kind of group.
+     * @param firstTile the ordinal of the first tile of the group, or 0 for special groups.
+     * @param size the number of tiles in the group.
+     * @param revealed true iff the group is revealed.
+     * @return the code of the group.
+     */
+    public static int of(int kind, int firstTile, int size, boolean revealed) {
+        return (MAX_SIZE - size) << SIZE_SHIFT
+                | firstTile << TILE_SHIFT
+                | kind << KIND_SHIFT
+                | (revealed ? REVEALED_BIT : 0);
+    }
+
+    /**
+     * Encodes a group given as a list of tiles.
+     * @param group the tiles of the group, in any order.
+     * @param revealed true iff the group is revealed.
+     * @return the code of the group.
+     * @throws IllegalArgumentException if the tiles do not form a group.
+     */
+    public static int of(List<Tile> group, boolean revealed) {
+        int size = group.size();
+        Tile first = group.getFirst();
+        for (Tile tile : group) {
+            if (tile.ordinal() < first.ordinal()) {
+                first = tile;
+            }
+        }
+        long mask = maskOf(group);
+        int distinct = Long.bitCount(mask);
+        if (distinct == 1 && size >= 2 && size <= 4) {
+            int kind = size == 2 ? PAIR : size == 3 ? PONG : KONG;
+            return of(kind, first.ordinal(), size, revealed);
+        }
+        if (size == 3 && distinct == 3 && mask == 0b111L << first.ordinal()
+                && TILES[first.ordinal() + 2].getTileType() == first.getTileType()) {
+            return of(SHEUNG, first.ordinal(), size, revealed);
+        }
+        if (distinct == size && (mask & ~ORPHAN_MASK) == 0) {
+            return of(ORPHANS, 0, size, revealed);
+        }
+        if (distinct == size) {
+            return of(DISJOINT, 0, size, revealed);
+        }
+        throw new IllegalArgumentException("Not a valid group: " + group + "!");
+    }
+
+    public static int getKind(int code) {
+        return (code >>> KIND_SHIFT) & KIND_MASK;
+    }
+
+    public static Tile getFirstTile(int code) {
+        return TILES[(code >>> TILE_SHIFT) & TILE_MASK];
+    }
+
+    public static int getSize(int code) {
+        return MAX_SIZE - ((code >>> SIZE_SHIFT) & SIZE_MASK);
+    }
+
+    public static boolean isRevealed(int code) {
+        return (code & REVEALED_BIT) != 0;
+    }
+
+    /**
+     * Checks whether a code is of a special group, whose tiles are not held by the code.
+     * @param code the code of the group.
+     * @return true iff the group is the special group of Thirteen Orphans or Sixteen Disjoint.
+     */
+    public static boolean isSpecial(int code) {
+        int kind = getKind(code);
+        return kind == ORPHANS || kind == DISJOINT;
+    }
+
+    /**
+     * Decodes a group into a list of tiles.
+     * @param code the code of the group.
+     * @param specialTiles the mask of the tiles of the group if it is special, ignored
+     *                     otherwise.
+     * @return the tiles of the group, in ascending order, except for Thirteen Orphans, which
+     * are in the order of {@link WinChecker#getThirteenOrphans()}. The list is modifiable.
+     */
+    public static List<Tile> toTiles(int code, long specialTiles) {
+        int kind = getKind(code);
+        int size = getSize(code);
+        List<Tile> tiles = new ArrayList<>(size);
+        if (kind == ORPHANS) {
+            for (Tile tile : WinChecker.getThirteenOrphans()) {
+                if ((specialTiles & (1L << tile.ordinal())) != 0) {
+                    tiles.add(tile);
+                }
+            }
+        } else if (kind == DISJOINT) {
+            for (int ordinal = 0; ordinal < TILES.length; ordinal++) {
+                if ((specialTiles & (1L << ordinal)) != 0) {
+                    tiles.add(TILES[ordinal]);
+                }
+            }
+        } else {
+            int first = (code >>> TILE_SHIFT) & TILE_MASK;
+            for (int i = 0; i < size; i++) {
+                tiles.add(TILES[kind == SHEUNG ? first + i : first]);
+            }
+        }
+        return tiles;
+    }
+
+    /**
+     * Retrieves the tiles of a group that is not special, without decoding the group. The list
+     * is shared by every group of the same code, so scoring can read the groups of a
+     * {@link PackedHand} without unpacking it.
+     * @param code the code of the group.
+     * @return the tiles of the group, in ascending order. The list is unmodifiable.
+     * @throws IllegalArgumentException if the group is special or the code is not valid.
+     */
+    public static List<Tile> getTiles(int code) {
+        List<Tile> tiles = code >= 0 && code < CODE_COUNT ? GROUP_TILES.get(code) : null;
+        if (tiles == null) {
+            throw new IllegalArgumentException("Not a code of a group that is not special: "
+                    + code + "!");
+        }
+        return tiles;
+    }
+
+    /**
+     * Describes a group for display purposes.
+     * @param code the code of the group.
+     * @return the string representation.
+     */
+    public static String toString(int code) {
+        String[] kinds = {"Pong", "Sheung", "Kong", "Pair", "Orphans", "Disjoint"};
+        String output = (isRevealed(code) ? "revealed " : "") + kinds[getKind(code)];
+        return isSpecial(code) ? output + " of " + getSize(code)
+                : output + " " + getFirstTile(code);
+    }
+
+    private static List<List<Tile>> buildGroupTiles() {
+        List<List<Tile>> groupTiles = new ArrayList<>(Collections.nCopies(CODE_COUNT, null));
+        int[][] kindSizes = {{PONG, 3}, {SHEUNG, 3}, {KONG, 4}, {PAIR, 2}};
+        for (int[] kindSize : kindSizes) {
+            for (int tile = 0; tile < TILES.length; tile++) {
+                if (kindSize[0] == SHEUNG && (tile + 2 >= TILES.length
+                        || TILES[tile].getTileType() != TILES[tile + 2].getTileType())) {
+                    continue;
+                }
+                for (boolean revealed : new boolean[] {false, true}) {
+                    int code = of(kindSize[0], tile, kindSize[1], revealed);
+                    groupTiles.set(code, List.copyOf(toTiles(code, 0L)));
+                }
+            }
+        }
+        return groupTiles;
+    }
+
+    /**
+     * Builds the mask of a collection of distinct tiles.
+     * @param tiles the tiles.
+     * @return the mask, with bit i set iff the tile of ordinal i is in the collection.
+     */
+    static long maskOf(List<Tile> tiles) {
+        long mask = 0L;
+        for (Tile tile : tiles) {
+            mask |= 1L << tile.ordinal();
+        }
+        return mask;
+    }
+}
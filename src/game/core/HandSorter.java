@@ -3,7 +3,6 @@ package game.core;
 import game.board.tile.Tile;
 
 import java.util.List;
-import java.util.stream.IntStream;
 
 public class HandSorter {
     public static void sortLists(List<List<Tile>> lists) {
@@ -15,24 +14,12 @@ public class HandSorter {
             }
 
             // If sizes are equal, compare by elements in the inner lists
-            int minLength = Math.min(list1.size(), list2.size());
-            return IntStream.range(0, minLength)
-                    .map(i -> list1.get(i).compareTo(list2.get(i)))
-                    .filter(result -> result != 0)
-                    .findFirst()
-                    .orElse(0);
+            return compareTiles(list1, list2);
         });
     }
 
     public static void sortPongs(List<List<Tile>> lists) {
-        lists.sort((list1, list2) -> {
-            int minLength = Math.min(list1.size(), list2.size());
-            return IntStream.range(0, minLength)
-                    .map(i -> list1.get(i).compareTo(list2.get(i)))
-                    .filter(result -> result != 0)
-                    .findFirst()
-                    .orElse(0);
-        });
+        lists.sort(HandSorter::compareTiles);
     }
 
     public static void sortSheungsByNum(List<List<Tile>> lists) {
@@ -49,14 +36,40 @@ public class HandSorter {
     }
 
     public static boolean groupEquals(List<Tile> group1, List<Tile> group2) {
-        return group1.size() == group2.size()
-                && IntStream.range(0, group1.size())
-                .allMatch(i -> group1.get(i) == group2.get(i));
+        if (group1.size() != group2.size()) {
+            return false;
+        }
+        for (int i = 0; i < group1.size(); i++) {
+            if (group1.get(i) != group2.get(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     public static boolean handEquals(List<List<Tile>> hand1, List<List<Tile>> hand2) {
-        return hand1.size() == hand2.size()
-                && IntStream.range(0, hand1.size())
-                .allMatch(i -> hand1.get(i) == hand2.get(i));
+        if (hand1.size() != hand2.size()) {
+            return false;
+        }
+        for (int i = 0; i < hand1.size(); i++) {
+            if (hand1.get(i) != hand2.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares two groups tile by tile, up to the length of the shorter group.
+     */
+    private static int compareTiles(List<Tile> list1, List<Tile> list2) {
+        int minLength = Math.min(list1.size(), list2.size());
+        for (int i = 0; i < minLength; i++) {
+            int comparison = list1.get(i).compareTo(list2.get(i));
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return 0;
     }
 }
@@ -91,7 +91,7 @@ public enum MahjongPoint {
 
     private final String pointNameChi;
     private final String description;
-    private int pointScore;
+    private final int pointScore;
 
     MahjongPoint(String pointNameChi, String description, int pointScore) {
         this.pointNameChi = pointNameChi;
@@ -103,18 +103,16 @@ public enum MahjongPoint {
         return pointNameChi;
     }
 
+    /**
+     * Retrieves the base score of the point. The winds and Zhong score more depending on the
+     * win, see {@link ScoreContext#getWindScore(game.player.data.Seat)} and
+     * {@link ScoreContext#getZhongScore()}.
+     * @return the base score.
+     */
     public int getPointScore() {
         return pointScore;
     }
 
-    public void setPointScore(int score) {
-        this.pointScore = score;
-    }
-
-    public void addPointScore(int amount) {
-        this.pointScore += amount;
-    }
-
     public String getDescription() {
         return description;
     }
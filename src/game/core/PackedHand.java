@@ -0,0 +1,123 @@
+package game.core;
+
+import game.board.tile.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable grouping of a hand, stored as the sorted codes of its groups (see
+ * {@link GroupCode}), so that groupings can be sorted, compared and hashed as primitives. The
+ * tiles of a special group, if there is one, are stored as a mask.
+ */
+public final class PackedHand implements Comparable<PackedHand> {
+    private final int[] codes;
+    private final long specialTiles;
+
+    /**
+     * Creates a packed hand.
+     * @param codes the codes of the groups, sorted in ascending order.
+     * @param specialTiles the mask of the tiles of the special group, or 0 if there is none.
+     */
+    private PackedHand(int[] codes, long specialTiles) {
+        this.codes = codes;
+        this.specialTiles = specialTiles;
+    }
+
+    /**
+     * Packs the codes of the groups of a hand.
+     * @param codes the codes of the groups, in any order. The array is not kept.
+     * @param specialTiles the mask of the tiles of the special group, or 0 if there is none.
+     * @return the packed hand.
+     */
+    public static PackedHand of(int[] codes, long specialTiles) {
+        int[] sorted = codes.clone();
+        Arrays.sort(sorted);
+        return new PackedHand(sorted, specialTiles);
+    }
+
+    /**
+     * Packs a hand given as lists of tiles.
+     * @param hand the groups of the hand.
+     * @param revealed true iff the groups are revealed.
+     * @return the packed hand.
+     * @throws IllegalArgumentException if a list of tiles is not a group.
+     */
+    public static PackedHand of(List<List<Tile>> hand, boolean revealed) {
+        int[] codes = new int[hand.size()];
+        long specialTiles = 0L;
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = GroupCode.of(hand.get(i), revealed);
+            if (GroupCode.isSpecial(codes[i])) {
+                specialTiles = GroupCode.maskOf(hand.get(i));
+            }
+        }
+        Arrays.sort(codes);
+        return new PackedHand(codes, specialTiles);
+    }
+
+    public int getGroupCount() {
+        return codes.length;
+    }
+
+    /**
+     * Retrieves the code of a group.
+     * @param index the index of the group, in sorted order.
+     * @return the code of the group.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int getGroup(int index) {
+        return codes[index];
+    }
+
+    public long getSpecialTiles() {
+        return specialTiles;
+    }
+
+    /**
+     * Unpacks the hand into modifiable lists of tiles, for display and for the scoring rules
+     * that work on lists.
+     * @return the groups of the hand, sorted as by {@link HandSorter#sortLists(List)}.
+     */
+    public List<List<Tile>> toLists() {
+        List<List<Tile>> hand = new ArrayList<>(codes.length);
+        for (int code : codes) {
+            hand.add(GroupCode.toTiles(code, specialTiles));
+        }
+        return hand;
+    }
+
+    @Override
+    public int compareTo(PackedHand other) {
+        int comparison = Arrays.compare(codes, other.codes);
+        return comparison != 0 ? comparison : Long.compare(specialTiles, other.specialTiles);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PackedHand other)) {
+            return false;
+        }
+        return specialTiles == other.specialTiles && Arrays.equals(codes, other.codes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(codes) + Long.hashCode(specialTiles);
+    }
+
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        for (int code : codes) {
+            if (!output.isEmpty()) {
+                output.append("|");
+            }
+            output.append(GroupCode.toString(code));
+        }
+        return output.toString();
+    }
+}
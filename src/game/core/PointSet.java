@@ -0,0 +1,163 @@
+package game.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A multiset of the points awarded to a hand, stored as a count per point and a bitmask of the
+ * points present, so that adding, removing and checking for a point take constant time.
+ * <p>
+ * Each point is held with its score in this hand, which is its base score unless it was added
+ * with another score, as the winds and Zhong are. The sum of the scores is kept up to date as
+ * points are added and removed.
+ */
+public final class PointSet {
+    private static final MahjongPoint[] POINTS = MahjongPoint.values();
+
+    private final int[] counts = new int[POINTS.length];
+    private final int[] scores = new int[POINTS.length];
+    private final long[] present = new long[(POINTS.length + Long.SIZE - 1) / Long.SIZE];
+    private int size = 0;
+    private int total = 0;
+
+    /**
+     * Creates an empty point set.
+     */
+    public PointSet() {}
+
+    /**
+     * Adds a point with its base score.
+     * @param point the point to be added.
+     */
+    public void add(MahjongPoint point) {
+        add(point, point.getPointScore());
+    }
+
+    /**
+     * Adds a point with a score that depends on the win.
+     * @param point the point to be added.
+     * @param score the score of the point in this hand.
+     * @requires every copy of the point in the set has the same score.
+     */
+    public void add(MahjongPoint point, int score) {
+        int ordinal = point.ordinal();
+        counts[ordinal]++;
+        scores[ordinal] = score;
+        present[ordinal / Long.SIZE] |= 1L << ordinal;
+        size++;
+        total += score;
+    }
+
+    /**
+     * Adds every point in a list.
+     * @param points the points to be added.
+     */
+    public void addAll(List<MahjongPoint> points) {
+        for (MahjongPoint point : points) {
+            add(point);
+        }
+    }
+
+    /**
+     * Adds every point in another set, with its score in that set.
+     * @param points the points to be added.
+     */
+    public void addAll(PointSet points) {
+        for (MahjongPoint point : points.toList()) {
+            add(point, points.getScore(point));
+        }
+    }
+
+    /**
+     * Removes one copy of a point.
+     * @param point the point to be removed.
+     * @return true iff the point was present.
+     */
+    public boolean remove(MahjongPoint point) {
+        int ordinal = point.ordinal();
+        if (counts[ordinal] == 0) {
+            return false;
+        }
+        if (--counts[ordinal] == 0) {
+            present[ordinal / Long.SIZE] &= ~(1L << ordinal);
+        }
+        size--;
+        total -= scores[ordinal];
+        return true;
+    }
+
+    /**
+     * Checks whether a point is present.
+     * @param point the point to be checked.
+     * @return true iff at least one copy of the point is present.
+     */
+    public boolean contains(MahjongPoint point) {
+        int ordinal = point.ordinal();
+        return (present[ordinal / Long.SIZE] & 1L << ordinal) != 0;
+    }
+
+    /**
+     * Counts the copies of a point.
+     * @param point the point to be counted.
+     * @return the number of copies of the point.
+     */
+    public int count(MahjongPoint point) {
+        return counts[point.ordinal()];
+    }
+
+    /**
+     * Retrieves the score of a point in this hand.
+     * @param point the point.
+     * @return the score of one copy of the point, or 0 if the point is not present.
+     */
+    public int getScore(MahjongPoint point) {
+        return contains(point) ? scores[point.ordinal()] : 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the sum of the scores of the points.
+     * @return the total score of the points.
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Lists the points.
+     * @return a new list of the points in the order of {@link MahjongPoint}, with each point
+     * repeated once per copy.
+     */
+    public List<MahjongPoint> toList() {
+        List<MahjongPoint> points = new ArrayList<>(size);
+        for (int word = 0; word < present.length; word++) {
+            long bits = present[word];
+            while (bits != 0) {
+                int ordinal = word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+                for (int i = 0; i < counts[ordinal]; i++) {
+                    points.add(POINTS[ordinal]);
+                }
+                bits &= bits - 1;
+            }
+        }
+        return points;
+    }
+
+    public String toString() {
+        StringBuilder output = new StringBuilder();
+        for (MahjongPoint point : toList()) {
+            if (!output.isEmpty()) {
+                output.append("|");
+            }
+            output.append(point.getPointNameChi()).append(", ").append(getScore(point));
+        }
+        return output.toString();
+    }
+}
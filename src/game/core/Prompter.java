@@ -1,6 +1,7 @@
 package game.core;
 
 import game.board.tile.Tile;
+import game.player.data.PlayerStore;
 import game.player.data.Seat;
 
 import java.util.*;
@@ -10,18 +11,29 @@ import java.util.*;
  */
 public class Prompter {
     private static final Scanner scanner = new Scanner(System.in);
+    private static volatile boolean outputEnabled = true;
 
     /**
      * Creates a new prompter.
      */
     public Prompter() {}
 
+    /**
+     * Enables or disables printing of game output, e.g. for bot-only simulations.
+     * @param enabled true iff output should be printed.
+     */
+    public static void setOutputEnabled(boolean enabled) {
+        outputEnabled = enabled;
+    }
+
     /**
      * Prints a line to the interface.
      * @param message the message to print.
      */
     public static void printLine(String message) {
-        System.out.println(message);
+        if (outputEnabled) {
+            System.out.println(message);
+        }
     }
 
     /**
@@ -44,6 +56,10 @@ public class Prompter {
             } else if (name.contains("|")) {
                 System.out.println("Name cannot have the '|' character!");
                 name = null;
+            } else if (!PlayerStore.isValidName(name)) {
+                System.out.println("Name cannot be longer than " + PlayerStore.MAX_NAME_BYTES
+                        + " bytes!");
+                name = null;
             }
         }
         return name;
@@ -160,7 +176,7 @@ public class Prompter {
         return output.substring(0, output.length() - 1);
     }
 
-    public static String pointsToDisplay(List<MahjongPoint> points) {
+    public static String pointsToDisplay(PointSet points) {
         if (points == null) {
             return "";
         }
@@ -175,8 +191,8 @@ public class Prompter {
                 .append("-".repeat(scoreLength + 1)).append("+-----------\n");
         String rowFormat = " %-" + (scoreLength + 1) + "d| %s%n";
 
-        for (MahjongPoint point : points) {
-            output.append(String.format(rowFormat, point.getPointScore(), point.getPointNameChi()));
+        for (MahjongPoint point : points.toList()) {
+            output.append(String.format(rowFormat, points.getScore(point), point.getPointNameChi()));
         }
         return output.toString();
     }
@@ -1,244 +1,189 @@
 package game.core;
 
 import game.board.HandManager;
-import game.board.WinChecker;
-import game.board.hand.RevealedHand;
+import game.board.analysis.SpecialHand;
+import game.board.analysis.WaitCalculator;
 import game.board.tile.Tile;
 import game.board.tile.TileType;
+import game.core.metrics.Metrics;
 import game.player.data.Seat;
 
 import java.util.*;
 
 public class ScoreCalculator {
+    private static final Tile[] TILES = Tile.values();
+    private static final MahjongPoint[] WIND_POINTS = {
+            MahjongPoint.EAST, MahjongPoint.SOUTH, MahjongPoint.WEST, MahjongPoint.NORTH};
+    private static final MahjongPoint[] DRAGON_POINTS = {
+            MahjongPoint.RED_DRAGON, MahjongPoint.GREEN_DRAGON, MahjongPoint.WHITE_DRAGON};
+
     /**
-     * Retrieves every possible unique combination of groups that can be made from the given tiles.
+     * Retrieves every possible unique combination of groups that can be made from the given
+     * tiles, as packed hands.
      * @param hand the list of tiles.
-     * @return a list of every possible hand, which contains a list of groups of 2 or 3 tiles.
+     * @return a list of every possible hand.
      */
-    public static List<List<List<Tile>>> getValidHands(List<Tile> hand) {
-        List<Tile> tileList = new ArrayList<>(hand);
-        Set<List<List<Tile>>> allValidHands = new HashSet<>();
-
-        if (WinChecker.checkSixteenDisjoint(tileList)) {
-            List<Tile> remainingTiles = new ArrayList<>(tileList);
-            List<Tile> disjointGroup = new ArrayList<>();
-            List<Tile> pairGroup = new ArrayList<>();
-            for (Tile tile : tileList) {
-                boolean oneInstance = remainingTiles.remove(tile);
-                if (oneInstance && remainingTiles.remove(tile)) {
-                    pairGroup.add(tile);
-                    pairGroup.add(tile);
-                } else if (oneInstance) {
-                    disjointGroup.add(tile);
-                }
-            }
-            List<List<Tile>> validHand = new ArrayList<>();
-            validHand.add(disjointGroup);
-            validHand.add(pairGroup);
-            return List.of(validHand);
-
-        } else if (WinChecker.checkThirteenOrphans(tileList)) {
-            List<Tile> orphanGroup = new ArrayList<>();
-            for (Tile tile : WinChecker.getThirteenOrphans()) {
-                tileList.remove(tile);
-                orphanGroup.add(tile);
-            }
-
-            List<Tile> normalGroup = new ArrayList<>();
-            List<Tile> pairGroup = new ArrayList<>();
-
-            for (int i = 0; i < 4; i++) {
-                for (int j = i + 1; j < 4; j++) {
-                    for (int k = j + 1; k < 4; k++) {
-                        Tile tile1 = tileList.get(i);
-                        Tile tile2 = tileList.get(j);
-                        Tile tile3 = tileList.get(k);
-
-                        // check for three identical tiles
-                        if (tile1 == tile2 && tile2 == tile3) {
-                            List<Tile> remainingTiles = new ArrayList<>(tileList);
-                            remainingTiles.remove(tile1);
-                            remainingTiles.remove(tile2);
-                            remainingTiles.remove(tile3);
-
-                            Tile lastTile = remainingTiles.getFirst();
-                            if (WinChecker.getThirteenOrphans().contains(lastTile)) {
-                                orphanGroup.remove(lastTile);
-                                normalGroup = List.of(tile1, tile2, tile3);
-                                pairGroup = List.of(lastTile, lastTile);
-                            }
-                        }
+    public static List<PackedHand> getValidPackedHands(List<Tile> hand) {
+        long start = Metrics.start();
+        List<PackedHand> validHands = findValidHands(hand);
+        Metrics.record(Metrics.Phase.VALID_HANDS, start);
+        return validHands;
+    }
 
-                        // check for three consecutive tiles of same type
-                        if (tile1.getTileType() == tile2.getTileType()
-                                && tile2.getTileType() == tile3.getTileType()) {
-                            int ord1 = tile1.ordinal();
-                            int ord2 = tile2.ordinal();
-                            int ord3 = tile3.ordinal();
-
-                            if ((ord2 == ord1 + 1 && ord3 == ord2 + 1)
-                                    || (ord3 == ord1 + 1 && ord2 == ord3 + 1)
-                                    || (ord1 == ord2 + 1 && ord3 == ord1 + 1)) {
-                                List<Tile> remainingTiles = new ArrayList<>(tileList);
-                                remainingTiles.remove(tile1);
-                                remainingTiles.remove(tile2);
-                                remainingTiles.remove(tile3);
-
-                                Tile lastTile = remainingTiles.getFirst();
-                                if (WinChecker.getThirteenOrphans().contains(lastTile)) {
-                                    orphanGroup.remove(lastTile);
-                                    normalGroup = List.of(tile1, tile2, tile3);
-                                    pairGroup = List.of(lastTile, lastTile);
-                                }
-                            }
-                        }
-                    }
-                }
+    private static List<PackedHand> findValidHands(List<Tile> hand) {
+        List<PackedHand> validHands = new ArrayList<>();
+        int[] counts = WaitCalculator.countTiles(hand);
+        SpecialHand specialHand = hand.size() == 17 ? SpecialHand.classify(counts) : null;
+        if (specialHand != null) {
+            validHands.add(PackedHand.of(specialHand.getGroups(), false));
+            // only a Lik Ku Lik Ku hand may also split into Pongs, Sheungs and a pair
+            if (specialHand.getKind() != SpecialHand.Kind.LIK_KU_LIK_KU) {
+                return validHands;
             }
+        }
 
-            List<List<Tile>> validHand = new ArrayList<>();
-            validHand.add(orphanGroup);
-            validHand.add(normalGroup);
-            validHand.add(pairGroup);
-            return List.of(validHand);
-
-        } else {
-            Tile extraTile = WinChecker.checkLikKuLikKu(tileList);
-            if (extraTile != null) {
-                List<List<Tile>> validGroups = new ArrayList<>();
-                List<Tile> remainingTiles = new ArrayList<>(hand);
-                remainingTiles.remove(extraTile);
-                remainingTiles.remove(extraTile);
-                remainingTiles.remove(extraTile);
-                List<Tile> uniqueTiles = new ArrayList<>(new HashSet<>(remainingTiles));
-                List<Tile> pongGroup = List.of(extraTile, extraTile, extraTile);
-                validGroups.add(pongGroup);
-                for (Tile tile : uniqueTiles) {
-                    while (remainingTiles.contains(tile)) {
-                        List<Tile> pairGroup = List.of(tile, tile);
-                        validGroups.add(pairGroup);
-                        remainingTiles.remove(tile);
-                        remainingTiles.remove(tile);
-                    }
-                }
-                allValidHands.add(validGroups);
+        int[] codes = new int[hand.size() / 3 + 1];
+        for (int pair = 0; pair < counts.length; pair++) {
+            if (counts[pair] >= 2) {
+                counts[pair] -= 2;
+                codes[0] = GroupCode.of(GroupCode.PAIR, pair, 2, false);
+                findValidHands(counts, 0, codes, 1, validHands);
+                counts[pair] += 2;
             }
         }
-
-        findValidHands(tileList, new ArrayList<>(), allValidHands);
-        return new ArrayList<>(allValidHands);
+        return validHands;
     }
 
-
     /**
-     * Retrieves every possible unique combination of groups that can be formed from the given
-     * tiles, storing them in allPossibleHands.
-     * @param tiles the list of tiles to form groups with.
-     * @param currentHand a list of groups already formed. In the first iteration,
-     *                    simply pass in null value or an empty resizable list.
-     * @param allPossibleHands the set containing all possible hands.
+     * Finds every way of forming the remaining tiles into Pongs and Sheungs, adding each
+     * completed hand to validHands. Every copy of the lowest remaining tile is used up at once,
+     * either in a Pong or in Sheungs starting from it, so each hand is found exactly once.
+     * @param counts the number of copies of each remaining tile, indexed by ordinal.
+     * @param from the ordinal of the lowest tile that may remain.
+     * @param codes the codes of the groups already formed, starting with the pair.
+     * @param groupCount the number of groups already formed.
+     * @param validHands the list of every hand found so far.
      */
-    private static void findValidHands(List<Tile> tiles, List<List<Tile>> currentHand,
-                                Set<List<List<Tile>>> allPossibleHands) {
-
-        if (currentHand == null) {
-            currentHand = new ArrayList<>();
+    private static void findValidHands(int[] counts, int from, int[] codes, int groupCount,
+                                       List<PackedHand> validHands) {
+        int tile = from;
+        while (tile < counts.length && counts[tile] == 0) {
+            tile++;
         }
-
-        // base case: if there are only 2 tiles left, check if they form a pair
-        if (tiles.size() == 2 && tiles.get(0) == tiles.get(1)) {
-            List<Tile> pair = new ArrayList<>(tiles);
-            // make a new list before sorting to avoid interfering with backtracking
-            List<List<Tile>> sortedCurrentHand = new ArrayList<>(currentHand);
-            sortedCurrentHand.add(pair);  // add pair to current hand
-            HandSorter.sortLists(sortedCurrentHand);
-            allPossibleHands.add(new ArrayList<>(sortedCurrentHand));
+        if (tile == counts.length) {
+            if (groupCount == codes.length) {
+                validHands.add(PackedHand.of(codes, 0L));
+            }
             return;
         }
 
-        int tilesSize = tiles.size();
-
-        // Check every combination of three tiles
-        for (int i = 0; i < tilesSize; i++) {
-            for (int j = i + 1; j < tilesSize; j++) {
-                for (int k = j + 1; k < tilesSize; k++) {
-                    Tile tile1 = tiles.get(i);
-                    Tile tile2 = tiles.get(j);
-                    Tile tile3 = tiles.get(k);
-
-                    // check for Pongs
-                    if (tile1 == tile2 && tile2 == tile3) {
-                        List<Tile> group = List.of(tile1, tile2, tile3);
-                        // list of unused tiles
-                        List<Tile> remainingTiles = new ArrayList<>(tiles);
-                        remainingTiles.remove(tile1);
-                        remainingTiles.remove(tile2);
-                        remainingTiles.remove(tile3);
-                        currentHand.add(group);
-                        // recursive call to find possible hands
-                        findValidHands(remainingTiles, currentHand, allPossibleHands);
-                        currentHand.removeLast(); // backtrack
-                    }
-                }
+        int copies = counts[tile];
+        for (int pongs = copies >= 3 ? 1 : 0; pongs >= 0; pongs--) {
+            // Sheungs are three consecutive tiles of the same type
+            int sheungs = copies - 3 * pongs;
+            if (groupCount + pongs + sheungs > codes.length || sheungs > 0
+                    && (tile + 2 >= counts.length || counts[tile + 1] < sheungs
+                    || counts[tile + 2] < sheungs
+                    || TILES[tile].getTileType() != TILES[tile + 2].getTileType())) {
+                continue;
             }
-        }
-
-        // Check every combination of three tiles
-        for (int i = 0; i < tilesSize; i++) {
-            for (int j = i + 1; j < tilesSize; j++) {
-                for (int k = j + 1; k < tilesSize; k++) {
-                    Tile tile1 = tiles.get(i);
-                    Tile tile2 = tiles.get(j);
-                    Tile tile3 = tiles.get(k);
-
-                    // check for Sheungs
-                    if (tile1.getTileType() == tile2.getTileType() && tile2.getTileType() == tile3.getTileType()) {
-                        int ord1 = tile1.ordinal();
-                        int ord2 = tile2.ordinal();
-                        int ord3 = tile3.ordinal();
-
-                        if (ord2 == ord1 + 1 && ord3 == ord2 + 1) {
-                            List<Tile> group = List.of(tile1, tile2, tile3);
-                            List<Tile> remainingTiles = new ArrayList<>(tiles);
-                            remainingTiles.remove(tile1);
-                            remainingTiles.remove(tile2);
-                            remainingTiles.remove(tile3);
-                            currentHand.add(group);
-                            findValidHands(remainingTiles, currentHand, allPossibleHands);
-                            currentHand.removeLast();
-                        }
-                    }
-                }
+            int count = groupCount;
+            if (pongs > 0) {
+                codes[count++] = GroupCode.of(GroupCode.PONG, tile, 3, false);
+            }
+            for (int i = 0; i < sheungs; i++) {
+                codes[count++] = GroupCode.of(GroupCode.SHEUNG, tile, 3, false);
+            }
+            counts[tile] = 0;
+            if (sheungs > 0) {
+                counts[tile + 1] -= sheungs;
+                counts[tile + 2] -= sheungs;
+            }
+            findValidHands(counts, tile + 1, codes, count, validHands);
+            counts[tile] = copies;
+            if (sheungs > 0) {
+                counts[tile + 1] += sheungs;
+                counts[tile + 2] += sheungs;
             }
         }
     }
 
-    public static List<MahjongPoint> getPoints(Seat gameSeat, Seat roundSeat, Seat playerSeat,
+    /**
+     * Retrieves the points of one grouping of a winning hand.
+     * @param gameSeat the seat of the current game.
+     * @param roundSeat the seat of the Zhong player.
+     * @param playerSeat the seat of the winner.
+     * @param loserSeat the seat of the player who discarded the winning tile, or the winner's
+     *                  seat on a self-draw.
+     * @param hand the grouping of the concealed tiles.
+     * @param wonOffTile the winning tile.
+     * @param handManager the winner's hand manager.
+     * @param numUnrevealedTiles the number of tiles left to draw.
+     * @param discardPile the tiles discarded during the round.
+     * @param multipleWinners whether more than one player won off the same tile.
+     * @param lumZhongNum the number of consecutive rounds won by the Zhong player.
+     * @param lastEvent the event before the winning draw.
+     * @param discardCount the number of tiles discarded during the round.
+     * @return the points of the hand.
+     */
+    public static PointSet getPoints(Seat gameSeat, Seat roundSeat, Seat playerSeat,
                                               Seat loserSeat, List<List<Tile>> hand,
                                               Tile wonOffTile, HandManager handManager,
                                               int numUnrevealedTiles, List<Tile> discardPile,
                                               boolean multipleWinners, int lumZhongNum,
                                               String lastEvent, int discardCount) {
+        return getPoints(new ScoreContext(gameSeat, roundSeat, playerSeat, loserSeat, wonOffTile,
+                handManager, numUnrevealedTiles, discardPile, multipleWinners, lumZhongNum,
+                lastEvent, discardCount), PackedHand.of(hand, false));
+    }
 
-        // Initialize hands
-        RevealedHand revealed = handManager.getRevealedHand();
-        List<List<Tile>> revealedHand = new ArrayList<>(revealed.getGroups());
-        List<List<Tile>> brightKongs = new ArrayList<>(revealed.getBrightKongs());
-        List<List<Tile>> darkKongs = new ArrayList<>(revealed.getDarkKongs());
-        List<Tile> flowers = new ArrayList<>(revealed.getFlowers());
-
-        // Initialize output list
-        List<MahjongPoint> points = new ArrayList<>();
+    /**
+     * Scores a batch of candidate groupings of the same winning hand. The shared features of the
+     * win are taken from the context once, and nothing is shared between the hands, so batches
+     * may be scored concurrently.
+     * @param context the features of the win shared by every grouping.
+     * @param hands the candidate groupings of the concealed tiles.
+     * @return the score of each hand, in batch order.
+     */
+    public static int[] getScores(ScoreContext context, List<PackedHand> hands) {
+        int[] scores = new int[hands.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = getScore(getPoints(context, hands.get(i)));
+        }
+        return scores;
+    }
 
-        // Determine player's direction in the game
-        int playerGameSeatOrdinal = (playerSeat.ordinal() - roundSeat.ordinal() + 4) % 4;
-        Seat playerGameSeat = Seat.values()[playerGameSeatOrdinal];
+    /**
+     * Retrieves the points of one grouping of a winning hand, each with its score in the hand.
+     * @param context the features of the win shared by every grouping of the hand.
+     * @param hand the grouping of the concealed tiles.
+     * @return the points of the hand.
+     */
+    public static PointSet getPoints(ScoreContext context, PackedHand hand) {
+        long start = Metrics.start();
+        PointSet points = findPoints(context, hand);
+        Metrics.record(Metrics.Phase.SCORE_POINTS, start);
+        return points;
+    }
 
-        // Sort all hands for convenience
-        HandSorter.sortLists(hand);
-        HandSorter.sortLists(revealedHand);
-        HandSorter.sortLists(brightKongs);
-        HandSorter.sortLists(darkKongs);
+    private static PointSet findPoints(ScoreContext context, PackedHand hand) {
+        Seat roundSeat = context.getRoundSeat();
+        Seat playerSeat = context.getPlayerSeat();
+        Seat loserSeat = context.getLoserSeat();
+        Seat playerGameSeat = context.getPlayerGameSeat();
+        Tile wonOffTile = context.getWonOffTile();
+        int numUnrevealedTiles = context.getNumUnrevealedTiles();
+        String lastEvent = context.getLastEvent();
+        int discardCount = context.getDiscardCount();
+
+        // Revealed groups, already sorted by the context
+        List<List<Tile>> brightSheungs = context.getBrightSheungs();  // revealed Sheungs
+        List<List<Tile>> brightPongs = context.getBrightPongs();      // revealed Pongs
+        List<List<Tile>> brightKongs = context.getBrightKongs();
+        List<List<Tile>> darkKongs = context.getDarkKongs();
+
+        // Initialize output set
+        PointSet points = new PointSet();
 
         // Standard lists
         List<TileType> nonWordTypes = List.of(TileType.TUNG, TileType.SOK, TileType.MAAN);
@@ -249,27 +194,22 @@ public class ScoreCalculator {
         List<TileType> flowerTypes = List.of(TileType.FLOWER_SEASON, TileType.FLOWER_PLANT);
 
         // Create reference lists of different group types with different revealed status
-        List<List<Tile>> brightSheungs = new ArrayList<>();  // revealed Sheungs
         List<List<Tile>> darkSheungs = new ArrayList<>();    // unrevealed Sheungs
-        List<List<Tile>> brightPongs = new ArrayList<>();    // revealed Pongs
         List<List<Tile>> darkPongs = new ArrayList<>();      // unrevealed Pongs
         List<Tile> pair = null;                              // final pair of two
 
-        for (List<Tile> group : hand) {
-            if (group.size() == 2) {
-                pair = group;
-            } else if (group.get(0) == group.get(1)) {
-                darkPongs.add(group);
-            } else {
-                darkSheungs.add(group);
-            }
-        }
-
-        for (List<Tile> group : revealedHand) {
-            if (group.get(0) == group.get(1)) {
-                brightPongs.add(group);
+        // The groups are read from their codes, already in the order of HandSorter.sortLists
+        for (int i = 0; i < hand.getGroupCount(); i++) {
+            int code = hand.getGroup(i);
+            int kind = GroupCode.getKind(code);
+            if (kind == GroupCode.PAIR) {
+                pair = GroupCode.getTiles(code);
+            } else if (kind == GroupCode.PONG) {
+                darkPongs.add(GroupCode.getTiles(code));
+            } else if (GroupCode.isSpecial(code)) {
+                darkSheungs.add(GroupCode.toTiles(code, hand.getSpecialTiles()));
             } else {
-                brightSheungs.add(group);
+                darkSheungs.add(GroupCode.getTiles(code));
             }
         }
 
@@ -332,20 +272,21 @@ public class ScoreCalculator {
                 dragons.add(group);
             }
         }
-        int numFlowerSeason = 0;
-        int numFlowerPlant = 0;
+        int numFlowerSeason = context.getNumFlowerSeason();
+        int numFlowerPlant = context.getNumFlowerPlant();
 
 
         // ------------------------------ POINTS ADDED BELOW ------------------------------
 
 
         // WEIRD HANDS (十三么,十六不搭,嚦咕嚦咕)
-        if (hand.size() == 8) {
+        if (hand.getGroupCount() == 8) {
             points.add(MahjongPoint.LIK_KU_LIK_KU);
-        } else for (List<Tile> group : hand) {
-            if (group.size() == 15) {
+        } else for (int i = 0; i < hand.getGroupCount(); i++) {
+            int kind = GroupCode.getKind(hand.getGroup(i));
+            if (kind == GroupCode.DISJOINT) {
                 points.add(MahjongPoint.SAP_LUK_BAT_DAP);
-            } else if (group.size() == 12) {
+            } else if (kind == GroupCode.ORPHANS) {
                 points.add(MahjongPoint.SAP_SAM_YIU);
             }
         }
@@ -357,86 +298,20 @@ public class ScoreCalculator {
 
 
         // MULTIPLE WINNERS (雙響)
-        if (multipleWinners) {
+        if (context.isMultipleWinners()) {
             points.add(MahjongPoint.MULTIPLE_WINNERS);
         }
 
 
         // FLOWER TILES (花)
-        if (flowers.isEmpty()) {
-            points.add(MahjongPoint.MO_FA);
-        } else {
-            for (Tile flowerTile : flowers) {
-                if (flowerTile.getTileType() == TileType.FLOWER_SEASON) {
-                    numFlowerSeason += 1;
-                } else if (flowerTile.getTileType() == TileType.FLOWER_PLANT) {
-                    numFlowerPlant += 1;
-                }
-                if (flowerTile.getTileNum() % 4 == (playerGameSeat.ordinal() + 1) % 4) {
-                    points.add(MahjongPoint.ZENG_FA);
-                } else {
-                    points.add(MahjongPoint.LAN_FA);
-                }
-            }
-            if (numFlowerSeason == 4 && numFlowerPlant == 4) {
-                // TWO COMPLETE SETS OF FLOWER TILES (兩台花)
-                for (int i = 0; i < 2; i++) {
-                    points.remove(MahjongPoint.ZENG_FA);
-                }
-                for (int i = 0; i < 6; i++) {
-                    points.remove(MahjongPoint.LAN_FA);
-                }
-                points.add(MahjongPoint.LEUNG_TOI_FA);
-            } else if (numFlowerSeason == 4 || numFlowerPlant == 4) {
-                // ONE COMPLETE SET OF FLOWER TILES (一台花)
-                points.remove(MahjongPoint.ZENG_FA);
-                for (int i = 0; i < 3; i++) {
-                    points.remove(MahjongPoint.LAN_FA);
-                }
-                points.add(MahjongPoint.YAT_TOI_FA);
-            }
-        }
+        points.addAll(context.getFlowerPoints());
 
 
         // WIND TILES (東南西北, 三風四喜)
-        List<MahjongPoint> windPoints = new ArrayList<>();
+        List<Seat> windPoints = new ArrayList<>();
         for (List<Tile> group : pongsAndKongs) {
-            if (group.getFirst() == Tile.WIND_EAST) {
-                MahjongPoint windPoint = MahjongPoint.EAST;
-                if (playerGameSeat == Seat.EAST) {
-                    windPoint.addPointScore(1);
-                }
-                if (gameSeat == Seat.EAST) {
-                    windPoint.addPointScore(1);
-                }
-                windPoints.add(windPoint);
-            } else if (group.getFirst() == Tile.WIND_SOUTH) {
-                MahjongPoint windPoint = MahjongPoint.SOUTH;
-                if (playerGameSeat == Seat.SOUTH) {
-                    windPoint.addPointScore(1);
-                }
-                if (gameSeat == Seat.SOUTH) {
-                    windPoint.addPointScore(1);
-                }
-                windPoints.add(windPoint);
-            } else if (group.getFirst() == Tile.WIND_WEST) {
-                MahjongPoint windPoint = MahjongPoint.WEST;
-                if (playerGameSeat == Seat.WEST) {
-                    windPoint.addPointScore(1);
-                }
-                if (gameSeat == Seat.WEST) {
-                    windPoint.addPointScore(1);
-                }
-                windPoints.add(windPoint);
-            } else if (group.getFirst() == Tile.WIND_NORTH) {
-                MahjongPoint windPoint = MahjongPoint.NORTH;
-                if (playerGameSeat == Seat.NORTH) {
-                    windPoint.addPointScore(1);
-                }
-                if (gameSeat == Seat.NORTH) {
-                    windPoint.addPointScore(1);
-                }
-                windPoints.add(windPoint);
+            if (group.getFirst().getTileType() == TileType.WORD_WIND) {
+                windPoints.add(Seat.values()[group.getFirst().getTileNum() - 1]);
             }
         }
         if (windPoints.size() == 4) {
@@ -454,10 +329,10 @@ public class ScoreCalculator {
                 if (pairIsWind) {
                     points.add(MahjongPoint.SIU_SAM_FUNG);
                 } else {
-                    points.addAll(windPoints);
+                    addWindPoints(points, windPoints, context);
                 }
             } else {
-                points.addAll(windPoints);
+                addWindPoints(points, windPoints, context);
             }
         }
 
@@ -1149,25 +1024,28 @@ public class ScoreCalculator {
 
 
         // CHICKEN HAND (雞胡)
-        int sum = 0;
-        for (MahjongPoint point : points) {
-            sum += point.getPointScore();
-        }
-        if (sum == 1) {
+        if (points.getTotal() == 1) {
             points.add(MahjongPoint.CHICKEN_HAND);
         }
 
 
         // ZHONG (莊)
         if (playerSeat == roundSeat || loserSeat == roundSeat) {
-            MahjongPoint point = MahjongPoint.ZHONG;
-            point.setPointScore(2 * lumZhongNum + 1);
-            points.add(point);
+            points.add(MahjongPoint.ZHONG, context.getZhongScore());
         }
 
         return points;
     }
 
+    /**
+     * Adds the point of each Pong or Kong of a wind (東南西北), with its score in the win.
+     */
+    private static void addWindPoints(PointSet points, List<Seat> winds, ScoreContext context) {
+        for (Seat wind : winds) {
+            points.add(WIND_POINTS[wind.ordinal()], context.getWindScore(wind));
+        }
+    }
+
     public static List<MahjongPoint> getPointsThirteenOrphans(Seat gameSeat, Seat roundSeat, Seat playerSeat,
                                                               Seat loserSeat, List<List<Tile>> hand,
                                                               Tile wonOffTile, HandManager handManager,
@@ -1201,12 +1079,446 @@ public class ScoreCalculator {
         return new ArrayList<>();
     }
 
-    public static int getScore(List<MahjongPoint> points) {
-        int score = 5;
-        for (MahjongPoint point : points) {
-            score += point.getPointScore();
+    /**
+     * Scores a batch of candidate groupings of the same winning hand, skipping groupings that
+     * cannot beat the highest score found so far. Groupings are scored in order of their upper
+     * bound, so the best groupings are usually found first.
+     * @param context the features of the win shared by every grouping.
+     * @param hands the candidate groupings of the concealed tiles.
+     * @return the score of each hand in batch order, or -1 for hands that were skipped. The
+     * highest score, and the first hand to reach it, are the same as with
+     * {@link #getScores(ScoreContext, List)}. With assertions enabled, every hand is also
+     * scored in full to check that no score exceeds its upper bound.
+     */
+    public static int[] getHighestScores(ScoreContext context, List<PackedHand> hands) {
+        int handCount = hands.size();
+        int[] upperBounds = new int[handCount];
+        Integer[] order = new Integer[handCount];
+        for (int i = 0; i < handCount; i++) {
+            upperBounds[i] = getUpperBound(context, hands.get(i));
+            order[i] = i;
+        }
+        assert checkUpperBounds(context, hands, upperBounds);
+        Arrays.sort(order, (i, j) -> Integer.compare(upperBounds[j], upperBounds[i]));
+
+        int[] scores = new int[handCount];
+        Arrays.fill(scores, -1);
+        int highestScore = -1;
+        int highestIndex = -1;
+        for (int i : order) {
+            if (upperBounds[i] < highestScore) {
+                break;
+            } else if (upperBounds[i] == highestScore && i > highestIndex) {
+                // can at best tie with an earlier hand
+                continue;
+            }
+            scores[i] = getScore(getPoints(context, hands.get(i)));
+            if (scores[i] > highestScore || (scores[i] == highestScore && i < highestIndex)) {
+                highestScore = scores[i];
+                highestIndex = i;
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Checks that the score of every hand is at most its upper bound.
+     * @return true if every bound holds.
+     * @throws AssertionError if a score exceeds its upper bound.
+     */
+    private static boolean checkUpperBounds(ScoreContext context, List<PackedHand> hands,
+                                            int[] upperBounds) {
+        for (int i = 0; i < hands.size(); i++) {
+            int score = getScore(getPoints(context, hands.get(i)));
+            if (score > upperBounds[i]) {
+                throw new AssertionError("Score " + score + " of " + hands.get(i)
+                        + " exceeds its upper bound " + upperBounds[i] + "!");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds an upper bound on the score of one grouping of a winning hand without determining
+     * its points. The bound mirrors the rules of {@link #getPoints(ScoreContext, PackedHand)}
+     * section by section, crediting the highest scoring point each section could award given the
+     * grouping's number of Sheungs and Pongs/Kongs, the honor and number tiles it contains, and
+     * the features of the win. Every score is read from {@link MahjongPoint} or the context, so
+     * changing the score of a point keeps the bound valid; changing a rule needs the matching
+     * section here to change too, which running with assertions enabled checks, see
+     * {@link #getHighestScores(ScoreContext, List)}.
+     * @param context the features of the win.
+     * @param hand the grouping of the concealed tiles.
+     * @return an upper bound on {@code getScore(getPoints(context, hand))}, or
+     * {@link Integer#MAX_VALUE} for special hands (十三么, 十六不搭, 嚦咕嚦咕), which are not bounded.
+     */
+    public static int getUpperBound(ScoreContext context, PackedHand hand) {
+        List<List<Tile>> sheungs = new ArrayList<>(context.getBrightSheungs());
+        List<List<Tile>> pongsAndKongs = new ArrayList<>(context.getBrightPongs());
+        pongsAndKongs.addAll(context.getBrightKongs());
+        pongsAndKongs.addAll(context.getDarkKongs());
+        int numKongs = context.getBrightKongs().size() + context.getDarkKongs().size();
+        List<List<Tile>> allGroups = new ArrayList<>();
+        Tile pairTile = null;
+        for (int i = 0; i < hand.getGroupCount(); i++) {
+            int code = hand.getGroup(i);
+            int kind = GroupCode.getKind(code);
+            if (kind == GroupCode.PAIR && pairTile == null) {
+                pairTile = GroupCode.getFirstTile(code);
+            } else if (kind == GroupCode.PONG) {
+                pongsAndKongs.add(GroupCode.getTiles(code));
+            } else if (kind == GroupCode.SHEUNG) {
+                sheungs.add(GroupCode.getTiles(code));
+            } else {
+                return Integer.MAX_VALUE;
+            }
+            allGroups.add(GroupCode.getTiles(code));
+        }
+        if (pairTile == null) {
+            return Integer.MAX_VALUE;
+        }
+        int numSheungs = sheungs.size();
+        int numPongsAndKongs = pongsAndKongs.size();
+        boolean selfDraw = context.getPlayerSeat() == context.getLoserSeat();
+        boolean noBrights = context.getBrightSheungs().isEmpty()
+                && context.getBrightPongs().isEmpty();
+
+        // tile composition, which every grouping of the hand shares
+        int[] tileCounts = new int[TILES.length];
+        int typeMask = 0;
+        boolean hasOneNine = false;
+        boolean hasMiddle = false;
+        allGroups.addAll(context.getBrightSheungs());
+        allGroups.addAll(context.getBrightPongs());
+        allGroups.addAll(context.getBrightKongs());
+        allGroups.addAll(context.getDarkKongs());
+        for (List<Tile> group : allGroups) {
+            for (Tile tile : group) {
+                typeMask |= 1 << tile.getTileType().ordinal();
+                if (group.size() < 4) {
+                    tileCounts[tile.ordinal()]++;
+                }
+                if (isWord(tile)) {
+                    continue;
+                } else if (tile.getTileNum() == 1 || tile.getTileNum() == 9) {
+                    hasOneNine = true;
+                } else {
+                    hasMiddle = true;
+                }
+            }
+        }
+        boolean hasWind = (typeMask & 1 << TileType.WORD_WIND.ordinal()) != 0;
+        boolean hasDragon = (typeMask & 1 << TileType.WORD_DRAGON.ordinal()) != 0;
+        boolean hasWord = hasWind || hasDragon;
+        int typeCount = Integer.bitCount(typeMask & (1 << TileType.TUNG.ordinal()
+                | 1 << TileType.SOK.ordinal() | 1 << TileType.MAAN.ordinal()));
+
+        int bound = 0;
+
+        // SELF-DRAW, MULTIPLE WINNERS, FLOWERS AND KONGS
+        if (selfDraw && noBrights) {
+            bound += numPongsAndKongs == 5 ? score(MahjongPoint.KAN_KAN_WU)
+                    : score(MahjongPoint.MUN_TSING_SELF_DRAW);
+        } else if (selfDraw) {
+            bound += score(MahjongPoint.SELF_DRAW);
+        } else if (noBrights) {
+            bound += score(MahjongPoint.MUN_TSING);
+        }
+        if (numPongsAndKongs == 5) {
+            bound += score(MahjongPoint.DUI_DUI_WU);
+        }
+        if (context.isMultipleWinners()) {
+            bound += score(MahjongPoint.MULTIPLE_WINNERS);
+        }
+        for (MahjongPoint point : context.getFlowerPoints()) {
+            bound += score(point);
+        }
+        bound += context.getBrightKongs().size() * score(MahjongPoint.BRIGHT_KONG)
+                + context.getDarkKongs().size() * score(MahjongPoint.DARK_KONG);
+
+        // WINDS AND DRAGONS
+        int numWindPongs = 0;
+        int windScore = 0;
+        int numDragonPongs = 0;
+        int dragonScore = 0;
+        for (List<Tile> group : pongsAndKongs) {
+            Tile tile = group.getFirst();
+            if (tile.getTileType() == TileType.WORD_WIND) {
+                numWindPongs++;
+                windScore += context.getWindScore(Seat.values()[tile.getTileNum() - 1]);
+            } else if (tile.getTileType() == TileType.WORD_DRAGON) {
+                numDragonPongs++;
+                dragonScore += score(DRAGON_POINTS[tile.ordinal() - Tile.WORD_ZHONG.ordinal()]);
+            }
+        }
+        boolean pairIsWind = pairTile.getTileType() == TileType.WORD_WIND;
+        boolean pairIsDragon = pairTile.getTileType() == TileType.WORD_DRAGON;
+        if (numWindPongs == 4) {
+            bound += score(MahjongPoint.DAI_SAM_YUEN);
+        } else if (numWindPongs == 3) {
+            bound += score(pairIsWind ? MahjongPoint.SIU_SAM_YUEN : MahjongPoint.DAI_SAM_FUNG);
+        } else {
+            bound += numWindPongs == 2 && pairIsWind ? score(MahjongPoint.SIU_SAM_FUNG) : windScore;
+        }
+        if (numDragonPongs == 3) {
+            bound += score(MahjongPoint.DAI_SAM_FUNG);
+        } else {
+            bound += numDragonPongs == 2 && pairIsDragon ? score(MahjongPoint.SIU_SAM_FUNG)
+                    : dragonScore;
+        }
+
+        // NO WORDS, ALL SHEUNGS, EYE AND 老少
+        if (!hasWord) {
+            bound += numSheungs == 5 ? score(MahjongPoint.MO_ZI_FA_PING_WU)
+                    : score(MahjongPoint.MO_ZI_FA);
+        } else if (numSheungs == 5) {
+            bound += score(MahjongPoint.PING_WU);
+        }
+        if (!isWord(pairTile) && pairTile.getTileNum() % 3 == 2) {
+            bound += score(MahjongPoint.TSEUNG_AN);
+        }
+        for (List<Tile> group : sheungs) {
+            if (group.getFirst().getTileNum() == 1) {
+                bound += score(MahjongPoint.LOU_SIU);
+            }
+        }
+        for (List<Tile> group : pongsAndKongs) {
+            if (!isWord(group.getFirst()) && group.getFirst().getTileNum() == 1) {
+                bound += score(MahjongPoint.LOU_SIU);
+            }
+        }
+
+        // COLLECTION OF TYPES
+        if (typeCount == 3 && hasWind && hasDragon) {
+            bound += context.getNumFlowerSeason() > 0 && context.getNumFlowerPlant() > 0
+                    ? score(MahjongPoint.TSAT_MUN_CHAI) : score(MahjongPoint.MM_MUN_CHAI);
+        } else if (typeCount == 2 && !hasWord) {
+            bound += score(MahjongPoint.KUT_YAT_MUN);
+        } else if (typeCount == 1) {
+            bound += hasWord ? score(MahjongPoint.WUN_YAT_SIK)
+                    : score(MahjongPoint.TSING_YAT_SIK);
+        }
+
+        // WINNING TILE (獨獨, 假獨, 對碰)
+        Tile wonOffTile = context.getWonOffTile();
+        int dukScore = Math.max(score(MahjongPoint.DUK_DUK), score(MahjongPoint.GA_DUK));
+        if (wonOffTile == pairTile) {
+            bound += dukScore;
+        }
+        for (int i = 0; i < hand.getGroupCount(); i++) {
+            int code = hand.getGroup(i);
+            if (GroupCode.getKind(code) != GroupCode.PAIR
+                    && GroupCode.getTiles(code).contains(wonOffTile)) {
+                bound += GroupCode.getKind(code) == GroupCode.PONG
+                        ? score(MahjongPoint.DUI_PONG) : dukScore;
+            }
+        }
+
+        // 1, 9 AND WORD TILES
+        if (!hasOneNine && !hasWord) {
+            bound += score(MahjongPoint.DUEN_YIU);
+        } else if (!hasWord && !hasMiddle) {
+            bound += score(MahjongPoint.TSING_YIU);
+        } else if (!hasMiddle) {
+            bound += score(MahjongPoint.WUN_YIU);
+        } else {
+            bound += hasWord ? score(MahjongPoint.TSUEN_DAI_WUN_YIU)
+                    : score(MahjongPoint.TSUEN_DAI_YIU);
         }
-        return score * 2;
+
+        // FOUR IDENTICAL TILES ACROSS DIFFERENT GROUPS
+        for (int tile = 0; tile < tileCounts.length; tile++) {
+            if (tileCounts[tile] == 4) {
+                int numGroups = pairTile.ordinal() == tile ? 1 : 0;
+                for (List<Tile> group : sheungs) {
+                    if (group.contains(TILES[tile])) {
+                        numGroups++;
+                    }
+                }
+                for (List<Tile> group : pongsAndKongs) {
+                    if (group.getFirst().ordinal() == tile) {
+                        numGroups++;
+                    }
+                }
+                if (numGroups >= 4) {
+                    bound += score(MahjongPoint.SEI_KWAI_SEI);
+                } else if (numGroups == 3) {
+                    bound += score(MahjongPoint.SEI_KWAI_YEE);
+                } else if (numGroups == 2) {
+                    bound += score(MahjongPoint.SEI_KWAI_YAT);
+                }
+            }
+        }
+
+        // KONGS AND DARK PONGS (暗刻)
+        boolean kanKanWu = selfDraw && noBrights && numPongsAndKongs == 5;
+        if (!kanKanWu) {
+            int numDarkHaks = numKongs;
+            for (int i = 0; i < hand.getGroupCount(); i++) {
+                int code = hand.getGroup(i);
+                if (GroupCode.getKind(code) == GroupCode.PONG
+                        && (GroupCode.getFirstTile(code) != wonOffTile
+                        || (selfDraw && !noBrights))) {
+                    numDarkHaks++;
+                }
+            }
+            bound += switch (numDarkHaks) {
+                case 5 -> score(MahjongPoint.MM_UM_HAK);
+                case 4 -> score(MahjongPoint.SEI_UM_HAK);
+                case 3 -> score(MahjongPoint.SAM_UM_HAK);
+                case 2 -> score(MahjongPoint.YEE_UM_HAK);
+                default -> 0;
+            };
+        }
+
+        // SHEUNGS OF THE SAME NUMBER OR TILES (同順, 般高, 相逢)
+        int[] numCounts = new int[10];
+        int[] starterCounts = new int[TILES.length];
+        int maxSameNum = 0;
+        for (List<Tile> group : sheungs) {
+            maxSameNum = Math.max(maxSameNum, ++numCounts[group.getFirst().getTileNum()]);
+            starterCounts[group.getFirst().ordinal()]++;
+        }
+        if (maxSameNum >= 5) {
+            bound += score(MahjongPoint.MM_TONG_SHUN);
+        } else if (maxSameNum == 4) {
+            bound += score(MahjongPoint.SEI_TONG_SHUN);
+        } else {
+            for (int count : starterCounts) {
+                bound += switch (count) {
+                    case 4 -> score(MahjongPoint.SEI_PUN_KO);
+                    case 3 -> score(MahjongPoint.SAM_PUN_KO);
+                    case 2 -> score(MahjongPoint.YAT_PUN_KO);
+                    default -> 0;
+                };
+            }
+            for (int i = 0; i < numSheungs; i++) {
+                for (int j = i + 1; j < numSheungs; j++) {
+                    Tile tile1 = sheungs.get(i).getFirst();
+                    Tile tile2 = sheungs.get(j).getFirst();
+                    if (checkDifferentType(List.of(tile1, tile2))
+                            && checkSameNum(List.of(tile1, tile2))) {
+                        bound += score(MahjongPoint.YEE_SHEUNG_FUNG);
+                        for (int k = j + 1; k < numSheungs; k++) {
+                            Tile tile3 = sheungs.get(k).getFirst();
+                            if (checkDifferentType(List.of(tile1, tile2, tile3))
+                                    && checkSameNum(List.of(tile1, tile2, tile3))) {
+                                bound += score(MahjongPoint.SAM_SHEUNG_FUNG);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // PONGS OF THE SAME OR ADJACENT NUMBERS (兄弟, 姊妹)
+        int[] pongNumCounts = new int[10];
+        for (List<Tile> group : pongsAndKongs) {
+            if (!isWord(group.getFirst())) {
+                pongNumCounts[group.getFirst().getTileNum()]++;
+            }
+        }
+        for (int num = 1; num < pongNumCounts.length; num++) {
+            if (pongNumCounts[num] == 3) {
+                bound += score(MahjongPoint.DAI_SAM_HING_DAI);
+            } else if (pongNumCounts[num] == 2) {
+                bound += num == pairTile.getTileNum() ? score(MahjongPoint.SIU_SAM_HING_DAI)
+                        : score(MahjongPoint.YEE_HING_DAI);
+            }
+        }
+        for (int i = 0; i < numPongsAndKongs; i++) {
+            for (int j = i + 1; j < numPongsAndKongs; j++) {
+                Tile tile1 = pongsAndKongs.get(i).getFirst();
+                Tile tile2 = pongsAndKongs.get(j).getFirst();
+                if (tile1.getTileType() == tile2.getTileType()
+                        && Math.abs(tile1.getTileNum() - tile2.getTileNum()) == 1) {
+                    boolean daiSam = false;
+                    for (List<Tile> group : pongsAndKongs) {
+                        Tile tile3 = group.getFirst();
+                        if (tile3.getTileType() == tile1.getTileType()
+                                && (Math.abs(tile3.getTileNum() - tile1.getTileNum()) == 1
+                                || Math.abs(tile3.getTileNum() - tile2.getTileNum()) == 1)
+                                && tile3 != tile1 && tile3 != tile2) {
+                            daiSam = true;
+                        }
+                    }
+                    bound += daiSam ? score(MahjongPoint.DAI_SAM_TSZ_MUI)
+                            : score(MahjongPoint.SIU_SAM_TSZ_MUI);
+                }
+            }
+        }
+
+        // 123, 456, 789 SHEUNGS (龍, 雜龍)
+        int[] lungStarters = new int[10];
+        for (List<Tile> group : sheungs) {
+            lungStarters[group.getFirst().getTileNum()]++;
+        }
+        // each combination of starters may be counted as two dragons of each kind
+        int lungScore = 2 * score(MahjongPoint.UM_LUNG) + 2 * score(MahjongPoint.MING_LUNG)
+                + score(MahjongPoint.UM_ZHAP_LUNG) + score(MahjongPoint.MING_ZHAP_LUNG);
+        bound += lungScore * lungStarters[1] * lungStarters[4] * lungStarters[7];
+
+        // ALL GROUPS REVEALED, BONUS DRAWS, LAST AND FIRST DRAWS
+        if (context.getBrightSheungs().size() + context.getBrightPongs().size()
+                + context.getBrightKongs().size() == 5) {
+            bound += selfDraw ? score(MahjongPoint.BOON_KAU_YAN)
+                    : score(MahjongPoint.TSUEN_KAU_YAN);
+        }
+        if (selfDraw) {
+            bound += "double kong".equals(context.getLastEvent())
+                    ? score(MahjongPoint.KONG_SHEUNG_KONG_SELF_DRAW)
+                    : Math.max(score(MahjongPoint.FA_SHEUNG_SELF_DRAW),
+                    score(MahjongPoint.KONG_SHEUNG_SELF_DRAW));
+        }
+        if (context.getNumUnrevealedTiles() <= 11) {
+            bound += Math.max(score(MahjongPoint.HOI_DAI_LAO_YUET),
+                    score(MahjongPoint.TSAT_TSEK_LOI));
+        } else if (context.getNumUnrevealedTiles() <= 14) {
+            bound += score(MahjongPoint.SAP_TSEK_LOI);
+        }
+        if (context.getPlayerGameSeat() == context.getRoundSeat()
+                && context.getDiscardCount() == 0 && numKongs == 0) {
+            bound += score(MahjongPoint.TIN_WU);
+        } else if (context.getDiscardCount() <= 4) {
+            bound += Math.max(score(MahjongPoint.DEI_WU), score(MahjongPoint.YAN_WU));
+        }
+
+        // CHICKEN HAND AND ZHONG
+        if (bound >= 1) {
+            bound = Math.max(bound, 1 + score(MahjongPoint.CHICKEN_HAND));
+        }
+        if (context.getPlayerSeat() == context.getRoundSeat()
+                || context.getLoserSeat() == context.getRoundSeat()) {
+            bound += context.getZhongScore();
+        }
+        return getScore(bound);
+    }
+
+    private static int score(MahjongPoint point) {
+        return point.getPointScore();
+    }
+
+    private static boolean isWord(Tile tile) {
+        return tile.getTileType() == TileType.WORD_WIND
+                || tile.getTileType() == TileType.WORD_DRAGON;
+    }
+
+    /**
+     * Finds the score of a set of points, from the total kept by the set.
+     * @param points the points of a hand.
+     * @return the score of the hand.
+     */
+    public static int getScore(PointSet points) {
+        return getScore(points.getTotal());
+    }
+
+    /**
+     * Finds the score of a hand from the total score of its points.
+     * @param total the sum of the scores of the points.
+     * @return the score of the hand.
+     */
+    private static int getScore(int total) {
+        return (5 + total) * 2;
     }
 
     /**
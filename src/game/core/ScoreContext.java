@@ -0,0 +1,248 @@
+package game.core;
+
+import game.board.HandManager;
+import game.board.hand.RevealedHand;
+import game.board.tile.FlowerMask;
+import game.board.tile.Tile;
+import game.player.data.Seat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The features of a win that are shared by every grouping of the winning hand, i.e. the seats,
+ * the state of the table and the winner's revealed hand. These are extracted once so that many
+ * candidate groupings can be scored against the same context.
+ */
+public class ScoreContext {
+    private final Seat gameSeat;
+    private final Seat roundSeat;
+    private final Seat playerSeat;
+    private final Seat loserSeat;
+    private final Seat playerGameSeat;
+    private final Tile wonOffTile;
+    private final int numUnrevealedTiles;
+    private final List<Tile> discardPile;
+    private final boolean multipleWinners;
+    private final int lumZhongNum;
+    private final String lastEvent;
+    private final int discardCount;
+
+    private final List<List<Tile>> brightSheungs = new ArrayList<>();
+    private final List<List<Tile>> brightPongs = new ArrayList<>();
+    private final List<List<Tile>> brightKongs;
+    private final List<List<Tile>> darkKongs;
+    private final List<MahjongPoint> flowerPoints = new ArrayList<>();
+    private int numFlowerSeason = 0;
+    private int numFlowerPlant = 0;
+
+    /**
+     * Creates a score context.
+     * @param gameSeat the seat of the current game.
+     * @param roundSeat the seat of the Zhong player.
+     * @param playerSeat the seat of the winner.
+     * @param loserSeat the seat of the player who discarded the winning tile, or the winner's
+     *                  seat on a self-draw.
+     * @param wonOffTile the winning tile.
+     * @param handManager the winner's hand manager.
+     * @param numUnrevealedTiles the number of tiles left to draw.
+     * @param discardPile the tiles discarded during the round.
+     * @param multipleWinners whether more than one player won off the same tile.
+     * @param lumZhongNum the number of consecutive rounds won by the Zhong player.
+     * @param lastEvent the event before the winning draw.
+     * @param discardCount the number of tiles discarded during the round.
+     */
+    public ScoreContext(Seat gameSeat, Seat roundSeat, Seat playerSeat, Seat loserSeat,
+                        Tile wonOffTile, HandManager handManager, int numUnrevealedTiles,
+                        List<Tile> discardPile, boolean multipleWinners, int lumZhongNum,
+                        String lastEvent, int discardCount) {
+        this.gameSeat = gameSeat;
+        this.roundSeat = roundSeat;
+        this.playerSeat = playerSeat;
+        this.loserSeat = loserSeat;
+        this.wonOffTile = wonOffTile;
+        this.numUnrevealedTiles = numUnrevealedTiles;
+        this.discardPile = discardPile;
+        this.multipleWinners = multipleWinners;
+        this.lumZhongNum = lumZhongNum;
+        this.lastEvent = lastEvent;
+        this.discardCount = discardCount;
+
+        // Determine player's direction in the game
+        int playerGameSeatOrdinal = (playerSeat.ordinal() - roundSeat.ordinal() + 4) % 4;
+        playerGameSeat = Seat.values()[playerGameSeatOrdinal];
+
+        // Sort revealed groups and split them by group type
+        RevealedHand revealed = handManager.getRevealedHand();
+        List<List<Tile>> revealedHand = new ArrayList<>(revealed.getGroups());
+        brightKongs = new ArrayList<>(revealed.getBrightKongs());
+        darkKongs = new ArrayList<>(revealed.getDarkKongs());
+        HandSorter.sortLists(revealedHand);
+        HandSorter.sortLists(brightKongs);
+        HandSorter.sortLists(darkKongs);
+        for (List<Tile> group : revealedHand) {
+            if (group.get(0) == group.get(1)) {
+                brightPongs.add(group);
+            } else {
+                brightSheungs.add(group);
+            }
+        }
+
+        addFlowerPoints(revealed.getFlowerMask());
+    }
+
+    /**
+     * Finds the flower points (花), which only depend on the revealed flowers and the seat.
+     * @param flowers the mask of the winner's flowers, see {@link FlowerMask}.
+     */
+    private void addFlowerPoints(int flowers) {
+        if (flowers == 0) {
+            flowerPoints.add(MahjongPoint.MO_FA);
+            return;
+        }
+        numFlowerSeason = Integer.bitCount(flowers & FlowerMask.SEASONS);
+        numFlowerPlant = Integer.bitCount(flowers & FlowerMask.PLANTS);
+
+        // the flowers of a complete set only score for the set
+        int looseFlowers = flowers;
+        if (numFlowerSeason == 4) {
+            looseFlowers &= ~FlowerMask.SEASONS;
+        }
+        if (numFlowerPlant == 4) {
+            looseFlowers &= ~FlowerMask.PLANTS;
+        }
+        int seatFlowers = FlowerMask.countSeatFlowers(looseFlowers, playerGameSeat.ordinal());
+        flowerPoints.addAll(Collections.nCopies(seatFlowers, MahjongPoint.ZENG_FA));
+        flowerPoints.addAll(Collections.nCopies(Integer.bitCount(looseFlowers) - seatFlowers,
+                MahjongPoint.LAN_FA));
+
+        int tois = FlowerMask.countTois(flowers);
+        if (tois == 2) {
+            // TWO COMPLETE SETS OF FLOWER TILES (兩台花)
+            flowerPoints.add(MahjongPoint.LEUNG_TOI_FA);
+        } else if (tois == 1) {
+            // ONE COMPLETE SET OF FLOWER TILES (一台花)
+            flowerPoints.add(MahjongPoint.YAT_TOI_FA);
+        }
+    }
+
+    public Seat getGameSeat() {
+        return gameSeat;
+    }
+
+    public Seat getRoundSeat() {
+        return roundSeat;
+    }
+
+    public Seat getPlayerSeat() {
+        return playerSeat;
+    }
+
+    public Seat getLoserSeat() {
+        return loserSeat;
+    }
+
+    /**
+     * Retrieves the winner's direction relative to the Zhong player.
+     * @return the winner's seat in the game.
+     */
+    public Seat getPlayerGameSeat() {
+        return playerGameSeat;
+    }
+
+    public Tile getWonOffTile() {
+        return wonOffTile;
+    }
+
+    public int getNumUnrevealedTiles() {
+        return numUnrevealedTiles;
+    }
+
+    public List<Tile> getDiscardPile() {
+        return Collections.unmodifiableList(discardPile);
+    }
+
+    public boolean isMultipleWinners() {
+        return multipleWinners;
+    }
+
+    public int getLumZhongNum() {
+        return lumZhongNum;
+    }
+
+    public String getLastEvent() {
+        return lastEvent;
+    }
+
+    public int getDiscardCount() {
+        return discardCount;
+    }
+
+    /**
+     * Retrieves the winner's revealed Sheungs, sorted.
+     * @return an unmodifiable view of the revealed Sheungs.
+     */
+    public List<List<Tile>> getBrightSheungs() {
+        return Collections.unmodifiableList(brightSheungs);
+    }
+
+    /**
+     * Retrieves the winner's revealed Pongs, sorted.
+     * @return an unmodifiable view of the revealed Pongs.
+     */
+    public List<List<Tile>> getBrightPongs() {
+        return Collections.unmodifiableList(brightPongs);
+    }
+
+    /**
+     * Retrieves the winner's Bright Kongs, sorted.
+     * @return an unmodifiable view of the Bright Kongs.
+     */
+    public List<List<Tile>> getBrightKongs() {
+        return Collections.unmodifiableList(brightKongs);
+    }
+
+    /**
+     * Retrieves the winner's Dark Kongs, sorted.
+     * @return an unmodifiable view of the Dark Kongs.
+     */
+    public List<List<Tile>> getDarkKongs() {
+        return Collections.unmodifiableList(darkKongs);
+    }
+
+    /**
+     * Retrieves the flower points of the win.
+     * @return an unmodifiable view of the flower points.
+     */
+    public List<MahjongPoint> getFlowerPoints() {
+        return Collections.unmodifiableList(flowerPoints);
+    }
+
+    /**
+     * Retrieves the score of a Pong or Kong of a wind (東南西北), which is 1, plus 1 if it is the
+     * winner's wind in the game and 1 if it is the wind of the game.
+     * @param wind the seat of the wind.
+     * @return the score of the wind point.
+     */
+    public int getWindScore(Seat wind) {
+        return 1 + (playerGameSeat == wind ? 1 : 0) + (gameSeat == wind ? 1 : 0);
+    }
+
+    /**
+     * Retrieves the score of the Zhong point (莊), which grows with every consecutive round won
+     * by the Zhong player.
+     * @return the score of the Zhong point.
+     */
+    public int getZhongScore() {
+        return 2 * lumZhongNum + 1;
+    }
+
+    public int getNumFlowerSeason() {
+        return numFlowerSeason;
+    }
+
+    public int getNumFlowerPlant() {
+        return numFlowerPlant;
+    }
+}
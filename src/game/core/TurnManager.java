@@ -1,53 +1,133 @@
 package game.core;
 
+import game.board.BoardEvent;
+import game.board.BoardModel;
+import game.board.BoardSnapshot;
+import game.board.BoardView;
+import game.board.HandManager;
 import game.board.PileManager;
-import game.board.tile.TileType;
+import game.board.hand.RevealedHand;
+import game.board.tile.Zobrist;
+import game.core.metrics.Metrics;
+import game.core.metrics.ScoreEvent;
+import game.core.state.GameState;
+import game.core.state.Move;
+import game.core.state.MoveList;
 import game.core.turn.data.TurnEnder;
 import game.board.tile.Tile;
 import game.player.Player;
 import game.core.turn.Turn;
 import game.player.data.Seat;
+import game.player.data.Settlement;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
+import java.util.function.Consumer;
 
 /**
  * A managing class that represents a game round, handling turns during a round.
+ * <p>
+ * The rules of the round are those of {@link GameState}: the round is played on a state that
+ * every deal, draw, claim, Kong, discard and win is applied to as a move, and the players are
+ * only asked about the moves that are legal in it. The turn manager follows each move on the
+ * players' hands and the piles, which are what the players see, and handles the scoring.
  */
 public class TurnManager {
     private final List<Player> playerList;
+    private final Random random;
     private Player currentPlayer = null;
     private final List<Player> winners = new ArrayList<>();
     private Turn currentTurn = null;
     private PileManager pileManager;
+    private GameState state;
+    private final MoveList legalMoves = new MoveList();
     private String lastEvent;
     private int discardCount = 0;
+    private Settlement settlement = new Settlement();
+    private final BoardModel boardModel = new BoardModel();
+    private Consumer<BoardSnapshot> snapshotPublisher = null;
+    private BoardSnapshot lastSnapshot = null;
+    private Duration claimTimeout = null;
+    // the pulls (拉莊) each leader holds over the players they have won off, in seat order
+    private final Map<Player, Map<Player, Integer>> pulls = new LinkedHashMap<>();
 
     /**
      * Creates a turn manager instance.
      * @param playerList the players participating in the round.
      */
     public TurnManager(List<Player> playerList) {
+        this(playerList, new Random());
+    }
+
+    /**
+     * Creates a turn manager instance that shuffles tiles with the given source of randomness.
+     * @param playerList the players participating in the round.
+     * @param random the source of randomness used to shuffle the tiles each round.
+     */
+    public TurnManager(List<Player> playerList, Random random) {
         if (playerList.size() != 4) {
             throw new IllegalArgumentException("Incorrect amount of players!");
         }
         playerList.sort(Comparator.comparing(Player::getSeat));
         this.playerList = playerList;
+        this.random = random;
+        for (Player player : playerList) {
+            pulls.put(player, new LinkedHashMap<>());
+        }
     }
 
     public Player getCurrentPlayer() {
         return currentPlayer;
     }
 
+    /**
+     * Retrieves the versioned record of the changes to the board during the current round.
+     * @return the board model.
+     */
+    public BoardModel getBoardModel() {
+        return boardModel;
+    }
+
+    /**
+     * Sets where a snapshot of the board is published after every board event. The publisher is
+     * called on the game thread, so it must hand the snapshot off without blocking.
+     * @param snapshotPublisher the publisher, or null to stop publishing snapshots.
+     */
+    public void setSnapshotPublisher(Consumer<BoardSnapshot> snapshotPublisher) {
+        this.snapshotPublisher = snapshotPublisher;
+    }
+
+    /**
+     * Sets how long the other players have to claim a discarded tile. A player that has not
+     * decided in time is treated as declining, and their pending decision is interrupted.
+     * @param claimTimeout the time allowed to claim, or null to wait for every player.
+     */
+    public void setClaimTimeout(Duration claimTimeout) {
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * Retrieves the score transfers of the current round.
+     * @return the settlement of the round.
+     */
+    public Settlement getSettlement() {
+        return settlement;
+    }
+
     /**
      * Initializes a new turn.
      * @return a new turn belonging to the current player.
      */
     public Turn initializeTurn() {
-        return new Turn(currentPlayer, getOtherPlayers(), boardState(),
-                pileManager.getDiscardPile().getDiscardedTiles());
+        return new Turn(currentPlayer, getOtherPlayers(), settlement, boardState(),
+                pileManager.getDiscardPile().getDiscardedTilesView(), legalMoves);
     }
 
     /**
@@ -58,42 +138,34 @@ public class TurnManager {
     public TurnEnder startRound(Seat seat) throws InvalidKongException, EmptyPileException {
         // INITIAL DRAWS
         winners.clear();
-        pileManager = new PileManager(8);
-        for (Player player : playerList) {
-            int numInitialTiles;
-            if (player.getSeat() == seat) {
-                numInitialTiles = 17;
-                currentPlayer = player;
+        settlement = new Settlement();
+        boardModel.startRound();
+        lastSnapshot = null;
+        Metrics.increment(Metrics.Counter.ROUNDS);
+        pileManager = new PileManager(GameState.MIN_TILES_LEFT, random);
+        state = GameState.ofWall(pileManager.getUnrevealedPile().getTiles(), seat.ordinal());
+        updateLegalMoves();
+        currentPlayer = playerList.get(seat.ordinal());
+        while (legalMoves.getPhase() == GameState.Phase.DEAL
+                || legalMoves.getPhase() == GameState.Phase.DEAL_BONUS) {
+            Player player = playerList.get(state.getCurrentSeat());
+            Tile newTile;
+            if (legalMoves.getPhase() == GameState.Phase.DEAL) {
+                newTile = pileManager.drawTile();
+                applyMove(Move.DRAW, player, -1, -1);
             } else {
-                numInitialTiles = 16;
+                newTile = pileManager.drawBonusTile();
+                applyMove(Move.BONUS_DRAW, player, -1, -1);
             }
-            for (int i = 0; i < numInitialTiles; i++) {
-                Tile newTile = pileManager.drawTile();
-                while (newTile.getTileType() == TileType.FLOWER_SEASON
-                        || newTile.getTileType() == TileType.FLOWER_PLANT) {
-                    Prompter.printLine();
-                    Prompter.printLine(player.toStringWithSeat() + " drew flower tile: " + newTile);
-                    player.getHandManager().addFlower(newTile);
-                    if (player.getHandManager().getRevealedHand().newToiFormed()) {
-                        Prompter.printLine(player.toStringWithSeat() + " formed a new type of flowers!");
-                        for (Player otherPlayer : getOtherPlayers(player)) {
-                            otherPlayer.deductScore(10);
-                            Prompter.printLine(otherPlayer.toStringWithSeat() + ": -10");
-                        }
-                        player.addScore(30);
-                        Prompter.printLine(player.toStringWithSeat() + ": +30");
-                    }
-                    if (player.getHandManager().getRevealedHand().newGrassFormed()) {
-                        Prompter.printLine(player.toStringWithSeat() + " formed a new set of flowers!");
-                        for (Player otherPlayer : getOtherPlayers(player)) {
-                            otherPlayer.deductScore(5);
-                            Prompter.printLine(otherPlayer.toStringWithSeat() + ": -5");
-                        }
-                        player.addScore(15);
-                        Prompter.printLine(player.toStringWithSeat() + ": +15");
-                    }
-                    newTile = pileManager.drawBonusTile();
-                }
+            recordEvent(BoardEvent.Type.DRAW, player, List.of());
+            if (legalMoves.getPhase() == GameState.Phase.DEAL_BONUS) {
+                // the tile is a flower, which is replaced by a bonus tile
+                Prompter.printLine();
+                Prompter.printLine(player.toStringWithSeat() + " drew flower tile: " + newTile);
+                player.getHandManager().addFlower(newTile);
+                recordEvent(BoardEvent.Type.FLOWER, player, List.of(newTile));
+                settleFlowerSets(player);
+            } else {
                 player.getHandManager().addToHand(newTile);
             }
         }
@@ -111,6 +183,8 @@ public class TurnManager {
             }
         }
         Prompter.printLine();
+        Metrics.increment(turnEnder == TurnEnder.END_GAME_DRAW
+                ? Metrics.Counter.DRAWS : Metrics.Counter.WINS);
         return turnEnder;
     }
 
@@ -123,40 +197,36 @@ public class TurnManager {
      */
     public TurnEnder startNewTurn(TurnEnder prevTurnEnder)
             throws InvalidKongException, EmptyPileException {
+        long start = Metrics.start();
+        try {
+            return playNewTurn(prevTurnEnder);
+        } finally {
+            Metrics.record(Metrics.Phase.TURN, start);
+        }
+    }
+
+    private TurnEnder playNewTurn(TurnEnder prevTurnEnder)
+            throws InvalidKongException, EmptyPileException {
         switch (prevTurnEnder) {
             case DRAW_FLOWER -> {
                 lastEvent = "flower";
+                recordEvent(BoardEvent.Type.FLOWER, currentPlayer,
+                        List.of(currentTurn.getDrawnTile()));
                 Prompter.printLine();
                 Prompter.printLine(currentPlayer.toStringWithSeat() + " drew flower tile: "
                         + currentTurn.getDrawnTile());
-                if (currentPlayer.getHandManager().getRevealedHand().newToiFormed()) {
-                    Prompter.printLine(currentPlayer.toStringWithSeat() + " formed a new type of flowers!");
-                    for (Player otherPlayer : getOtherPlayers()) {
-                        otherPlayer.deductScore(10);
-                        Prompter.printLine(otherPlayer.toStringWithSeat() + ": -10");
-                    }
-                    currentPlayer.addScore(30);
-                    Prompter.printLine(currentPlayer.toStringWithSeat() + ": +30");
-                }
-                if (currentPlayer.getHandManager().getRevealedHand().newGrassFormed()) {
-                    Prompter.printLine(currentPlayer.toStringWithSeat() + " formed a new set of flowers!");
-                    for (Player otherPlayer : getOtherPlayers()) {
-                        otherPlayer.deductScore(5);
-                        Prompter.printLine(otherPlayer.toStringWithSeat() + ": -5");
-                    }
-                    currentPlayer.addScore(15);
-                    Prompter.printLine(currentPlayer.toStringWithSeat() + ": +15");
-                }
-                if (currentPlayer.getHandManager().getRevealedHand().getFlowers().size() == 8) {
-                    if (currentPlayer.decideWin(boardState(currentPlayer))) {
-                        winners.add(currentPlayer);
-                        return TurnEnder.END_GAME_WIN_SELFDRAW;
-                    }
-                }
+                settleFlowerSets(currentPlayer);
                 return startTurnBonusDraw();
             }
             case BRIGHT_KONG, DARK_KONG -> {
-                if (lastEvent.equals("kong") || lastEvent.equals("double kong")) {
+                Metrics.increment(Metrics.Counter.KONGS);
+                if (prevTurnEnder == TurnEnder.DARK_KONG) {
+                    recordEvent(BoardEvent.Type.DARK_KONG, currentPlayer, List.of());
+                } else {
+                    recordEvent(BoardEvent.Type.MELD, currentPlayer,
+                            Collections.nCopies(4, currentTurn.getKongTile()));
+                }
+                if ("kong".equals(lastEvent) || "double kong".equals(lastEvent)) {
                     lastEvent = "double kong";
                 }
                 return startTurnBonusDraw();
@@ -166,49 +236,71 @@ public class TurnManager {
                 discardCount += 1;
                 Tile discardedTile = currentTurn.getDiscardTile();
                 pileManager.addDiscardedTile(discardedTile);
-                List<Player> otherPlayers = getOtherPlayers();
+                recordEvent(BoardEvent.Type.DISCARD, currentPlayer, List.of(discardedTile));
+                ClaimWindow claimWindow = new ClaimWindow(discardedTile, getOtherPlayers(),
+                        legalMoves, claimTimeout);
+                claimWindow.collect(this::boardState);
 
                 // CHECK WIN
-                for (Player player : otherPlayers) {
-                    if (player.getHandManager().checkWin(discardedTile)) {
-                        if (player.decideWin(discardedTile, boardState(player))) {
-                            player.getHandManager().addToHand(discardedTile);
-                            winners.add(player);
-                        }
-                    }
+                for (Player player : claimWindow.getWinners()) {
+                    player.getHandManager().addToHand(discardedTile);
+                    winners.add(player);
                 }
                 if (!winners.isEmpty()) {
+                    applyMove(Move.WIN, winners.getFirst(), discardedTile.ordinal(), -1);
                     pileManager.takeLastDiscardedTile();
+                    recordEvent(BoardEvent.Type.CLAIM, winners.getFirst(),
+                            List.of(discardedTile));
                     return TurnEnder.END_GAME_WIN;
                 }
 
-                // CHECK BRIGHT KONG
-                for (Player player : otherPlayers) {
-                    if (player.getHandManager().checkBrightKongFromOpponent(discardedTile)) {
-                        if (player.decideBrightKongNoDraw(discardedTile, boardState(player))) {
-                            currentPlayer = player;
+                ClaimWindow.Claim claim = claimWindow.getClaim();
+                if (claim != null) {
+                    currentPlayer = claimWindow.getClaimant();
+                    switch (claim) {
+                        case BRIGHT_KONG -> {
+                            applyMove(Move.CLAIM_KONG, currentPlayer, discardedTile.ordinal(), -1);
                             Prompter.printLine();
-                            Prompter.printLine(currentPlayer.toStringWithSeat() + " performed Bright Kong: "
-                                    + discardedTile + discardedTile + discardedTile + discardedTile);
+                            Prompter.printLine(currentPlayer.toStringWithSeat()
+                                    + " performed Bright Kong: " + discardedTile + discardedTile
+                                    + discardedTile + discardedTile);
                             return startTurnBrightKongFromOpponent();
                         }
-                    }
-                }
-
-                // CHECK PONG
-                for (Player player : otherPlayers) {
-                    if (player.getHandManager().checkPong(discardedTile)) {
-                        if (player.decidePong(discardedTile, boardState(player))) {
-                            currentPlayer = player;
+                        case PONG -> {
+                            applyMove(Move.PONG, currentPlayer, discardedTile.ordinal(), -1);
                             List<Tile> existingTiles = new ArrayList<>();
                             for (int i = 0; i < 2; i++) {
                                 existingTiles.add(discardedTile);
                             }
                             Prompter.printLine();
-                            Prompter.printLine(currentPlayer.toStringWithSeat() + " performed Pong: "
+                            Prompter.printLine(currentPlayer.toStringWithSeat()
+                                    + " performed Pong: "
                                     + discardedTile + discardedTile + discardedTile);
                             return startTurnTakeTile(existingTiles);
                         }
+                        case SHEUNG -> {
+                            List<List<Tile>> validSheungs = claimWindow.getValidSheungs();
+                            List<Tile> pickedCombo;
+                            if (validSheungs.size() == 1) {
+                                pickedCombo = new ArrayList<>(validSheungs.getFirst());
+                            } else {
+                                pickedCombo = new ArrayList<>(Metrics.pick(currentPlayer,
+                                        "sheung combo",
+                                        () -> currentPlayer.pickSheungCombo(validSheungs)));
+                            }
+                            applyMove(Move.SHEUNG, currentPlayer, discardedTile.ordinal(),
+                                    pickedCombo.getFirst().ordinal());
+                            StringBuilder comboString = new StringBuilder();
+                            for (Tile tile : pickedCombo) {
+                                comboString.append(tile);
+                            }
+                            Prompter.printLine();
+                            Prompter.printLine(currentPlayer.toStringWithSeat()
+                                    + " performed Sheung: " + comboString);
+                            pickedCombo.remove(discardedTile);
+                            return startTurnTakeTile(pickedCombo);
+                        }
+                        default -> throw new RuntimeException("Unknown claim!");
                     }
                 }
 
@@ -216,29 +308,6 @@ public class TurnManager {
                 int currentIndex = playerList.indexOf(currentPlayer);
                 int nextIndex = (currentIndex + 1) % playerList.size();
                 currentPlayer = playerList.get(nextIndex);
-
-                // CHECK SHEUNG
-                List<List<Tile>> validSheungs = currentPlayer.getHandManager().checkSheung(discardedTile);
-                if (!validSheungs.isEmpty()) {
-                    if (currentPlayer.decideSheung(discardedTile, boardState())) {
-                        List<Tile> pickedCombo;
-                        if (validSheungs.size() == 1) {
-                            pickedCombo = new ArrayList<>(validSheungs.getFirst());
-                        } else {
-                            pickedCombo = new ArrayList<>(currentPlayer.pickSheungCombo(validSheungs));
-                        }
-                        StringBuilder comboString = new StringBuilder();
-                        for (Tile tile : pickedCombo) {
-                            comboString.append(tile);
-                        }
-                        Prompter.printLine();
-                        Prompter.printLine(currentPlayer.toStringWithSeat() + " performed Sheung: "
-                                + comboString);
-                        pickedCombo.remove(discardedTile);
-                        return startTurnTakeTile(pickedCombo);
-                    }
-                }
-
                 return startTurnNormalDraw();
             }
             default -> throw new RuntimeException("Unknown TurnEnder!");
@@ -251,7 +320,7 @@ public class TurnManager {
      */
     public TurnEnder startTurnFirstDraw() throws InvalidKongException {
         currentTurn = initializeTurn();
-        return currentTurn.startTurnFirstDraw();
+        return applyTurn(currentTurn.startTurnFirstDraw());
     }
 
     /**
@@ -261,21 +330,39 @@ public class TurnManager {
      * @throws InvalidKongException if an invalid kong is attempted.
      */
     public TurnEnder startTurnNormalDraw() throws EmptyPileException, InvalidKongException {
+        if (!legalMoves.contains(Move.DRAW, getSeat(currentPlayer), -1)) {
+            throw new EmptyPileException();
+        }
         Tile drawnTile = pileManager.drawTile();
+        applyMove(Move.DRAW, currentPlayer, -1, -1);
+        recordEvent(BoardEvent.Type.DRAW, currentPlayer, List.of());
         currentTurn = initializeTurn();
-        return currentTurn.startTurnDrawTile(drawnTile);
+        return applyTurn(currentTurn.startTurnDrawTile(drawnTile));
     }
 
     /**
-     * Starts a turn with a bonus draw.
+     * Starts a turn with a bonus draw, after a flower or a Kong. A player holding every flower
+     * may win instead of drawing.
      * @return the turn ending event.
      * @throws EmptyPileException if there are no tiles left to draw.
      * @throws InvalidKongException if an invalid kong is attempted.
      */
     public TurnEnder startTurnBonusDraw() throws EmptyPileException, InvalidKongException {
+        if (legalMoves.contains(Move.SELF_WIN, getSeat(currentPlayer), -1)
+                && Metrics.decide(currentPlayer, "win",
+                        () -> currentPlayer.decideWin(boardState(currentPlayer)))) {
+            applyMove(Move.SELF_WIN, currentPlayer, -1, -1);
+            winners.add(currentPlayer);
+            return TurnEnder.END_GAME_WIN_SELFDRAW;
+        }
+        if (!legalMoves.contains(Move.BONUS_DRAW, getSeat(currentPlayer), -1)) {
+            throw new EmptyPileException();
+        }
         Tile drawnTile = pileManager.drawBonusTile();
+        applyMove(Move.BONUS_DRAW, currentPlayer, -1, -1);
+        recordEvent(BoardEvent.Type.DRAW, currentPlayer, List.of());
         currentTurn = initializeTurn();
-        return currentTurn.startTurnDrawTile(drawnTile);
+        return applyTurn(currentTurn.startTurnDrawTile(drawnTile));
     }
 
     /**
@@ -288,8 +375,12 @@ public class TurnManager {
      */
     public TurnEnder startTurnTakeTile(List<Tile> existingTiles) {
         Tile takenTile = pileManager.takeLastDiscardedTile();
+        recordEvent(BoardEvent.Type.CLAIM, currentPlayer, List.of(takenTile));
+        List<Tile> group = new ArrayList<>(existingTiles);
+        group.add(takenTile);
+        recordEvent(BoardEvent.Type.MELD, currentPlayer, group);
         currentTurn = initializeTurn();
-        return currentTurn.startTurnTakeTile(takenTile, existingTiles);
+        return applyTurn(currentTurn.startTurnTakeTile(takenTile, existingTiles));
     }
 
     /**
@@ -300,6 +391,7 @@ public class TurnManager {
      */
     public TurnEnder startTurnBrightKongFromOpponent() throws InvalidKongException {
         Tile takenTile = pileManager.takeLastDiscardedTile();
+        recordEvent(BoardEvent.Type.CLAIM, currentPlayer, List.of(takenTile));
         currentTurn = initializeTurn();
         return currentTurn.startTurnBrightKongFromOpponent(takenTile);
     }
@@ -340,6 +432,242 @@ public class TurnManager {
                 .toList();
     }
 
+    /**
+     * Scores the winners of a finished round and applies their wins to the pulls (拉莊), as in
+     * {@link #pullWin(Player, Player, int)} and {@link #pullSelfDraw(Player, Map)}.
+     * @param turnEnder the event that ended the round.
+     * @param gameSeat the seat of the game.
+     * @param roundSeat the seat of the Zhong player.
+     * @param lumZhongNum the number of consecutive rounds won by the Zhong player.
+     */
+    public void settleWinnings(TurnEnder turnEnder, Seat gameSeat, Seat roundSeat,
+                               int lumZhongNum) {
+        if (turnEnder == TurnEnder.END_GAME_WIN) {
+            Player loser = currentPlayer;
+            for (Player winner : winners) {
+                int score = scoreWin(winner, loser, gameSeat, roundSeat, winners.size() > 1,
+                        lumZhongNum, new ArrayList<>(), new PointSet());
+                pullWin(winner, loser, score);
+            }
+        } else if (turnEnder == TurnEnder.END_GAME_WIN_SELFDRAW) {
+            Player winner = currentPlayer;
+            int score = scoreWin(winner, winner, gameSeat, roundSeat, false, lumZhongNum,
+                    new ArrayList<>(), new PointSet());
+            Map<Player, Integer> payments = new LinkedHashMap<>();
+            for (Player loser : getOtherPlayers()) {
+                payments.put(loser, getSelfDrawPayment(score, loser, roundSeat, lumZhongNum));
+            }
+            pullSelfDraw(winner, payments);
+        }
+    }
+
+    /**
+     * Applies a win off a discard to the pulls (拉莊). The winner pulls the loser for the score,
+     * plus double what they were already pulling the loser for. Every other leader's pulls end
+     * and are collected through the round's settlement, except that a leader who discarded the
+     * winning tile is only paid half of what they were pulling the winner for.
+     * @param winner the player who won.
+     * @param loser the player who discarded the winning tile.
+     * @param score the score of the win.
+     * @return the pulls collected, by leader and then by trailing player.
+     */
+    public Map<Player, Map<Player, Integer>> pullWin(Player winner, Player loser, int score) {
+        Map<Player, Map<Player, Integer>> collected = new LinkedHashMap<>();
+        for (Map.Entry<Player, Map<Player, Integer>> entry : pulls.entrySet()) {
+            Player leader = entry.getKey();
+            Map<Player, Integer> leaderPulls = entry.getValue();
+            if (leader == winner) {
+                leaderPulls.merge(loser, score, (trailingScore, newScore) ->
+                        newScore + trailingScore * 2);
+            } else {
+                collectPulls(leader, leaderPulls, winner, loser == leader, collected);
+            }
+        }
+        settlement.commit();
+        return collected;
+    }
+
+    /**
+     * Applies a self-draw win to the pulls (拉莊). The winner pulls every other player for what
+     * they pay, plus double what they were already pulling them for. Every other leader's pulls
+     * end and are collected through the round's settlement, except that every leader is only
+     * paid half of what they were pulling the winner for.
+     * @param winner the player who won.
+     * @param payments the score each other player pays the winner.
+     * @return the pulls collected, by leader and then by trailing player.
+     */
+    public Map<Player, Map<Player, Integer>> pullSelfDraw(Player winner,
+                                                          Map<Player, Integer> payments) {
+        Map<Player, Map<Player, Integer>> collected = new LinkedHashMap<>();
+        for (Map.Entry<Player, Map<Player, Integer>> entry : pulls.entrySet()) {
+            Player leader = entry.getKey();
+            Map<Player, Integer> leaderPulls = entry.getValue();
+            if (leader == winner) {
+                for (Map.Entry<Player, Integer> payment : payments.entrySet()) {
+                    leaderPulls.merge(payment.getKey(), payment.getValue(),
+                            (trailingScore, newScore) -> newScore + trailingScore * 2);
+                }
+            } else {
+                collectPulls(leader, leaderPulls, winner, true, collected);
+            }
+        }
+        settlement.commit();
+        return collected;
+    }
+
+    /**
+     * Retrieves the pulls (拉莊) still held, which are paid when they are collected.
+     * @return the score each leader is pulling each trailing player for. The maps are views.
+     */
+    public Map<Player, Map<Player, Integer>> getPulls() {
+        Map<Player, Map<Player, Integer>> view = new LinkedHashMap<>();
+        for (Map.Entry<Player, Map<Player, Integer>> entry : pulls.entrySet()) {
+            view.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(view);
+    }
+
+    /**
+     * Collects every pull (拉莊) still held, once the game ends.
+     * @return a committed settlement of the pulls collected.
+     */
+    public Settlement settlePulls() {
+        Settlement pullSettlement = new Settlement();
+        for (Map.Entry<Player, Map<Player, Integer>> entry : pulls.entrySet()) {
+            for (Map.Entry<Player, Integer> losing : entry.getValue().entrySet()) {
+                pullSettlement.transfer(losing.getKey(), entry.getKey(), losing.getValue());
+            }
+            entry.getValue().clear();
+        }
+        pullSettlement.commit();
+        return pullSettlement;
+    }
+
+    /**
+     * Ends a leader's pulls, transferring them through the round's settlement.
+     * @param halvedForWinner whether the winner pays the leader only half of their pull.
+     */
+    private void collectPulls(Player leader, Map<Player, Integer> leaderPulls, Player winner,
+                              boolean halvedForWinner,
+                              Map<Player, Map<Player, Integer>> collected) {
+        for (Map.Entry<Player, Integer> losing : leaderPulls.entrySet()) {
+            Player trailer = losing.getKey();
+            int trailingScore = losing.getValue();
+            if (halvedForWinner && trailer == winner) {
+                trailingScore = trailingScore / 2;
+            }
+            settlement.transfer(trailer, leader, trailingScore);
+            collected.computeIfAbsent(leader, player -> new LinkedHashMap<>())
+                    .put(trailer, trailingScore);
+        }
+        leaderPulls.clear();
+    }
+
+    /**
+     * Finds the highest scoring grouping of the winner's hand.
+     * @param winner the player who won.
+     * @param loser the player who discarded the winning tile, or the winner on a self-draw.
+     * @param gameSeat the seat of the game.
+     * @param roundSeat the seat of the Zhong player.
+     * @param multipleWinners whether more than one player won off the same tile.
+     * @param lumZhongNum the number of consecutive rounds won by the Zhong player.
+     * @param highestHand the list the groups of the highest scoring grouping are added to.
+     * @param highestPoints the point set the points of the highest scoring grouping are added to.
+     * @return the highest score.
+     */
+    public int scoreWin(Player winner, Player loser, Seat gameSeat, Seat roundSeat,
+                        boolean multipleWinners, int lumZhongNum, List<List<Tile>> highestHand,
+                        PointSet highestPoints) {
+        ScoreEvent event = new ScoreEvent();
+        event.begin();
+        HandManager handManager = winner.getHandManager();
+        ScoreContext context = new ScoreContext(gameSeat, roundSeat, winner.getSeat(),
+                loser.getSeat(), handManager.getHand().getLastDrawnTile(), handManager,
+                pileManager.getUnrevealedPile().getRemainingTileCount(),
+                pileManager.getDiscardPile().getDiscardedTiles(),
+                multipleWinners, lumZhongNum, lastEvent, discardCount);
+        List<PackedHand> validHands =
+                ScoreCalculator.getValidPackedHands(handManager.getHand().getTiles());
+        int[] scores = ScoreCalculator.getHighestScores(context, validHands);
+        int highestScore = 0;
+        int highestIndex = -1;
+        for (int i = 0; i < scores.length; i++) {
+            if (scores[i] > highestScore) {
+                highestScore = scores[i];
+                highestIndex = i;
+            }
+        }
+        if (highestIndex >= 0) {
+            PackedHand hand = validHands.get(highestIndex);
+            highestHand.addAll(hand.toLists());
+            highestPoints.addAll(ScoreCalculator.getPoints(context, hand));
+        }
+        event.end(winner.getSeat(), handManager.getHand().getTiles(), validHands.size(),
+                highestScore);
+        return highestScore;
+    }
+
+    /**
+     * Finds the score a loser pays the winner of a self-draw, where the Zhong player pays an
+     * extra 2 for every round they have won in a row, plus 2.
+     * @param score the highest score of the winner.
+     * @param loser the player paying the winner.
+     * @param roundSeat the seat of the Zhong player.
+     * @param lumZhongNum the number of consecutive rounds won by the Zhong player.
+     * @return the score paid.
+     */
+    public static int getSelfDrawPayment(int score, Player loser, Seat roundSeat,
+                                         int lumZhongNum) {
+        if (loser.getSeat() == roundSeat) {
+            return score + 2 * (2 * lumZhongNum + 1);
+        }
+        return score;
+    }
+
+    /**
+     * Checks whether the Zhong player stays on for the next round, which happens when the round
+     * is drawn or the Zhong player is one of the winners.
+     * @param turnEnder the event that ended the round.
+     * @param roundSeat the seat of the Zhong player.
+     * @return true iff the Zhong player stays on, false otherwise.
+     */
+    public boolean keepsZhong(TurnEnder turnEnder, Seat roundSeat) {
+        if (turnEnder == TurnEnder.END_GAME_DRAW) {
+            return true;
+        }
+        for (Player winner : winners) {
+            if (winner.getSeat() == roundSeat) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Captures the round as a compact state for simulation or search, at the point of the round
+     * the state it is played on is at, with every player's current score.
+     * @return a copy of the state of the round.
+     * @requires the round has been dealt.
+     */
+    public GameState getGameState() {
+        return GameState.of(playerList, pileManager, state.getCurrentSeat(), state.getPhase());
+    }
+
+    /**
+     * Computes the Zobrist key of the table: the piles, every player's hands and the seat of the
+     * current player. Tables holding the same tiles in the same places have the same key, so the
+     * key can index transposition tables and caches.
+     * @return the key of the table.
+     */
+    public long getZobristKey() {
+        long key = Zobrist.forSeat(pileManager.getZobristKey(), currentPlayer.getSeat().ordinal());
+        for (Player player : playerList) {
+            key ^= Zobrist.forSeat(player.getHandManager().getZobristKey(),
+                    player.getSeat().ordinal());
+        }
+        return key;
+    }
+
     public PileManager getPileManager() {
         return pileManager;
     }
@@ -354,34 +682,26 @@ public class TurnManager {
 
     /**
      * Gets the board state from the perspective of the current player.
-     * @return the string output of the board state.
+     * @return the view of the board.
      */
-    public String boardState() {
-        StringBuilder output = new StringBuilder();
-        List<Player> otherPlayers = getOtherPlayers();
-        output.append("Discards:\n").append(pileManager.getDiscardPile())
-                .append("\n")
-                .append(Prompter.getLine())
-                .append("\n")
-                .append("Left:   ")
-                .append(otherPlayers.get(2).getHandManager().toStringOpponentView())
-                .append("\n")
-                .append("Across: ")
-                .append(otherPlayers.get(1).getHandManager().toStringOpponentView())
-                .append("\n")
-                .append("Right:  ")
-                .append(otherPlayers.get(0).getHandManager().toStringOpponentView())
-                .append("\n\n")
-                .append("Remaining Tiles: ")
-                .append(pileManager.getUnrevealedPile().getRemainingTileCount());
-        return output.toString();
+    public BoardView boardState() {
+        return boardState(currentPlayer);
+    }
+
+    /**
+     * Gets the board state from the perspective of the specified player. The board is only
+     * rendered as text if the view is displayed.
+     * @return the view of the board.
+     */
+    public BoardView boardState(Player player) {
+        return new BoardView(boardModel, () -> renderBoardState(player));
     }
 
     /**
-     * Gets the board state from the perspective of the specified player.
+     * Renders the board state from the perspective of the specified player.
      * @return the string output of the board state.
      */
-    public String boardState(Player player) {
+    private String renderBoardState(Player player) {
         StringBuilder output = new StringBuilder();
         List<Player> otherPlayers = getOtherPlayers(player);
         output.append("Discards:\n").append(pileManager.getDiscardPile())
@@ -401,4 +721,101 @@ public class TurnManager {
                 .append(pileManager.getUnrevealedPile().getRemainingTileCount());
         return output.toString();
     }
+
+    /**
+     * Applies the move a turn ended with to the state of the round. A flower needs no move, as
+     * drawing it already left the player to draw a bonus tile.
+     * @param turnEnder the turn ending event.
+     * @return the turn ending event.
+     */
+    private TurnEnder applyTurn(TurnEnder turnEnder) {
+        switch (turnEnder) {
+            case DISCARD_TILE -> applyMove(Move.DISCARD, currentPlayer,
+                    currentTurn.getDiscardTile().ordinal(), -1);
+            case DARK_KONG -> applyMove(Move.DARK_KONG, currentPlayer,
+                    currentTurn.getKongTile().ordinal(), -1);
+            case BRIGHT_KONG -> applyMove(Move.BRIGHT_KONG, currentPlayer,
+                    currentTurn.getKongTile().ordinal(), -1);
+            case END_GAME_WIN_SELFDRAW -> applyMove(Move.SELF_WIN, currentPlayer, -1, -1);
+            default -> {}
+        }
+        return turnEnder;
+    }
+
+    /**
+     * Applies a legal move to the state of the round.
+     * @param type the type of move.
+     * @param player the player making the move.
+     * @param tile the ordinal of the tile the move concerns, or -1 for any tile.
+     * @param extraTile the ordinal of the first tile of a claimed Sheung, or -1 for any tile.
+     * @throws IllegalStateException if the move is not legal.
+     */
+    private void applyMove(int type, Player player, int tile, int extraTile) {
+        int move = legalMoves.find(type, getSeat(player), tile, extraTile);
+        if (move < 0) {
+            throw new IllegalStateException("Illegal move by " + player.toStringWithSeat()
+                    + "!");
+        }
+        state.apply(move);
+        updateLegalMoves();
+    }
+
+    /**
+     * Finds the legal moves of the round, which checks every win the moves allow.
+     */
+    private void updateLegalMoves() {
+        long start = Metrics.start();
+        legalMoves.update(state);
+        Metrics.record(Metrics.Phase.CHECK_WIN, start);
+    }
+
+    private static int getSeat(Player player) {
+        return player.getSeat().ordinal();
+    }
+
+    /**
+     * Pays a player for the sets of flowers completed by the flower they just revealed: 10 from
+     * every other player for a complete type of flowers (台) and 5 for a set of four numbers (草).
+     * @param player the player who revealed a flower.
+     */
+    private void settleFlowerSets(Player player) {
+        RevealedHand revealedHand = player.getHandManager().getRevealedHand();
+        if (revealedHand.newToiFormed()) {
+            payFlowerSet(player, "formed a new type of flowers!", 10);
+        }
+        if (revealedHand.newGrassFormed()) {
+            payFlowerSet(player, "formed a new set of flowers!", 5);
+        }
+    }
+
+    private void payFlowerSet(Player player, String message, int amount) {
+        Prompter.printLine(player.toStringWithSeat() + " " + message);
+        List<Player> otherPlayers = getOtherPlayers(player);
+        for (Player otherPlayer : otherPlayers) {
+            settlement.transfer(otherPlayer, player, amount);
+            Prompter.printLine(otherPlayer.toStringWithSeat() + ": -" + amount);
+        }
+        settlement.commit();
+        Prompter.printLine(player.toStringWithSeat() + ": +" + amount * otherPlayers.size());
+    }
+
+    /**
+     * Records a visible change to the board.
+     * @param type the kind of change.
+     * @param player the player making the change.
+     * @param tiles the tiles revealed by the change.
+     */
+    private void recordEvent(BoardEvent.Type type, Player player, List<Tile> tiles) {
+        int remainingTiles = pileManager.getUnrevealedPile().getRemainingTileCount();
+        BoardEvent event = boardModel.record(type, player.getSeat(), tiles, remainingTiles);
+        if (type == BoardEvent.Type.FLOWER) {
+            Metrics.increment(Metrics.Counter.FLOWERS);
+        }
+        Consumer<BoardSnapshot> publisher = snapshotPublisher;
+        if (publisher != null) {
+            lastSnapshot = BoardSnapshot.of(lastSnapshot, event, playerList,
+                    pileManager.getDiscardPile().getDiscardedTilesView(), remainingTiles);
+            publisher.accept(lastSnapshot);
+        }
+    }
 }
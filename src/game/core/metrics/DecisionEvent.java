@@ -0,0 +1,48 @@
+package game.core.metrics;
+
+import game.board.tile.Tile;
+import game.player.Player;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event spanning a decision made by a player.
+ */
+@Name("game.Decision")
+@Label("Player Decision")
+@Category("Mahjong")
+@Description("A decision made by a player")
+public class DecisionEvent extends Event {
+    @Label("Decision")
+    String decision;
+
+    @Label("Player")
+    String player;
+
+    @Label("Player Class")
+    Class<?> playerClass;
+
+    @Label("Outcome")
+    String outcome;
+
+    /**
+     * Ends the decision, committing the event if it is being recorded.
+     * @param player the player making the decision.
+     * @param decision the kind of decision.
+     * @param outcome the outcome of the decision.
+     */
+    void end(Player player, String decision, Object outcome) {
+        end();
+        if (shouldCommit()) {
+            this.decision = decision;
+            this.player = player.getName();
+            this.playerClass = player.getClass();
+            this.outcome = outcome instanceof Tile tile ? tile.name() : String.valueOf(outcome);
+            commit();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package game.core.metrics;
+
+import game.player.Player;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * The latency distributions and counters of the turn engine, shared by every table in the
+ * process.
+ * <p>
+ * Metrics are disabled by default. While disabled, {@link #start()} returns without reading the
+ * clock and nothing is recorded, so instrumented code only pays for a volatile read. The
+ * recorded metrics can be dumped in the Prometheus text format to a file or served over HTTP.
+ * Player decisions are also emitted as JDK Flight Recorder events, which are recorded whenever a
+ * recording is running, whether or not metrics are enabled.
+ */
+public class Metrics {
+    /**
+     * The timed phases of the turn engine.
+     */
+    public enum Phase {
+        CHECK_WIN("check_win"),
+        VALID_HANDS("valid_hands"),
+        SCORE_POINTS("score_points"),
+        DECISION("player_decision"),
+        TURN("turn");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    /**
+     * The counted events of the turn engine.
+     */
+    public enum Counter {
+        ROUNDS("rounds"),
+        WINS("wins"),
+        DRAWS("draws"),
+        KONGS("kongs"),
+        FLOWERS("flowers");
+
+        private final String metricName;
+
+        Counter(String metricName) {
+            this.metricName = metricName;
+        }
+    }
+
+    private static final String PREFIX = "mahjong_";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final Map<Phase, LatencyHistogram> histograms = new EnumMap<>(Phase.class);
+    private static final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private static volatile boolean enabled = false;
+
+    static {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    private Metrics() {}
+
+    /**
+     * Enables or disables recording of metrics. Metrics already recorded are kept.
+     * @param enabled true iff metrics should be recorded.
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the start of a timed phase.
+     * @return the start time to pass to {@link #record(Phase, long)}, or 0 if metrics are
+     * disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the latency of a phase.
+     * @param phase the phase.
+     * @param start the start time returned by {@link #start()}.
+     */
+    public static void record(Phase phase, long start) {
+        if (start != 0) {
+            histograms.get(phase).record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Times a yes or no decision of a player, also emitting a {@link DecisionEvent}.
+     * @param player the player making the decision.
+     * @param kind the kind of decision.
+     * @param decision the decision.
+     * @return the outcome of the decision.
+     */
+    public static boolean decide(Player player, String kind, BooleanSupplier decision) {
+        DecisionEvent event = new DecisionEvent();
+        event.begin();
+        long start = start();
+        boolean result = decision.getAsBoolean();
+        record(Phase.DECISION, start);
+        event.end(player, kind, result);
+        return result;
+    }
+
+    /**
+     * Times a choice of a player, also emitting a {@link DecisionEvent}.
+     * @param player the player making the choice.
+     * @param kind the kind of choice.
+     * @param choice the choice.
+     * @return the outcome of the choice.
+     */
+    public static <T> T pick(Player player, String kind, Supplier<T> choice) {
+        DecisionEvent event = new DecisionEvent();
+        event.begin();
+        long start = start();
+        T result = choice.get();
+        record(Phase.DECISION, start);
+        event.end(player, kind, result);
+        return result;
+    }
+
+    /**
+     * Counts an event.
+     * @param counter the kind of event.
+     */
+    public static void increment(Counter counter) {
+        if (enabled) {
+            counters.get(counter).increment();
+        }
+    }
+
+    public static LatencyHistogram getHistogram(Phase phase) {
+        return histograms.get(phase);
+    }
+
+    public static long getCount(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * Clears every recorded metric.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        for (LongAdder counter : counters.values()) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Dumps every metric in the Prometheus text format. Latencies are given in seconds, as
+     * summaries with the 50th, 90th, 99th and 99.9th percentiles.
+     * @return the dump.
+     */
+    public static String toPrometheus() {
+        StringBuilder output = new StringBuilder();
+        for (Counter counter : Counter.values()) {
+            String name = PREFIX + counter.metricName + "_total";
+            output.append("# TYPE ").append(name).append(" counter\n")
+                    .append(name).append(" ").append(getCount(counter)).append("\n");
+        }
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram histogram = histograms.get(phase);
+            String name = PREFIX + phase.metricName + "_seconds";
+            output.append("# TYPE ").append(name).append(" summary\n");
+            for (double quantile : QUANTILES) {
+                output.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(toSeconds(histogram.getQuantileNanos(quantile))).append("\n");
+            }
+            output.append(name).append("_sum ").append(toSeconds(histogram.getTotalNanos()))
+                    .append("\n")
+                    .append(name).append("_count ").append(histogram.getCount()).append("\n");
+            output.append("# TYPE ").append(name).append("_max gauge\n")
+                    .append(name).append("_max ").append(toSeconds(histogram.getMaxNanos()))
+                    .append("\n");
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes a dump of every metric to a file, replacing its contents.
+     * @param path the path of the file.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void writeTo(Path path) throws IOException {
+        Files.writeString(path, toPrometheus(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Serves a dump of every metric at /metrics over HTTP, for scraping by Prometheus.
+     * @param port the port to listen on, or 0 for any free port.
+     * @return the running HTTP server, to be stopped by the caller.
+     * @throws IOException if the port cannot be listened on.
+     */
+    public static HttpServer serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = toPrometheus().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    private static String toSeconds(long nanos) {
+        return String.format(Locale.ROOT, "%.9f", nanos / 1e9);
+    }
+}
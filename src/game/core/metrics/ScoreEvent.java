@@ -0,0 +1,61 @@
+package game.core.metrics;
+
+import game.board.tile.Tile;
+import game.player.data.Seat;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.List;
+
+/**
+ * A JDK Flight Recorder event spanning the scoring of a winning hand, from finding its groupings
+ * to picking the highest score.
+ */
+@Name("game.Score")
+@Label("Score Calculation")
+@Category("Mahjong")
+@Description("The scoring of a winning hand")
+public class ScoreEvent extends Event {
+    @Label("Winner Seat")
+    String winnerSeat;
+
+    @Label("Hand")
+    @Description("The names of the concealed tiles of the winning hand, separated by '|'")
+    String hand;
+
+    @Label("Decompositions")
+    @Description("The number of groupings of the hand that were scored")
+    int decompositions;
+
+    @Label("Highest Score")
+    int highestScore;
+
+    /**
+     * Ends the scoring, committing the event if it is being recorded.
+     * @param winnerSeat the seat of the winner.
+     * @param hand the concealed tiles of the winning hand.
+     * @param decompositions the number of groupings of the hand that were scored.
+     * @param highestScore the highest score found.
+     */
+    public void end(Seat winnerSeat, List<Tile> hand, int decompositions, int highestScore) {
+        end();
+        if (shouldCommit()) {
+            this.winnerSeat = String.valueOf(winnerSeat);
+            StringBuilder tiles = new StringBuilder();
+            for (Tile tile : hand) {
+                if (!tiles.isEmpty()) {
+                    tiles.append("|");
+                }
+                tiles.append(tile.name());
+            }
+            this.hand = tiles.toString();
+            this.decompositions = decompositions;
+            this.highestScore = highestScore;
+            commit();
+        }
+    }
+}
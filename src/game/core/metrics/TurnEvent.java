@@ -0,0 +1,49 @@
+package game.core.metrics;
+
+import game.core.turn.data.TurnEnder;
+import game.player.Player;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A JDK Flight Recorder event spanning a player turn, from its start to the event ending it.
+ */
+@Name("game.Turn")
+@Label("Turn")
+@Category("Mahjong")
+@Description("A player turn")
+public class TurnEvent extends Event {
+    @Label("Player")
+    String player;
+
+    @Label("Player Class")
+    Class<?> playerClass;
+
+    @Label("Turn Start")
+    @Description("How the turn started")
+    String turnStart;
+
+    @Label("Turn Ender")
+    String turnEnder;
+
+    /**
+     * Ends the turn, committing the event if it is being recorded.
+     * @param player the player in control of the turn.
+     * @param turnStart how the turn started.
+     * @param turnEnder the turn ending event.
+     */
+    public void end(Player player, String turnStart, TurnEnder turnEnder) {
+        end();
+        if (shouldCommit()) {
+            this.player = player.getName();
+            this.playerClass = player.getClass();
+            this.turnStart = turnStart;
+            this.turnEnder = turnEnder.name();
+            commit();
+        }
+    }
+}
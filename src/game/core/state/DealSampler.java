@@ -0,0 +1,230 @@
+package game.core.state;
+
+import game.board.BoardEvent;
+import game.board.tile.Tile;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples the hidden part of a round as one player could imagine it, for bots that search over
+ * determinizations of the hidden information.
+ * <p>
+ * The sampler only uses what the observing player has seen: their own concealed tiles, the
+ * discard pile, every revealed group and flower, the number of concealed tiles of each opponent,
+ * the number of Dark Kongs of each opponent and the number of tiles left in the wall. Every
+ * other tile is dealt at random into the opponents' hands, their Dark Kongs and the wall, so
+ * every sample is a round consistent with the observation. Samples are written into a reusable
+ * {@link GameState}, so sampling allocates nothing.
+ * <p>
+ * Opponents can be made less likely to hold tiles close to the tiles they discarded, see
+ * {@link #biasAgainstDiscards(List, double)}. A sampler is not safe for use by several threads at
+ * once.
+ */
+public class DealSampler {
+    private static final int SEATS = GameState.SEATS;
+    private static final int TILE_KINDS = GameState.TILE_KINDS;
+    private static final int MAX_REJECTIONS = 16;
+    private static final int NEIGHBOUR_DISTANCE = 2;
+
+    private final GameState observation;
+    private final int observerSeat;
+    private final byte[] unseenTiles;
+    private final byte[] unseenFlowers;
+    private final int[] unseenCounts = new int[TILE_KINDS];
+    private final double[] keepWeights = new double[SEATS * TILE_KINDS];
+    private boolean biased = false;
+    private final byte[] pool;
+    private final int[] poolCounts = new int[TILE_KINDS];
+
+    /**
+     * Creates a sampler for the round as seen from one seat.
+     * @param state the actual state of the round. Only the parts visible from the observing
+     *              seat are used.
+     * @param observerSeat the index of the observing seat.
+     */
+    public DealSampler(GameState state, int observerSeat) {
+        this.observation = state.copy();
+        this.observerSeat = observerSeat;
+        Arrays.fill(keepWeights, 1.0);
+
+        int[] counts = new int[TILE_KINDS];
+        Arrays.fill(counts, 4);
+        int flowerMask = 0;
+        for (int tile = 0; tile < TILE_KINDS; tile++) {
+            counts[tile] -= state.getConcealedCount(observerSeat, tile);
+        }
+        for (int i = 0; i < state.getDiscardCount(); i++) {
+            counts[state.getDiscard(i)]--;
+        }
+        for (int seat = 0; seat < SEATS; seat++) {
+            flowerMask |= state.getFlowerMask(seat);
+            for (int i = 0; i < state.getMeldCount(seat); i++) {
+                int meld = state.getMeld(seat, i);
+                int kind = meld >>> GameState.CODE_SHIFT;
+                int tile = meld & ((1 << GameState.CODE_SHIFT) - 1);
+                if (kind == GameState.SHEUNG_CODE) {
+                    counts[tile]--;
+                    counts[tile + 1]--;
+                    counts[tile + 2]--;
+                } else if (kind == GameState.PONG_CODE) {
+                    counts[tile] -= 3;
+                } else if (kind == GameState.BRIGHT_KONG_CODE || seat == observerSeat) {
+                    counts[tile] -= 4;
+                }
+            }
+        }
+
+        int unseenTileCount = 0;
+        for (int tile = 0; tile < TILE_KINDS; tile++) {
+            unseenCounts[tile] = counts[tile];
+            unseenTileCount += counts[tile];
+        }
+        unseenTiles = new byte[unseenTileCount];
+        int position = 0;
+        for (int tile = 0; tile < TILE_KINDS; tile++) {
+            for (int i = 0; i < counts[tile]; i++) {
+                unseenTiles[position++] = (byte) tile;
+            }
+        }
+        int flowerCount = Tile.values().length - TILE_KINDS;
+        unseenFlowers = new byte[flowerCount - Integer.bitCount(flowerMask)];
+        position = 0;
+        for (int i = 0; i < flowerCount; i++) {
+            if ((flowerMask & (1 << i)) == 0) {
+                unseenFlowers[position++] = (byte) (TILE_KINDS + i);
+            }
+        }
+        pool = new byte[unseenTileCount];
+    }
+
+    /**
+     * Makes opponents less likely to be dealt tiles equal or close to the tiles they discarded,
+     * since players tend to discard away from the parts of the hand they are building. Each
+     * discard of a tile divides the weight of that tile and of the suit tiles up to two away
+     * from it by (1 + strength), halving the effect for each step away.
+     * @param events the board events of the round, in order.
+     * @param strength how strongly to bias against discarded tiles, 0 for no bias.
+     */
+    public void biasAgainstDiscards(List<BoardEvent> events, double strength) {
+        Arrays.fill(keepWeights, 1.0);
+        biased = strength > 0;
+        if (!biased) {
+            return;
+        }
+        for (BoardEvent event : events) {
+            int seat = event.getSeat().ordinal();
+            if (event.getType() != BoardEvent.Type.DISCARD || seat == observerSeat) {
+                continue;
+            }
+            int discarded = event.getTiles().getFirst().ordinal();
+            for (int distance = -NEIGHBOUR_DISTANCE; distance <= NEIGHBOUR_DISTANCE; distance++) {
+                int tile = discarded + distance;
+                if (distance != 0 && !isSameSuit(discarded, tile)) {
+                    continue;
+                }
+                double factor = 1 + strength / (1 << Math.abs(distance));
+                keepWeights[seat * TILE_KINDS + tile] /= factor;
+            }
+        }
+    }
+
+    /**
+     * Deals a sample of the hidden tiles.
+     * @param random the source of randomness. A non-thread-safe generator such as
+     *               {@link java.util.SplittableRandom} samples fastest.
+     * @param sample the state to write the sample into. Its previous contents are overwritten.
+     */
+    public void sample(RandomGenerator random, GameState sample) {
+        sample.copyFrom(observation);
+        System.arraycopy(unseenTiles, 0, pool, 0, pool.length);
+        System.arraycopy(unseenCounts, 0, poolCounts, 0, TILE_KINDS);
+        int poolSize = pool.length;
+
+        for (int offset = 1; offset < SEATS; offset++) {
+            int seat = (observerSeat + offset) % SEATS;
+            for (int i = 0; i < sample.getMeldCount(seat); i++) {
+                if (sample.getMeld(seat, i) >>> GameState.CODE_SHIFT == GameState.DARK_KONG_CODE) {
+                    int tile = pickKongTile(random, poolSize);
+                    sample.setMeldTile(seat, i, tile);
+                    poolSize = removeFromPool(tile, 4, poolSize);
+                }
+            }
+        }
+
+        for (int offset = 1; offset < SEATS; offset++) {
+            int seat = (observerSeat + offset) % SEATS;
+            sample.clearConcealed(seat);
+            int weightOffset = seat * TILE_KINDS;
+            for (int i = 0; i < sample.getHandSize(seat); i++) {
+                int index = random.nextInt(poolSize);
+                for (int rejections = 0; biased && rejections < MAX_REJECTIONS
+                        && random.nextDouble() >= keepWeights[weightOffset + pool[index]];
+                        rejections++) {
+                    index = random.nextInt(poolSize);
+                }
+                int tile = pool[index];
+                pool[index] = pool[--poolSize];
+                poolCounts[tile]--;
+                sample.addConcealed(seat, tile);
+            }
+        }
+
+        int remaining = sample.getRemainingTiles();
+        System.arraycopy(unseenFlowers, 0, pool, poolSize, unseenFlowers.length);
+        poolSize += unseenFlowers.length;
+        if (poolSize != remaining) {
+            throw new IllegalStateException("Observation is not consistent with the wall!");
+        }
+        for (int i = 0; i < remaining; i++) {
+            int index = i + random.nextInt(remaining - i);
+            byte tile = pool[index];
+            pool[index] = pool[i];
+            sample.setWallTile(i, tile);
+        }
+    }
+
+    /**
+     * Picks a tile of which all four copies are still unseen, for an opponent's Dark Kong.
+     */
+    private int pickKongTile(RandomGenerator random, int poolSize) {
+        for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+            int tile = pool[random.nextInt(poolSize)];
+            if (poolCounts[tile] == 4) {
+                return tile;
+            }
+        }
+        int candidates = 0;
+        for (int tile = 0; tile < TILE_KINDS; tile++) {
+            if (poolCounts[tile] == 4) {
+                candidates++;
+            }
+        }
+        int chosen = random.nextInt(candidates);
+        for (int tile = 0; tile < TILE_KINDS; tile++) {
+            if (poolCounts[tile] == 4 && chosen-- == 0) {
+                return tile;
+            }
+        }
+        throw new IllegalStateException("No tile is left for a Dark Kong!");
+    }
+
+    private int removeFromPool(int tile, int copies, int poolSize) {
+        int size = poolSize;
+        for (int i = size - 1; i >= 0 && copies > 0; i--) {
+            if (pool[i] == tile) {
+                pool[i] = pool[--size];
+                copies--;
+            }
+        }
+        poolCounts[tile] = 0;
+        return size;
+    }
+
+    private static boolean isSameSuit(int first, int second) {
+        int suitTiles = Tile.WIND_EAST.ordinal();
+        return first < suitTiles && second >= 0 && second < suitTiles
+                && first / 9 == second / 9;
+    }
+}
@@ -0,0 +1,703 @@
+package game.core.state;
+
+import game.board.HandManager;
+import game.board.PileManager;
+import game.board.analysis.HandShape;
+import game.board.analysis.SuitPatternTable;
+import game.board.analysis.WaitCalculator;
+import game.board.hand.RevealedHand;
+import game.board.tile.Tile;
+import game.player.Player;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The full state of a round packed into a few primitive arrays, and the rules of the round.
+ * <p>
+ * The state holds the wall with a cursor at each end, the concealed tile counts of every seat,
+ * the revealed groups of every seat as small int codes, a bit mask of every seat's flowers, the
+ * scores and the discard pile. Copying a state is a handful of array copies of a few hundred
+ * bytes. Moves are packed ints (see {@link Move}) applied and undone in place. The legal moves
+ * of a state are the rules of the game: flowers are revealed as they are drawn and replaced from
+ * the back of the wall, Kongs are followed by a bonus draw, only the next seat may claim a
+ * discard to form a Sheung, and no tile is drawn once only the last eight remain.
+ * {@link game.core.TurnManager} plays every round on a state, asking its players to choose
+ * among the legal moves, while bots copy states to simulate or search ahead. Score transfers are
+ * not simulated, so the scores stay as they were when the state was created.
+ * <p>
+ * A state is not safe for use by several threads at once; each thread should work on its own
+ * copy.
+ */
+public final class GameState {
+    /**
+     * The point of the round a state is at.
+     */
+    public enum Phase {
+        /**
+         * The round is being dealt, and the current seat draws its next tile.
+         */
+        DEAL,
+        /**
+         * The round is being dealt, and the current seat draws a bonus tile after a flower.
+         */
+        DEAL_BONUS,
+        /**
+         * The current seat has just discarded, and the other seats may claim the discard or let
+         * the next seat draw.
+         */
+        CLAIM,
+        /**
+         * The current seat has to draw a bonus tile after a flower or a Kong.
+         */
+        BONUS_DRAW,
+        /**
+         * The current seat holds a full hand and has to win, form a Kong or discard.
+         */
+        DISCARD,
+        /**
+         * The current seat has just claimed a discard to form a Pong or a Sheung, and has to
+         * discard.
+         */
+        CLAIMED,
+        /**
+         * The current seat has won the round.
+         */
+        ENDED
+    }
+
+    /**
+     * The most moves that can be legal at once, i.e. the length of a buffer passed to
+     * {@link #getMoves(int[])}.
+     */
+    public static final int MAX_MOVES = 32;
+    /**
+     * The number of tiles left in the wall once no more tiles may be drawn.
+     */
+    public static final int MIN_TILES_LEFT = 8;
+
+    static final Phase[] PHASES = Phase.values();
+
+    static final int SEATS = 4;
+    static final int TILE_KINDS = HandShape.TILE_KINDS;
+    private static final int WALL_SIZE = 144;
+    private static final int MAX_MELDS = 5;
+    private static final int FULL_HAND = 17;
+    private static final int ALL_FLOWERS = 0xFF;
+
+    static final int PONG_CODE = 1;
+    static final int SHEUNG_CODE = 2;
+    static final int BRIGHT_KONG_CODE = 3;
+    static final int DARK_KONG_CODE = 4;
+    static final int CODE_SHIFT = 6;
+
+    private static final WaitCalculator WAIT_CALCULATOR =
+            new WaitCalculator(SuitPatternTable.getInstance());
+
+    private final byte[] wall = new byte[WALL_SIZE];
+    private final byte[] concealed = new byte[SEATS * TILE_KINDS];
+    private final byte[] handSizes = new byte[SEATS];
+    private final short[] melds = new short[SEATS * MAX_MELDS];
+    private final byte[] meldCounts = new byte[SEATS];
+    private final int[] flowerMasks = new int[SEATS];
+    private final int[] scores = new int[SEATS];
+    private final byte[] discards = new byte[WALL_SIZE];
+    private int wallHead = 0;
+    private int wallTail = 0;
+    private int discardCount = 0;
+    private int currentSeat = 0;
+    private int dealerSeat = 0;
+    private Phase phase = Phase.DISCARD;
+    private final int[] winCounts = new int[TILE_KINDS];
+
+    private GameState() {}
+
+    /**
+     * Deals a new round from a shuffled wall, the same way a {@link game.core.TurnManager}
+     * round starts.
+     * @param random the source of randomness used to shuffle the wall.
+     * @param dealerSeat the index of the Zhong player's seat, who is dealt 17 tiles and plays
+     *                   first.
+     * @return the state at the start of the round.
+     */
+    public static GameState deal(Random random, int dealerSeat) {
+        GameState state = new GameState();
+        int size = 0;
+        for (Tile tile : Tile.values()) {
+            int copies = isFlower(tile.ordinal()) ? 1 : 4;
+            for (int i = 0; i < copies; i++) {
+                state.wall[size++] = (byte) tile.ordinal();
+            }
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            byte swapped = state.wall[i];
+            state.wall[i] = state.wall[j];
+            state.wall[j] = swapped;
+        }
+        state.wallTail = size;
+        state.dealerSeat = dealerSeat;
+        state.phase = Phase.DEAL;
+        while (state.phase == Phase.DEAL || state.phase == Phase.DEAL_BONUS) {
+            int type = state.phase == Phase.DEAL ? Move.DRAW : Move.BONUS_DRAW;
+            state.apply(state.move(type, state.currentSeat, 0, 0));
+        }
+        return state;
+    }
+
+    /**
+     * Creates the state of a round about to be dealt from a wall. Every seat in turn is dealt
+     * its tiles one at a time by the only legal move of the {@link Phase#DEAL} and
+     * {@link Phase#DEAL_BONUS} phases, after which the Zhong player plays first.
+     * @param wall the tiles of the wall, in the order they are drawn.
+     * @param dealerSeat the index of the Zhong player's seat, who is dealt 17 tiles.
+     * @return the state before the deal.
+     * @requires the wall holds every tile of the game.
+     */
+    public static GameState ofWall(List<Tile> wall, int dealerSeat) {
+        GameState state = new GameState();
+        for (Tile tile : wall) {
+            state.wall[state.wallTail++] = (byte) tile.ordinal();
+        }
+        state.dealerSeat = dealerSeat;
+        state.phase = Phase.DEAL;
+        return state;
+    }
+
+    /**
+     * Captures the state of a round being played.
+     * @param players the players of the round, in seat order.
+     * @param pileManager the piles of the round.
+     * @param currentSeat the index of the seat of the current player.
+     * @param phase the point of the round the current player is at.
+     * @return the state.
+     * @requires the round has been dealt.
+     */
+    public static GameState of(List<Player> players, PileManager pileManager, int currentSeat,
+                               Phase phase) {
+        GameState state = new GameState();
+        for (int seat = 0; seat < SEATS; seat++) {
+            Player player = players.get(seat);
+            HandManager handManager = player.getHandManager();
+            for (Tile tile : handManager.getHand().getTiles()) {
+                state.concealed[seat * TILE_KINDS + tile.ordinal()]++;
+                state.handSizes[seat]++;
+            }
+            RevealedHand revealedHand = handManager.getRevealedHand();
+            for (List<Tile> group : revealedHand.getGroups()) {
+                int code = group.getFirst() == group.get(1) ? PONG_CODE : SHEUNG_CODE;
+                state.addMeld(seat, code, group.getFirst().ordinal());
+            }
+            for (List<Tile> kong : revealedHand.getBrightKongs()) {
+                state.addMeld(seat, BRIGHT_KONG_CODE, kong.getFirst().ordinal());
+            }
+            for (List<Tile> kong : revealedHand.getDarkKongs()) {
+                state.addMeld(seat, DARK_KONG_CODE, kong.getFirst().ordinal());
+            }
+            state.flowerMasks[seat] = revealedHand.getFlowerMask();
+            state.scores[seat] = player.getScore();
+        }
+        List<Tile> wallTiles = pileManager.getUnrevealedPile().getTiles();
+        for (Tile tile : wallTiles) {
+            state.wall[state.wallTail++] = (byte) tile.ordinal();
+        }
+        for (Tile tile : pileManager.getDiscardPile().getDiscardedTilesView()) {
+            state.discards[state.discardCount++] = (byte) tile.ordinal();
+        }
+        state.currentSeat = currentSeat;
+        state.phase = phase;
+        return state;
+    }
+
+    /**
+     * Creates a copy of the state.
+     * @return the copy.
+     */
+    public GameState copy() {
+        GameState copy = new GameState();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrites this state with another, so that search can reuse one state per ply instead of
+     * allocating.
+     * @param other the state to copy.
+     */
+    public void copyFrom(GameState other) {
+        System.arraycopy(other.wall, 0, wall, 0, WALL_SIZE);
+        System.arraycopy(other.concealed, 0, concealed, 0, concealed.length);
+        System.arraycopy(other.handSizes, 0, handSizes, 0, SEATS);
+        System.arraycopy(other.melds, 0, melds, 0, melds.length);
+        System.arraycopy(other.meldCounts, 0, meldCounts, 0, SEATS);
+        System.arraycopy(other.flowerMasks, 0, flowerMasks, 0, SEATS);
+        System.arraycopy(other.scores, 0, scores, 0, SEATS);
+        System.arraycopy(other.discards, 0, discards, 0, other.discardCount);
+        wallHead = other.wallHead;
+        wallTail = other.wallTail;
+        discardCount = other.discardCount;
+        currentSeat = other.currentSeat;
+        dealerSeat = other.dealerSeat;
+        phase = other.phase;
+    }
+
+    public int getCurrentSeat() {
+        return currentSeat;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Retrieves the number of copies of a tile concealed in a seat's hand.
+     * @param seat the index of the seat.
+     * @param tile the ordinal of the tile.
+     * @return the number of copies.
+     */
+    public int getConcealedCount(int seat, int tile) {
+        return tile < TILE_KINDS ? concealed[seat * TILE_KINDS + tile] : 0;
+    }
+
+    public int getHandSize(int seat) {
+        return handSizes[seat];
+    }
+
+    public int getMeldCount(int seat) {
+        return meldCounts[seat];
+    }
+
+    /**
+     * Retrieves a revealed group of a seat.
+     * @param seat the index of the seat.
+     * @param index the index of the group, in the order the groups were revealed.
+     * @return the group as its kind (1 for a Pong, 2 for a Sheung, 3 for a Bright Kong and 4 for
+     * a Dark Kong) shifted left by 6 bits, combined with the ordinal of its first tile.
+     */
+    public int getMeld(int seat, int index) {
+        return melds[seat * MAX_MELDS + index];
+    }
+
+    /**
+     * Retrieves the flowers of a seat.
+     * @return a mask with bit i set iff the seat holds the flower with ordinal 34 + i.
+     */
+    public int getFlowerMask(int seat) {
+        return flowerMasks[seat];
+    }
+
+    public int getScore(int seat) {
+        return scores[seat];
+    }
+
+    public int getRemainingTiles() {
+        return wallTail - wallHead;
+    }
+
+    /**
+     * Retrieves a tile of the wall.
+     * @param position the position of the tile among the remaining tiles, 0 being the next tile
+     *                 drawn and the last being the next bonus tile drawn.
+     * @return the ordinal of the tile.
+     */
+    public int getWallTile(int position) {
+        return wall[wallHead + position];
+    }
+
+    /**
+     * Determines if no more tiles may be drawn, which ends the round in a draw unless the last
+     * discard is won off.
+     * @return true iff the wall is exhausted, false otherwise.
+     */
+    public boolean isWallExhausted() {
+        return getRemainingTiles() <= MIN_TILES_LEFT;
+    }
+
+    public int getDiscardCount() {
+        return discardCount;
+    }
+
+    /**
+     * Retrieves a tile of the discard pile.
+     * @param index the index of the tile, oldest first.
+     * @return the ordinal of the tile.
+     */
+    public int getDiscard(int index) {
+        return discards[index];
+    }
+
+    /**
+     * Finds every legal move of the state. No moves are legal once the round is won, or once
+     * the wall is exhausted and nobody can claim the last discard.
+     * @param moves the buffer to write the moves into, of length at least {@link #MAX_MOVES}.
+     * @return the number of legal moves.
+     */
+    public int getMoves(int[] moves) {
+        int count = 0;
+        switch (phase) {
+            case DEAL -> moves[count++] = move(Move.DRAW, currentSeat, 0, 0);
+            case DEAL_BONUS -> moves[count++] = move(Move.BONUS_DRAW, currentSeat, 0, 0);
+            case CLAIM -> {
+                int tile = discards[discardCount - 1];
+                for (int offset = 1; offset < SEATS; offset++) {
+                    int seat = (currentSeat + offset) % SEATS;
+                    int held = getConcealedCount(seat, tile);
+                    if (isWinningWith(seat, tile)) {
+                        moves[count++] = move(Move.WIN, seat, tile, 0);
+                    }
+                    if (held == 3) {
+                        moves[count++] = move(Move.CLAIM_KONG, seat, tile, 0);
+                    }
+                    if (held >= 2) {
+                        moves[count++] = move(Move.PONG, seat, tile, 0);
+                    }
+                }
+                int nextSeat = (currentSeat + 1) % SEATS;
+                if (isSuit(tile)) {
+                    int number = tile % 9;
+                    for (int start = tile - Math.min(number, 2); start <= tile
+                            && start - tile + number <= 6; start++) {
+                        if (canFormSheung(nextSeat, start, tile)) {
+                            moves[count++] = move(Move.SHEUNG, nextSeat, tile, start);
+                        }
+                    }
+                }
+                if (!isWallExhausted()) {
+                    moves[count++] = move(Move.DRAW, nextSeat, 0, 0);
+                }
+            }
+            case BONUS_DRAW -> {
+                if (flowerMasks[currentSeat] == ALL_FLOWERS) {
+                    moves[count++] = move(Move.SELF_WIN, currentSeat, 0, 0);
+                }
+                if (!isWallExhausted()) {
+                    moves[count++] = move(Move.BONUS_DRAW, currentSeat, 0, 0);
+                }
+            }
+            case DISCARD -> {
+                if (isWinningWith(currentSeat, -1)) {
+                    moves[count++] = move(Move.SELF_WIN, currentSeat, 0, 0);
+                }
+                int offset = currentSeat * TILE_KINDS;
+                for (int tile = 0; tile < TILE_KINDS; tile++) {
+                    if (concealed[offset + tile] == 4) {
+                        moves[count++] = move(Move.DARK_KONG, currentSeat, tile, 0);
+                    }
+                }
+                for (int i = 0; i < meldCounts[currentSeat]; i++) {
+                    int meld = melds[currentSeat * MAX_MELDS + i];
+                    int tile = meld & ((1 << CODE_SHIFT) - 1);
+                    if (meld >>> CODE_SHIFT == PONG_CODE && concealed[offset + tile] > 0) {
+                        moves[count++] = move(Move.BRIGHT_KONG, currentSeat, tile, 0);
+                    }
+                }
+                count = addDiscards(moves, count);
+            }
+            case CLAIMED -> count = addDiscards(moves, count);
+            case ENDED -> {}
+        }
+        return count;
+    }
+
+    /**
+     * Applies a move.
+     * @param move the move.
+     * @requires the move was found by {@link #getMoves(int[])} for this state.
+     */
+    public void apply(int move) {
+        int seat = Move.getSeat(move);
+        int tile = Move.getTile(move);
+        switch (Move.getType(move)) {
+            case Move.DRAW -> draw(seat, wall[wallHead++]);
+            case Move.BONUS_DRAW -> draw(seat, wall[--wallTail]);
+            case Move.DISCARD -> {
+                removeConcealed(seat, tile, 1);
+                discards[discardCount++] = (byte) tile;
+                phase = Phase.CLAIM;
+            }
+            case Move.PONG -> {
+                discardCount--;
+                removeConcealed(seat, tile, 2);
+                addMeld(seat, PONG_CODE, tile);
+                phase = Phase.CLAIMED;
+            }
+            case Move.SHEUNG -> {
+                discardCount--;
+                int start = Move.getExtraTile(move);
+                for (int sheungTile = start; sheungTile < start + 3; sheungTile++) {
+                    if (sheungTile != tile) {
+                        removeConcealed(seat, sheungTile, 1);
+                    }
+                }
+                addMeld(seat, SHEUNG_CODE, start);
+                phase = Phase.CLAIMED;
+            }
+            case Move.CLAIM_KONG -> {
+                discardCount--;
+                removeConcealed(seat, tile, 3);
+                addMeld(seat, BRIGHT_KONG_CODE, tile);
+                phase = Phase.BONUS_DRAW;
+            }
+            case Move.BRIGHT_KONG -> {
+                removeConcealed(seat, tile, 1);
+                replaceMeld(seat, PONG_CODE, BRIGHT_KONG_CODE, tile);
+                phase = Phase.BONUS_DRAW;
+            }
+            case Move.DARK_KONG -> {
+                removeConcealed(seat, tile, 4);
+                addMeld(seat, DARK_KONG_CODE, tile);
+                phase = Phase.BONUS_DRAW;
+            }
+            case Move.WIN -> {
+                discardCount--;
+                removeConcealed(seat, tile, -1);
+                phase = Phase.ENDED;
+            }
+            case Move.SELF_WIN -> phase = Phase.ENDED;
+            default -> throw new IllegalArgumentException("Unknown move type!");
+        }
+        currentSeat = seat;
+        if (phase == Phase.DEAL && handSizes[seat] == getOpeningHandSize(seat)) {
+            // the seat is fully dealt, so the next seat is dealt, or the Zhong player starts
+            if (seat == SEATS - 1) {
+                currentSeat = dealerSeat;
+                phase = Phase.DISCARD;
+            } else {
+                currentSeat = seat + 1;
+            }
+        }
+    }
+
+    /**
+     * Undoes a move.
+     * @param move the move.
+     * @requires the move was the last move applied to this state that has not been undone.
+     */
+    public void undo(int move) {
+        int seat = Move.getSeat(move);
+        int tile = Move.getTile(move);
+        switch (Move.getType(move)) {
+            case Move.DRAW -> undraw(seat, wall[--wallHead]);
+            case Move.BONUS_DRAW -> undraw(seat, wall[wallTail++]);
+            case Move.DISCARD -> {
+                discardCount--;
+                removeConcealed(seat, tile, -1);
+            }
+            case Move.PONG -> {
+                discards[discardCount++] = (byte) tile;
+                removeConcealed(seat, tile, -2);
+                meldCounts[seat]--;
+            }
+            case Move.SHEUNG -> {
+                discards[discardCount++] = (byte) tile;
+                int start = Move.getExtraTile(move);
+                for (int sheungTile = start; sheungTile < start + 3; sheungTile++) {
+                    if (sheungTile != tile) {
+                        removeConcealed(seat, sheungTile, -1);
+                    }
+                }
+                meldCounts[seat]--;
+            }
+            case Move.CLAIM_KONG -> {
+                discards[discardCount++] = (byte) tile;
+                removeConcealed(seat, tile, -3);
+                meldCounts[seat]--;
+            }
+            case Move.BRIGHT_KONG -> {
+                removeConcealed(seat, tile, -1);
+                replaceMeld(seat, BRIGHT_KONG_CODE, PONG_CODE, tile);
+            }
+            case Move.DARK_KONG -> {
+                removeConcealed(seat, tile, -4);
+                meldCounts[seat]--;
+            }
+            case Move.WIN -> {
+                removeConcealed(seat, tile, 1);
+                discards[discardCount++] = (byte) tile;
+            }
+            case Move.SELF_WIN -> {}
+            default -> throw new IllegalArgumentException("Unknown move type!");
+        }
+        currentSeat = Move.getPreviousSeat(move);
+        phase = Move.getPreviousPhase(move);
+    }
+
+    /**
+     * Checks whether a seat's concealed tiles win, optionally with an extra tile.
+     * @param seat the index of the seat.
+     * @param extraTile the ordinal of the extra tile, or -1 for none.
+     * @return true iff the tiles form a winning hand, false otherwise.
+     */
+    public boolean isWinningWith(int seat, int extraTile) {
+        int offset = seat * TILE_KINDS;
+        for (int tile = 0; tile < TILE_KINDS; tile++) {
+            winCounts[tile] = concealed[offset + tile];
+        }
+        if (extraTile >= 0) {
+            if (winCounts[extraTile] == 4) {
+                return false;
+            }
+            winCounts[extraTile]++;
+        }
+        return WAIT_CALCULATOR.isWinning(winCounts);
+    }
+
+    /**
+     * Removes every concealed tile of a seat, keeping its hand size.
+     * @param seat the index of the seat.
+     */
+    void clearConcealed(int seat) {
+        Arrays.fill(concealed, seat * TILE_KINDS, (seat + 1) * TILE_KINDS, (byte) 0);
+    }
+
+    /**
+     * Adds a concealed tile to a seat without changing its hand size, for refilling a hand
+     * cleared by {@link #clearConcealed(int)}.
+     * @param seat the index of the seat.
+     * @param tile the ordinal of the tile.
+     */
+    void addConcealed(int seat, int tile) {
+        concealed[seat * TILE_KINDS + tile]++;
+    }
+
+    /**
+     * Replaces the tile of a revealed group.
+     * @param seat the index of the seat.
+     * @param index the index of the group.
+     * @param tile the ordinal of the new first tile of the group.
+     */
+    void setMeldTile(int seat, int index, int tile) {
+        int position = seat * MAX_MELDS + index;
+        melds[position] = (short) (melds[position] >>> CODE_SHIFT << CODE_SHIFT | tile);
+    }
+
+    /**
+     * Replaces a tile of the wall.
+     * @param position the position of the tile among the remaining tiles, 0 being the next
+     *                 tile drawn.
+     * @param tile the ordinal of the new tile.
+     */
+    void setWallTile(int position, int tile) {
+        wall[wallHead + position] = (byte) tile;
+    }
+
+    private int move(int type, int seat, int tile, int extra) {
+        return Move.of(type, seat, tile, extra, currentSeat, phase);
+    }
+
+    private int addDiscards(int[] moves, int count) {
+        int offset = currentSeat * TILE_KINDS;
+        for (int tile = 0; tile < TILE_KINDS; tile++) {
+            if (concealed[offset + tile] > 0) {
+                moves[count++] = move(Move.DISCARD, currentSeat, tile, 0);
+            }
+        }
+        return count;
+    }
+
+    private int getOpeningHandSize(int seat) {
+        return seat == dealerSeat ? FULL_HAND : FULL_HAND - 1;
+    }
+
+    private void draw(int seat, int tile) {
+        boolean dealing = phase == Phase.DEAL || phase == Phase.DEAL_BONUS;
+        if (isFlower(tile)) {
+            flowerMasks[seat] |= flowerBit(tile);
+            phase = dealing ? Phase.DEAL_BONUS : Phase.BONUS_DRAW;
+        } else {
+            removeConcealed(seat, tile, -1);
+            phase = dealing ? Phase.DEAL : Phase.DISCARD;
+        }
+    }
+
+    private void undraw(int seat, int tile) {
+        if (isFlower(tile)) {
+            flowerMasks[seat] &= ~flowerBit(tile);
+        } else {
+            removeConcealed(seat, tile, 1);
+        }
+    }
+
+    private void removeConcealed(int seat, int tile, int copies) {
+        concealed[seat * TILE_KINDS + tile] -= (byte) copies;
+        handSizes[seat] -= (byte) copies;
+    }
+
+    private void addMeld(int seat, int code, int tile) {
+        melds[seat * MAX_MELDS + meldCounts[seat]] = (short) (code << CODE_SHIFT | tile);
+        meldCounts[seat]++;
+    }
+
+    private void replaceMeld(int seat, int fromCode, int toCode, int tile) {
+        for (int i = seat * MAX_MELDS; i < seat * MAX_MELDS + meldCounts[seat]; i++) {
+            if (melds[i] == (fromCode << CODE_SHIFT | tile)) {
+                melds[i] = (short) (toCode << CODE_SHIFT | tile);
+                return;
+            }
+        }
+    }
+
+    private boolean canFormSheung(int seat, int start, int claimedTile) {
+        for (int tile = start; tile < start + 3; tile++) {
+            if (tile != claimedTile && getConcealedCount(seat, tile) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSuit(int tile) {
+        return tile < Tile.WIND_EAST.ordinal();
+    }
+
+    private static boolean isFlower(int tile) {
+        return tile >= Tile.FLOWER_SPRING.ordinal();
+    }
+
+    private static int flowerBit(int tile) {
+        return 1 << (tile - Tile.FLOWER_SPRING.ordinal());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof GameState other)) {
+            return false;
+        }
+        return wallHead == other.wallHead && wallTail == other.wallTail
+                && discardCount == other.discardCount && currentSeat == other.currentSeat
+                && dealerSeat == other.dealerSeat && phase == other.phase
+                && Arrays.equals(wall, wallHead, wallTail, other.wall, wallHead, wallTail)
+                && Arrays.equals(concealed, other.concealed)
+                && Arrays.equals(meldCounts, other.meldCounts)
+                && meldsEqual(other)
+                && Arrays.equals(flowerMasks, other.flowerMasks)
+                && Arrays.equals(scores, other.scores)
+                && Arrays.equals(discards, 0, discardCount, other.discards, 0, discardCount);
+    }
+
+    private boolean meldsEqual(GameState other) {
+        for (int seat = 0; seat < SEATS; seat++) {
+            int from = seat * MAX_MELDS;
+            int to = from + meldCounts[seat];
+            if (!Arrays.equals(melds, from, to, other.melds, from, to)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(concealed);
+        hash = 31 * hash + Arrays.hashCode(flowerMasks);
+        hash = 31 * hash + wallHead;
+        hash = 31 * hash + wallTail;
+        hash = 31 * hash + discardCount;
+        return 31 * hash + currentSeat * PHASES.length + phase.ordinal();
+    }
+
+    public String toString() {
+        return phase + "|" + currentSeat + "|" + getRemainingTiles() + "|" + discardCount;
+    }
+}
@@ -0,0 +1,132 @@
+package game.core.state;
+
+import game.board.tile.Tile;
+
+/**
+ * Moves on a {@link GameState}, each packed into a single int so that move lists can be kept in
+ * reusable int arrays.
+ * <p>
+ * A move holds its type, the seat making it, the tile it concerns and an extra tile (the first
+ * tile of a claimed Sheung). It also holds the current seat and phase of the state it was made
+ * for, so that the state can undo the move in place without keeping a history.
+ */
+public final class Move {
+    /**
+     * The seat draws the next tile of the wall, as its next tile of the deal or to start its turn.
+     */
+    public static final int DRAW = 1;
+    /**
+     * The current seat draws a bonus tile from the back of the wall, after a flower or a Kong.
+     */
+    public static final int BONUS_DRAW = 2;
+    /**
+     * The current seat discards the tile.
+     */
+    public static final int DISCARD = 3;
+    /**
+     * The seat claims the last discard to form a Pong.
+     */
+    public static final int PONG = 4;
+    /**
+     * The seat claims the last discard to form a Sheung starting at the extra tile.
+     */
+    public static final int SHEUNG = 5;
+    /**
+     * The seat claims the last discard to form a Bright Kong.
+     */
+    public static final int CLAIM_KONG = 6;
+    /**
+     * The current seat adds the tile to one of its revealed Pongs to form a Bright Kong.
+     */
+    public static final int BRIGHT_KONG = 7;
+    /**
+     * The current seat forms a Dark Kong of the tile.
+     */
+    public static final int DARK_KONG = 8;
+    /**
+     * The seat wins off the last discard.
+     */
+    public static final int WIN = 9;
+    /**
+     * The current seat wins off its own draw.
+     */
+    public static final int SELF_WIN = 10;
+
+    private static final Tile[] TILES = Tile.values();
+    private static final String[] TYPE_NAMES = {"none", "draw", "bonus draw", "discard", "pong",
+            "sheung", "claim kong", "bright kong", "dark kong", "win", "self-draw win"};
+
+    private static final int TILE_SHIFT = 0;
+    private static final int EXTRA_SHIFT = 6;
+    private static final int SEAT_SHIFT = 12;
+    private static final int PREVIOUS_SEAT_SHIFT = 14;
+    private static final int PREVIOUS_PHASE_SHIFT = 16;
+    private static final int TYPE_SHIFT = 19;
+    private static final int TILE_MASK = 0x3F;
+    private static final int SEAT_MASK = 0x3;
+    private static final int PHASE_MASK = 0x7;
+    private static final int TYPE_MASK = 0xF;
+
+    private Move() {}
+
+    /**
+     * Packs a move.
+     * @param type the type of move.
+     * @param seat the index of the seat making the move.
+     * @param tile the ordinal of the tile the move concerns, or 0 if there is none.
+     * @param extra the ordinal of the first tile of a claimed Sheung, or 0 otherwise.
+     * @param previousSeat the index of the current seat of the state the move is made for.
+     * @param previousPhase the phase of the state the move is made for.
+     * @return the packed move.
+     */
+    static int of(int type, int seat, int tile, int extra, int previousSeat,
+                  GameState.Phase previousPhase) {
+        return type << TYPE_SHIFT
+                | previousPhase.ordinal() << PREVIOUS_PHASE_SHIFT
+                | previousSeat << PREVIOUS_SEAT_SHIFT
+                | seat << SEAT_SHIFT
+                | extra << EXTRA_SHIFT
+                | tile << TILE_SHIFT;
+    }
+
+    public static int getType(int move) {
+        return (move >>> TYPE_SHIFT) & TYPE_MASK;
+    }
+
+    public static int getSeat(int move) {
+        return (move >>> SEAT_SHIFT) & SEAT_MASK;
+    }
+
+    public static int getTile(int move) {
+        return (move >>> TILE_SHIFT) & TILE_MASK;
+    }
+
+    public static int getExtraTile(int move) {
+        return (move >>> EXTRA_SHIFT) & TILE_MASK;
+    }
+
+    static int getPreviousSeat(int move) {
+        return (move >>> PREVIOUS_SEAT_SHIFT) & SEAT_MASK;
+    }
+
+    static GameState.Phase getPreviousPhase(int move) {
+        return GameState.PHASES[(move >>> PREVIOUS_PHASE_SHIFT) & PHASE_MASK];
+    }
+
+    /**
+     * Describes a move for display purposes. Draws do not show the drawn tile, since it is only
+     * known once the move is applied.
+     * @param move the packed move.
+     * @return the string representation.
+     */
+    public static String toString(int move) {
+        int type = getType(move);
+        String output = "Seat " + getSeat(move) + " " + TYPE_NAMES[type];
+        return switch (type) {
+            case DRAW, BONUS_DRAW, SELF_WIN -> output;
+            case SHEUNG -> output + " " + TILES[getTile(move)] + " from "
+                    + TILES[getExtraTile(move)];
+            default -> output + " " + TILES[getTile(move)];
+        };
+    }
+}
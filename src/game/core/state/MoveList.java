@@ -0,0 +1,73 @@
+package game.core.state;
+
+/**
+ * The legal moves of a {@link GameState}, found once per change to the state and kept in a
+ * reusable buffer, for callers that look moves up by type and tile rather than search over them.
+ */
+public final class MoveList {
+    private final int[] moves = new int[GameState.MAX_MOVES];
+    private int size = 0;
+    private GameState.Phase phase = GameState.Phase.ENDED;
+
+    /**
+     * Replaces the moves with the legal moves of a state.
+     * @param state the state.
+     */
+    public void update(GameState state) {
+        size = state.getMoves(moves);
+        phase = state.getPhase();
+    }
+
+    /**
+     * Retrieves the phase of the state the moves were found for.
+     * @return the phase.
+     */
+    public GameState.Phase getPhase() {
+        return phase;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves a move.
+     * @param index the index of the move, in the order {@link GameState#getMoves(int[])} finds
+     *              them.
+     * @return the packed move.
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Finds a legal move.
+     * @param type the type of move.
+     * @param seat the index of the seat making the move.
+     * @param tile the ordinal of the tile the move concerns, or -1 for any tile.
+     * @param extraTile the ordinal of the first tile of a claimed Sheung, or -1 for any tile.
+     * @return the first such move, or -1 if there is none.
+     */
+    public int find(int type, int seat, int tile, int extraTile) {
+        for (int i = 0; i < size; i++) {
+            int move = moves[i];
+            if (Move.getType(move) == type && Move.getSeat(move) == seat
+                    && (tile < 0 || Move.getTile(move) == tile)
+                    && (extraTile < 0 || Move.getExtraTile(move) == extraTile)) {
+                return move;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Determines if a move is legal.
+     * @param type the type of move.
+     * @param seat the index of the seat making the move.
+     * @param tile the ordinal of the tile the move concerns, or -1 for any tile.
+     * @return true iff such a move is legal, false otherwise.
+     */
+    public boolean contains(int type, int seat, int tile) {
+        return find(type, seat, tile, -1) >= 0;
+    }
+}
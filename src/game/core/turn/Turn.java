@@ -1,37 +1,55 @@
 package game.core.turn;
 
+import game.board.BoardView;
 import game.board.HandManager;
 import game.core.InvalidKongException;
 import game.core.Prompter;
+import game.core.metrics.Metrics;
+import game.core.metrics.TurnEvent;
+import game.core.state.GameState;
+import game.core.state.Move;
+import game.core.state.MoveList;
 import game.core.turn.data.TurnEnder;
 import game.board.tile.Tile;
-import game.board.tile.TileType;
 import game.player.Player;
+import game.player.data.Settlement;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
- * A player turn.
+ * A player turn. The turn asks the player to choose among the legal moves of the round, and
+ * leaves applying the chosen move to the round to the {@link game.core.TurnManager}.
  */
 public class Turn {
     private final Player player;
     private final List<Player> otherPlayers;
-    private final String boardState;
+    private final Settlement settlement;
+    private final BoardView boardState;
+    private final MoveList legalMoves;
     private Tile drawnTile = null;
     private Tile discardTile = null;
+    private Tile kongTile = null;
     private final List<Tile> discardedTiles;
+    private final TurnEvent event = new TurnEvent();
 
     /**
      * Starts a new turn with a specified player.
      * @param player the player in control of the turn.
+     * @param settlement the score transfers of the round.
+     * @param boardState the view of the board from the player's perspective.
+     * @param discardedTiles the discard pile, which does not change during the turn.
+     * @param legalMoves the legal moves of the round at the start of the turn, which do not
+     *                   change during the turn.
      */
-    public Turn(Player player, List<Player> otherPlayers, String boardState,
-                List<Tile> discardedTiles) {
+    public Turn(Player player, List<Player> otherPlayers, Settlement settlement,
+                BoardView boardState, List<Tile> discardedTiles, MoveList legalMoves) {
         this.player = player;
         this.otherPlayers = otherPlayers;
+        this.settlement = settlement;
         this.boardState = boardState;
-        this.discardedTiles = new ArrayList<>(discardedTiles);
+        this.discardedTiles = discardedTiles;
+        this.legalMoves = legalMoves;
+        event.begin();
     }
 
     /**
@@ -50,6 +68,14 @@ public class Turn {
         return discardTile;
     }
 
+    /**
+     * Retrieves the tile of the Kong performed during this turn.
+     * @return the tile of the Kong, or null if no Kong was performed.
+     */
+    public Tile getKongTile() {
+        return kongTile;
+    }
+
     /**
      * Retrieves the player in control of the turn.
      * @return the player.
@@ -67,13 +93,13 @@ public class Turn {
     }
 
     /**
-     * Checks if the tile is a flower, and adds it to the revealed hand if applicable.
-     * @param tile the tile to be checked.
+     * Checks if the drawn tile was a flower, i.e. if a bonus tile has to be drawn, and adds it to
+     * the revealed hand if applicable.
+     * @param tile the tile drawn.
      * @return true iff the tile was a flower, false otherwise.
      */
     private boolean checkFlower(Tile tile) {
-        if (tile.getTileType() == TileType.FLOWER_SEASON
-                || tile.getTileType() == TileType.FLOWER_PLANT) {
+        if (legalMoves.getPhase() == GameState.Phase.BONUS_DRAW) {
             getHandManager().addFlower(tile);
             return true;
         }
@@ -85,8 +111,8 @@ public class Turn {
      * @return true iff a win condition is accepted, false otherwise.
      */
     private boolean checkWin() {
-        if (getHandManager().checkWin()) {
-            return getPlayer().decideWin(boardState);
+        if (legalMoves.contains(Move.SELF_WIN, getSeat(), -1)) {
+            return Metrics.decide(player, "win", () -> player.decideWin(boardState));
         }
         return false;
     }
@@ -98,22 +124,24 @@ public class Turn {
      */
     private TurnEnder checkKong() throws InvalidKongException {
         for (Tile t : getHandManager().getHand().getTiles()) {
-            if (getHandManager().checkDarkKong(t)) {
-                if (player.decideDarkKong(t, boardState)) {
+            if (legalMoves.contains(Move.DARK_KONG, getSeat(), t.ordinal())) {
+                if (Metrics.decide(player, "dark kong",
+                        () -> player.decideDarkKong(t, boardState))) {
                     Prompter.printLine();
                     Prompter.printLine(player.toStringWithSeat() + " performed Dark Kong: "
                             + "🀫🀫🀫🀫");
                     handleDarkKong(t);
                     for (Player otherPlayer : otherPlayers) {
-                        otherPlayer.deductScore(5);
+                        settlement.transfer(otherPlayer, player, 5);
                         Prompter.printLine(otherPlayer.toStringWithSeat() + ": -5");
                     }
-                    player.addScore(15);
+                    settlement.commit();
                     Prompter.printLine(player.toStringWithSeat() + ": +15");
                     return TurnEnder.DARK_KONG;
                 }
-            } else if (getHandManager().checkBrightKongSelfDraw(t)) {
-                if (player.decideBrightKong(t, boardState)) {
+            } else if (legalMoves.contains(Move.BRIGHT_KONG, getSeat(), t.ordinal())) {
+                if (Metrics.decide(player, "bright kong",
+                        () -> player.decideBrightKong(t, boardState))) {
                     Prompter.printLine();
                     Prompter.printLine(player.toStringWithSeat() + " performed Bright Kong: "
                             + t + t + t + t);
@@ -134,19 +162,20 @@ public class Turn {
         // CHECK WIN
         if (checkWin()) {
             // there is about a 0.000001% chance of this code ever executing during a round :)
-            return TurnEnder.END_GAME_WIN_SELFDRAW;
+            return endTurn("first draw", TurnEnder.END_GAME_WIN_SELFDRAW);
         }
 
         // CHECK KONG
         TurnEnder kongResult = checkKong();
         if (kongResult != null) {
-            return kongResult;
+            return endTurn("first draw", kongResult);
         }
 
         // DISCARD TILE
-        discardTile = player.pickDiscardTileNoDraw(boardState, discardedTiles);
+        discardTile = Metrics.pick(player, "discard",
+                () -> player.pickDiscardTileNoDraw(boardState, discardedTiles));
         getHandManager().discardTile(discardTile);
-        return TurnEnder.DISCARD_TILE;
+        return endTurn("first draw", TurnEnder.DISCARD_TILE);
     }
 
     /**
@@ -160,7 +189,7 @@ public class Turn {
 
         // CHECK FLOWER
         if (checkFlower(tile)) {
-            return TurnEnder.DRAW_FLOWER;
+            return endTurn("draw", TurnEnder.DRAW_FLOWER);
         }
 
         // ADD TILE TO HAND
@@ -168,19 +197,20 @@ public class Turn {
 
         // CHECK WIN
         if (checkWin()) {
-            return TurnEnder.END_GAME_WIN_SELFDRAW;
+            return endTurn("draw", TurnEnder.END_GAME_WIN_SELFDRAW);
         }
 
         // CHECK KONG
         TurnEnder kongResult = checkKong();
         if (kongResult != null) {
-            return kongResult;
+            return endTurn("draw", kongResult);
         }
 
         // DISCARD TILE
-        discardTile = player.pickDiscardTile(boardState, discardedTiles);
+        discardTile = Metrics.pick(player, "discard",
+                () -> player.pickDiscardTile(boardState, discardedTiles));
         getHandManager().discardTile(discardTile);
-        return TurnEnder.DISCARD_TILE;
+        return endTurn("draw", TurnEnder.DISCARD_TILE);
     }
 
     /**
@@ -196,9 +226,10 @@ public class Turn {
         getHandManager().addGroup(takenTile, existingTiles);
 
         // DISCARD TILE
-        discardTile = player.pickDiscardTileNoDraw(boardState, discardedTiles);
+        discardTile = Metrics.pick(player, "discard",
+                () -> player.pickDiscardTileNoDraw(boardState, discardedTiles));
         getHandManager().discardTile(discardTile);
-        return TurnEnder.DISCARD_TILE;
+        return endTurn("take tile", TurnEnder.DISCARD_TILE);
     }
 
     /**
@@ -209,7 +240,7 @@ public class Turn {
      */
     public TurnEnder startTurnBrightKongFromOpponent(Tile tile) throws InvalidKongException {
         handleBrightKongFromOpponent(tile);
-        return TurnEnder.BRIGHT_KONG;
+        return endTurn("bright kong", TurnEnder.BRIGHT_KONG);
     }
 
     /**
@@ -219,6 +250,7 @@ public class Turn {
      */
     public void handleDarkKong(Tile tile) throws InvalidKongException {
         getHandManager().darkKong(tile);
+        kongTile = tile;
     }
 
     /**
@@ -228,6 +260,7 @@ public class Turn {
      */
     public void handleBrightKong(Tile tile) throws InvalidKongException {
         getHandManager().brightKong(tile);
+        kongTile = tile;
     }
 
     /**
@@ -237,5 +270,21 @@ public class Turn {
      */
     public void handleBrightKongFromOpponent(Tile tile) throws InvalidKongException {
         getHandManager().brightKongFromOpponent(tile);
+        kongTile = tile;
+    }
+
+    private int getSeat() {
+        return player.getSeat().ordinal();
+    }
+
+    /**
+     * Ends the turn, emitting its flight recorder event.
+     * @param turnStart how the turn started.
+     * @param turnEnder the turn ending event.
+     * @return the turn ending event.
+     */
+    private TurnEnder endTurn(String turnStart, TurnEnder turnEnder) {
+        event.end(player, turnStart, turnEnder);
+        return turnEnder;
     }
 }
@@ -1,12 +1,19 @@
 package game.player;
 
+import game.board.BoardView;
+import game.board.analysis.HandShape;
+import game.board.analysis.SuitPatternTable;
+import game.board.hand.RevealedHand;
 import game.board.tile.Tile;
 import game.board.tile.TileType;
 import game.core.Prompter;
+import game.player.data.BotProfile;
 
 import java.util.*;
 
 public class Bot extends Player {
+    private BotProfile profile = BotProfile.DEFAULT;
+
     public Bot(String name) {
         super(name);
     }
@@ -15,45 +22,68 @@ public class Bot extends Player {
         super(name, score);
     }
 
+    public Bot(String name, int score, BotProfile profile) {
+        super(name, score);
+        this.profile = profile;
+    }
+
+    /**
+     * Retrieves the profile driving this bot's decisions.
+     * @return the bot profile.
+     */
+    public BotProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Sets the profile driving this bot's decisions.
+     * @param profile the new bot profile.
+     */
+    public void setProfile(BotProfile profile) {
+        this.profile = profile;
+    }
+
     private void pause() {
+        if (profile.getPauseMillis() <= 0) {
+            return;
+        }
         try {
-            // Thread.sleep(0);
-            Thread.sleep(500);
+            Thread.sleep(profile.getPauseMillis());
         } catch (InterruptedException e) {
-            e.printStackTrace();
+            Thread.currentThread().interrupt();
         }
     }
 
     @Override
-    public boolean decideWin(String boardState) {
+    public boolean decideWin(BoardView boardState) {
         return true;
     }
 
     @Override
-    public boolean decideWin(Tile tile, String boardState) {
+    public boolean decideWin(Tile tile, BoardView boardState) {
         return true;
     }
 
     @Override
-    public boolean decideSheung(Tile tile, String boardState) {
+    public boolean decideSheung(Tile tile, BoardView boardState) {
         pause();
         return decideBrightKong(tile, boardState);
     }
 
     @Override
-    public boolean decidePong(Tile tile, String boardState) {
+    public boolean decidePong(Tile tile, BoardView boardState) {
         pause();
         return true;
     }
 
     @Override
-    public boolean decideDarkKong(Tile tile, String boardState) {
+    public boolean decideDarkKong(Tile tile, BoardView boardState) {
         pause();
         return decideBrightKong(tile, boardState);
     }
 
     @Override
-    public boolean decideBrightKong(Tile tile, String boardState) {
+    public boolean decideBrightKong(Tile tile, BoardView boardState) {
         pause();
         List<Tile> tilesInHand = new ArrayList<>(getHandManager().getHand().getTiles());
         List<Tile> groupedTiles = new ArrayList<>();
@@ -62,7 +92,7 @@ public class Bot extends Player {
     }
 
     @Override
-    public boolean decideBrightKongNoDraw(Tile tile, String boardState) {
+    public boolean decideBrightKongNoDraw(Tile tile, BoardView boardState) {
         pause();
         return decideBrightKong(tile, boardState);
     }
@@ -74,155 +104,74 @@ public class Bot extends Player {
     }
 
     @Override
-    public Tile pickDiscardTile(String boardState, List<Tile> discardedTiles) {
+    public Tile pickDiscardTile(BoardView boardState, List<Tile> discardedTiles) {
         pause();
         List<Tile> tilesInHand = getHandManager().getHand().getTiles();
-        List<Tile> discardOptions = groupTiles(tilesInHand, discardedTiles);
+        List<Tile> discardOptions = rankDiscards(tilesInHand, discardedTiles);
         Tile discardTile = discardOptions.getFirst();
         Prompter.printLine();
         Prompter.printLine(this.toStringWithSeat() + " discarded " + discardTile);
         return discardTile;
     }
 
-    private List<Tile> groupTiles(List<Tile> tiles, List<Tile> discardedTiles) {
-        List<Tile> ungroupedTiles = new ArrayList<>(tiles);
-        List<Tile> groupedTiles = new ArrayList<>();
-        List<Tile> discardList = new ArrayList<>(discardedTiles);
-        List<Tile> returnTiles = new ArrayList<>();
-
-        // GROUP 1: Three identical word tiles
-        for (TileType type : List.of(TileType.WORD_WIND, TileType.WORD_DRAGON)) {
-            groupThreeIdenticalTiles(ungroupedTiles, groupedTiles, type);
-        }
-
-        // GROUP 2: Two identical word tiles
-        for (TileType type : List.of(TileType.WORD_WIND, TileType.WORD_DRAGON)) {
-            groupTwoIdenticalTiles(ungroupedTiles, groupedTiles, discardList, type);
-        }
-
-        // Remove all tiles of type WORD_WIND or WORD_DRAGON from further grouping
-        for (Tile tile : ungroupedTiles) {
-            if (tile.getTileType() == TileType.WORD_WIND || tile.getTileType() == TileType.WORD_DRAGON) {
-                returnTiles.add(tile);
-            }
-        }
-        ungroupedTiles.removeIf(tile -> tile.getTileType() == TileType.WORD_WIND || tile.getTileType() == TileType.WORD_DRAGON);
-
-        // GROUP 3: Six tiles of same type with ordinals n, n+1, n+1, n+1, n+1, n+2
-        groupNNNN12(ungroupedTiles, groupedTiles, 6);
-
-        // GROUP 4: Five tiles of same type with ordinals n, n+1, n+1, n+1, n+2
-        groupNNNN12(ungroupedTiles, groupedTiles, 5);
-
-        // GROUP 5: Three identical tiles
-        groupThreeIdenticalTiles(ungroupedTiles, groupedTiles, null);
-
-        // GROUP 6: Three consecutive tiles of same type
-        groupThreeConsecutiveTiles(ungroupedTiles, groupedTiles);
-
-        // GROUP 7: Two identical tiles
-        groupTwoIdenticalTiles(ungroupedTiles, groupedTiles, discardList, null);
-
-        // GROUP 8: Two consecutive tiles of same type
-        groupTwoConsecutiveTiles(ungroupedTiles, groupedTiles);
-
-        // GROUP 9: Two tiles of same type with ordinals n, n+2
-        groupTwoTilesWithGap(ungroupedTiles, groupedTiles);
-
-        // GROUP 10: Two identical tiles
-        groupTwoIdenticalTiles(ungroupedTiles, groupedTiles, new ArrayList<>(), null);
-
-        // decide discard order by the frequency of that tile found in discard pile
-        returnTiles.sort((tile1, tile2) -> {
-            int count1 = Collections.frequency(discardedTiles, tile1);
-            int count2 = Collections.frequency(discardedTiles, tile2);
-            return Integer.compare(count2, count1);
-        });
-        ungroupedTiles.sort((tile1, tile2) -> {
-            int count1 = Collections.frequency(discardedTiles, tile1);
-            int count2 = Collections.frequency(discardedTiles, tile2);
-            return Integer.compare(count2, count1);
-        });
-
-        // Returns a
-        returnTiles.addAll(ungroupedTiles);
-        returnTiles.addAll(groupedTiles.reversed());
-        return new ArrayList<>(returnTiles);
-    }
-
     /**
-     * Attempt to group tiles from the ungrouped list if there are three identical instances.
-     * Removes successfully grouped tiles and moves them into the grouped list.
-     * @param ungroupedTiles the list of ungrouped tiles.
-     * @param groupedTiles the list of already grouped tiles.
-     * @param type the tile type to be grouped.
+     * Ranks the tiles in a hand from the best to the worst discard. Each discard is scored by
+     * the shanten and the number of live useful tiles of the tiles that would be kept, both found
+     * through suit pattern table lookups, with the discard pile frequency of the tile as a
+     * tie-break.
+     * @param tiles the tiles in the hand.
+     * @param discardedTiles the tiles already discarded during the game.
+     * @return each distinct tile in the hand, from the best to the worst discard.
      */
-    private void groupThreeIdenticalTiles(List<Tile> ungroupedTiles, List<Tile> groupedTiles, TileType type) {
-        for (int i = 0; i < ungroupedTiles.size() - 2; i++) {
-            Tile tile = ungroupedTiles.get(i);
-            if ((type == null || tile.getTileType() == type)
-                    && Collections.frequency(ungroupedTiles, tile) >= 3) {
-                groupedTiles.add(tile);
-                groupedTiles.add(tile);
-                groupedTiles.add(tile);
-                ungroupedTiles.removeAll(Arrays.asList(tile, tile, tile));
+    private List<Tile> rankDiscards(List<Tile> tiles, List<Tile> discardedTiles) {
+        RevealedHand revealedHand = getHandManager().getRevealedHand();
+        int revealedGroups = revealedHand.getGroups().size() + revealedHand.getBrightKongs().size()
+                + revealedHand.getDarkKongs().size();
+        HandShape shape = new HandShape(SuitPatternTable.getInstance(), tiles,
+                Math.max(0, 5 - revealedGroups));
+
+        int[] discarded = new int[HandShape.TILE_KINDS];
+        int[] drawable = new int[HandShape.TILE_KINDS];
+        Arrays.fill(drawable, 4);
+        for (Tile tile : discardedTiles) {
+            if (tile.ordinal() < HandShape.TILE_KINDS) {
+                discarded[tile.ordinal()]++;
+                drawable[tile.ordinal()]--;
             }
         }
-    }
-
-    /**
-     * Attempt to group tiles from the ungrouped list if there are two identical instances.
-     * Removes successfully grouped tiles and moves them into the grouped list.
-     * @param ungroupedTiles the list of ungrouped tiles.
-     * @param groupedTiles the list of already grouped tiles.
-     * @param discardList the tiles already discarded during the game.
-     * @param type the tile types to be grouped.
-     * @ensures only forms groups when a Pong is still possible, i.e. not more than one instance of
-     * the tile found in the discard list.
-     */
-    private void groupTwoIdenticalTiles(List<Tile> ungroupedTiles, List<Tile> groupedTiles, List<Tile> discardList, TileType type) {
-        for (int i = 0; i < ungroupedTiles.size() - 1; i++) {
-            Tile tile = ungroupedTiles.get(i);
-            if ((type == null || tile.getTileType() == type) &&
-                    Collections.frequency(ungroupedTiles, tile) >= 2 &&
-                    Collections.frequency(discardList, tile) <= 1) {
-                groupedTiles.add(tile);
-                groupedTiles.add(tile);
-                ungroupedTiles.removeAll(Arrays.asList(tile, tile));
+        for (List<List<Tile>> groups : List.of(revealedHand.getGroups(),
+                revealedHand.getBrightKongs(), revealedHand.getDarkKongs())) {
+            for (List<Tile> group : groups) {
+                for (Tile tile : group) {
+                    drawable[tile.ordinal()]--;
+                }
             }
         }
-    }
-
-    /**
-     * Attempt to group tiles in the form n, n+1, ... , n+1, n+2 of the same type.
-     * Removes successfully grouped tiles and moves them into the grouped list.
-     * @param ungroupedTiles the list of ungrouped tiles.
-     * @param groupedTiles the list of already grouped tiles.
-     * @param groupSize the size of the group.
-     */
-    private void groupNNNN12(List<Tile> ungroupedTiles, List<Tile> groupedTiles, int groupSize) {
-        for (int i = 0; i < ungroupedTiles.size(); i++) {
-            Tile tile = ungroupedTiles.get(i);
-            TileType type = tile.getTileType();
-            int ord = tile.ordinal();
-
-            long countN = ungroupedTiles.stream().filter(t -> t == tile).count();
-            long countN1 = ungroupedTiles.stream().filter(t -> t.ordinal() == ord + 1 && t.getTileType() == type).count();
-            long countN2 = ungroupedTiles.stream().filter(t -> t.ordinal() == ord + 2 && t.getTileType() == type).count();
-
-            if (countN >= (groupSize - 2) && countN1 >= 3 && countN2 >= 1) {
-                groupedTiles.add(tile);
-                groupedTiles.add(tile);
-                groupedTiles.add(tile);
-                groupedTiles.add(tile);
-                groupedTiles.add(tile);
-                if (groupSize == 6) groupedTiles.add(tile);
+        for (int kind = 0; kind < HandShape.TILE_KINDS; kind++) {
+            drawable[kind] -= shape.getCount(kind);
+            // a Pong is unlikely once enough copies have been discarded
+            if (shape.getCount(kind) >= 2 && discarded[kind] > profile.getPongDiscardLimit()) {
+                drawable[kind] = 0;
+            }
+            drawable[kind] = Math.max(0, drawable[kind]);
+        }
 
-                ungroupedTiles.removeAll(Arrays.asList(tile, tile, tile));
-                ungroupedTiles.removeIf(t -> t.ordinal() == ord + 1 && t.getTileType() == type);
-                ungroupedTiles.removeIf(t -> t.ordinal() == ord + 2 && t.getTileType() == type);
+        List<Tile> options = new ArrayList<>();
+        double[] scores = new double[HandShape.TILE_KINDS];
+        for (Tile tile : tiles) {
+            int kind = tile.ordinal();
+            if (kind >= HandShape.TILE_KINDS || options.contains(tile)) {
+                continue;
             }
+            shape.removeTile(kind);
+            scores[kind] = -profile.getShapeWeight() * shape.getShanten()
+                    + profile.getAcceptanceWeight() * shape.countAcceptance(drawable)
+                    + profile.getDiscardFrequencyWeight() * discarded[kind];
+            shape.addTile(kind);
+            options.add(tile);
         }
+        options.sort(Comparator.comparingDouble((Tile tile) -> scores[tile.ordinal()]).reversed());
+        return options;
     }
 
     /**
@@ -255,48 +204,8 @@ public class Bot extends Player {
         }
     }
 
-    /**
-     * Attempt to group two consecutive tiles of the same type.
-     * Removes successfully grouped tiles and moves them into the grouped list.
-     * @param ungroupedTiles the list of ungrouped tiles.
-     * @param groupedTiles the list of already grouped tiles.
-     */
-    private void groupTwoConsecutiveTiles(List<Tile> ungroupedTiles, List<Tile> groupedTiles) {
-        for (int i = 0; i < ungroupedTiles.size() - 1; i++) {
-            Tile tile1 = ungroupedTiles.get(i);
-            for (int j = i + 1; j < ungroupedTiles.size(); j++) {
-                Tile tile2 = ungroupedTiles.get(j);
-                if (tile1.getTileType() == tile2.getTileType() && tile1.ordinal() + 1 == tile2.ordinal()) {
-                    groupedTiles.add(tile1);
-                    groupedTiles.add(tile2);
-                    ungroupedTiles.removeAll(Arrays.asList(tile1, tile2));
-                }
-            }
-        }
-    }
-
-    /**
-     * Attempt to group two consecutive tiles with a gap (e.g. 2 & 4, 5 & 7) of the same type.
-     * Removes successfully grouped tiles and moves them into the grouped list.
-     * @param ungroupedTiles the list of ungrouped tiles.
-     * @param groupedTiles the list of already grouped tiles.
-     */
-    private void groupTwoTilesWithGap(List<Tile> ungroupedTiles, List<Tile> groupedTiles) {
-        for (int i = 0; i < ungroupedTiles.size() - 1; i++) {
-            Tile tile1 = ungroupedTiles.get(i);
-            for (int j = i + 1; j < ungroupedTiles.size(); j++) {
-                Tile tile2 = ungroupedTiles.get(j);
-                if (tile1.getTileType() == tile2.getTileType() && tile1.ordinal() + 2 == tile2.ordinal()) {
-                    groupedTiles.add(tile1);
-                    groupedTiles.add(tile2);
-                    ungroupedTiles.removeAll(Arrays.asList(tile1, tile2));
-                }
-            }
-        }
-    }
-
     @Override
-    public Tile pickDiscardTileNoDraw(String boardState, List<Tile> discardedTiles) {
+    public Tile pickDiscardTileNoDraw(BoardView boardState, List<Tile> discardedTiles) {
         pause();
         return pickDiscardTile(boardState, discardedTiles);
     }
@@ -1,7 +1,9 @@
 package game.player;
 
+import game.board.BoardView;
 import game.board.HandManager;
 import game.board.tile.Tile;
+import game.player.data.Leaderboard;
 import game.player.data.Seat;
 
 import java.util.List;
@@ -14,6 +16,7 @@ public abstract class Player {
     private Seat seat = null;
     private int score;
     private final HandManager handManager = new HandManager();
+    private volatile Leaderboard leaderboard = null;
 
     /**
      * Creates a player with a default starting score of 1000.
@@ -81,11 +84,22 @@ public abstract class Player {
         this.seat = seat;
     }
 
+    /**
+     * Sets the leaderboard that is updated whenever the player's score changes.
+     * @param leaderboard the leaderboard, or null to stop updating a leaderboard.
+     */
+    public void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+        if (leaderboard != null) {
+            setScore(getScore());
+        }
+    }
+
     /**
      * Gets the current score of the player.
      * @return the score of the player.
      */
-    public int getScore() {
+    public synchronized int getScore() {
         return score;
     }
 
@@ -93,24 +107,37 @@ public abstract class Player {
      * Sets the score of the player.
      * @param score the new score of the player.
      */
-    public void setScore(int score) {
+    public synchronized void setScore(int score) {
         this.score = score;
+        Leaderboard leaderboard = this.leaderboard;
+        if (leaderboard != null) {
+            leaderboard.update(name, score);
+        }
     }
 
     /**
      * Add an amount to the player's score.
      * @param amount the amount to add.
      */
-    public void addScore(int amount) {
-        score += amount;
+    public synchronized void addScore(int amount) {
+        setScore(score + amount);
     }
 
     /**
      * Remove an amount from the player's score.
      * @param amount the amount to remove.
      */
-    public void deductScore(int amount) {
-        score -= amount;
+    public synchronized void deductScore(int amount) {
+        setScore(score - amount);
+    }
+
+    /**
+     * Checks whether the player can be asked for a decision while other players are being asked
+     * for theirs. Players that share the console must be asked one at a time.
+     * @return true iff the player can decide concurrently with other players.
+     */
+    public boolean canDecideConcurrently() {
+        return true;
     }
 
     /**
@@ -118,7 +145,7 @@ public abstract class Player {
      * @param boardState the current board state.
      * @return true iff the win condition is accepted, false otherwise.
      */
-    public abstract boolean decideWin(String boardState);
+    public abstract boolean decideWin(BoardView boardState);
 
     /**
      * Makes the player choose whether to accept a win condition when taking a tile from opponent.
@@ -126,7 +153,7 @@ public abstract class Player {
      * @param boardState the current board state.
      * @return true iff the win condition is accepted, false otherwise.
      */
-    public abstract boolean decideWin(Tile tile, String boardState);
+    public abstract boolean decideWin(Tile tile, BoardView boardState);
 
     /**
      * Makes the player choose whether to accept a Sheung from opponent.
@@ -134,7 +161,7 @@ public abstract class Player {
      * @param boardState the current board state.
      * @return true iff the Sheung is accepted, false otherwise.
      */
-    public abstract boolean decideSheung(Tile tile, String boardState);
+    public abstract boolean decideSheung(Tile tile, BoardView boardState);
 
     /**
      * Makes the player choose whether to accept a Pong from opponent.
@@ -142,7 +169,7 @@ public abstract class Player {
      * @param boardState the current board state.
      * @return true iff the Pong is accepted, false otherwise.
      */
-    public abstract boolean decidePong(Tile tile, String boardState);
+    public abstract boolean decidePong(Tile tile, BoardView boardState);
 
     /**
      * Makes the player choose whether to accept a Dark Kong.
@@ -150,7 +177,7 @@ public abstract class Player {
      * @param boardState the current board state.
      * @return true iff the Dark Kong is accepted, false otherwise.
      */
-    public abstract boolean decideDarkKong(Tile tile, String boardState);
+    public abstract boolean decideDarkKong(Tile tile, BoardView boardState);
 
     /**
      * Makes the player choose whether to accept a Bright Kong.
@@ -158,7 +185,7 @@ public abstract class Player {
      * @param boardState the current board state.
      * @return true iff the Bright Kong is accepted, false otherwise.
      */
-    public abstract boolean decideBrightKong(Tile tile, String boardState);
+    public abstract boolean decideBrightKong(Tile tile, BoardView boardState);
 
     /**
      * Makes the player choose whether to accept a Bright Kong from a tile discarded by the
@@ -167,7 +194,7 @@ public abstract class Player {
      * @param boardState the current board state.
      * @return true iff the Bright Kong is accepted, false otherwise.
      */
-    public abstract boolean decideBrightKongNoDraw(Tile tile, String boardState);
+    public abstract boolean decideBrightKongNoDraw(Tile tile, BoardView boardState);
 
     /**
      * Makes the player choose which Sheung combo to accept.
@@ -181,14 +208,14 @@ public abstract class Player {
      * @param boardState the current board state.
      * @return the tile that is discarded.
      */
-    public abstract Tile pickDiscardTile(String boardState, List<Tile> discardedTiles);
+    public abstract Tile pickDiscardTile(BoardView boardState, List<Tile> discardedTiles);
 
     /**
      * Makes the player choose a tile to discard, when no tile has been drawn during the turn.
      * @param boardState the current board state.
      * @return the tile that is discarded.
      */
-    public abstract Tile pickDiscardTileNoDraw(String boardState, List<Tile> discardedTiles);
+    public abstract Tile pickDiscardTileNoDraw(BoardView boardState, List<Tile> discardedTiles);
 
     /**
      * Returns a string representation of the player.
@@ -1,5 +1,6 @@
 package game.player;
 
+import game.board.BoardView;
 import game.board.tile.Tile;
 import game.core.Prompter;
 
@@ -18,7 +19,12 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public boolean decideWin(String boardState) {
+    public boolean canDecideConcurrently() {
+        return false;
+    }
+
+    @Override
+    public boolean decideWin(BoardView boardState) {
         printBoardState(boardState);
         Prompter.printLine(getHandManager().toStringSepLastDrawn() + "\n");
         Prompter.printLine(this.toStringWithSeat() + ", win condition satisfied! Eat now? (Y/N) ");
@@ -27,7 +33,7 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public boolean decideWin(Tile tile, String boardState) {
+    public boolean decideWin(Tile tile, BoardView boardState) {
         printBoardState(boardState);
         Prompter.printLine(getHandManager().toStringWithChoice(tile) + "\n");
         Prompter.printLine(this.toStringWithSeat() + ", win condition satisfied! Eat now? (Y/N) ");
@@ -36,7 +42,7 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public boolean decideSheung(Tile tile, String boardState) {
+    public boolean decideSheung(Tile tile, BoardView boardState) {
         printBoardState(boardState);
         Prompter.printLine(getHandManager() + "\n");
         Prompter.printLine(this.toStringWithSeat() + ", possible Sheung detected: " + tile + ". Sheung now? (Y/N) ");
@@ -45,7 +51,7 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public boolean decidePong(Tile tile, String boardState) {
+    public boolean decidePong(Tile tile, BoardView boardState) {
         printBoardState(boardState);
         Prompter.printLine(getHandManager() + "\n");
         Prompter.printLine(this.toStringWithSeat() + ", possible Pong detected: " + tile + ". Pong now? (Y/N) ");
@@ -54,7 +60,7 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public boolean decideDarkKong(Tile tile, String boardState) {
+    public boolean decideDarkKong(Tile tile, BoardView boardState) {
         printBoardState(boardState);
         Prompter.printLine(getHandManager().toStringSepLastDrawn() + "\n");
         Prompter.printLine(this.toStringWithSeat() + ", possible Dark Kong detected: " + tile + ". Kong now? (Y/N) ");
@@ -63,7 +69,7 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public boolean decideBrightKong(Tile tile, String boardState) {
+    public boolean decideBrightKong(Tile tile, BoardView boardState) {
         printBoardState(boardState);
         Prompter.printLine(getHandManager().toStringSepLastDrawn() + "\n");
         Prompter.printLine(this.toStringWithSeat() + ", possible Bright Kong detected: " + tile + ". Kong now? (Y/N) ");
@@ -72,7 +78,7 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public boolean decideBrightKongNoDraw(Tile tile, String boardState) {
+    public boolean decideBrightKongNoDraw(Tile tile, BoardView boardState) {
         printBoardState(boardState);
         Prompter.printLine(getHandManager() + "\n");
         Prompter.printLine(this.toStringWithSeat() + ", possible Bright Kong detected: " + tile + ". Kong now? (Y/N) ");
@@ -102,7 +108,7 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public Tile pickDiscardTile(String boardState, List<Tile> discardedTiles) {
+    public Tile pickDiscardTile(BoardView boardState, List<Tile> discardedTiles) {
         printBoardState(boardState);
         while (true) {
             Prompter.printLine(getHandManager().toStringSepLastDrawn() + "\n");
@@ -122,7 +128,7 @@ public class RealPlayer extends Player {
     }
 
     @Override
-    public Tile pickDiscardTileNoDraw(String boardState, List<Tile> discardedTiles) {
+    public Tile pickDiscardTileNoDraw(BoardView boardState, List<Tile> discardedTiles) {
         printBoardState(boardState);
         while (true) {
             Prompter.printLine(getHandManager() + "\n");
@@ -145,9 +151,9 @@ public class RealPlayer extends Player {
      * Prints the current board state from the perspective of the real player.
      * @param boardState the current board state.
      */
-    private void printBoardState(String boardState) {
+    private void printBoardState(BoardView boardState) {
         Prompter.printLine();
-        Prompter.printLine(boardState);
+        Prompter.printLine(boardState.toString());
         Prompter.printLine();
     }
 }
@@ -0,0 +1,173 @@
+package game.player.data;
+
+/**
+ * The tunable weights that drive a bot's decisions.
+ */
+public class BotProfile {
+    /**
+     * The default profile.
+     */
+    public static final BotProfile DEFAULT = new BotProfile(1.0, 0.01, 0.001, 1, 500);
+
+    /**
+     * The number of tunable values in a profile vector.
+     */
+    public static final int VECTOR_SIZE = 4;
+
+    // relative mutation scale of each profile vector entry when tuning
+    private static final double[] MUTATION_SCALES = {0.5, 0.005, 0.002, 0.5};
+
+    private static final int MAX_PONG_DISCARD_LIMIT = 3;
+
+    private final double shapeWeight;
+    private final double acceptanceWeight;
+    private final double discardFrequencyWeight;
+    private final int pongDiscardLimit;
+    private final long pauseMillis;
+
+    /**
+     * Creates a bot profile.
+     * @param shapeWeight the weight of how close the tiles kept after a discard are to winning.
+     * @param acceptanceWeight the weight of the number of live tiles that would bring the tiles
+     *                         kept after a discard closer to winning.
+     * @param discardFrequencyWeight the weight of a tile's discard pile frequency when ordering
+     *                               discards. Positive values discard tiles that have been
+     *                               discarded often first.
+     * @param pongDiscardLimit the maximum number of copies of a tile found in the discard pile
+     *                         for a pair of that tile to still be kept for a Pong.
+     * @param pauseMillis the delay before each decision, in milliseconds.
+     */
+    public BotProfile(double shapeWeight, double acceptanceWeight, double discardFrequencyWeight,
+                      int pongDiscardLimit, long pauseMillis) {
+        this.shapeWeight = shapeWeight;
+        this.acceptanceWeight = acceptanceWeight;
+        this.discardFrequencyWeight = discardFrequencyWeight;
+        this.pongDiscardLimit = pongDiscardLimit;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Retrieves the weight of how close the tiles kept after a discard are to winning.
+     * @return the shape weight.
+     */
+    public double getShapeWeight() {
+        return shapeWeight;
+    }
+
+    /**
+     * Retrieves the weight of the number of live tiles that would improve the tiles kept.
+     * @return the acceptance weight.
+     */
+    public double getAcceptanceWeight() {
+        return acceptanceWeight;
+    }
+
+    /**
+     * Retrieves the weight of a tile's discard pile frequency when ordering discards.
+     * @return the discard frequency weight.
+     */
+    public double getDiscardFrequencyWeight() {
+        return discardFrequencyWeight;
+    }
+
+    /**
+     * Retrieves the maximum number of discarded copies of a tile for a pair to be kept.
+     * @return the discard limit.
+     */
+    public int getPongDiscardLimit() {
+        return pongDiscardLimit;
+    }
+
+    /**
+     * Retrieves the delay before each decision.
+     * @return the delay in milliseconds.
+     */
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+
+    /**
+     * Creates a copy of this profile with a different decision delay.
+     * @param pauseMillis the new delay in milliseconds.
+     * @return the new profile.
+     */
+    public BotProfile withPauseMillis(long pauseMillis) {
+        return new BotProfile(shapeWeight, acceptanceWeight, discardFrequencyWeight,
+                pongDiscardLimit, pauseMillis);
+    }
+
+    /**
+     * Retrieves the relative scale each profile vector entry should be mutated by when tuning.
+     * @return the mutation scales, in the order of {@link #toVector()}.
+     */
+    public static double[] getMutationScales() {
+        return MUTATION_SCALES.clone();
+    }
+
+    /**
+     * Converts the tunable values of this profile into a vector.
+     * @return the vector of shape weight, acceptance weight, discard frequency weight and pong
+     * discard limit.
+     */
+    public double[] toVector() {
+        return new double[]{shapeWeight, acceptanceWeight, discardFrequencyWeight,
+                pongDiscardLimit};
+    }
+
+    /**
+     * Creates a profile from a vector produced by {@link #toVector()}.
+     * @param vector the vector of tunable values.
+     * @param pauseMillis the delay before each decision, in milliseconds.
+     * @return the new profile.
+     * @throws IllegalArgumentException if the vector is of incorrect size.
+     */
+    public static BotProfile fromVector(double[] vector, long pauseMillis) {
+        if (vector.length != VECTOR_SIZE) {
+            throw new IllegalArgumentException("Incorrect profile vector size!");
+        }
+        int pongDiscardLimit = (int) Math.round(vector[3]);
+        pongDiscardLimit = Math.max(0, Math.min(MAX_PONG_DISCARD_LIMIT, pongDiscardLimit));
+        return new BotProfile(vector[0], vector[1], vector[2], pongDiscardLimit, pauseMillis);
+    }
+
+    /**
+     * Returns a string representation of the profile that can be used to save it.
+     * @return the string representation.
+     */
+    public String toStringSave() {
+        StringBuilder output = new StringBuilder();
+        for (double value : toVector()) {
+            output.append(value).append("|");
+        }
+        return output.substring(0, output.length() - 1);
+    }
+
+    /**
+     * Creates a profile from a string produced by {@link #toStringSave()}.
+     * @param line the saved string.
+     * @param pauseMillis the delay before each decision, in milliseconds.
+     * @return the new profile.
+     * @throws IllegalArgumentException if the string is not of correct format.
+     */
+    public static BotProfile fromStringSave(String line, long pauseMillis) {
+        String[] parts = line.split("\\|");
+        if (parts.length != VECTOR_SIZE) {
+            throw new IllegalArgumentException("Profile is not of correct format!");
+        }
+        double[] vector = new double[VECTOR_SIZE];
+        for (int i = 0; i < VECTOR_SIZE; i++) {
+            vector[i] = Double.parseDouble(parts[i]);
+        }
+        return fromVector(vector, pauseMillis);
+    }
+
+    /**
+     * Returns a readable representation of the profile.
+     * @return the string representation.
+     */
+    public String toString() {
+        return "shapeWeight=" + shapeWeight + ", acceptanceWeight=" + acceptanceWeight
+                + ", discardFrequencyWeight=" + discardFrequencyWeight
+                + ", pongDiscardLimit=" + pongDiscardLimit;
+    }
+}
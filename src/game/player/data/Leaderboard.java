@@ -0,0 +1,238 @@
+package game.player.data;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A ranking of players by score that can be read while scores are being updated from many
+ * threads.
+ * <p>
+ * Players are kept in a concurrent skip list ordered by score, highest first, and then by name,
+ * so the top players are streamed from its head without locking. Updates to the same player are
+ * serialised by striped locks, while updates to different players and all reads run
+ * concurrently. The rank of a player is counted by a lock-free Fenwick tree over score buckets.
+ * Scores outside the bucket range share the outermost buckets and are counted from the ends of
+ * the skip list instead.
+ */
+public class Leaderboard {
+    private static final int MIN_BUCKET_SCORE = -(1 << 19);
+    private static final int BUCKET_COUNT = 1 << 20;
+    private static final int LOCK_STRIPES = 64;
+
+    private static final Comparator<Entry> RANKING_ORDER = (first, second) -> {
+        int byScore = Integer.compare(second.score, first.score);
+        return byScore != 0 ? byScore : first.name.compareTo(second.name);
+    };
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(RANKING_ORDER);
+    private final ConcurrentHashMap<String, Integer> scores = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray bucketTree = new AtomicIntegerArray(BUCKET_COUNT + 1);
+    private final AtomicInteger size = new AtomicInteger();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * Creates an empty leaderboard.
+     */
+    public Leaderboard() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * A player's position on the leaderboard.
+     */
+    public static final class Entry {
+        private final String name;
+        private final int score;
+
+        /**
+         * Creates a leaderboard entry.
+         * @param name the name of the player.
+         * @param score the score of the player.
+         */
+        public Entry(String name, int score) {
+            this.name = name;
+            this.score = score;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Entry entry && entry.score == score && entry.name.equals(name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + score;
+        }
+
+        public String toString() {
+            return name + ": " + score;
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Sets the score of a player, adding the player if they are not on the leaderboard.
+     * @param name the name of the player.
+     * @param score the new score.
+     */
+    public void update(String name, int score) {
+        synchronized (lockFor(name)) {
+            Integer oldScore = scores.get(name);
+            if (oldScore != null && oldScore == score) {
+                return;
+            }
+            // rank the new score before publishing it and before unranking the old score, so
+            // the player stays ranked throughout and readers may briefly see both entries
+            ranking.add(new Entry(name, score));
+            addToBucket(score, 1);
+            scores.put(name, score);
+            if (oldScore == null) {
+                size.incrementAndGet();
+            } else {
+                ranking.remove(new Entry(name, oldScore));
+                addToBucket(oldScore, -1);
+            }
+        }
+    }
+
+    /**
+     * Removes a player from the leaderboard.
+     * @param name the name of the player.
+     * @return true iff the player was on the leaderboard, false otherwise.
+     */
+    public boolean remove(String name) {
+        synchronized (lockFor(name)) {
+            Integer oldScore = scores.remove(name);
+            if (oldScore == null) {
+                return false;
+            }
+            ranking.remove(new Entry(name, oldScore));
+            addToBucket(oldScore, -1);
+            size.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * Removes every player from the leaderboard.
+     */
+    public void clear() {
+        for (String name : scores.keySet()) {
+            remove(name);
+        }
+    }
+
+    /**
+     * Retrieves the score of a player.
+     * @param name the name of the player.
+     * @return the score, or null if the player is not on the leaderboard.
+     */
+    public Integer getScore(String name) {
+        return scores.get(name);
+    }
+
+    /**
+     * Retrieves the rank of a player, where players with equal scores share a rank.
+     * @param name the name of the player.
+     * @return 1 plus the number of players with a higher score, or 0 if the player is not on
+     * the leaderboard.
+     */
+    public int getRank(String name) {
+        Integer score = scores.get(name);
+        if (score == null) {
+            return 0;
+        }
+        int bucket = bucketOf(score);
+        if (bucket == BUCKET_COUNT - 1) {
+            // count the few players above the bucket range from the head of the ranking
+            int higher = 0;
+            for (Entry entry : ranking) {
+                if (entry.getScore() <= score) {
+                    break;
+                }
+                higher++;
+            }
+            return higher + 1;
+        }
+        int higher = prefixSum(BUCKET_COUNT - 1) - prefixSum(bucket);
+        if (bucket == 0) {
+            // count the players below the bucket range that are still higher
+            int notHigher = 0;
+            Iterator<Entry> iterator = ranking.descendingIterator();
+            while (iterator.hasNext() && iterator.next().getScore() <= score) {
+                notHigher++;
+            }
+            higher += Math.max(0, bucketTree.get(1) - notHigher);
+        }
+        return higher + 1;
+    }
+
+    /**
+     * Retrieves the players with the highest scores without blocking score updates. Players
+     * updated during the call are listed once, at either their old or their new score, unless
+     * the update moves them above the part of the ranking the call has already passed.
+     * @param count the maximum number of players to retrieve.
+     * @return the entries, from the highest to the lowest score.
+     */
+    public List<Entry> getTop(int count) {
+        List<Entry> top = new ArrayList<>(Math.min(count, size()));
+        Set<String> listed = new HashSet<>();
+        Iterator<Entry> iterator = ranking.iterator();
+        while (top.size() < count && iterator.hasNext()) {
+            Entry entry = iterator.next();
+            // a player being updated is ranked at both scores until the old entry is removed,
+            // and a removed player may still be passed by the iterator
+            if (scores.containsKey(entry.getName()) && listed.add(entry.getName())) {
+                top.add(entry);
+            }
+        }
+        return top;
+    }
+
+    private Object lockFor(String name) {
+        return locks[(name.hashCode() & Integer.MAX_VALUE) % LOCK_STRIPES];
+    }
+
+    private static int bucketOf(int score) {
+        long bucket = (long) score - MIN_BUCKET_SCORE;
+        return (int) Math.max(0, Math.min(BUCKET_COUNT - 1, bucket));
+    }
+
+    private void addToBucket(int score, int delta) {
+        for (int i = bucketOf(score) + 1; i <= BUCKET_COUNT; i += i & -i) {
+            bucketTree.addAndGet(i, delta);
+        }
+    }
+
+    /**
+     * Counts the players in every bucket up to and including the given bucket.
+     */
+    private int prefixSum(int bucket) {
+        int sum = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i) {
+            sum += bucketTree.get(i);
+        }
+        return sum;
+    }
+}
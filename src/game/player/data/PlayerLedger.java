@@ -0,0 +1,229 @@
+package game.player.data;
+
+import game.player.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An append-only ledger of the score changes made since the {@link PlayerStore} was last
+ * committed.
+ * <p>
+ * Each round appends a single line to the ledger, "roundId|timestamp|id|delta|id|delta...", with
+ * the id each player is given by the store, so recording a round never rewrites the roster and
+ * renaming a player never detaches their recorded rounds. A crash can at most leave the last line
+ * unterminated, in which case that round is dropped when the ledger is next opened. The ledger
+ * is compacted by committing the store, which records the last round it includes, and then
+ * emptying the ledger. Replaying rounds already in the store has no effect, so a crash at any
+ * point never applies a round twice. The ledger may be shared by tables playing on different
+ * threads, as every round is recorded and applied to the store at once.
+ */
+public class PlayerLedger implements Closeable {
+    /**
+     * The file the score ledger is saved to by default.
+     */
+    public static final String LEDGER_PATH = "players.ledger";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final FileChannel channel;
+    private final int syncBatchSize;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private long lastRoundId;
+    private int pendingRounds = 0;
+
+    /**
+     * Opens a ledger, dropping any round left unterminated by a crash.
+     * @param ledgerPath the file of the score ledger, created if it does not exist.
+     * @param committedRoundId the id of the last round included in the player store, so that
+     *                         round ids keep increasing after the ledger is emptied.
+     * @param syncBatchSize the number of rounds recorded between each sync to disk.
+     * @throws IOException if an I/O Exception occurs or the file is not of correct format.
+     * @throws IllegalArgumentException if the sync batch size is not positive.
+     */
+    public PlayerLedger(Path ledgerPath, long committedRoundId, int syncBatchSize)
+            throws IOException {
+        if (syncBatchSize <= 0) {
+            throw new IllegalArgumentException("Sync batch size must be positive!");
+        }
+        this.syncBatchSize = syncBatchSize;
+        lastRoundId = committedRoundId;
+
+        channel = FileChannel.open(ledgerPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validLength = 0;
+        for (String line : readLines()) {
+            lastRoundId = Math.max(lastRoundId, parseRoundId(line));
+            validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+        if (validLength < channel.size()) {
+            channel.truncate(validLength);
+            channel.force(true);
+        }
+        channel.position(validLength);
+    }
+
+    /**
+     * Applies every recorded round to a player store. Rounds already applied to a player are
+     * skipped by the store.
+     * @param store the player store.
+     * @throws IOException if an I/O Exception occurs or the ledger is not of correct format.
+     */
+    public synchronized void replay(PlayerStore store) throws IOException {
+        for (String line : readLines()) {
+            long roundId = parseRoundId(line);
+            String[] lineParts = line.split("\\|");
+            for (int i = 2; i + 1 < lineParts.length; i += 2) {
+                store.applyDelta(roundId, parseLong(lineParts[i]),
+                        parseInt(lineParts[i + 1]));
+            }
+        }
+    }
+
+    public synchronized long getLastRoundId() {
+        return lastRoundId;
+    }
+
+    /**
+     * Appends the score changes of a round to the ledger. Rounds are synced to disk in batches.
+     * @param deltas the change in score during the round, by the id of each player.
+     * @return the id of the round.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public synchronized long recordRound(Map<Long, Integer> deltas) throws IOException {
+        long roundId = ++lastRoundId;
+        StringBuilder line = new StringBuilder();
+        line.append(roundId).append("|").append(System.currentTimeMillis());
+        for (Map.Entry<Long, Integer> entry : deltas.entrySet()) {
+            line.append("|").append(entry.getKey()).append("|").append(entry.getValue());
+        }
+        byte[] bytes = line.append("\n").toString().getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > buffer.remaining()) {
+            writeBuffer();
+        }
+        if (bytes.length > buffer.remaining()) {
+            channel.write(ByteBuffer.wrap(bytes));
+        } else {
+            buffer.put(bytes);
+        }
+        pendingRounds++;
+        if (pendingRounds >= syncBatchSize) {
+            sync();
+        }
+        return roundId;
+    }
+
+    /**
+     * Appends the score changes of a round to the ledger and applies them to a player store.
+     * Rounds in which no score changed are not recorded.
+     * @param store the player store, which must have every player of the round saved.
+     * @param deltas the change in score during the round, by player.
+     * @throws IOException if an I/O Exception occurs.
+     * @throws IllegalArgumentException if a player is not saved in the store.
+     */
+    public synchronized void recordRound(PlayerStore store, Map<Player, Integer> deltas)
+            throws IOException {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> deltasById = new LinkedHashMap<>();
+        for (Map.Entry<Player, Integer> entry : deltas.entrySet()) {
+            deltasById.put(store.getPlayerId(entry.getKey().getName()), entry.getValue());
+        }
+        long roundId = recordRound(deltasById);
+        for (Map.Entry<Long, Integer> entry : deltasById.entrySet()) {
+            store.applyDelta(roundId, entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Writes every recorded round to disk.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public synchronized void sync() throws IOException {
+        writeBuffer();
+        channel.force(false);
+        pendingRounds = 0;
+    }
+
+    /**
+     * Commits every recorded round to a player store and empties the ledger.
+     * @param store the player store, with every recorded round applied.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public synchronized void compact(PlayerStore store) throws IOException {
+        sync();
+        store.commit(lastRoundId);
+        channel.truncate(0);
+        channel.force(true);
+    }
+
+    /**
+     * Syncs every recorded round and closes the ledger.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads every complete line of the ledger, ignoring a trailing unterminated line.
+     */
+    private List<String> readLines() throws IOException {
+        long size = channel.size();
+        ByteBuffer bytes = ByteBuffer.allocate((int) size);
+        while (bytes.hasRemaining()) {
+            if (channel.read(bytes, bytes.position()) < 0) {
+                break;
+            }
+        }
+        String contents = new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>(List.of(contents.split("\n", -1)));
+        // the final element is either empty or an unterminated line
+        lines.removeLast();
+        return lines;
+    }
+
+    private static long parseRoundId(String line) throws IOException {
+        int end = line.indexOf('|');
+        return parseLong(end < 0 ? line : line.substring(0, end));
+    }
+
+    private static long parseLong(String value) throws IOException {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Ledger is not of correct format!");
+        }
+    }
+
+    private static int parseInt(String value) throws IOException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Ledger is not of correct format!");
+        }
+    }
+}
@@ -0,0 +1,639 @@
+package game.player.data;
+
+import game.player.Bot;
+import game.player.Player;
+import game.player.RealPlayer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The saved players, kept in a memory-mapped file of fixed-size records so that a large roster
+ * never has to be loaded onto the heap.
+ * <p>
+ * The records form an open-addressing hash table keyed by player name, so a player is found in
+ * O(1). The scores are also ranked on a concurrent {@link Leaderboard}, which holds only the name
+ * and score of each player and can be read without locking the store.
+ * <p>
+ * Each player is given an id when first saved, which is kept when the player is renamed and is
+ * never given to another player. The {@link PlayerLedger} records score changes by this id, so
+ * a round replayed after a rename still reaches the player, and a round replayed after a
+ * deletion is never applied to a new player of the same name. Each record also holds the id of
+ * the last ledger round applied to it, so rounds replayed after a crash are never applied twice.
+ */
+public class PlayerStore implements Closeable {
+    /**
+     * The file the players are saved to by default.
+     */
+    public static final String STORE_PATH = "players.store";
+
+    /**
+     * The maximum length of a player name, in UTF-8 bytes.
+     */
+    public static final int MAX_NAME_BYTES = 48;
+
+    static final int MAGIC = 0x4D4A5053;
+    static final int VERSION = 2;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 72;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // header layout
+    private static final int CAPACITY_OFFSET = 8;
+    private static final int SIZE_OFFSET = 12;
+    private static final int TOMBSTONES_OFFSET = 16;
+    private static final int ROUND_ID_OFFSET = 24;
+    private static final int NEXT_PLAYER_ID_OFFSET = 32;
+
+    // record layout
+    private static final int STATUS_OFFSET = 0;
+    private static final int BOT_OFFSET = 1;
+    private static final int SEAT_OFFSET = 2;
+    private static final int NAME_LENGTH_OFFSET = 3;
+    private static final int SCORE_OFFSET = 4;
+    private static final int RECORD_ROUND_ID_OFFSET = 8;
+    private static final int PLAYER_ID_OFFSET = 16;
+    private static final int NAME_OFFSET = 24;
+
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 2;
+
+    private static final Seat[] SEATS = Seat.values();
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer records;
+    private int capacity;
+    private int size;
+    private int tombstones;
+    // the id of the latest ledger round applied, given to new players so earlier rounds skip them
+    private long latestRoundId;
+    private long nextPlayerId;
+    // the slot of each live player by id, so ledger rounds are applied in O(1)
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final Leaderboard leaderboard;
+
+    /**
+     * Creates a player store over an open file.
+     * @param path the file of the store.
+     * @param channel the open file.
+     * @param leaderboard the leaderboard ranking the saved players.
+     */
+    private PlayerStore(Path path, FileChannel channel, Leaderboard leaderboard) {
+        this.path = path;
+        this.channel = channel;
+        this.leaderboard = leaderboard;
+    }
+
+    /**
+     * Opens a player store, creating an empty store if the file does not exist.
+     * @param path the file of the store.
+     * @return the opened store.
+     * @throws IOException if an I/O Exception occurs or the file is not of correct format.
+     */
+    public static PlayerStore open(Path path) throws IOException {
+        boolean exists = Files.exists(path);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        PlayerStore store = new PlayerStore(path, channel, new Leaderboard());
+        try {
+            if (exists) {
+                store.load();
+            } else {
+                store.initialize(INITIAL_CAPACITY, 0);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Checks whether a name fits in a player record.
+     * @param name the name to be checked.
+     * @return true iff the name is short enough to be saved, false otherwise.
+     */
+    public static boolean isValidName(String name) {
+        return name.getBytes(StandardCharsets.UTF_8).length <= MAX_NAME_BYTES;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Retrieves the leaderboard ranking the saved players, which is kept up to date by the store.
+     * @return the leaderboard.
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * Checks whether a player with the given name is saved.
+     * @param name the name of the player.
+     * @return true iff the player exists, false otherwise.
+     */
+    public synchronized boolean contains(String name) {
+        return findSlot(encode(name)) >= 0;
+    }
+
+    /**
+     * Retrieves a saved player.
+     * @param name the name of the player.
+     * @return a new player holding the saved details, or null if no such player exists.
+     */
+    public synchronized Player getPlayer(String name) {
+        int slot = findSlot(encode(name));
+        return slot < 0 ? null : readPlayer(slot);
+    }
+
+    /**
+     * Saves a new player.
+     * @param player the player to be saved.
+     * @throws IOException if an I/O Exception occurs while growing the store.
+     * @throws IllegalArgumentException if the name is too long or a player with the same name
+     * is already saved.
+     */
+    public synchronized void addPlayer(Player player) throws IOException {
+        byte[] name = encode(player.getName());
+        if (findSlot(name) >= 0) {
+            throw new IllegalArgumentException("A player with this name already exists!");
+        }
+        long playerId = nextPlayerId++;
+        records.putLong(NEXT_PLAYER_ID_OFFSET, nextPlayerId);
+        insertPlayer(player, name, playerId, latestRoundId);
+    }
+
+    /**
+     * Deletes a saved player.
+     * @param name the name of the player.
+     * @return true iff the player was found and deleted, false otherwise.
+     */
+    public synchronized boolean removePlayer(String name) {
+        int slot = findSlot(encode(name));
+        if (slot < 0) {
+            return false;
+        }
+        leaderboard.remove(name);
+        slotsById.remove(records.getLong(recordOffset(slot) + PLAYER_ID_OFFSET));
+        records.put(recordOffset(slot) + STATUS_OFFSET, DELETED);
+        size--;
+        tombstones++;
+        writeHeaderCounts();
+        return true;
+    }
+
+    /**
+     * Changes the name of a saved player, keeping the rest of their details and their id.
+     * @param name the current name of the player.
+     * @param newName the new name of the player.
+     * @throws IOException if an I/O Exception occurs while growing the store.
+     * @throws IllegalArgumentException if the player does not exist, or the new name is too long
+     * or already taken.
+     */
+    public synchronized void renamePlayer(String name, String newName) throws IOException {
+        if (name.equals(newName)) {
+            return;
+        }
+        int slot = findSlot(encode(name));
+        if (slot < 0) {
+            throw new IllegalArgumentException("Player not found!");
+        }
+        byte[] encodedNewName = encode(newName);
+        if (findSlot(encodedNewName) >= 0) {
+            throw new IllegalArgumentException("A player with this name already exists!");
+        }
+        Player player = readPlayer(slot);
+        long playerId = records.getLong(recordOffset(slot) + PLAYER_ID_OFFSET);
+        long roundId = records.getLong(recordOffset(slot) + RECORD_ROUND_ID_OFFSET);
+        removePlayer(name);
+        player.setName(newName);
+        insertPlayer(player, encodedNewName, playerId, roundId);
+    }
+
+    /**
+     * Retrieves the id of a saved player, which stays the same when the player is renamed.
+     * @param name the name of the player.
+     * @return the id of the player.
+     * @throws IllegalArgumentException if the player does not exist.
+     */
+    public synchronized long getPlayerId(String name) {
+        int slot = findSlot(encode(name));
+        if (slot < 0) {
+            throw new IllegalArgumentException("Player not found!");
+        }
+        return records.getLong(recordOffset(slot) + PLAYER_ID_OFFSET);
+    }
+
+    /**
+     * Sets the score of a saved player.
+     * @param name the name of the player.
+     * @param score the new score.
+     * @throws IllegalArgumentException if the player does not exist.
+     */
+    public synchronized void setScore(String name, int score) {
+        int slot = findSlot(encode(name));
+        if (slot < 0) {
+            throw new IllegalArgumentException("Player not found!");
+        }
+        updateScore(slot, score);
+    }
+
+    /**
+     * Sets the seat of a saved player.
+     * @param name the name of the player.
+     * @param seat the new seat, or null if the player has no seat.
+     * @throws IllegalArgumentException if the player does not exist.
+     */
+    public synchronized void setSeat(String name, Seat seat) {
+        int slot = findSlot(encode(name));
+        if (slot < 0) {
+            throw new IllegalArgumentException("Player not found!");
+        }
+        records.put(recordOffset(slot) + SEAT_OFFSET, (byte) (seat == null ? -1 : seat.ordinal()));
+    }
+
+    /**
+     * Applies a score change from a ledger round, unless the round has already been applied to
+     * the player. Deleted players are ignored.
+     * @param roundId the id of the round.
+     * @param playerId the id of the player.
+     * @param delta the change in score.
+     */
+    public synchronized void applyDelta(long roundId, long playerId, int delta) {
+        latestRoundId = Math.max(latestRoundId, roundId);
+        Integer slot = slotsById.get(playerId);
+        if (slot == null) {
+            return;
+        }
+        int offset = recordOffset(slot);
+        if (roundId > records.getLong(offset + RECORD_ROUND_ID_OFFSET)) {
+            updateScore(slot, getScore(slot) + delta);
+            records.putLong(offset + RECORD_ROUND_ID_OFFSET, roundId);
+        }
+    }
+
+    /**
+     * Retrieves the players with the highest scores.
+     * @param count the maximum number of players to retrieve.
+     * @return the players, from the highest to the lowest score.
+     */
+    public List<Player> getTopPlayers(int count) {
+        List<Player> players = new ArrayList<>();
+        for (Leaderboard.Entry entry : leaderboard.getTop(count)) {
+            Player player = getPlayer(entry.getName());
+            if (player != null) {
+                players.add(player);
+            }
+        }
+        return players;
+    }
+
+    /**
+     * Retrieves the rank of a saved player on the leaderboard.
+     * @param name the name of the player.
+     * @return 1 plus the number of players with a higher score, or 0 if no such player exists.
+     */
+    public int getRank(String name) {
+        return leaderboard.getRank(name);
+    }
+
+    /**
+     * Retrieves the id of the last ledger round included when the store was last committed.
+     * @return the round id.
+     */
+    public synchronized long getLastRoundId() {
+        return records.getLong(ROUND_ID_OFFSET);
+    }
+
+    /**
+     * Writes the store to disk, recording that every ledger round up to the given id is
+     * included, so the ledger can then be emptied.
+     * @param lastRoundId the id of the last recorded ledger round.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public synchronized void commit(long lastRoundId) throws IOException {
+        records.force();
+        records.putLong(ROUND_ID_OFFSET, Math.max(getLastRoundId(), lastRoundId));
+        records.force();
+    }
+
+    /**
+     * Deletes every saved player.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public synchronized void clear() throws IOException {
+        rehash(INITIAL_CAPACITY, false);
+        leaderboard.clear();
+    }
+
+    /**
+     * Saves every player of a snapshot written by earlier versions to "players.txt", i.e. the
+     * number of players, a line "type|name|seat|score" per player, and optionally a line
+     * "ledger|roundId" with the last ledger round included.
+     * @param snapshotPath the file of the snapshot.
+     * @throws IOException if an I/O Exception occurs or the file is not of correct format.
+     */
+    public synchronized void importSnapshot(Path snapshotPath) throws IOException {
+        long roundId = 0;
+        List<Player> players = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(snapshotPath, StandardCharsets.UTF_8)) {
+            String playerCount = reader.readLine();
+            int numPlayers = Integer.parseInt(playerCount);
+            for (int i = 0; i < numPlayers; i++) {
+                String playerLine = reader.readLine();
+                String[] lineParts = playerLine.split("\\|");
+                if (lineParts.length != 4) {
+                    throw new IOException("Player is not of correct format!");
+                }
+                String botStatus = lineParts[0];
+                String name = lineParts[1];
+                String seat = lineParts[2];
+                String scoreString = lineParts[3];
+                int score = Integer.parseInt(scoreString);
+                Player newPlayer;
+                if (botStatus.equalsIgnoreCase("bot")) {
+                    newPlayer = new Bot(name, score);
+                } else {
+                    newPlayer = new RealPlayer(name, score);
+                }
+                for (Seat existingSeat : Seat.values()) {
+                    if (existingSeat.getSeatNameEng().equals(seat)) {
+                        newPlayer.setSeat(existingSeat);
+                        break;
+                    }
+                }
+                players.add(newPlayer);
+            }
+            String roundLine = reader.readLine();
+            if (roundLine != null && roundLine.startsWith("ledger|")) {
+                roundId = Long.parseLong(roundLine.substring("ledger|".length()));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("File is not of correct format!");
+        }
+
+        records.putLong(ROUND_ID_OFFSET, Math.max(getLastRoundId(), roundId));
+        latestRoundId = Math.max(latestRoundId, roundId);
+        for (Player player : players) {
+            if (!contains(player.getName())) {
+                addPlayer(player);
+            }
+        }
+    }
+
+    /**
+     * Writes the store to disk and closes it.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        records.force();
+        channel.close();
+    }
+
+    private void load() throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            throw new IOException("Player store is not of correct format!");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        int storedCapacity = header.getInt(CAPACITY_OFFSET);
+        if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION
+                || Integer.bitCount(storedCapacity) != 1
+                || channel.size() != HEADER_SIZE + (long) storedCapacity * RECORD_SIZE) {
+            throw new IOException("Player store is not of correct format!");
+        }
+        map(storedCapacity);
+        size = records.getInt(SIZE_OFFSET);
+        tombstones = records.getInt(TOMBSTONES_OFFSET);
+        latestRoundId = getLastRoundId();
+        nextPlayerId = records.getLong(NEXT_PLAYER_ID_OFFSET);
+        for (int slot = 0; slot < capacity; slot++) {
+            if (records.get(recordOffset(slot) + STATUS_OFFSET) == LIVE) {
+                slotsById.put(records.getLong(recordOffset(slot) + PLAYER_ID_OFFSET), slot);
+                leaderboard.update(new String(readName(slot), StandardCharsets.UTF_8),
+                        getScore(slot));
+            }
+        }
+    }
+
+    private void initialize(int newCapacity, long lastRoundId) throws IOException {
+        channel.truncate(0);
+        map(newCapacity);
+        records.putInt(0, MAGIC);
+        records.putInt(Integer.BYTES, VERSION);
+        records.putInt(CAPACITY_OFFSET, newCapacity);
+        records.putLong(ROUND_ID_OFFSET, lastRoundId);
+        // ids are never reused, even once every player is deleted
+        records.putLong(NEXT_PLAYER_ID_OFFSET, nextPlayerId);
+        latestRoundId = Math.max(latestRoundId, lastRoundId);
+        slotsById.clear();
+        size = 0;
+        tombstones = 0;
+        writeHeaderCounts();
+    }
+
+    private void map(int newCapacity) throws IOException {
+        capacity = newCapacity;
+        records = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) newCapacity * RECORD_SIZE);
+    }
+
+    private void rehash(int newCapacity) throws IOException {
+        rehash(newCapacity, true);
+    }
+
+    /**
+     * Rebuilds the store in a new file, which then atomically replaces the current one.
+     * @param newCapacity the number of slots of the new store.
+     * @param keepPlayers whether the saved players are carried over.
+     */
+    private void rehash(int newCapacity, boolean keepPlayers) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        PlayerStore rebuilt = new PlayerStore(path, FileChannel.open(tempPath,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING), leaderboard);
+        rebuilt.latestRoundId = latestRoundId;
+        rebuilt.nextPlayerId = nextPlayerId;
+        rebuilt.initialize(newCapacity, getLastRoundId());
+        if (keepPlayers) {
+            for (int slot = 0; slot < capacity; slot++) {
+                int offset = recordOffset(slot);
+                if (records.get(offset + STATUS_OFFSET) == LIVE) {
+                    byte[] name = readName(slot);
+                    int newSlot = rebuilt.insertSlot(name);
+                    rebuilt.writeRecord(newSlot, name, records.get(offset + BOT_OFFSET) != 0,
+                            readSeat(slot), getScore(slot),
+                            records.getLong(offset + RECORD_ROUND_ID_OFFSET),
+                            records.getLong(offset + PLAYER_ID_OFFSET));
+                    rebuilt.size++;
+                }
+            }
+        }
+        rebuilt.writeHeaderCounts();
+        rebuilt.records.force();
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        channel.close();
+        channel = rebuilt.channel;
+        records = rebuilt.records;
+        capacity = rebuilt.capacity;
+        size = rebuilt.size;
+        tombstones = 0;
+        slotsById.clear();
+        slotsById.putAll(rebuilt.slotsById);
+    }
+
+    /**
+     * Saves a player under the given ids, growing the store if it is too full.
+     */
+    private void insertPlayer(Player player, byte[] name, long playerId, long roundId)
+            throws IOException {
+        if (size + tombstones + 1 > capacity / 2) {
+            // drop tombstones, and grow if the store itself is too full
+            rehash(size + 1 > capacity / 4 ? 2 * capacity : capacity);
+        }
+        int slot = insertSlot(name);
+        writeRecord(slot, name, player instanceof Bot, player.getSeat(), player.getScore(),
+                roundId, playerId);
+        leaderboard.update(player.getName(), player.getScore());
+        size++;
+        writeHeaderCounts();
+    }
+
+    /**
+     * Finds the slot of a live player.
+     * @return the slot, or -1 if no such player exists.
+     */
+    private int findSlot(byte[] name) {
+        int mask = capacity - 1;
+        for (int slot = hash(name) & mask; ; slot = (slot + 1) & mask) {
+            byte status = records.get(recordOffset(slot) + STATUS_OFFSET);
+            if (status == EMPTY) {
+                return -1;
+            } else if (status == LIVE && nameEquals(slot, name)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Finds the slot to insert a new player into, i.e. the first free slot along its probe.
+     */
+    private int insertSlot(byte[] name) {
+        int mask = capacity - 1;
+        for (int slot = hash(name) & mask; ; slot = (slot + 1) & mask) {
+            byte status = records.get(recordOffset(slot) + STATUS_OFFSET);
+            if (status == EMPTY) {
+                return slot;
+            } else if (status == DELETED) {
+                tombstones--;
+                return slot;
+            }
+        }
+    }
+
+    private void writeRecord(int slot, byte[] name, boolean bot, Seat seat, int score,
+                             long roundId, long playerId) {
+        int offset = recordOffset(slot);
+        records.put(offset + BOT_OFFSET, (byte) (bot ? 1 : 0));
+        records.put(offset + SEAT_OFFSET, (byte) (seat == null ? -1 : seat.ordinal()));
+        records.put(offset + NAME_LENGTH_OFFSET, (byte) name.length);
+        records.putInt(offset + SCORE_OFFSET, score);
+        records.putLong(offset + RECORD_ROUND_ID_OFFSET, roundId);
+        records.putLong(offset + PLAYER_ID_OFFSET, playerId);
+        records.put(offset + NAME_OFFSET, name);
+        records.put(offset + STATUS_OFFSET, LIVE);
+        slotsById.put(playerId, slot);
+    }
+
+    private void updateScore(int slot, int score) {
+        records.putInt(recordOffset(slot) + SCORE_OFFSET, score);
+        leaderboard.update(new String(readName(slot), StandardCharsets.UTF_8), score);
+    }
+
+    private void writeHeaderCounts() {
+        records.putInt(SIZE_OFFSET, size);
+        records.putInt(TOMBSTONES_OFFSET, tombstones);
+    }
+
+    private Player readPlayer(int slot) {
+        String name = new String(readName(slot), StandardCharsets.UTF_8);
+        int score = getScore(slot);
+        Player player = records.get(recordOffset(slot) + BOT_OFFSET) != 0
+                ? new Bot(name, score) : new RealPlayer(name, score);
+        player.setSeat(readSeat(slot));
+        return player;
+    }
+
+    private int getScore(int slot) {
+        return records.getInt(recordOffset(slot) + SCORE_OFFSET);
+    }
+
+    private Seat readSeat(int slot) {
+        byte seat = records.get(recordOffset(slot) + SEAT_OFFSET);
+        return seat < 0 ? null : SEATS[seat];
+    }
+
+    private byte[] readName(int slot) {
+        int offset = recordOffset(slot);
+        byte[] name = new byte[records.get(offset + NAME_LENGTH_OFFSET)];
+        records.get(offset + NAME_OFFSET, name);
+        return name;
+    }
+
+    private boolean nameEquals(int slot, byte[] name) {
+        int offset = recordOffset(slot);
+        if (records.get(offset + NAME_LENGTH_OFFSET) != name.length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (records.get(offset + NAME_OFFSET + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Player name is too long!");
+        }
+        return bytes;
+    }
+
+    private static int hash(byte[] name) {
+        // mix every bit of the hash, as similar names would otherwise share probe sequences
+        int hash = Arrays.hashCode(name);
+        hash = (hash ^ (hash >>> 16)) * 0x85EBCA6B;
+        hash = (hash ^ (hash >>> 13)) * 0xC2B2AE35;
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int recordOffset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+}
@@ -0,0 +1,103 @@
+package game.player.data;
+
+import game.player.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The score transfers of a round, applied atomically to every player taking part.
+ * <p>
+ * Transfers are collected with {@link #transfer(Player, Player, int)} and applied together by
+ * {@link #commit()}, which holds the lock of every participant while their scores change. The
+ * locks are always taken in order of player name, so settlements of tables sharing players never
+ * deadlock, and no other settlement or score snapshot sees part of a commit. Every committed
+ * change is kept, so the round can be journaled once it ends.
+ */
+public class Settlement {
+    private static final Comparator<Player> LOCK_ORDER = Comparator.comparing(Player::getName);
+
+    private final Map<Player, Integer> pendingDeltas = new LinkedHashMap<>();
+    private final Map<Player, Integer> committedDeltas = new LinkedHashMap<>();
+
+    /**
+     * Adds a transfer of score from one player to another, which is applied on the next commit.
+     * @param payer the player losing the score.
+     * @param payee the player gaining the score.
+     * @param amount the amount of score transferred.
+     * @return this settlement.
+     */
+    public Settlement transfer(Player payer, Player payee, int amount) {
+        pendingDeltas.merge(payer, -amount, Integer::sum);
+        pendingDeltas.merge(payee, amount, Integer::sum);
+        return this;
+    }
+
+    /**
+     * Applies every pending transfer at once.
+     * @return the change in score of each player.
+     */
+    public Map<Player, Integer> commit() {
+        Map<Player, Integer> deltas = new LinkedHashMap<>(pendingDeltas);
+        pendingDeltas.clear();
+        withLocks(deltas.keySet(), () -> {
+            for (Map.Entry<Player, Integer> entry : deltas.entrySet()) {
+                entry.getKey().addScore(entry.getValue());
+            }
+        });
+        for (Map.Entry<Player, Integer> entry : deltas.entrySet()) {
+            committedDeltas.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+        return deltas;
+    }
+
+    /**
+     * Retrieves the total change in score of each player over every commit, leaving out players
+     * whose score is unchanged.
+     * @return the change in score of each player, in the order they first took part.
+     */
+    public Map<Player, Integer> getCommittedDeltas() {
+        Map<Player, Integer> deltas = new LinkedHashMap<>();
+        for (Map.Entry<Player, Integer> entry : committedDeltas.entrySet()) {
+            if (entry.getValue() != 0) {
+                deltas.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Retrieves the scores of several players as they were at a single point between commits.
+     * @param players the players.
+     * @return the score of each player, in the given order.
+     */
+    public static Map<Player, Integer> getScores(Collection<Player> players) {
+        Map<Player, Integer> scores = new LinkedHashMap<>();
+        withLocks(players, () -> {
+            for (Player player : players) {
+                scores.put(player, player.getScore());
+            }
+        });
+        return scores;
+    }
+
+    private static void withLocks(Collection<Player> players, Runnable action) {
+        List<Player> lockOrder = new ArrayList<>(players);
+        lockOrder.sort(LOCK_ORDER);
+        withLocks(lockOrder, 0, action);
+    }
+
+    private static void withLocks(List<Player> lockOrder, int index, Runnable action) {
+        if (index == lockOrder.size()) {
+            action.run();
+            return;
+        }
+        synchronized (lockOrder.get(index)) {
+            withLocks(lockOrder, index + 1, action);
+        }
+    }
+}
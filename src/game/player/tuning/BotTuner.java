@@ -0,0 +1,199 @@
+package game.player.tuning;
+
+import game.core.Prompter;
+import game.player.data.BotProfile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Tunes bot profiles through large-scale self-play, using a (μ/μ, λ) evolution strategy with
+ * success-based step size adaptation. Candidates are scored by their win rate and average score
+ * against a table of opponents, and the run is checkpointed after every generation.
+ */
+public class BotTuner {
+    private static final double SCORE_SCALE = 100.0;
+    private static final double TARGET_SUCCESS_RATE = 0.2;
+    private static final double SIGMA_DAMPING = 2.0;
+    private static final double MIN_SIGMA = 0.05;
+    private static final double MAX_SIGMA = 5.0;
+    private static final double[] VECTOR_SCALE = BotProfile.getMutationScales();
+
+    private final Path checkpointPath;
+    private final long totalRounds;
+    private final int roundsPerCandidate;
+    private final int populationSize;
+    private final int parentCount;
+    private final double[] recombinationWeights;
+    private final BotProfile opponent;
+
+    /**
+     * Creates a bot tuner.
+     * @param checkpointPath the file the run is checkpointed to and resumed from.
+     * @param totalRounds the number of rounds to play before the run finishes.
+     * @param roundsPerCandidate the number of rounds each candidate is evaluated over.
+     * @param populationSize the number of candidates sampled per generation.
+     * @param opponent the profile of the bots every candidate plays against.
+     */
+    public BotTuner(Path checkpointPath, long totalRounds, int roundsPerCandidate,
+                    int populationSize, BotProfile opponent) {
+        this.checkpointPath = checkpointPath;
+        this.totalRounds = totalRounds;
+        this.roundsPerCandidate = roundsPerCandidate;
+        this.populationSize = populationSize;
+        this.parentCount = Math.max(1, populationSize / 2);
+        this.opponent = opponent;
+
+        // log-linear weights favouring the fittest parents
+        recombinationWeights = new double[parentCount];
+        double weightSum = 0;
+        for (int i = 0; i < parentCount; i++) {
+            recombinationWeights[i] = Math.log(parentCount + 0.5) - Math.log(i + 1);
+            weightSum += recombinationWeights[i];
+        }
+        for (int i = 0; i < parentCount; i++) {
+            recombinationWeights[i] /= weightSum;
+        }
+    }
+
+    /**
+     * Runs the tuner until the total number of rounds is reached, resuming from the checkpoint
+     * if one exists.
+     * @return the best profile found.
+     * @throws IOException if the checkpoint cannot be read or written.
+     * @throws InterruptedException if interrupted while evaluating candidates.
+     */
+    public BotProfile run() throws IOException, InterruptedException {
+        TuningCheckpoint checkpoint;
+        if (Files.exists(checkpointPath)) {
+            checkpoint = TuningCheckpoint.load(checkpointPath);
+            System.out.println("Resuming from generation " + checkpoint.getGeneration() + " ("
+                    + checkpoint.getRoundsPlayed() + " rounds played)");
+        } else {
+            double[] initial = BotProfile.DEFAULT.toVector();
+            checkpoint = new TuningCheckpoint(new Random().nextLong(), 0, 0, 1.0, initial,
+                    initial, Double.NEGATIVE_INFINITY);
+        }
+
+        Prompter.setOutputEnabled(false);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Runtime.getRuntime().availableProcessors());
+        try {
+            SelfPlayEvaluator evaluator = new SelfPlayEvaluator(executor);
+            while (checkpoint.getRoundsPlayed() < totalRounds) {
+                checkpoint = runGeneration(evaluator, checkpoint);
+                checkpoint.save(checkpointPath);
+                System.out.printf("Generation %d: rounds=%d, sigma=%.4f, bestFitness=%.4f%n",
+                        checkpoint.getGeneration(), checkpoint.getRoundsPlayed(),
+                        checkpoint.getSigma(), checkpoint.getBestFitness());
+            }
+        } finally {
+            executor.shutdownNow();
+            Prompter.setOutputEnabled(true);
+        }
+        return BotProfile.fromVector(checkpoint.getBest(), BotProfile.DEFAULT.getPauseMillis());
+    }
+
+    /**
+     * Samples, evaluates and recombines one generation of candidates.
+     * @param evaluator the evaluator used to play candidate rounds.
+     * @param checkpoint the state at the start of the generation.
+     * @return the state at the end of the generation.
+     * @throws InterruptedException if interrupted while evaluating candidates.
+     */
+    private TuningCheckpoint runGeneration(SelfPlayEvaluator evaluator,
+                                           TuningCheckpoint checkpoint)
+            throws InterruptedException {
+        long generation = checkpoint.getGeneration();
+        // every candidate in a generation is dealt the same walls to reduce evaluation noise
+        long roundSeed = checkpoint.getSeed() ^ (generation * 0x9E3779B97F4A7C15L);
+        Random random = new Random(roundSeed);
+        double sigma = checkpoint.getSigma();
+        double[] mean = checkpoint.getMean();
+
+        double meanFitness = evaluate(evaluator, mean, roundSeed);
+        double[][] candidates = new double[populationSize][];
+        double[] fitness = new double[populationSize];
+        int successes = 0;
+        for (int i = 0; i < populationSize; i++) {
+            candidates[i] = new double[mean.length];
+            for (int j = 0; j < mean.length; j++) {
+                candidates[i][j] = mean[j] + sigma * VECTOR_SCALE[j] * random.nextGaussian();
+            }
+            fitness[i] = evaluate(evaluator, candidates[i], roundSeed);
+            if (fitness[i] > meanFitness) {
+                successes++;
+            }
+        }
+
+        Integer[] ranking = IntStream.range(0, populationSize).boxed().toArray(Integer[]::new);
+        Arrays.sort(ranking, Comparator.comparingDouble((Integer i) -> fitness[i]).reversed());
+
+        double[] newMean = new double[mean.length];
+        for (int i = 0; i < parentCount; i++) {
+            double[] parent = candidates[ranking[i]];
+            for (int j = 0; j < mean.length; j++) {
+                newMean[j] += recombinationWeights[i] * parent[j];
+            }
+        }
+
+        double successRate = (double) successes / populationSize;
+        double newSigma = sigma * Math.exp((successRate - TARGET_SUCCESS_RATE)
+                / (1 - TARGET_SUCCESS_RATE) / SIGMA_DAMPING);
+        newSigma = Math.max(MIN_SIGMA, Math.min(MAX_SIGMA, newSigma));
+
+        double[] best = checkpoint.getBest();
+        double bestFitness = checkpoint.getBestFitness();
+        if (meanFitness > bestFitness) {
+            best = mean;
+            bestFitness = meanFitness;
+        }
+        if (fitness[ranking[0]] > bestFitness) {
+            best = candidates[ranking[0]];
+            bestFitness = fitness[ranking[0]];
+        }
+
+        long roundsPlayed = checkpoint.getRoundsPlayed()
+                + (long) (populationSize + 1) * roundsPerCandidate;
+        return new TuningCheckpoint(checkpoint.getSeed(), generation + 1, roundsPlayed,
+                newSigma, newMean, best, bestFitness);
+    }
+
+    /**
+     * Evaluates a profile vector against the opponent profile.
+     * @return the fitness, combining win rate and average score.
+     */
+    private double evaluate(SelfPlayEvaluator evaluator, double[] vector, long roundSeed)
+            throws InterruptedException {
+        BotProfile candidate = BotProfile.fromVector(vector, 0);
+        SelfPlayResult result = evaluator.evaluate(candidate, opponent, roundsPerCandidate,
+                roundSeed);
+        return result.getWinRate() + result.getAverageScore() / SCORE_SCALE;
+    }
+
+    /**
+     * Runs the tuner from the command line.
+     * @param args the checkpoint file, total rounds, rounds per candidate and population size,
+     *             all optional.
+     * @throws Exception if the tuner fails.
+     */
+    public static void main(String[] args) throws Exception {
+        Path checkpointPath = Path.of(args.length > 0 ? args[0] : "tuning.txt");
+        long totalRounds = args.length > 1 ? Long.parseLong(args[1]) : 10_000_000L;
+        int roundsPerCandidate = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+        int populationSize = args.length > 3 ? Integer.parseInt(args[3]) : 12;
+
+        BotTuner tuner = new BotTuner(checkpointPath, totalRounds, roundsPerCandidate,
+                populationSize, BotProfile.DEFAULT);
+        BotProfile best = tuner.run();
+        System.out.println("Best profile: " + best);
+        System.out.println(best.toStringSave());
+    }
+}
@@ -0,0 +1,116 @@
+package game.player.tuning;
+
+import game.core.EmptyPileException;
+import game.core.InvalidKongException;
+import game.core.TurnManager;
+import game.core.turn.data.TurnEnder;
+import game.player.Bot;
+import game.player.Player;
+import game.player.data.BotProfile;
+import game.player.data.Seat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Plays bot-only rounds in parallel to measure how a challenger profile performs against a
+ * table of opponent bots.
+ */
+public class SelfPlayEvaluator {
+    private static final int ROUNDS_PER_TASK = 32;
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates a self-play evaluator.
+     * @param executor the executor that rounds are played on.
+     */
+    public SelfPlayEvaluator(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Plays rounds with one challenger bot and three opponent bots. The challenger's seat and
+     * the Zhong seat rotate between rounds so that every seat is played equally.
+     * @param challenger the profile being evaluated.
+     * @param opponent the profile used by the other three bots.
+     * @param numRounds the number of rounds to play.
+     * @param seed the seed for shuffling tiles, so that candidates evaluated with the same seed
+     *             are dealt the same walls.
+     * @return the aggregated result from the challenger's perspective.
+     * @throws InterruptedException if interrupted while waiting for rounds to finish.
+     */
+    public SelfPlayResult evaluate(BotProfile challenger, BotProfile opponent, int numRounds,
+                                   long seed) throws InterruptedException {
+        List<Future<SelfPlayResult>> futures = new ArrayList<>();
+        for (int start = 0; start < numRounds; start += ROUNDS_PER_TASK) {
+            int firstRound = start;
+            int lastRound = Math.min(numRounds, start + ROUNDS_PER_TASK);
+            futures.add(executor.submit(() -> playRounds(challenger, opponent, firstRound,
+                    lastRound, seed)));
+        }
+
+        SelfPlayResult result = new SelfPlayResult(0, 0, 0, 0);
+        for (Future<SelfPlayResult> future : futures) {
+            try {
+                result = result.merge(future.get());
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Self-play task failed!", e.getCause());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Plays a contiguous range of rounds on the calling thread.
+     * @param challenger the profile being evaluated.
+     * @param opponent the profile used by the other three bots.
+     * @param firstRound the index of the first round to play, inclusive.
+     * @param lastRound the index of the last round to play, exclusive.
+     * @param seed the seed for shuffling tiles.
+     * @return the aggregated result of the rounds.
+     */
+    private SelfPlayResult playRounds(BotProfile challenger, BotProfile opponent,
+                                      int firstRound, int lastRound, long seed) {
+        Bot challengerBot = new Bot("Challenger", 0, challenger.withPauseMillis(0));
+        List<Player> bots = List.of(challengerBot,
+                new Bot("Opponent 1", 0, opponent.withPauseMillis(0)),
+                new Bot("Opponent 2", 0, opponent.withPauseMillis(0)),
+                new Bot("Opponent 3", 0, opponent.withPauseMillis(0)));
+        Seat[] seats = Seat.values();
+
+        long rounds = 0;
+        long wins = 0;
+        long totalScore = 0;
+        long failedRounds = 0;
+        for (int round = firstRound; round < lastRound; round++) {
+            for (int i = 0; i < bots.size(); i++) {
+                Player bot = bots.get(i);
+                bot.clearHand();
+                bot.setScore(0);
+                bot.setSeat(seats[(i + round) % seats.length]);
+            }
+            Seat roundSeat = seats[(round / seats.length) % seats.length];
+            TurnManager turnManager = new TurnManager(new ArrayList<>(bots),
+                    new Random(seed * 31 + round));
+            try {
+                TurnEnder turnEnder = turnManager.startRound(roundSeat);
+                turnManager.settleWinnings(turnEnder, Seat.EAST, roundSeat, 0);
+                turnManager.settlePulls();
+            } catch (InvalidKongException | EmptyPileException e) {
+                failedRounds++;
+                continue;
+            }
+            rounds++;
+            totalScore += challengerBot.getScore();
+            if (turnManager.getWinners().contains(challengerBot)) {
+                wins++;
+            }
+        }
+        return new SelfPlayResult(rounds, wins, totalScore, failedRounds);
+    }
+}
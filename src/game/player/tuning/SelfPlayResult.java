@@ -0,0 +1,73 @@
+package game.player.tuning;
+
+/**
+ * The aggregated outcome of a batch of self-play rounds, from the challenger's perspective.
+ */
+public class SelfPlayResult {
+    private final long rounds;
+    private final long wins;
+    private final long totalScore;
+    private final long failedRounds;
+
+    /**
+     * Creates a self-play result.
+     * @param rounds the number of rounds that completed.
+     * @param wins the number of rounds won by the challenger.
+     * @param totalScore the challenger's net score summed across all completed rounds.
+     * @param failedRounds the number of rounds abandoned after an invalid Kong or an empty
+     *                     pile, which are excluded.
+     */
+    public SelfPlayResult(long rounds, long wins, long totalScore, long failedRounds) {
+        this.rounds = rounds;
+        this.wins = wins;
+        this.totalScore = totalScore;
+        this.failedRounds = failedRounds;
+    }
+
+    /**
+     * Combines this result with another.
+     * @param other the other result.
+     * @return the combined result.
+     */
+    public SelfPlayResult merge(SelfPlayResult other) {
+        return new SelfPlayResult(rounds + other.rounds, wins + other.wins,
+                totalScore + other.totalScore, failedRounds + other.failedRounds);
+    }
+
+    public long getRounds() {
+        return rounds;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public long getFailedRounds() {
+        return failedRounds;
+    }
+
+    /**
+     * Retrieves the fraction of completed rounds won by the challenger.
+     * @return the win rate, or 0 if no rounds completed.
+     */
+    public double getWinRate() {
+        return rounds == 0 ? 0 : (double) wins / rounds;
+    }
+
+    /**
+     * Retrieves the challenger's average net score per completed round.
+     * @return the average score, or 0 if no rounds completed.
+     */
+    public double getAverageScore() {
+        return rounds == 0 ? 0 : (double) totalScore / rounds;
+    }
+
+    public String toString() {
+        return String.format("rounds=%d, winRate=%.4f, averageScore=%.3f, failed=%d",
+                rounds, getWinRate(), getAverageScore(), failedRounds);
+    }
+}
@@ -0,0 +1,137 @@
+package game.player.tuning;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The state of a tuning run, saved after every generation so that a run can be resumed.
+ */
+public class TuningCheckpoint {
+    private final long seed;
+    private final long generation;
+    private final long roundsPlayed;
+    private final double sigma;
+    private final double[] mean;
+    private final double[] best;
+    private final double bestFitness;
+
+    /**
+     * Creates a tuning checkpoint.
+     * @param seed the seed of the tuning run.
+     * @param generation the number of generations completed.
+     * @param roundsPlayed the number of rounds played across all generations.
+     * @param sigma the current mutation step size.
+     * @param mean the current mean profile vector.
+     * @param best the best profile vector found so far.
+     * @param bestFitness the fitness of the best profile vector.
+     */
+    public TuningCheckpoint(long seed, long generation, long roundsPlayed, double sigma,
+                            double[] mean, double[] best, double bestFitness) {
+        this.seed = seed;
+        this.generation = generation;
+        this.roundsPlayed = roundsPlayed;
+        this.sigma = sigma;
+        this.mean = mean.clone();
+        this.best = best.clone();
+        this.bestFitness = bestFitness;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public long getRoundsPlayed() {
+        return roundsPlayed;
+    }
+
+    public double getSigma() {
+        return sigma;
+    }
+
+    public double[] getMean() {
+        return mean.clone();
+    }
+
+    public double[] getBest() {
+        return best.clone();
+    }
+
+    public double getBestFitness() {
+        return bestFitness;
+    }
+
+    /**
+     * Saves the checkpoint. The file is written beside the target and then moved over it, so a
+     * crash mid-write leaves the previous checkpoint intact.
+     * @param path the file to save to.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public void save(Path path) throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempPath)) {
+            writer.write("seed|" + seed + "\n");
+            writer.write("generation|" + generation + "\n");
+            writer.write("rounds|" + roundsPlayed + "\n");
+            writer.write("sigma|" + sigma + "\n");
+            writer.write("mean|" + vectorToString(mean) + "\n");
+            writer.write("best|" + vectorToString(best) + "\n");
+            writer.write("bestFitness|" + bestFitness + "\n");
+        }
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a checkpoint saved by {@link #save(Path)}.
+     * @param path the file to load from.
+     * @return the loaded checkpoint.
+     * @throws IOException if an I/O Exception occurs or the file is not of correct format.
+     */
+    public static TuningCheckpoint load(Path path) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf('|');
+                if (separator < 0) {
+                    throw new IOException("Checkpoint is not of correct format!");
+                }
+                values.put(line.substring(0, separator), line.substring(separator + 1));
+            }
+        }
+        try {
+            return new TuningCheckpoint(Long.parseLong(values.get("seed")),
+                    Long.parseLong(values.get("generation")),
+                    Long.parseLong(values.get("rounds")),
+                    Double.parseDouble(values.get("sigma")),
+                    stringToVector(values.get("mean")),
+                    stringToVector(values.get("best")),
+                    Double.parseDouble(values.get("bestFitness")));
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IOException("Checkpoint is not of correct format!");
+        }
+    }
+
+    private static String vectorToString(double[] vector) {
+        StringBuilder output = new StringBuilder();
+        for (double value : vector) {
+            output.append(value).append("|");
+        }
+        return output.substring(0, output.length() - 1);
+    }
+
+    private static double[] stringToVector(String line) {
+        return Arrays.stream(line.split("\\|")).mapToDouble(Double::parseDouble).toArray();
+    }
+}
@@ -0,0 +1,356 @@
+package game.server;
+
+import game.board.BoardSnapshot;
+import game.core.Prompter;
+import game.core.metrics.Metrics;
+import game.player.Bot;
+import game.player.Player;
+import game.player.RealPlayer;
+import game.player.data.BotProfile;
+import game.player.data.PlayerLedger;
+import game.player.data.PlayerStore;
+import game.server.protocol.Frame;
+import game.server.protocol.FrameChannel;
+import game.server.protocol.MessageType;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.AsynchronousServerSocketChannel;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A server hosting many tables at once, each played on its own virtual thread.
+ * <p>
+ * Real players connect from a {@link RemoteClient} and play through the binary protocol of
+ * {@link game.server.protocol.Frame}, so a table waiting on a player only parks its virtual
+ * thread. Players wait in the lobby until enough have joined to
+ * fill a table, and the remaining seats are taken by bots playing in-process. A client may instead
+ * ask to spectate a running table, and is then sent the masked board after every change.
+ * <p>
+ * Real players keep their score between tables: each is saved to the {@link PlayerStore} when
+ * first joining, and their score changes are recorded in the {@link PlayerLedger} after every
+ * round. Bots are not saved, as the same bot plays at many tables at once.
+ */
+public class GameServer implements Closeable {
+    /**
+     * The port the server listens on by default.
+     */
+    public static final int DEFAULT_PORT = 7016;
+
+    private static final int PLAYERS_PER_TABLE = 4;
+
+    private final AsynchronousServerSocketChannel serverChannel;
+    private final int humansPerTable;
+    private final int roundsPerTable;
+    private final BotProfile botProfile;
+    private final PlayerStore playerStore;
+    private final PlayerLedger ledger;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<RemotePlayer> lobby = new ArrayList<>();
+    private final Map<String, FrameChannel> connections = new ConcurrentHashMap<>();
+    private final Map<Integer, GameTable> tables = new ConcurrentHashMap<>();
+    private final AtomicInteger tableCount = new AtomicInteger();
+    private final AtomicInteger activeTables = new AtomicInteger();
+
+    /**
+     * Creates a server listening on a port.
+     * @param port the port to listen on, or 0 for any free port.
+     * @param humansPerTable the number of real players seated at each table.
+     * @param roundsPerTable the number of rounds each table plays.
+     * @param botProfile the profile of the bots filling the remaining seats.
+     * @param playerStore the player store real players are saved to.
+     * @param ledger the player ledger the score changes of real players are recorded in.
+     * @throws IOException if the port cannot be listened on.
+     * @throws IllegalArgumentException if the number of real players per table is not between
+     * 1 and 4.
+     */
+    public GameServer(int port, int humansPerTable, int roundsPerTable, BotProfile botProfile,
+                      PlayerStore playerStore, PlayerLedger ledger) throws IOException {
+        if (humansPerTable < 1 || humansPerTable > PLAYERS_PER_TABLE) {
+            throw new IllegalArgumentException("Real players per table must be between 1 and "
+                    + PLAYERS_PER_TABLE + "!");
+        }
+        this.humansPerTable = humansPerTable;
+        this.roundsPerTable = roundsPerTable;
+        this.botProfile = botProfile;
+        this.playerStore = playerStore;
+        this.ledger = ledger;
+        serverChannel = AsynchronousServerSocketChannel.open()
+                .bind(new InetSocketAddress(port));
+    }
+
+    /**
+     * Retrieves the port the server is listening on.
+     * @return the port.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Retrieves the number of tables that are still playing.
+     * @return the number of active tables.
+     */
+    public int getActiveTables() {
+        return activeTables.get();
+    }
+
+    /**
+     * Accepts connections until the server is closed. Each connection joins the lobby on its
+     * own virtual thread.
+     * @throws IOException if an I/O Exception occurs while accepting a connection.
+     */
+    public void serve() throws IOException {
+        while (serverChannel.isOpen()) {
+            AsynchronousSocketChannel channel;
+            try {
+                channel = serverChannel.accept().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while accepting connections!");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof AsynchronousCloseException) {
+                    // the server was closed
+                    return;
+                }
+                throw new IOException(e.getCause());
+            }
+            FrameChannel frameChannel = new FrameChannel(channel);
+            executor.execute(() -> join(frameChannel));
+        }
+    }
+
+    /**
+     * Starts a table with the given real players, filling the remaining seats with bots.
+     * @param humans the real players of the table, each saved in the player store.
+     * @return the future completing when the table has finished.
+     * @throws IllegalArgumentException if there are more than four players.
+     */
+    public Future<?> startTable(List<? extends Player> humans) {
+        if (humans.size() > PLAYERS_PER_TABLE) {
+            throw new IllegalArgumentException("Incorrect amount of players!");
+        }
+        int tableId = tableCount.incrementAndGet();
+        List<Player> players = new ArrayList<>(humans);
+        for (int i = 1; players.size() < PLAYERS_PER_TABLE; i++) {
+            players.add(new Bot(getBotName(i), 0, botProfile));
+        }
+        GameTable table = new GameTable(tableId, players, roundsPerTable, new Random(),
+                playerStore, ledger);
+        tables.put(tableId, table);
+        activeTables.incrementAndGet();
+        return executor.submit(() -> {
+            try {
+                table.run();
+            } finally {
+                tables.remove(tableId);
+                activeTables.decrementAndGet();
+                for (Player player : humans) {
+                    disconnect(player.getName());
+                }
+            }
+        });
+    }
+
+    /**
+     * Retrieves a table that is still playing.
+     * @param tableId the id of the table.
+     * @return the table, or null if no such table is playing.
+     */
+    public GameTable getTable(int tableId) {
+        return tables.get(tableId);
+    }
+
+    /**
+     * Stops accepting connections and ends every table.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (String name : connections.keySet()) {
+            disconnect(name);
+        }
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reads the name a new connection asks to play under and adds the player to the lobby,
+     * starting a table once the lobby is full. Connections asking for an invalid or taken name
+     * are told why and closed. Connections asking to spectate a table are handed to the table
+     * instead.
+     */
+    private void join(FrameChannel channel) {
+        try {
+            Frame hello = channel.receive();
+            if (hello.getType() == MessageType.WATCH) {
+                watch(channel, hello.readWatch());
+                return;
+            }
+            String name = hello.readName().trim();
+            String error = validateName(name);
+            if (error == null && connections.putIfAbsent(name, channel) != null) {
+                error = "Name already taken!";
+            }
+            if (error != null) {
+                channel.send(Frame.message(error));
+                closeQuietly(channel);
+                return;
+            }
+            RemotePlayer player = new RemotePlayer(name, loadScore(name), channel);
+            player.printLine("Waiting for players...");
+
+            List<RemotePlayer> humans = null;
+            synchronized (lobby) {
+                lobby.add(player);
+                if (lobby.size() >= humansPerTable) {
+                    humans = new ArrayList<>(lobby);
+                    lobby.clear();
+                }
+            }
+            if (humans != null) {
+                startTable(humans);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            closeQuietly(channel);
+        }
+    }
+
+    /**
+     * Retrieves the saved score of a real player, saving the player with a score of 0 if they
+     * have not played before.
+     */
+    private int loadScore(String name) throws IOException {
+        Player savedPlayer = playerStore.getPlayer(name);
+        if (savedPlayer == null) {
+            playerStore.addPlayer(new RealPlayer(name, 0));
+            return 0;
+        }
+        return savedPlayer.getScore();
+    }
+
+    /**
+     * Subscribes a connection to the snapshots of a table, closing it once the table ends or the
+     * spectator is dropped.
+     */
+    private void watch(FrameChannel channel, int tableId) throws IOException {
+        GameTable table = tables.get(tableId);
+        if (table == null) {
+            channel.send(Frame.message("No table " + tableId + " is playing!"));
+            closeQuietly(channel);
+            return;
+        }
+        table.getSpectators().subscribe(new SpectatorChannel.Sink() {
+            @Override
+            public void send(BoardSnapshot snapshot) throws IOException {
+                channel.send(Frame.message(snapshot.toString()));
+            }
+
+            @Override
+            public void close() {
+                closeQuietly(channel);
+            }
+        });
+    }
+
+    /**
+     * Checks whether a player may use a name.
+     * @return the reason the name cannot be used, or null if it can be used.
+     */
+    private static String validateName(String name) {
+        if (name.length() < 2) {
+            return "Name must have at least 2 characters!";
+        } else if (name.contains("|")) {
+            return "Name cannot have the '|' character!";
+        } else if (!PlayerStore.isValidName(name)) {
+            return "Name cannot be longer than " + PlayerStore.MAX_NAME_BYTES + " bytes!";
+        } else if (isBotName(name)) {
+            return "Name already taken!";
+        }
+        return null;
+    }
+
+    private void disconnect(String name) {
+        FrameChannel channel = connections.remove(name);
+        if (channel != null) {
+            closeQuietly(channel);
+        }
+    }
+
+    private static void closeQuietly(FrameChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // the connection is being dropped either way
+        }
+    }
+
+    private static String getBotName(int index) {
+        return "Bot " + index;
+    }
+
+    private static boolean isBotName(String name) {
+        for (int i = 1; i <= PLAYERS_PER_TABLE; i++) {
+            if (getBotName(i).equalsIgnoreCase(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the game server, with game output to the console disabled. The scores of real players
+     * are saved to the same player store as local games, which must not be played while the
+     * server is running.
+     * @param args the port, the number of real players per table, the number of rounds per
+     *             table, the number of bot-only tables to start with and the port to serve
+     *             metrics on, all optional. Metrics are only recorded if their port is given.
+     * @throws IOException if a port cannot be listened on.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int humansPerTable = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int roundsPerTable = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int botTables = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        Prompter.setOutputEnabled(false);
+        if (args.length > 4) {
+            Metrics.setEnabled(true);
+            HttpServer metricsServer = Metrics.serve(Integer.parseInt(args[4]));
+            System.out.println("Serving metrics on port "
+                    + metricsServer.getAddress().getPort());
+        }
+        try (PlayerStore playerStore = PlayerStore.open(Path.of(PlayerStore.STORE_PATH));
+             PlayerLedger ledger = new PlayerLedger(Path.of(PlayerLedger.LEDGER_PATH),
+                     playerStore.getLastRoundId(), 1)) {
+            ledger.replay(playerStore);
+            try (GameServer server = new GameServer(port, humansPerTable, roundsPerTable,
+                    BotProfile.DEFAULT, playerStore, ledger)) {
+                for (int i = 0; i < botTables; i++) {
+                    server.startTable(List.of());
+                }
+                System.out.println("Game server listening on port " + server.getPort());
+                server.serve();
+            }
+            ledger.compact(playerStore);
+        }
+    }
+}
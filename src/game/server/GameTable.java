@@ -0,0 +1,200 @@
+package game.server;
+
+import game.core.EmptyPileException;
+import game.core.InvalidKongException;
+import game.core.TurnManager;
+import game.core.turn.data.TurnEnder;
+import game.player.Player;
+import game.player.data.PlayerLedger;
+import game.player.data.PlayerStore;
+import game.player.data.Seat;
+import game.player.data.Settlement;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * A table of four players playing a fixed number of rounds, run on its own thread by the
+ * {@link GameServer}.
+ * <p>
+ * Rounds are settled as in a local game: winners pull (拉莊) the players they win off until another
+ * player wins or the table ends, and the Zhong player stays on and pays extra on self-draws. The
+ * score changes of remote players are recorded in the player ledger after each round, while bots
+ * only keep their score for the table. Remote players are sent the result of each round, and the
+ * table ends early if a remote player disconnects. A player that takes longer than 30 seconds to
+ * claim a discarded tile is treated as declining. Every change to the board is published to the
+ * spectators of the table.
+ */
+public class GameTable implements Runnable {
+    /**
+     * The number of snapshots in a row a spectator may miss before being dropped.
+     */
+    private static final int MAX_SKIPPED_SNAPSHOTS = 256;
+    /**
+     * How long the players have to claim a discarded tile before they are treated as declining.
+     */
+    private static final Duration CLAIM_TIMEOUT = Duration.ofSeconds(30);
+
+    private final int tableId;
+    private final List<Player> players;
+    private final int numRounds;
+    private final Random random;
+    private final PlayerStore playerStore;
+    private final PlayerLedger ledger;
+    private final SpectatorChannel spectators = new SpectatorChannel(MAX_SKIPPED_SNAPSHOTS);
+
+    /**
+     * Creates a table, seating the players in the given order.
+     * @param tableId the id of the table.
+     * @param players the four players of the table.
+     * @param numRounds the number of rounds to play.
+     * @param random the source of randomness used to shuffle the tiles.
+     * @param playerStore the player store, with every remote player of the table saved.
+     * @param ledger the player ledger the score changes of remote players are recorded in.
+     * @throws IllegalArgumentException if there are not four players.
+     */
+    public GameTable(int tableId, List<Player> players, int numRounds, Random random,
+                     PlayerStore playerStore, PlayerLedger ledger) {
+        if (players.size() != 4) {
+            throw new IllegalArgumentException("Incorrect amount of players!");
+        }
+        this.tableId = tableId;
+        this.players = new ArrayList<>(players);
+        this.numRounds = numRounds;
+        this.random = random;
+        this.playerStore = playerStore;
+        this.ledger = ledger;
+        Seat[] seats = Seat.values();
+        for (int i = 0; i < seats.length; i++) {
+            this.players.get(i).setSeat(seats[i]);
+        }
+    }
+
+    public int getTableId() {
+        return tableId;
+    }
+
+    public List<Player> getPlayers() {
+        return List.copyOf(players);
+    }
+
+    public SpectatorChannel getSpectators() {
+        return spectators;
+    }
+
+    /**
+     * Plays every round of the table.
+     */
+    @Override
+    public void run() {
+        Seat[] seats = Seat.values();
+        TurnManager turnManager = new TurnManager(new ArrayList<>(players), random);
+        turnManager.setSnapshotPublisher(spectators::publish);
+        turnManager.setClaimTimeout(CLAIM_TIMEOUT);
+        broadcast("Table " + tableId + ": " + players);
+        Seat gameSeat = Seat.EAST;
+        Seat roundSeat = Seat.EAST;
+        int lumZhongNum = 0;
+        try {
+            for (int round = 0; round < numRounds; round++) {
+                TurnEnder turnEnder;
+                try {
+                    turnEnder = turnManager.startRound(roundSeat);
+                } catch (EmptyPileException e) {
+                    turnEnder = TurnEnder.END_GAME_DRAW;
+                }
+                turnManager.settleWinnings(turnEnder, gameSeat, roundSeat, lumZhongNum);
+                recordRound(turnManager.getSettlement());
+                broadcastRound(round, turnManager, turnEnder);
+                for (Player player : players) {
+                    player.clearHand();
+                }
+
+                // the Zhong player stays on after a draw or a win
+                if (turnManager.keepsZhong(turnEnder, roundSeat)) {
+                    lumZhongNum++;
+                } else {
+                    lumZhongNum = 0;
+                    roundSeat = seats[(roundSeat.ordinal() + 1) % seats.length];
+                    if (roundSeat == Seat.EAST) {
+                        gameSeat = seats[(gameSeat.ordinal() + 1) % seats.length];
+                    }
+                }
+            }
+            recordRound(turnManager.settlePulls());
+            broadcastScores(new StringBuilder("Game over!"));
+        } catch (InvalidKongException e) {
+            broadcast("Game crashed! Error: " + e);
+        } catch (UncheckedIOException e) {
+            // a remote player's connection failed
+            broadcast("A player disconnected, ending the game!");
+        } catch (IOException e) {
+            broadcast("Scores could not be saved, ending the game! Error: " + e);
+        } finally {
+            // pulls still held when the table ends early are paid all the same
+            try {
+                recordRound(turnManager.settlePulls());
+            } catch (IOException e) {
+                broadcast("Scores could not be saved! Error: " + e);
+            }
+            spectators.close();
+        }
+    }
+
+    /**
+     * Records the score changes of the remote players in a settlement to the player ledger.
+     * @param settlement the settlement of the round.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    private void recordRound(Settlement settlement) throws IOException {
+        Map<Player, Integer> deltas = new LinkedHashMap<>(settlement.getCommittedDeltas());
+        deltas.keySet().removeIf(player -> !(player instanceof RemotePlayer));
+        ledger.recordRound(playerStore, deltas);
+    }
+
+    private void broadcastRound(int round, TurnManager turnManager, TurnEnder turnEnder) {
+        StringBuilder result = new StringBuilder("Round " + (round + 1) + ": ");
+        if (turnEnder == TurnEnder.END_GAME_WIN) {
+            result.append(turnManager.getWinners()).append(" won off ")
+                    .append(turnManager.getCurrentPlayer()).append("!");
+        } else if (turnEnder == TurnEnder.END_GAME_WIN_SELFDRAW) {
+            result.append(turnManager.getCurrentPlayer()).append(" won off a self-draw!");
+        } else {
+            result.append("Game ended in a tie!");
+        }
+        for (Map.Entry<Player, Map<Player, Integer>> pull : turnManager.getPulls().entrySet()) {
+            for (Map.Entry<Player, Integer> entry : pull.getValue().entrySet()) {
+                result.append("\n    拉莊! ").append(pull.getKey().toStringWithSeat())
+                        .append(" is pulling ").append(entry.getKey().toStringWithSeat())
+                        .append(": ").append(entry.getValue());
+            }
+        }
+        broadcastScores(result);
+    }
+
+    private void broadcastScores(StringBuilder result) {
+        for (Player player : players) {
+            result.append("\n    ").append(player.toStringWithSeat()).append(": ")
+                    .append(player.getScore());
+        }
+        broadcast(result.toString());
+    }
+
+    private void broadcast(String message) {
+        for (Player player : players) {
+            if (player instanceof RemotePlayer remotePlayer) {
+                try {
+                    remotePlayer.printLine(message);
+                } catch (UncheckedIOException ignored) {
+                    // the player has disconnected, which ends the table on their next decision
+                }
+            }
+        }
+    }
+}
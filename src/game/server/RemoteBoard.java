@@ -0,0 +1,207 @@
+package game.server;
+
+import game.board.BoardEvent;
+import game.board.tile.Tile;
+import game.core.Prompter;
+import game.player.data.Seat;
+import game.server.protocol.BoardUpdate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A remote client's copy of the board, kept in step by applying the {@link BoardEvent}s sent by
+ * the server.
+ * <p>
+ * Each event changes a single seat or the discard pile, so applying the events of a turn costs
+ * O(events) whatever the size of the board. Concealed tiles are only counted, except for the
+ * client's own hand, which is sent with every prompt.
+ */
+public class RemoteBoard {
+    private static final Seat[] SEATS = Seat.values();
+
+    private final List<Tile> discards = new ArrayList<>();
+    private final List<List<List<Tile>>> melds = new ArrayList<>();
+    private final List<List<Tile>> flowers = new ArrayList<>();
+    private final int[] darkKongs = new int[SEATS.length];
+    private final int[] concealedCounts = new int[SEATS.length];
+    private Seat seat = Seat.EAST;
+    private long roundStartVersion = 0;
+    private long version = 0;
+    private int remainingTiles = 0;
+
+    /**
+     * Creates an empty board.
+     */
+    public RemoteBoard() {
+        for (int i = 0; i < SEATS.length; i++) {
+            melds.add(new ArrayList<>());
+            flowers.add(new ArrayList<>());
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public List<Tile> getDiscardedTiles() {
+        return Collections.unmodifiableList(discards);
+    }
+
+    public int getRemainingTiles() {
+        return remainingTiles;
+    }
+
+    /**
+     * Retrieves the number of concealed tiles held by a seat.
+     * @param seat the seat.
+     * @return the number of concealed tiles.
+     */
+    public int getConcealedCount(Seat seat) {
+        return concealedCounts[seat.ordinal()];
+    }
+
+    /**
+     * Applies the events of an update, clearing the board first if the update starts a new
+     * round. Events already applied are skipped.
+     * @param update the update sent by the server.
+     */
+    public void apply(BoardUpdate update) {
+        seat = update.getSeat();
+        if (update.getRoundStartVersion() != roundStartVersion) {
+            clear();
+            roundStartVersion = update.getRoundStartVersion();
+            version = Math.max(version, roundStartVersion);
+        }
+        for (BoardEvent event : update.getEvents()) {
+            if (event.getVersion() > version) {
+                apply(event);
+            }
+        }
+    }
+
+    /**
+     * Renders the board from the perspective of the client's player, in the same layout as a
+     * local game.
+     * @param hand the concealed tiles of the client's player.
+     * @return the lines of the board.
+     */
+    public List<String> render(List<Tile> hand) {
+        StringBuilder output = new StringBuilder();
+        output.append("Discards:\n");
+        for (int i = 0; i < discards.size(); i++) {
+            output.append(discards.get(i));
+            if ((i + 1) % 30 == 0) {
+                output.append("\n");
+            }
+        }
+        if (discards.isEmpty()) {
+            output.append("Empty");
+        }
+        output.append("\n").append(Prompter.getLine()).append("\n")
+                .append("Left:   ").append(renderSeat(seatAfter(3), null)).append("\n")
+                .append("Across: ").append(renderSeat(seatAfter(2), null)).append("\n")
+                .append("Right:  ").append(renderSeat(seatAfter(1), null)).append("\n\n")
+                .append("Remaining Tiles: ").append(remainingTiles).append("\n\n")
+                .append(renderSeat(seat, hand));
+        return List.of(output.toString().split("\n", -1));
+    }
+
+    private void apply(BoardEvent event) {
+        int index = event.getSeat().ordinal();
+        List<Tile> tiles = event.getTiles();
+        switch (event.getType()) {
+            case DRAW -> concealedCounts[index]++;
+            case FLOWER -> {
+                concealedCounts[index]--;
+                flowers.get(index).addAll(tiles);
+                Collections.sort(flowers.get(index));
+            }
+            case DISCARD -> {
+                concealedCounts[index]--;
+                discards.addAll(tiles);
+            }
+            case CLAIM -> {
+                if (!discards.isEmpty()) {
+                    discards.removeLast();
+                }
+                concealedCounts[index]++;
+            }
+            case MELD -> applyMeld(index, tiles);
+            case DARK_KONG -> {
+                concealedCounts[index] -= 4;
+                darkKongs[index]++;
+            }
+        }
+        version = event.getVersion();
+        remainingTiles = event.getRemainingTiles();
+    }
+
+    /**
+     * Reveals a group, upgrading a revealed Pong when the group is a Bright Kong of its tile.
+     */
+    private void applyMeld(int index, List<Tile> tiles) {
+        List<List<Tile>> seatMelds = melds.get(index);
+        if (tiles.size() == 4) {
+            for (int i = 0; i < seatMelds.size(); i++) {
+                List<Tile> meld = seatMelds.get(i);
+                if (meld.size() == 3 && meld.getFirst() == tiles.getFirst()
+                        && meld.getLast() == tiles.getFirst()) {
+                    seatMelds.set(i, tiles);
+                    concealedCounts[index]--;
+                    return;
+                }
+            }
+        }
+        seatMelds.add(tiles);
+        concealedCounts[index] -= tiles.size();
+    }
+
+    private String renderSeat(Seat renderedSeat, List<Tile> hand) {
+        int index = renderedSeat.ordinal();
+        StringBuilder revealed = new StringBuilder();
+        for (Tile flower : flowers.get(index)) {
+            revealed.append(flower);
+        }
+        if (!revealed.isEmpty()) {
+            revealed.append(" ");
+        }
+        for (List<Tile> meld : melds.get(index)) {
+            for (Tile tile : meld) {
+                revealed.append(tile);
+            }
+            revealed.append(" ");
+        }
+        for (int i = 0; i < darkKongs[index]; i++) {
+            revealed.append("🀫".repeat(4)).append(" ");
+        }
+        StringBuilder concealed = new StringBuilder();
+        if (hand == null) {
+            concealed.append("🀫".repeat(Math.max(0, concealedCounts[index])));
+        } else {
+            for (Tile tile : hand) {
+                concealed.append(tile);
+            }
+        }
+        if (revealed.isEmpty()) {
+            return concealed.toString();
+        }
+        return revealed.substring(0, revealed.length() - 1) + "    " + concealed;
+    }
+
+    private Seat seatAfter(int offset) {
+        return SEATS[(seat.ordinal() + offset) % SEATS.length];
+    }
+
+    private void clear() {
+        discards.clear();
+        for (int i = 0; i < SEATS.length; i++) {
+            melds.get(i).clear();
+            flowers.get(i).clear();
+            darkKongs[i] = 0;
+            concealedCounts[i] = 0;
+        }
+        remainingTiles = 0;
+    }
+}
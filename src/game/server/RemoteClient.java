@@ -0,0 +1,280 @@
+package game.server;
+
+import game.board.tile.Tile;
+import game.server.protocol.BoardUpdate;
+import game.server.protocol.Frame;
+import game.server.protocol.FrameChannel;
+import game.server.protocol.Prompt;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * A client playing at a {@link GameServer} table over the network.
+ * <p>
+ * The client keeps its own copy of the board, updated from the board events sent by the server,
+ * and passes every prompt to a {@link DecisionHandler}, showing the board first if it changed.
+ */
+public class RemoteClient implements Closeable {
+    private final FrameChannel channel;
+    private final DecisionHandler handler;
+    private final RemoteBoard board = new RemoteBoard();
+    private long shownVersion = -1;
+    private List<Tile> shownHand = List.of();
+
+    /**
+     * Makes the decisions of a remote client.
+     */
+    public interface DecisionHandler {
+        /**
+         * Shows a line of text sent by the server.
+         * @param message the text.
+         */
+        void showMessage(String message);
+
+        /**
+         * Shows the board before a prompt, if it changed since it was last shown.
+         * @param board the lines of the board, with the player's hand last.
+         */
+        void showBoard(List<String> board);
+
+        /**
+         * Makes a yes or no decision.
+         * @param prompt the decision to be made.
+         * @return true iff the prompted action is accepted, false otherwise.
+         */
+        boolean decide(Prompt prompt);
+
+        /**
+         * Chooses a Sheung combo.
+         * @param prompt the decision to be made, with the combos to choose from.
+         * @return the index of the chosen combo.
+         */
+        int pickCombo(Prompt prompt);
+
+        /**
+         * Chooses a tile to discard.
+         * @param prompt the decision to be made, with the tiles in hand.
+         * @return the tile to discard.
+         */
+        Tile pickDiscard(Prompt prompt);
+    }
+
+    /**
+     * Creates a client over an open connection.
+     * @param channel the connection to the server.
+     * @param handler the handler making the client's decisions.
+     */
+    public RemoteClient(FrameChannel channel, DecisionHandler handler) {
+        this.channel = channel;
+        this.handler = handler;
+    }
+
+    /**
+     * Connects to a game server and asks to play under a name.
+     * @param address the address of the server.
+     * @param name the name of the player.
+     * @param handler the handler making the client's decisions.
+     * @return the client.
+     * @throws IOException if the connection fails.
+     */
+    public static RemoteClient connect(InetSocketAddress address, String name,
+                                       DecisionHandler handler) throws IOException {
+        FrameChannel channel = FrameChannel.connect(address);
+        channel.send(Frame.hello(name));
+        return new RemoteClient(channel, handler);
+    }
+
+    /**
+     * Connects to a game server and spectates a table. The board is shown through
+     * {@link DecisionHandler#showMessage(String)} after every change.
+     * @param address the address of the server.
+     * @param tableId the id of the table.
+     * @param handler the handler showing the board.
+     * @return the client.
+     * @throws IOException if the connection fails.
+     */
+    public static RemoteClient watch(InetSocketAddress address, int tableId,
+                                     DecisionHandler handler) throws IOException {
+        FrameChannel channel = FrameChannel.connect(address);
+        channel.send(Frame.watch(tableId));
+        return new RemoteClient(channel, handler);
+    }
+
+    /**
+     * Connects a client that plays automatically to a game server on this machine, for testing.
+     * @param port the port of the server.
+     * @param name the name of the player.
+     * @return the client.
+     * @throws IOException if the connection fails.
+     */
+    public static RemoteClient loopback(int port, String name) throws IOException {
+        return connect(new InetSocketAddress("localhost", port), name, new AutoDecisions());
+    }
+
+    public RemoteBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Plays until the server closes the connection.
+     * @throws IOException if an I/O Exception occurs or the server breaks the protocol.
+     */
+    public void run() throws IOException {
+        while (true) {
+            Frame frame;
+            try {
+                frame = channel.receive();
+            } catch (EOFException e) {
+                return;
+            }
+            switch (frame.getType()) {
+                case MESSAGE -> handler.showMessage(frame.readMessage());
+                case BOARD_EVENTS -> board.apply(BoardUpdate.fromFrame(frame));
+                case PROMPT -> {
+                    Prompt prompt = frame.readPrompt();
+                    showBoard(prompt.getHand());
+                    answer(prompt);
+                }
+                default -> throw new IOException("Unexpected " + frame.getType()
+                        + " message from server!");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void showBoard(List<Tile> hand) {
+        if (board.getVersion() != shownVersion || !hand.equals(shownHand)) {
+            handler.showBoard(board.render(hand));
+            shownVersion = board.getVersion();
+            shownHand = hand;
+        }
+    }
+
+    private void answer(Prompt prompt) throws IOException {
+        switch (prompt.getType()) {
+            case SHEUNG_COMBO -> channel.send(Frame.combo(prompt.getId(),
+                    handler.pickCombo(prompt)));
+            case DISCARD, DISCARD_NO_DRAW -> channel.send(Frame.discard(prompt.getId(),
+                    handler.pickDiscard(prompt)));
+            default -> channel.send(Frame.decision(prompt.getId(), handler.decide(prompt)));
+        }
+    }
+
+    /**
+     * Plays automatically, accepting every win, declining every other claim and discarding the
+     * last tile in hand.
+     */
+    public static class AutoDecisions implements DecisionHandler {
+        @Override
+        public void showMessage(String message) {}
+
+        @Override
+        public void showBoard(List<String> board) {}
+
+        @Override
+        public boolean decide(Prompt prompt) {
+            return prompt.getType().name().startsWith("WIN");
+        }
+
+        @Override
+        public int pickCombo(Prompt prompt) {
+            return 0;
+        }
+
+        @Override
+        public Tile pickDiscard(Prompt prompt) {
+            return prompt.getHand().getLast();
+        }
+    }
+
+    /**
+     * Plays through the console, showing the board and reading every decision from the user.
+     */
+    public static class ConsoleDecisions implements DecisionHandler {
+        private final Scanner scanner = new Scanner(System.in);
+
+        @Override
+        public void showMessage(String message) {
+            System.out.println(message);
+        }
+
+        @Override
+        public void showBoard(List<String> board) {
+            System.out.println();
+            System.out.println(String.join("\n", board));
+            System.out.println();
+        }
+
+        @Override
+        public boolean decide(Prompt prompt) {
+            String tile = prompt.getTile() == null ? "" : " " + prompt.getTile();
+            System.out.println(prompt.getType() + tile + "? (Y/N) ");
+            String response = scanner.nextLine().trim();
+            return response.equalsIgnoreCase("Y") || response.equalsIgnoreCase("Yes");
+        }
+
+        @Override
+        public int pickCombo(Prompt prompt) {
+            for (int i = 1; i <= prompt.getCombos().size(); i++) {
+                StringBuilder sheung = new StringBuilder();
+                for (Tile tile : prompt.getCombos().get(i - 1)) {
+                    sheung.append(tile);
+                }
+                System.out.println("Combo " + i + ": " + sheung);
+            }
+            while (true) {
+                System.out.println("Choose a combo: ");
+                try {
+                    int combo = Integer.parseInt(scanner.nextLine().trim());
+                    if (combo >= 1 && combo <= prompt.getCombos().size()) {
+                        return combo - 1;
+                    }
+                } catch (NumberFormatException ignored) {
+                    // prompt again below
+                }
+                System.out.println("Invalid combo!");
+            }
+        }
+
+        @Override
+        public Tile pickDiscard(Prompt prompt) {
+            while (true) {
+                System.out.println("Discard a tile: ");
+                String response = scanner.nextLine().trim();
+                for (Tile tile : prompt.getHand()) {
+                    for (String name : tile.getTileNames()) {
+                        if (name.equalsIgnoreCase(response)) {
+                            return tile;
+                        }
+                    }
+                }
+                System.out.println("Not a valid tile to discard!");
+            }
+        }
+    }
+
+    /**
+     * Connects to a game server and plays through the console.
+     * @param args the name of the player, the host and the port of the server, the last two
+     *             optional.
+     * @throws IOException if the connection fails.
+     */
+    public static void main(String[] args) throws IOException {
+        String name = args[0];
+        String host = args.length > 1 ? args[1] : "localhost";
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : GameServer.DEFAULT_PORT;
+        try (RemoteClient client = connect(new InetSocketAddress(host, port), name,
+                new ConsoleDecisions())) {
+            client.run();
+        }
+    }
+}
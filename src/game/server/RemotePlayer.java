@@ -0,0 +1,222 @@
+package game.server;
+
+import game.board.BoardEvent;
+import game.board.BoardView;
+import game.board.tile.Tile;
+import game.player.Player;
+import game.server.protocol.BoardUpdate;
+import game.server.protocol.Frame;
+import game.server.protocol.FrameChannel;
+import game.server.protocol.MessageType;
+import game.server.protocol.Prompt;
+import game.server.protocol.PromptType;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A real player connected from a {@link RemoteClient}, whose decisions are made over a
+ * {@link FrameChannel}.
+ * <p>
+ * Before each decision, the player is sent only the board events since the last decision, which
+ * their client applies to its own copy of the board, followed by a prompt with the tiles needed
+ * to answer it. The board is never rendered on the server. Invalid answers are
+ * rejected and the player is prompted again. If the connection fails, an
+ * {@link UncheckedIOException} is thrown out of the decision so that the table ends.
+ * <p>
+ * A claim decision interrupted by the claim timeout leaves its answer to arrive later. Answers
+ * carry the id of their prompt, so such a late answer is discarded by the next decision instead
+ * of being taken as its answer, and decisions are made one at a time so that the interrupted
+ * decision has let go of the connection before the next one starts.
+ */
+public class RemotePlayer extends Player {
+    private final FrameChannel channel;
+    private final ReentrantLock decisionLock = new ReentrantLock();
+    // the last board version sent to the client
+    private long version = 0;
+    private int nextPromptId = 0;
+
+    /**
+     * Creates a remote player.
+     * @param name the name of the player.
+     * @param score the starting score.
+     * @param channel the connection to the player's client.
+     */
+    public RemotePlayer(String name, int score, FrameChannel channel) {
+        super(name, score);
+        this.channel = channel;
+    }
+
+    @Override
+    public boolean decideWin(BoardView boardState) {
+        return decide(PromptType.WIN, null, boardState);
+    }
+
+    @Override
+    public boolean decideWin(Tile tile, BoardView boardState) {
+        return decide(PromptType.WIN_ON_TILE, tile, boardState);
+    }
+
+    @Override
+    public boolean decideSheung(Tile tile, BoardView boardState) {
+        return decide(PromptType.SHEUNG, tile, boardState);
+    }
+
+    @Override
+    public boolean decidePong(Tile tile, BoardView boardState) {
+        return decide(PromptType.PONG, tile, boardState);
+    }
+
+    @Override
+    public boolean decideDarkKong(Tile tile, BoardView boardState) {
+        return decide(PromptType.DARK_KONG, tile, boardState);
+    }
+
+    @Override
+    public boolean decideBrightKong(Tile tile, BoardView boardState) {
+        return decide(PromptType.BRIGHT_KONG, tile, boardState);
+    }
+
+    @Override
+    public boolean decideBrightKongNoDraw(Tile tile, BoardView boardState) {
+        return decide(PromptType.BRIGHT_KONG_NO_DRAW, tile, boardState);
+    }
+
+    @Override
+    public List<Tile> pickSheungCombo(List<List<Tile>> validSheungs) {
+        try {
+            lockDecision();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Prompt prompt = new Prompt(nextPromptId++, PromptType.SHEUNG_COMBO, null, getHand(),
+                    validSheungs);
+            while (true) {
+                Frame answer = ask(prompt, MessageType.COMBO);
+                int combo = answer.readCombo();
+                if (combo >= 0 && combo < validSheungs.size()) {
+                    return validSheungs.get(combo);
+                }
+                channel.send(Frame.message("Invalid combo!"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            decisionLock.unlock();
+        }
+    }
+
+    @Override
+    public Tile pickDiscardTile(BoardView boardState, List<Tile> discardedTiles) {
+        return pickDiscard(PromptType.DISCARD, boardState);
+    }
+
+    @Override
+    public Tile pickDiscardTileNoDraw(BoardView boardState, List<Tile> discardedTiles) {
+        return pickDiscard(PromptType.DISCARD_NO_DRAW, boardState);
+    }
+
+    /**
+     * Sends a line of text to the player.
+     * @param message the text.
+     * @throws UncheckedIOException if the connection fails.
+     */
+    public void printLine(String message) {
+        try {
+            channel.send(Frame.message(message));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private boolean decide(PromptType type, Tile tile, BoardView boardState) {
+        try {
+            lockDecision();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            sendBoard(boardState);
+            Prompt prompt = new Prompt(nextPromptId++, type, tile, getHand(), List.of());
+            return ask(prompt, MessageType.DECISION).readDecision();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            decisionLock.unlock();
+        }
+    }
+
+    private Tile pickDiscard(PromptType type, BoardView boardState) {
+        try {
+            lockDecision();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            sendBoard(boardState);
+            Prompt prompt = new Prompt(nextPromptId++, type, null, getHand(), List.of());
+            while (true) {
+                Tile tile = ask(prompt, MessageType.DISCARD).readDiscard();
+                if (getHandManager().getHand().getTiles().contains(tile)) {
+                    return tile;
+                }
+                channel.send(Frame.message("Not a valid tile to discard!"));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            decisionLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the decision before this one to let go of the connection.
+     */
+    private void lockDecision() throws IOException {
+        try {
+            decisionLock.lockInterruptibly();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to decide!");
+        }
+    }
+
+    /**
+     * Sends a prompt until it is answered with a frame of the expected type, discarding the late
+     * answers to earlier prompts.
+     */
+    private Frame ask(Prompt prompt, MessageType answerType) throws IOException {
+        channel.send(Frame.prompt(prompt));
+        while (true) {
+            Frame answer = channel.receive();
+            if (answer.isAnswer() && answer.readPromptId() != prompt.getId()) {
+                continue;
+            }
+            if (answer.getType() == answerType) {
+                return answer;
+            }
+            channel.send(Frame.message("Invalid response!"));
+            channel.send(Frame.prompt(prompt));
+        }
+    }
+
+    /**
+     * Sends the board events the client has not seen yet, if there are any.
+     */
+    private void sendBoard(BoardView boardState) throws IOException {
+        List<BoardEvent> events = boardState.getEventsSince(version);
+        if (!events.isEmpty()) {
+            channel.send(new BoardUpdate(getSeat(), boardState.getRoundStartVersion(), events)
+                    .toFrame());
+        }
+        version = boardState.getVersion();
+    }
+
+    private List<Tile> getHand() {
+        return getHandManager().getHand().getTiles();
+    }
+}
@@ -0,0 +1,186 @@
+package game.server;
+
+import game.board.BoardSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Broadcasts the board snapshots of a table to its spectators.
+ * <p>
+ * Publishing only swaps in the latest snapshot and wakes a dispatcher thread, so the game thread
+ * never waits on a spectator. The dispatcher offers each snapshot to every spectator, and each
+ * spectator is sent snapshots on its own virtual thread. A spectator that is still sending when
+ * newer snapshots arrive only gets the newest one, and a spectator that falls too far behind or
+ * fails to send is dropped.
+ */
+public final class SpectatorChannel implements Closeable {
+    /**
+     * Receives the snapshots sent to a spectator.
+     */
+    public interface Sink {
+        /**
+         * Sends a snapshot to the spectator.
+         * @param snapshot the snapshot.
+         * @throws IOException if the snapshot cannot be sent.
+         */
+        void send(BoardSnapshot snapshot) throws IOException;
+
+        /**
+         * Releases the spectator once it is dropped or the channel is closed.
+         */
+        default void close() {}
+    }
+
+    private final int maxSkippedSnapshots;
+    private final AtomicReference<BoardSnapshot> latest = new AtomicReference<>();
+    private final Set<Spectator> spectators = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger droppedCount = new AtomicInteger();
+    private final Thread dispatcher;
+    private volatile boolean closed = false;
+
+    /**
+     * Creates a spectator channel.
+     * @param maxSkippedSnapshots the number of snapshots in a row a spectator may miss while
+     *                            still sending before it is dropped.
+     */
+    public SpectatorChannel(int maxSkippedSnapshots) {
+        this.maxSkippedSnapshots = maxSkippedSnapshots;
+        dispatcher = Thread.ofVirtual().name("spectator-dispatcher").start(this::dispatch);
+    }
+
+    /**
+     * Publishes a snapshot to every spectator without blocking.
+     * @param snapshot the snapshot.
+     */
+    public void publish(BoardSnapshot snapshot) {
+        latest.set(snapshot);
+        LockSupport.unpark(dispatcher);
+    }
+
+    /**
+     * Adds a spectator, who is first sent the latest snapshot if there is one.
+     * @param sink the destination of the snapshots.
+     */
+    public void subscribe(Sink sink) {
+        Spectator spectator = new Spectator(sink);
+        spectators.add(spectator);
+        BoardSnapshot snapshot = latest.get();
+        if (snapshot != null) {
+            spectator.offer(snapshot);
+        }
+        if (closed) {
+            drop(spectator);
+        }
+    }
+
+    public int getSpectatorCount() {
+        return spectators.size();
+    }
+
+    /**
+     * Retrieves the number of spectators dropped for falling behind or failing to send.
+     * @return the number of dropped spectators.
+     */
+    public int getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Stops publishing and releases every spectator.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        LockSupport.unpark(dispatcher);
+        for (Spectator spectator : spectators) {
+            drop(spectator);
+        }
+    }
+
+    private void dispatch() {
+        BoardSnapshot dispatched = null;
+        while (!closed) {
+            BoardSnapshot snapshot = latest.get();
+            if (snapshot == dispatched) {
+                LockSupport.park(this);
+                continue;
+            }
+            for (Spectator spectator : spectators) {
+                spectator.offer(snapshot);
+            }
+            dispatched = snapshot;
+        }
+    }
+
+    private void drop(Spectator spectator) {
+        if (spectators.remove(spectator)) {
+            spectator.stop();
+        }
+    }
+
+    /**
+     * A spectator with its own sending thread and a single slot for its next snapshot.
+     */
+    private class Spectator {
+        private final Sink sink;
+        private final AtomicReference<BoardSnapshot> pending = new AtomicReference<>();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private volatile boolean active = true;
+        private final Thread sender;
+
+        /**
+         * Creates a spectator and starts its sending thread, so that it can be offered snapshots
+         * or stopped as soon as it is added to the channel.
+         */
+        private Spectator(Sink sink) {
+            this.sink = sink;
+            this.sender = Thread.ofVirtual().start(this::run);
+        }
+
+        /**
+         * Replaces the next snapshot to send, dropping the spectator if it has missed too many.
+         */
+        private void offer(BoardSnapshot snapshot) {
+            if (pending.getAndSet(snapshot) != null
+                    && skipped.incrementAndGet() > maxSkippedSnapshots) {
+                droppedCount.incrementAndGet();
+                drop(this);
+                return;
+            }
+            LockSupport.unpark(sender);
+        }
+
+        /**
+         * Stops the sending thread, interrupting a send that is stuck on a slow spectator.
+         */
+        private void stop() {
+            active = false;
+            sender.interrupt();
+        }
+
+        private void run() {
+            try {
+                while (active) {
+                    BoardSnapshot snapshot = pending.getAndSet(null);
+                    if (snapshot == null) {
+                        LockSupport.park(this);
+                        continue;
+                    }
+                    skipped.set(0);
+                    sink.send(snapshot);
+                }
+            } catch (IOException e) {
+                droppedCount.incrementAndGet();
+                drop(this);
+            } finally {
+                sink.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package game.server.protocol;
+
+import game.board.BoardEvent;
+import game.board.tile.Tile;
+import game.player.data.Seat;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The board events a client has not seen yet, sent before the client is prompted.
+ * <p>
+ * The events of a round have consecutive versions, so only the version of the first event is
+ * sent. The update also carries the version of the board at the start of the round, which tells
+ * the client when to clear its board, and the seat of the client's player, so the board can be
+ * shown from their perspective.
+ */
+public class BoardUpdate {
+    private static final BoardEvent.Type[] TYPES = BoardEvent.Type.values();
+    private static final Seat[] SEATS = Seat.values();
+
+    private final Seat seat;
+    private final long roundStartVersion;
+    private final List<BoardEvent> events;
+
+    /**
+     * Creates a board update.
+     * @param seat the seat of the player the update is sent to.
+     * @param roundStartVersion the version of the board at the start of the current round.
+     * @param events the events not yet seen by the client, oldest first.
+     * @requires the events are of the current round and have consecutive versions.
+     */
+    public BoardUpdate(Seat seat, long roundStartVersion, List<BoardEvent> events) {
+        this.seat = seat;
+        this.roundStartVersion = roundStartVersion;
+        this.events = events;
+    }
+
+    public Seat getSeat() {
+        return seat;
+    }
+
+    public long getRoundStartVersion() {
+        return roundStartVersion;
+    }
+
+    public List<BoardEvent> getEvents() {
+        return events;
+    }
+
+    /**
+     * Encodes the update as a {@link MessageType#BOARD_EVENTS} frame.
+     * @return the frame.
+     */
+    public Frame toFrame() {
+        ByteBuffer buffer = ByteBuffer.allocate(Frame.MAX_PAYLOAD_SIZE);
+        buffer.put((byte) seat.ordinal()).putLong(roundStartVersion)
+                .putLong(events.isEmpty() ? 0 : events.getFirst().getVersion())
+                .putShort((short) events.size());
+        for (BoardEvent event : events) {
+            buffer.put((byte) event.getType().ordinal()).put((byte) event.getSeat().ordinal());
+            buffer.put((byte) event.getTiles().size());
+            for (Tile tile : event.getTiles()) {
+                buffer.put((byte) tile.ordinal());
+            }
+            buffer.putShort((short) event.getRemainingTiles());
+        }
+        return new Frame(MessageType.BOARD_EVENTS, Frame.toArray(buffer));
+    }
+
+    /**
+     * Decodes an update from a {@link MessageType#BOARD_EVENTS} frame.
+     * @param frame the frame.
+     * @return the update.
+     * @throws IOException if the frame is not of correct format.
+     */
+    public static BoardUpdate fromFrame(Frame frame) throws IOException {
+        frame.checkType(MessageType.BOARD_EVENTS);
+        ByteBuffer buffer = frame.getPayload();
+        try {
+            Seat seat = toSeat(buffer.get());
+            long roundStartVersion = buffer.getLong();
+            long version = buffer.getLong();
+            int eventCount = Short.toUnsignedInt(buffer.getShort());
+            List<BoardEvent> events = new ArrayList<>(eventCount);
+            for (int i = 0; i < eventCount; i++) {
+                int typeIndex = buffer.get();
+                if (typeIndex < 0 || typeIndex >= TYPES.length) {
+                    throw new IOException("Unknown board event type " + typeIndex + "!");
+                }
+                Seat eventSeat = toSeat(buffer.get());
+                int tileCount = Byte.toUnsignedInt(buffer.get());
+                List<Tile> tiles = new ArrayList<>(tileCount);
+                for (int j = 0; j < tileCount; j++) {
+                    int ordinal = buffer.get();
+                    if (ordinal < 0 || ordinal >= Tile.values().length) {
+                        throw new IOException("Unknown tile " + ordinal + "!");
+                    }
+                    tiles.add(Tile.values()[ordinal]);
+                }
+                int remainingTiles = Short.toUnsignedInt(buffer.getShort());
+                events.add(new BoardEvent(version + i, TYPES[typeIndex], eventSeat, tiles,
+                        remainingTiles));
+            }
+            return new BoardUpdate(seat, roundStartVersion, events);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Frame is not of correct format!");
+        }
+    }
+
+    private static Seat toSeat(int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= SEATS.length) {
+            throw new IOException("Unknown seat " + ordinal + "!");
+        }
+        return SEATS[ordinal];
+    }
+}
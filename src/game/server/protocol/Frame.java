@@ -0,0 +1,329 @@
+package game.server.protocol;
+
+import game.board.tile.Tile;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message sent between the game server and a remote client.
+ * <p>
+ * On the wire, a frame is the length of its payload as an int, the code of its
+ * {@link MessageType} and then the payload. Tiles are sent as the byte of their ordinal, lists
+ * as a byte count followed by their elements, and strings as an unsigned short byte count
+ * followed by their UTF-8 bytes. Prompts start with their id as an int, and every answer to a
+ * prompt is that id followed by a single byte.
+ */
+public class Frame {
+    /**
+     * The largest payload a frame may have.
+     */
+    public static final int MAX_PAYLOAD_SIZE = 1 << 16;
+
+    private static final int MAX_STRING_SIZE = 0xFFFF;
+    private static final byte NO_TILE = -1;
+    private static final int ANSWER_SIZE = Integer.BYTES + 1;
+
+    private final MessageType type;
+    private final byte[] payload;
+
+    /**
+     * Creates a frame.
+     * @param type the type of the message.
+     * @param payload the encoded contents of the message.
+     * @throws IllegalArgumentException if the payload is larger than the maximum payload size.
+     */
+    public Frame(MessageType type, byte[] payload) {
+        if (payload.length > MAX_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("Frame payload is too large!");
+        }
+        this.type = type;
+        this.payload = payload;
+    }
+
+    public MessageType getType() {
+        return type;
+    }
+
+    /**
+     * Retrieves the payload of the frame for reading.
+     * @return a read-only buffer over the payload.
+     */
+    public ByteBuffer getPayload() {
+        return ByteBuffer.wrap(payload).asReadOnlyBuffer();
+    }
+
+    public int getPayloadSize() {
+        return payload.length;
+    }
+
+    /**
+     * Creates a frame asking to play under a name.
+     * @param name the name of the player.
+     * @return the frame.
+     */
+    public static Frame hello(String name) {
+        return new Frame(MessageType.HELLO, encodeString(name));
+    }
+
+    /**
+     * Creates a frame asking to spectate a table.
+     * @param tableId the id of the table.
+     * @return the frame.
+     */
+    public static Frame watch(int tableId) {
+        return new Frame(MessageType.WATCH, ByteBuffer.allocate(Integer.BYTES).putInt(tableId)
+                .array());
+    }
+
+    /**
+     * Creates a frame answering a yes or no prompt.
+     * @param promptId the id of the prompt answered.
+     * @param accepted whether the prompted action is accepted.
+     * @return the frame.
+     */
+    public static Frame decision(int promptId, boolean accepted) {
+        return answer(MessageType.DECISION, promptId, accepted ? 1 : 0);
+    }
+
+    /**
+     * Creates a frame choosing a Sheung combo.
+     * @param promptId the id of the prompt answered.
+     * @param index the index of the chosen combo.
+     * @return the frame.
+     */
+    public static Frame combo(int promptId, int index) {
+        return answer(MessageType.COMBO, promptId, index);
+    }
+
+    /**
+     * Creates a frame choosing a tile to discard.
+     * @param promptId the id of the prompt answered.
+     * @param tile the tile to discard.
+     * @return the frame.
+     */
+    public static Frame discard(int promptId, Tile tile) {
+        return answer(MessageType.DISCARD, promptId, tile.ordinal());
+    }
+
+    /**
+     * Creates a frame with a line of text to show to the player.
+     * @param message the text.
+     * @return the frame.
+     */
+    public static Frame message(String message) {
+        return new Frame(MessageType.MESSAGE, encodeString(message));
+    }
+
+    /**
+     * Creates a frame prompting the player for a decision.
+     * @param prompt the decision to be made.
+     * @return the frame.
+     */
+    public static Frame prompt(Prompt prompt) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_PAYLOAD_SIZE);
+        buffer.putInt(prompt.getId());
+        buffer.put((byte) prompt.getType().ordinal());
+        buffer.put(prompt.getTile() == null ? NO_TILE : (byte) prompt.getTile().ordinal());
+        putTiles(buffer, prompt.getHand());
+        buffer.put((byte) prompt.getCombos().size());
+        for (List<Tile> combo : prompt.getCombos()) {
+            putTiles(buffer, combo);
+        }
+        return new Frame(MessageType.PROMPT, toArray(buffer));
+    }
+
+    /**
+     * Reads the name of a {@link MessageType#HELLO} frame.
+     * @return the name.
+     * @throws IOException if the frame is not of correct format.
+     */
+    public String readName() throws IOException {
+        return readString(MessageType.HELLO);
+    }
+
+    /**
+     * Reads the table id of a {@link MessageType#WATCH} frame.
+     * @return the id of the table to spectate.
+     * @throws IOException if the frame is not of correct format.
+     */
+    public int readWatch() throws IOException {
+        checkType(MessageType.WATCH);
+        if (payload.length != Integer.BYTES) {
+            throw new IOException("Frame is not of correct format!");
+        }
+        return getPayload().getInt();
+    }
+
+    /**
+     * Reads the text of a {@link MessageType#MESSAGE} frame.
+     * @return the text.
+     * @throws IOException if the frame is not of correct format.
+     */
+    public String readMessage() throws IOException {
+        return readString(MessageType.MESSAGE);
+    }
+
+    /**
+     * Checks whether the frame answers a prompt.
+     * @return true iff the frame is a {@link MessageType#DECISION}, {@link MessageType#COMBO} or
+     * {@link MessageType#DISCARD} frame.
+     */
+    public boolean isAnswer() {
+        return type == MessageType.DECISION || type == MessageType.COMBO
+                || type == MessageType.DISCARD;
+    }
+
+    /**
+     * Reads the id of the prompt answered by a {@link MessageType#DECISION},
+     * {@link MessageType#COMBO} or {@link MessageType#DISCARD} frame.
+     * @return the id of the prompt.
+     * @throws IOException if the frame is not an answer or is not of correct format.
+     */
+    public int readPromptId() throws IOException {
+        if (!isAnswer()) {
+            throw new IOException("Expected an answer but received " + type + "!");
+        }
+        if (payload.length != ANSWER_SIZE) {
+            throw new IOException("Frame is not of correct format!");
+        }
+        return getPayload().getInt();
+    }
+
+    /**
+     * Reads the answer of a {@link MessageType#DECISION} frame.
+     * @return true iff the prompted action is accepted, false otherwise.
+     * @throws IOException if the frame is not of correct format.
+     */
+    public boolean readDecision() throws IOException {
+        return readByte(MessageType.DECISION) != 0;
+    }
+
+    /**
+     * Reads the combo index of a {@link MessageType#COMBO} frame.
+     * @return the index of the chosen combo.
+     * @throws IOException if the frame is not of correct format.
+     */
+    public int readCombo() throws IOException {
+        return readByte(MessageType.COMBO);
+    }
+
+    /**
+     * Reads the tile of a {@link MessageType#DISCARD} frame.
+     * @return the tile to discard.
+     * @throws IOException if the frame is not of correct format.
+     */
+    public Tile readDiscard() throws IOException {
+        return toTile(readByte(MessageType.DISCARD));
+    }
+
+    /**
+     * Reads the decision of a {@link MessageType#PROMPT} frame.
+     * @return the decision to be made.
+     * @throws IOException if the frame is not of correct format.
+     */
+    public Prompt readPrompt() throws IOException {
+        checkType(MessageType.PROMPT);
+        ByteBuffer buffer = getPayload();
+        try {
+            int id = buffer.getInt();
+            int typeIndex = buffer.get();
+            if (typeIndex < 0 || typeIndex >= PromptType.values().length) {
+                throw new IOException("Unknown prompt type " + typeIndex + "!");
+            }
+            byte tileIndex = buffer.get();
+            Tile tile = tileIndex == NO_TILE ? null : toTile(tileIndex);
+            List<Tile> hand = getTiles(buffer);
+            int comboCount = Byte.toUnsignedInt(buffer.get());
+            List<List<Tile>> combos = new ArrayList<>();
+            for (int i = 0; i < comboCount; i++) {
+                combos.add(getTiles(buffer));
+            }
+            return new Prompt(id, PromptType.values()[typeIndex], tile, hand, combos);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Frame is not of correct format!");
+        }
+    }
+
+    static byte[] encodeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_STRING_SIZE) {
+            throw new IllegalArgumentException("String is too long to be sent!");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Short.BYTES + bytes.length);
+        buffer.putShort((short) bytes.length).put(bytes);
+        return buffer.array();
+    }
+
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static byte[] toArray(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    void checkType(MessageType expected) throws IOException {
+        if (type != expected) {
+            throw new IOException("Expected a " + expected + " message but received " + type
+                    + "!");
+        }
+    }
+
+    private String readString(MessageType expected) throws IOException {
+        checkType(expected);
+        try {
+            return getString(getPayload());
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Frame is not of correct format!");
+        }
+    }
+
+    private int readByte(MessageType expected) throws IOException {
+        checkType(expected);
+        if (payload.length != ANSWER_SIZE) {
+            throw new IOException("Frame is not of correct format!");
+        }
+        return payload[Integer.BYTES];
+    }
+
+    private static Frame answer(MessageType type, int promptId, int value) {
+        return new Frame(type, ByteBuffer.allocate(ANSWER_SIZE).putInt(promptId)
+                .put((byte) value).array());
+    }
+
+    private static void putTiles(ByteBuffer buffer, List<Tile> tiles) {
+        buffer.put((byte) tiles.size());
+        for (Tile tile : tiles) {
+            buffer.put((byte) tile.ordinal());
+        }
+    }
+
+    private static List<Tile> getTiles(ByteBuffer buffer) throws IOException {
+        int count = Byte.toUnsignedInt(buffer.get());
+        List<Tile> tiles = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tiles.add(toTile(buffer.get()));
+        }
+        return tiles;
+    }
+
+    private static Tile toTile(int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= Tile.values().length) {
+            throw new IOException("Unknown tile " + ordinal + "!");
+        }
+        return Tile.values()[ordinal];
+    }
+
+    public String toString() {
+        return type + "|" + payload.length;
+    }
+}
@@ -0,0 +1,178 @@
+package game.server.protocol;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A connection sending and receiving {@link Frame}s over an asynchronous socket channel.
+ * <p>
+ * Each call waits for its I/O to complete, which only parks the calling thread when it is a
+ * virtual thread. Frames may be sent and received from several threads at once. A send finishes
+ * writing its frame even if the sending thread is interrupted, so frames are never left half
+ * written. A receive interrupted while waiting leaves its read pending, and the next receive
+ * carries on with it, so the frame being read is neither lost nor split.
+ */
+public class FrameChannel implements Closeable {
+    private static final int HEADER_SIZE = Integer.BYTES + 1;
+
+    private final AsynchronousSocketChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock readLock = new ReentrantLock();
+    // the payload being read once its header is read, and the read interrupted while waiting
+    private ByteBuffer payload = null;
+    private Future<Integer> pendingRead = null;
+
+    /**
+     * Creates a frame channel over a connected socket channel.
+     * @param channel the socket channel.
+     */
+    public FrameChannel(AsynchronousSocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Connects to a game server.
+     * @param address the address of the server.
+     * @return the frame channel.
+     * @throws IOException if the connection fails.
+     */
+    public static FrameChannel connect(InetSocketAddress address) throws IOException {
+        AsynchronousSocketChannel channel = AsynchronousSocketChannel.open();
+        try {
+            await(channel.connect(address));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return new FrameChannel(channel);
+    }
+
+    /**
+     * Sends a frame.
+     * @param frame the frame.
+     * @throws IOException if an I/O Exception occurs.
+     */
+    public void send(Frame frame) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + frame.getPayloadSize());
+        buffer.putInt(frame.getPayloadSize()).put(frame.getType().getCode())
+                .put(frame.getPayload()).flip();
+        writeLock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                awaitUninterruptibly(channel.write(buffer));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Waits for the next frame.
+     * @return the frame.
+     * @throws EOFException if the connection was closed.
+     * @throws InterruptedIOException if interrupted while waiting, in which case the
+     * frame is returned by the next receive.
+     * @throws IOException if an I/O Exception occurs or the frame is not of correct format.
+     */
+    public Frame receive() throws IOException {
+        readLock.lock();
+        try {
+            if (payload == null) {
+                readFully(header);
+                header.clear();
+                int payloadSize = header.getInt(0);
+                if (payloadSize < 0 || payloadSize > Frame.MAX_PAYLOAD_SIZE) {
+                    throw new IOException("Frame payload is too large!");
+                }
+                MessageType.fromCode(header.get(Integer.BYTES));
+                payload = ByteBuffer.allocate(payloadSize);
+            }
+            readFully(payload);
+            Frame frame = new Frame(MessageType.fromCode(header.get(Integer.BYTES)),
+                    payload.array());
+            payload = null;
+            return frame;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads until the buffer is full, keeping the read pending if interrupted while waiting.
+     */
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (pendingRead == null) {
+                pendingRead = channel.read(buffer);
+            }
+            int count;
+            try {
+                count = await(pendingRead);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                pendingRead = null;
+                throw e;
+            }
+            pendingRead = null;
+            if (count < 0) {
+                throw new EOFException("Connection closed!");
+            }
+        }
+    }
+
+    private static <T> void awaitUninterruptibly(Future<T> future) throws IOException {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    future.get();
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException cause) {
+                        throw cause;
+                    }
+                    throw new IOException(e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static <T> T await(Future<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the connection!");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+}
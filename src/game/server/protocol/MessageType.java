@@ -0,0 +1,67 @@
+package game.server.protocol;
+
+import java.io.IOException;
+
+/**
+ * The types of message sent between the game server and a remote client, each identified by a
+ * single byte on the wire.
+ */
+public enum MessageType {
+    /**
+     * Client to server: the name the client wants to play as.
+     */
+    HELLO(1),
+    /**
+     * Client to server: whether the prompted action is accepted.
+     */
+    DECISION(2),
+    /**
+     * Client to server: the index of the chosen Sheung combo.
+     */
+    COMBO(3),
+    /**
+     * Client to server: the tile to discard.
+     */
+    DISCARD(4),
+    /**
+     * Client to server: the id of the table to spectate, sent instead of {@link #HELLO}.
+     */
+    WATCH(5),
+    /**
+     * Server to client: a line of text to show to the player.
+     */
+    MESSAGE(16),
+    /**
+     * Server to client: the board events since the last events sent, as a {@link BoardUpdate}.
+     */
+    BOARD_EVENTS(17),
+    /**
+     * Server to client: a decision the player has to make.
+     */
+    PROMPT(18);
+
+    private final byte code;
+
+    MessageType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * Finds the message type with a given code.
+     * @param code the code of the message type.
+     * @return the message type.
+     * @throws IOException if no message type has the code.
+     */
+    public static MessageType fromCode(byte code) throws IOException {
+        for (MessageType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IOException("Unknown message type " + code + "!");
+    }
+}
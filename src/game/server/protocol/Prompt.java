@@ -0,0 +1,60 @@
+package game.server.protocol;
+
+import game.board.tile.Tile;
+
+import java.util.List;
+
+/**
+ * A decision a remote client is prompted for, along with the tiles needed to make it.
+ * <p>
+ * Every prompt has an id, which the client sends back with its answer, so that an answer arriving
+ * after the server stopped waiting for it is never taken as the answer to a later prompt.
+ */
+public class Prompt {
+    private final int id;
+    private final PromptType type;
+    private final Tile tile;
+    private final List<Tile> hand;
+    private final List<List<Tile>> combos;
+
+    /**
+     * Creates a prompt.
+     * @param id the id of the prompt.
+     * @param type the type of decision.
+     * @param tile the tile the decision is about, or null if there is none.
+     * @param hand the concealed tiles of the player.
+     * @param combos the Sheung combos to choose from, empty unless choosing a combo.
+     */
+    public Prompt(int id, PromptType type, Tile tile, List<Tile> hand,
+                  List<List<Tile>> combos) {
+        this.id = id;
+        this.type = type;
+        this.tile = tile;
+        this.hand = List.copyOf(hand);
+        this.combos = List.copyOf(combos);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public PromptType getType() {
+        return type;
+    }
+
+    public Tile getTile() {
+        return tile;
+    }
+
+    public List<Tile> getHand() {
+        return hand;
+    }
+
+    public List<List<Tile>> getCombos() {
+        return combos;
+    }
+
+    public String toString() {
+        return id + "|" + type + "|" + tile + "|" + hand + "|" + combos;
+    }
+}
@@ -0,0 +1,26 @@
+package game.server.protocol;
+
+/**
+ * The decisions a remote client can be prompted for, matching the decisions of a
+ * {@link game.player.Player}.
+ */
+public enum PromptType {
+    WIN,
+    WIN_ON_TILE,
+    SHEUNG,
+    PONG,
+    DARK_KONG,
+    BRIGHT_KONG,
+    BRIGHT_KONG_NO_DRAW,
+    SHEUNG_COMBO,
+    DISCARD,
+    DISCARD_NO_DRAW;
+
+    /**
+     * Checks whether the prompt is answered with a {@link MessageType#DECISION}.
+     * @return true iff the prompt is a yes or no decision, false otherwise.
+     */
+    public boolean isDecision() {
+        return this != SHEUNG_COMBO && this != DISCARD && this != DISCARD_NO_DRAW;
+    }
+}